@@ -2,8 +2,18 @@ package com.superduckinvaders.game;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.superduckinvaders.game.assets.Assets;
 import com.superduckinvaders.game.entity.Player;
+import com.superduckinvaders.game.input.InputRecorder;
+import com.superduckinvaders.game.input.LiveInputSource;
+import com.superduckinvaders.game.input.Replay;
+import com.superduckinvaders.game.input.ReplayInputSource;
+import com.superduckinvaders.game.map.ChunkedMap;
+import com.superduckinvaders.game.map.LevelGenerator;
 
 /**
  * The Website for the documentation: http://www.teampochard.co.uk/game-releases/
@@ -58,6 +68,125 @@ public class DuckGame extends Game {
      */
     public int level = 1;
 
+    /**
+     * The directory that played rounds are recorded to, or null to not record.
+     */
+    private FileHandle replayDirectory = null;
+
+    /**
+     * A replay to play instead of showing the opening crawl, or null to start normally.
+     */
+    private FileHandle startupReplay = null;
+
+    /**
+     * A chunked map file to play every level on instead of the level maps, or null to play the level maps.
+     */
+    private FileHandle worldFile = null;
+
+    /**
+     * The chunked map loaded from worldFile, streamed in around the player.
+     */
+    private ChunkedMap world = null;
+
+    /**
+     * The width and height, in tiles, of the map generated for each new round, or 0 to play the level maps.
+     */
+    private int generatedMapSize = 0;
+
+    /**
+     * Whether new rounds use the Box2D collision backend.
+     */
+    private boolean usePhysics = false;
+
+    /**
+     * Whether new rounds are endless survival rounds.
+     */
+    private boolean survival = false;
+
+    /**
+     * Sets whether new rounds use the Box2D collision backend instead of the built-in collision checks.
+     *
+     * @param usePhysics whether to use Box2D
+     */
+    public void setUsePhysics(boolean usePhysics) {
+        this.usePhysics = usePhysics;
+    }
+
+    /**
+     * @return whether new rounds use the Box2D collision backend
+     */
+    public boolean usesPhysics() {
+        return usePhysics;
+    }
+
+    /**
+     * Sets whether new rounds are endless survival rounds, with mobs coming in waves until the player dies.
+     *
+     * @param survival whether to play survival rounds
+     */
+    public void setSurvival(boolean survival) {
+        this.survival = survival;
+    }
+
+    /**
+     * @return whether new rounds are endless survival rounds
+     */
+    public boolean isSurvival() {
+        return survival;
+    }
+
+    /**
+     * Sets the directory that played rounds are recorded to.
+     *
+     * @param replayDirectory the directory to record to, or null to not record
+     */
+    public void setReplayDirectory(FileHandle replayDirectory) {
+        this.replayDirectory = replayDirectory;
+    }
+
+    /**
+     * Sets a replay to play as soon as the game has started.
+     *
+     * @param startupReplay the replay file, or null to start normally
+     */
+    public void setStartupReplay(FileHandle startupReplay) {
+        this.startupReplay = startupReplay;
+    }
+
+    /**
+     * Sets a chunked map file to play every level on, for maps too large to load whole.
+     *
+     * @param worldFile the chunked map file, or null to play the level maps
+     */
+    public void setWorldFile(FileHandle worldFile) {
+        this.worldFile = worldFile;
+    }
+
+    /**
+     * Sets the size of the map generated for each new round, for endless play with no level maps.
+     *
+     * @param generatedMapSize the width and height of the maps, in tiles, or 0 to play the level maps
+     */
+    public void setGeneratedMapSize(int generatedMapSize) {
+        this.generatedMapSize = generatedMapSize;
+    }
+
+    /**
+     * Gets the map a level is played on.
+     *
+     * @param level the level, starting at 1
+     * @return the chunked map being played, if there is one, a newly generated map if maps are being generated,
+     * otherwise the level's map
+     */
+    public TiledMap getLevelMap(int level) {
+        if (world != null) {
+            return world;
+        } else if (generatedMapSize > 0) {
+            return Assets.levelGenerator.generate(generatedMapSize, generatedMapSize, MathUtils.random.nextLong());
+        }
+
+        return Assets.levels[level - 1];
+    }
 
     /**
      * Initialises the startScreen. Called by libGDX to set up the graphics.
@@ -65,12 +194,34 @@ public class DuckGame extends Game {
     @Override
     public void create() {
         Assets.load();
+
+        if (worldFile != null) {
+            world = ChunkedMap.load(worldFile);
+        }
         Gdx.graphics.setCursor(Gdx.graphics.newCursor(Assets.cursor, 8, 8));
         totalScore = 0;
-        showOpeningCrawlScreen();
+
+        if (startupReplay != null) {
+            showReplay(Replay.load(startupReplay));
+        } else {
+            showOpeningCrawlScreen();
+        }
         //showStartScreen();
     }
 
+    /**
+     * Plays back a recorded round on the game screen.
+     *
+     * @param replay the replay to play
+     */
+    public void showReplay(Replay replay) {
+        level = replay.getLevel();
+
+        Round round = replay.createRound(this);
+        round.setInputSource(new ReplayInputSource(replay));
+        showGameScreen(round);
+    }
+
     /**
      * Initialises the opening crawl screen and sets the current screen to it.
      */
@@ -108,6 +259,18 @@ public class DuckGame extends Game {
         if (gameScreen != null) {
             gameScreen.dispose();
         }
+
+        // Record rounds the player is playing live. Replays name their map by level, so rounds on a chunked map
+        // file can't be recorded.
+        if (replayDirectory != null && world == null && round.getInputSource() instanceof LiveInputSource) {
+            FileHandle file = replayDirectory.child("replay-" + TimeUtils.millis() + ".sdr");
+            String mapSeed = round.getMap().getProperties().get(LevelGenerator.SEED_PROPERTY, String.class);
+            int mapSize = mapSeed != null ? round.getMapWidth() / round.getTileWidth() : 0;
+            Replay header = new Replay(round.getSeed(), level, round.getInitialMobs(), round.isBossRound(), round.usesPhysics(),
+                    round.isSurvival(), mapSize, mapSeed != null ? Long.parseLong(mapSeed) : 0);
+            round.setInputSource(new InputRecorder(round.getInputSource(), file, header));
+        }
+
         onGameScreen = true;
         setScreen(gameScreen = new GameScreen(round, level));
     }
@@ -175,4 +338,20 @@ public class DuckGame extends Game {
     public int getTotalScore() {
         return totalScore;
     }
+
+    /**
+     * Called by libGDX when the game closes. Disposes the current round so recordings are finished.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+
+        if (gameScreen != null) {
+            gameScreen.getRound().dispose();
+        }
+
+        if (world != null) {
+            world.dispose();
+        }
+    }
 }
@@ -2,33 +2,40 @@ package com.superduckinvaders.game;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Cursor;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
 import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
-import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.utils.Align;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.superduckinvaders.game.assets.Assets;
-import com.superduckinvaders.game.entity.*;
-import com.superduckinvaders.game.entity.Character;
 import com.superduckinvaders.game.entity.item.PowerupManager;
+import com.superduckinvaders.game.input.LiveInputSource;
+import com.superduckinvaders.game.render.RenderSnapshot;
+import com.superduckinvaders.game.render.Simulation;
+import com.superduckinvaders.game.render.SnapshotBuffer;
+import com.superduckinvaders.game.render.SpriteKind;
+import com.superduckinvaders.game.ui.BarRenderer;
+import com.superduckinvaders.game.ui.CachedText;
 
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Screen for interaction with the game.
+ * <p>
+ * The Round is updated on a thread of its own by a Simulation, and this screen draws the latest snapshot it has
+ * published, so that updating and drawing overlap. Only the map is read straight from the Round while drawing: the
+ * obstacles and overhang layers don't change, and chunks of chunked maps are only dropped far off screen.
  */
 public class GameScreen implements Screen {
 
@@ -48,9 +55,31 @@ public class GameScreen implements Screen {
     private OrthogonalTiledMapRenderer mapRenderer;
 
     /**
-     * The sprite batches for rendering.
+     * The maximum number of sprites drawn before the batch has to flush: the most a SpriteBatch can hold, so that a
+     * busy screen is drawn in as few draw calls as possible.
      */
-    private SpriteBatch spriteBatch, uiBatch, uiBatch2;
+    private static final int BATCH_SIZE = 5460;
+
+    /**
+     * The sprite batch shared by every render pass.
+     */
+    private SpriteBatch batch;
+
+    /**
+     * The projection for world-space UI (health bars and floaty numbers), which is drawn at twice the resolution
+     * of the world. Updated in place every frame.
+     */
+    private final Matrix4 worldUiMatrix = new Matrix4();
+
+    /**
+     * The projection for screen-space UI.
+     */
+    private final Matrix4 screenMatrix = new Matrix4();
+
+    /**
+     * The cached HUD text, laid out again only when its value changes.
+     */
+    private CachedText objectiveText, scoreText, fpsText;
 
     /**
      * The Round this GameScreen renders.
@@ -63,9 +92,14 @@ public class GameScreen implements Screen {
     private final float PLAYER_CAMERA_BOUND = 8f;
 
     /**
-     * A list of water cells in the map.
+     * The picture of each frame of water, in frame order, as it was when this screen was shown.
      */
-    ArrayList<TiledMapTileLayer.Cell> waterCellsInScene;
+    TextureRegion[] waterFrames;
+
+    /**
+     * How many frames the water animation has moved on since this screen was shown.
+     */
+    int waterFrame = 0;
 
     /**
      * A map of water tiles.
@@ -87,6 +121,32 @@ public class GameScreen implements Screen {
      */
     private int level;
 
+    /**
+     * The snapshots of the Round published by the simulation.
+     */
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+
+    /**
+     * Updates the Round on its own thread.
+     */
+    private Simulation simulation;
+
+    /**
+     * The laid out text of each floaty number seen recently, by text. Floaty numbers are laid out here rather than
+     * on the simulation thread, as laying out text isn't thread safe.
+     */
+    private final ObjectMap<String, CachedText> floatyTexts = new ObjectMap<String, CachedText>();
+
+    /**
+     * How many floaty number texts are kept laid out before the cache is emptied.
+     */
+    private static final int FLOATY_TEXT_CACHE_SIZE = 256;
+
+    /**
+     * Colours reused for every floaty number while rendering.
+     */
+    private final Color floatyColor = new Color(), floatyShadowColor = new Color();
+
 
     /**
      * Initialises this GameScreen for the specified round.
@@ -98,17 +158,6 @@ public class GameScreen implements Screen {
         this.level = level;
     }
 
-    /**
-     * Converts screen coordinates to world coordinates.
-     *
-     * @param x the x coordinate on screen
-     * @param y the y coordinate on screen
-     * @return a Vector3 containing the world coordinates (x and y)
-     */
-    public Vector3 unproject(int x, int y) {
-        return camera.unproject(new Vector3(x, y, 0));
-    }
-
     /**
      * @return the Round currently on this GameScreen
      */
@@ -126,12 +175,14 @@ public class GameScreen implements Screen {
         camera = new OrthographicCamera(DuckGame.GAME_WIDTH/SCALE, DuckGame.GAME_HEIGHT/SCALE);
 //        camera.zoom -= 0.5;
 
-//        mapBatch = new SpriteBatch();
-        spriteBatch = new SpriteBatch();
-        uiBatch = new SpriteBatch();
-        uiBatch2 = new SpriteBatch();
+        batch = new SpriteBatch(BATCH_SIZE);
+        screenMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
+        objectiveText = new CachedText(Assets.font);
+        scoreText = new CachedText(Assets.font);
+        fpsText = new CachedText(Assets.font, Align.right);
 
-        mapRenderer = new OrthogonalTiledMapRenderer(round.getMap());
+        mapRenderer = new OrthogonalTiledMapRenderer(round.getMap(), batch);
 
         // We created a second set of tiles for Water animations
         // For the record, this is bad for performance, use a single tileset if you can help it
@@ -149,23 +200,17 @@ public class GameScreen implements Screen {
                 waterTiles.put((String)property,tile);
         }
 
-        // Now we want to get a reference to every single cell ( Tile instance ) in the map
-        // that refers to a water cell.  Loop through the entire world, checking if a cell's tile
-        // contains the WaterFrame property.  If it does, add to the waterCellsInScene array
-        // Note, this only pays attention to the very first layer of tiles.
-        // If you want to support animation across multiple layers you will have to loop through each
-        waterCellsInScene = new ArrayList<TiledMapTileLayer.Cell>();
-        TiledMapTileLayer layer = (TiledMapTileLayer) round.getMap().getLayers().get(0);
-        for(int x = 0; x < layer.getWidth();x++){
-            for(int y = 0; y < layer.getHeight();y++){
-                TiledMapTileLayer.Cell cell = layer.getCell(x,y);
-                Object property = cell.getTile().getProperties().get("water");
-                if(property != null){
-                    waterCellsInScene.add(cell);
-                }
-            }
+        // Animate the water by moving every water tile on to the next frame's picture, instead of changing the
+        // tile of every water cell, so that nothing has to walk the map to find them.
+        waterFrames = new TextureRegion[waterTiles.size()];
+        for(int frame = 1; frame <= waterFrames.length; frame++){
+            waterFrames[frame - 1] = waterTiles.get(Integer.toString(frame)).getTextureRegion();
         }
 
+        // The Round plays its sounds through this screen from now on, as the audio device belongs to this thread.
+        round.getSounds().setDeferred(true);
+        simulation = new Simulation(round, snapshots);
+        simulation.start();
 
     }
 
@@ -175,32 +220,47 @@ public class GameScreen implements Screen {
      */
     @Override
     public void render(float delta) {
-        round.update(delta);
+        simulation.checkError();
 
-        //Update render order of entities
-        try {
-            round.getEntities().sort(new Entity.EntityComparator());
-        } catch (IllegalArgumentException e) {
-        }
+        // Hand the simulation this frame's input, and play the sounds it made since the last frame.
+        LiveInputSource.sample(camera);
+        round.getSounds().playQueued();
+
+        RenderSnapshot snapshot = snapshots.getFront();
 
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         // Centre the camera on the player.
-        updateCamera();
+        updateCamera(snapshot);
         camera.update();
 
-        spriteBatch.setProjectionMatrix(camera.combined);
-        uiBatch2.setProjectionMatrix(camera.combined.cpy().scl(0.5f));
+        worldUiMatrix.set(camera.combined).scl(0.5f);
+
+        // Everything is drawn in one batch, in order: map under the entities, entities, world UI, map overhang and
+        // screen UI. Only the projection changes between passes.
+        batch.begin();
+        renderMapUnder();
+        renderEntities(snapshot);
+        renderWorldUi(snapshot);
+        renderMapOverhang();
+        renderScreenUi(snapshot, delta);
+        batch.end();
+    }
 
-        // Render base and collision layers.
+    /**
+     * Renders the map layers that are drawn under the entities.
+     */
+    private void renderMapUnder() {
+        // Sets the batch projection to the camera.
         mapRenderer.setView(camera);
-        mapRenderer.getBatch().begin();
+
+        // Render base and collision layers.
         mapRenderer.renderTileLayer(round.getBaseLayer());
         mapRenderer.renderTileLayer(round.getCollisionLayer());
         mapRenderer.renderTileLayer(round.getWaterEdgeLayer());
-//
-//        // Render randomly-chosen obstacles layer.
+
+        // Render randomly-chosen obstacles layer.
         if (round.getObstaclesLayer() != null) {
             mapRenderer.renderTileLayer(round.getObstaclesLayer());
         }
@@ -212,136 +272,150 @@ public class GameScreen implements Screen {
             updateWaterAnimations();
             elapsedSinceAnimation = 0.0f;
         }
+    }
 
-        mapRenderer.getBatch().end();
-
-        spriteBatch.begin();
-        // Draw all entities.
-        for (Entity entity : round.getEntities()) {
-            entity.render(spriteBatch);
+    /**
+     * Renders all the snapshot's sprites in render order. Uses the camera projection set by the map pass.
+     *
+     * @param snapshot the snapshot being drawn
+     */
+    private void renderEntities(RenderSnapshot snapshot) {
+        for (int i = 0; i < snapshot.getSpriteCount(); i++) {
+            SpriteKind.get(snapshot.getKind(i)).draw(batch, snapshot, i);
         }
+    }
 
-        spriteBatch.end();
-        uiBatch2.begin();
+    /**
+     * Renders floaty numbers and the health bars above mobs.
+     *
+     * @param snapshot the snapshot being drawn
+     */
+    private void renderWorldUi(RenderSnapshot snapshot) {
+        batch.setProjectionMatrix(worldUiMatrix);
 
-        round.floatyNumbersManager.render(uiBatch2);
+        for (int i = 0; i < snapshot.getTextCount(); i++) {
+            floatyColor.set(snapshot.getTextColor(i));
+            floatyShadowColor.set(0f, 0f, 0f, floatyColor.a);
+            getFloatyText(snapshot.getText(i)).draw(batch, snapshot.getTextX(i), snapshot.getTextY(i), floatyColor, floatyShadowColor, 2);
+        }
 
         //Render health bars above enemies
-        for (Entity entity : round.getEntities()) {
-            if (entity instanceof Mob) {
-                Mob chars = (Mob) entity;
-                float offsetX = chars.getX() * 2 - chars.getWidth() / 2;
-
-                float offsetY = chars.getY() * 2 + chars.getHeight() * 2;
-
-                if (chars.getType() == Mob.MobType.BOSS) {
-                    offsetX += 40;
-                    offsetY += 15;
-                } else if (chars.getType() == Mob.MobType.RANGED) {
-                    offsetX -= 5;
-                    offsetY += 30;
-                } else {
-                    offsetX -= 17;
-                    offsetY += 10;
-                }
-
-                uiBatch2.draw(Assets.healthEmpty, offsetX, offsetY);
-                Assets.healthFull.setRegionWidth((int) Math.max(0, ((float) chars.getCurrentHealth() / chars.getMaximumHealth()) * 100));
-                uiBatch2.draw(Assets.healthFull, offsetX, offsetY);
+        for (int i = 0; i < snapshot.getSpriteCount(); i++) {
+            if (snapshot.getHealth(i) != RenderSnapshot.NO_HEALTH) {
+                SpriteKind.get(snapshot.getKind(i)).drawHealthBar(batch, snapshot, i);
+            }
+        }
+    }
+
+    /**
+     * Gets the laid out text of a floaty number, laying it out if it hasn't been recently.
+     *
+     * @param text the floaty number's text
+     * @return the laid out text
+     */
+    private CachedText getFloatyText(String text) {
+        CachedText cached = floatyTexts.get(text);
+
+        if (cached == null) {
+            if (floatyTexts.size >= FLOATY_TEXT_CACHE_SIZE) {
+                floatyTexts.clear();
             }
+
+            cached = new CachedText(Assets.font);
+            cached.setText(text);
+            floatyTexts.put(text, cached);
         }
 
-        uiBatch2.end();
-        mapRenderer.getBatch().begin();
-//        mapBatch.begin();
-        // Render overhang layer (draws over the player).
+        return cached;
+    }
+
+    /**
+     * Renders the overhang layer, which draws over the player.
+     */
+    private void renderMapOverhang() {
         if (round.getOverhangLayer() != null) {
+            batch.setProjectionMatrix(camera.combined);
             mapRenderer.renderTileLayer(round.getOverhangLayer());
         }
+    }
 
-        mapRenderer.getBatch().end();
-//        mapBatch.end();
-
-        uiBatch.begin();
-        // TODO: finish UI
-        Assets.font.setColor(0f, 0f, 0f, 1.0f);
-        Assets.font.draw(uiBatch, "Objective: " + round.getObjective().getObjectiveString(), 10, 708);
-        Assets.font.draw(uiBatch, "Score: " + round.getPlayer().getScore(), 10, 678);
-        Assets.font.draw(uiBatch, Gdx.graphics.getFramesPerSecond() + " FPS", Gdx.graphics.getWidth()-10, Gdx.graphics.getHeight()-12, 0, Align.right, false);
+    /**
+     * Renders the HUD in screen coordinates.
+     *
+     * @param snapshot the snapshot being drawn
+     * @param delta    how much time has passed since the last frame
+     */
+    private void renderScreenUi(RenderSnapshot snapshot, float delta) {
+        batch.setProjectionMatrix(screenMatrix);
 
-        Assets.font.setColor(1.0f, 1.0f, 1.0f, 1.0f);
-        Assets.font.draw(uiBatch, "Objective: " + round.getObjective().getObjectiveString(), 10, 710);
-        Assets.font.draw(uiBatch, "Score: " + round.getPlayer().getScore(), 10, 680);
-        Assets.font.draw(uiBatch, Gdx.graphics.getFramesPerSecond() + " FPS", Gdx.graphics.getWidth()-10, Gdx.graphics.getHeight()-10, 0, Align.right, false);
+        objectiveText.setText("Objective: ", snapshot.getObjective());
+        objectiveText.draw(batch, 10, 710, Color.WHITE, Color.BLACK, 2);
+        scoreText.setNumber("Score: ", snapshot.getScore(), "");
+        scoreText.draw(batch, 10, 680, Color.WHITE, Color.BLACK, 2);
+        fpsText.setNumber("", Gdx.graphics.getFramesPerSecond(), " FPS");
+        fpsText.draw(batch, Gdx.graphics.getWidth()-10, Gdx.graphics.getHeight()-10, Color.WHITE, Color.BLACK, 2);
 
         // Draw stamina bar (for flight);
-		uiBatch.draw(Assets.staminaEmpty, 1080, 10);
-        if (round.getPlayer().getFlyingTimer() > 0) {
-            Assets.staminaFull.setRegionWidth((int) Math.max(0, Math.min(192, round.getPlayer().getFlyingTimer() / Player.PLAYER_MAX_FLIGHT_TIME * 192)));
-        } else {
-            Assets.staminaFull.setRegionWidth(0);
-        }
-		uiBatch.draw(Assets.staminaFull, 1080, 10);
+        BarRenderer.draw(batch, Assets.staminaEmpty, Assets.staminaFull, 1080, 10, snapshot.getFlight());
 
 
         // Draw powerup bar.
-        round.powerUpManager.render(uiBatch);
+        PowerupManager.render(batch, snapshot);
 
 
         //Draw health.
         int x = 0;
-        while(x < round.getPlayer().getMaximumHealth()) {
-        	if(x+2 <= round.getPlayer().getCurrentHealth())
-        		uiBatch.draw(Assets.heartFull, x * 18 + (Gdx.graphics.getWidth()/2 - 50), 10);
-        	else if(x+1 <= round.getPlayer().getCurrentHealth())
-        		uiBatch.draw(Assets.heartHalf, x * 18 + (Gdx.graphics.getWidth()/2 - 50), 10);
+        while(x < snapshot.getMaximumHealth()) {
+        	if(x+2 <= snapshot.getHealth())
+        		batch.draw(Assets.heartFull, x * 18 + (Gdx.graphics.getWidth()/2 - 50), 10);
+        	else if(x+1 <= snapshot.getHealth())
+        		batch.draw(Assets.heartHalf, x * 18 + (Gdx.graphics.getWidth()/2 - 50), 10);
         	else
-        		uiBatch.draw(Assets.heartEmpty, x * 18 + (Gdx.graphics.getWidth()/2 - 50), 10);
+        		batch.draw(Assets.heartEmpty, x * 18 + (Gdx.graphics.getWidth()/2 - 50), 10);
         	x += 2;
         }
 
         // Draw round text at start of round.
         if (roundTimer < 3f) {
             roundTimer += delta;
-            uiBatch.draw(Assets.roundText, (Gdx.graphics.getWidth() - Assets.roundText.getWidth() - Assets.roundNums[level].getWidth())/2,
+            batch.draw(Assets.roundText, (Gdx.graphics.getWidth() - Assets.roundText.getWidth() - Assets.roundNums[level].getWidth())/2,
                     (Gdx.graphics.getHeight() - Assets.roundText.getHeight())/2);
-            uiBatch.draw(Assets.roundNums[level], (Gdx.graphics.getWidth() + Assets.roundText.getWidth())/2,
+            batch.draw(Assets.roundNums[level], (Gdx.graphics.getWidth() + Assets.roundText.getWidth())/2,
                     (Gdx.graphics.getHeight() - Assets.roundText.getHeight())/2);
         }
-
-        uiBatch.end();
     }
 
     /**
      * Called every half a second to update animated water tiles.
      */
     private void updateWaterAnimations(){
-        for(TiledMapTileLayer.Cell cell : waterCellsInScene){
-            String property = (String) cell.getTile().getProperties().get("water");
-            Integer currentAnimationFrame = Integer.parseInt(property);
+        if(waterFrames.length == 0)
+            return;
 
-            currentAnimationFrame++;
-            if(currentAnimationFrame > waterTiles.size())
-                currentAnimationFrame = 1;
+        waterFrame = (waterFrame + 1) % waterFrames.length;
 
-            TiledMapTile newTile = waterTiles.get(currentAnimationFrame.toString());
-            cell.setTile(newTile);
+        for(int frame = 1; frame <= waterFrames.length; frame++){
+            waterTiles.get(Integer.toString(frame)).setTextureRegion(waterFrames[(frame - 1 + waterFrame) % waterFrames.length]);
         }
     }
 
     /**
      * Updates the camera to be constrained to the player and to stay within the map.
+     *
+     * @param snapshot the snapshot being drawn, which says where the player is
      */
-    private void updateCamera() {
+    private void updateCamera(RenderSnapshot snapshot) {
+        float playerX = snapshot.getPlayerX(), playerY = snapshot.getPlayerY();
+
 //      Constrain camera to player
-        if ((round.getPlayer().getX() + round.getPlayer().getWidth() > camera.position.x + camera.viewportWidth / PLAYER_CAMERA_BOUND))
-            camera.position.x = ((round.getPlayer().getX() + round.getPlayer().getWidth())) - (camera.viewportWidth / PLAYER_CAMERA_BOUND);
-        if ((round.getPlayer().getX() < camera.position.x - camera.viewportWidth / PLAYER_CAMERA_BOUND))
-            camera.position.x = (round.getPlayer().getX()) + (camera.viewportWidth / PLAYER_CAMERA_BOUND);
-        if ((round.getPlayer().getY() + round.getPlayer().getHeight() > camera.position.y + camera.viewportHeight / PLAYER_CAMERA_BOUND))
-            camera.position.y = ((round.getPlayer().getY() + round.getPlayer().getHeight())) - (camera.viewportHeight / PLAYER_CAMERA_BOUND);
-        if ((round.getPlayer().getY() < camera.position.y - camera.viewportHeight / PLAYER_CAMERA_BOUND))
-            camera.position.y = (round.getPlayer().getY()) + (camera.viewportHeight / PLAYER_CAMERA_BOUND);
+        if ((playerX + snapshot.getPlayerWidth() > camera.position.x + camera.viewportWidth / PLAYER_CAMERA_BOUND))
+            camera.position.x = ((playerX + snapshot.getPlayerWidth())) - (camera.viewportWidth / PLAYER_CAMERA_BOUND);
+        if ((playerX < camera.position.x - camera.viewportWidth / PLAYER_CAMERA_BOUND))
+            camera.position.x = (playerX) + (camera.viewportWidth / PLAYER_CAMERA_BOUND);
+        if ((playerY + snapshot.getPlayerHeight() > camera.position.y + camera.viewportHeight / PLAYER_CAMERA_BOUND))
+            camera.position.y = ((playerY + snapshot.getPlayerHeight())) - (camera.viewportHeight / PLAYER_CAMERA_BOUND);
+        if ((playerY < camera.position.y - camera.viewportHeight / PLAYER_CAMERA_BOUND))
+            camera.position.y = (playerY) + (camera.viewportHeight / PLAYER_CAMERA_BOUND);
 
 //      Constrain camera to map
         if (camera.position.x + camera.viewportWidth / 2f > round.getMapWidth())
@@ -376,11 +450,13 @@ public class GameScreen implements Screen {
     }
 
     /**
-     * Not used.
+     * Stops updating the Round once this GameScreen is no longer shown.
      */
     @Override
     public void hide() {
-
+        if (simulation != null) {
+            simulation.stop();
+        }
     }
 
     /**
@@ -388,9 +464,10 @@ public class GameScreen implements Screen {
      */
     @Override
     public void dispose() {
+        hide();
+        round.dispose();
         mapRenderer.dispose();
-        spriteBatch.dispose();
-        uiBatch.dispose();
+        batch.dispose();
     }
 
 }
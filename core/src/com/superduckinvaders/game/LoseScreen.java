@@ -57,9 +57,9 @@ public class LoseScreen implements Screen {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 if(parent.level==8)
-                    parent.showGameScreen(new Round(parent, Assets.levels[parent.level-1], Assets.levelMobs[parent.level-1], true));
+                    parent.showGameScreen(new Round(parent, parent.getLevelMap(parent.level), Assets.levelMobs[parent.level-1], true));
                 else
-                    parent.showGameScreen(new Round(parent, Assets.levels[parent.level-1], Assets.levelMobs[parent.level-1], false));
+                    parent.showGameScreen(new Round(parent, parent.getLevelMap(parent.level), Assets.levelMobs[parent.level-1], false));
             }
         });
 
@@ -1,27 +1,63 @@
 package com.superduckinvaders.game;
 
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector3;
-import com.superduckinvaders.game.ai.BossAI;
-import com.superduckinvaders.game.ai.MovementAI;
-import com.superduckinvaders.game.ai.RangedAI;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.superduckinvaders.game.ai.AILevelOfDetail;
+import com.superduckinvaders.game.ai.AIScheduler;
+import com.superduckinvaders.game.ai.BehaviourTreeAI;
+import com.superduckinvaders.game.ai.CrowdSteering;
+import com.superduckinvaders.game.ai.Director;
+import com.superduckinvaders.game.ai.HierarchicalPathfinder;
+import com.superduckinvaders.game.ai.JumpPointSearch;
+import com.superduckinvaders.game.ai.PathCache;
 import com.superduckinvaders.game.assets.Assets;
+import com.superduckinvaders.game.assets.SoundQueue;
 import com.superduckinvaders.game.assets.TextureSet;
+import com.superduckinvaders.game.ecs.AISystem;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.Families;
+import com.superduckinvaders.game.ecs.MovementSystem;
+import com.superduckinvaders.game.ecs.ProjectileSystem;
+import com.superduckinvaders.game.ecs.RemovalSystem;
+import com.superduckinvaders.game.ecs.SpatialGrid;
+import com.superduckinvaders.game.ecs.UpdateSystem;
 import com.superduckinvaders.game.entity.Character;
 import com.superduckinvaders.game.entity.*;
 import com.superduckinvaders.game.entity.item.Item;
 import com.superduckinvaders.game.entity.item.PowerupItem;
 import com.superduckinvaders.game.entity.item.PowerupManager;
 import com.superduckinvaders.game.entity.item.Upgrade;
+import com.superduckinvaders.game.input.InputFrame;
+import com.superduckinvaders.game.input.InputRecorder;
+import com.superduckinvaders.game.input.InputSource;
+import com.superduckinvaders.game.input.LiveInputSource;
+import com.superduckinvaders.game.map.ChunkedMap;
+import com.superduckinvaders.game.map.ClearanceMap;
+import com.superduckinvaders.game.map.CollisionBitmap;
+import com.superduckinvaders.game.map.PackedCell;
+import com.superduckinvaders.game.map.SpawnIndex;
+import com.superduckinvaders.game.map.StaticCollisionIndex;
+import com.superduckinvaders.game.map.TerrainTable;
+import com.superduckinvaders.game.map.TileLayers;
 import com.superduckinvaders.game.objective.BossObjective;
 import com.superduckinvaders.game.objective.CollectObjective;
 import com.superduckinvaders.game.objective.KillObjective;
 import com.superduckinvaders.game.objective.Objective;
+import com.superduckinvaders.game.objective.SurvivalObjective;
+import com.superduckinvaders.game.physics.PhysicsSystem;
+import com.superduckinvaders.game.physics.PhysicsWorld;
 import com.superduckinvaders.game.ui.FloatyNumbersManager;
 
 import java.util.ArrayList;
@@ -51,20 +87,132 @@ public class Round {
      */
     private TiledMap map;
 
+    /**
+     * The map's base layer, which decides what terrain each tile is.
+     */
+    private TiledMapTileLayer baseLayer;
+
+    /**
+     * The terrain of each of the map's tiles.
+     */
+    private TerrainTable terrain;
+
     /**
      * Map layer containing randomly-chosen layer of predefined obstacles.
      */
     private TiledMapTileLayer obstaclesLayer;
 
+    /**
+     * The blocked tiles of the map, including the chosen obstacles, merged into rectangles.
+     */
+    private StaticCollisionIndex staticCollision;
+
+    /**
+     * The tiles of the map's spawn layer, bucketed so that mobs can be spawned a certain distance from the player.
+     */
+    private SpawnIndex spawnIndex;
+
+    /**
+     * Scratch space for the tile a mob is being spawned on.
+     */
+    private final GridPoint2 spawnTile = new GridPoint2();
+
+    /**
+     * The clearance of every tile, telling pathfinders where bodies of each size fit.
+     */
+    private ClearanceMap clearance;
+
+    /**
+     * Finds paths across the whole map for mobs too far away for their local search, per body size in tiles.
+     * Created when first needed.
+     */
+    private final HierarchicalPathfinder[] pathfinders = new HierarchicalPathfinder[MAX_PATH_SIZE + 1];
+
+    /**
+     * Decides how much thinking each mob does.
+     */
+    private final AILevelOfDetail aiLevelOfDetail = new AILevelOfDetail();
+
+    /**
+     * Decides when each mob thinks.
+     */
+    private final AIScheduler aiScheduler = new AIScheduler();
+
+    /**
+     * Steers mobs around each other.
+     */
+    private CrowdSteering crowdSteering;
+
+    /**
+     * Recent pathfinding results, shared between mobs.
+     */
+    private PathCache pathCache;
+
+    /**
+     * Where pathfinding graphs are cached, or null if they aren't.
+     */
+    private FileHandle graphCacheDirectory;
+
+    /**
+     * Finds short paths for mobs near the player.
+     */
+    private JumpPointSearch jumpPointSearch;
+
     /**
      * The player.
      */
     private Player player;
 
     /**
-     * Array of all entities currently in the Round.
+     * The entity-component-system engine holding every entity in the Round and the systems that update them.
+     */
+    private final Engine engine = new Engine();
+
+    /**
+     * All entities currently in the Round. Kept in step with the engine; a removed entity's place is taken by the last
+     * entity, so the order is only the order they were added until something is removed.
+     */
+    private List<Entity> entities = new ArrayList<Entity>(128);
+
+    /**
+     * The index of each entity in the entity list, so that removing an entity doesn't have to search for it.
+     */
+    private final ObjectIntMap<Entity> entityIndices = new ObjectIntMap<Entity>(128);
+
+    /**
+     * The size of each cell of the collision grid, in pixels.
+     */
+    private static final int COLLISION_CELL_SIZE = 64;
+
+    /**
+     * How many positions spawnRandomMobs tries per mob before giving up.
+     */
+    private static final int SPAWN_ATTEMPTS = 20;
+
+    /**
+     * The local directory pathfinding graphs are cached in.
+     */
+    private static final String PATH_CACHE_DIRECTORY = "cache/paths";
+
+    /**
+     * The largest body size, in tiles, given its own long-range pathfinder.
+     */
+    private static final int MAX_PATH_SIZE = 4;
+
+    /**
+     * The damageable characters and mobs currently in the Round, kept up to date by the engine.
+     */
+    private final ImmutableArray<com.badlogic.ashley.core.Entity> characters, mobs;
+
+    /**
+     * The collision broadphase, holding every entity with a collider except projectiles.
+     */
+    private final SpatialGrid collisionGrid;
+
+    /**
+     * A list reused for collision grid queries made while updating.
      */
-    private List<Entity> entities;
+    private final Array<Entity> queryResults = new Array<Entity>(false, 16, Entity.class);
 
     /**
      * The current objective.
@@ -82,28 +230,220 @@ public class Round {
     public FloatyNumbersManager floatyNumbersManager = new FloatyNumbersManager();
 
     /**
-     * Initialises a new Round with the specified map.
+     * The seed of this Round's random number generator.
+     */
+    private final long seed;
+
+    /**
+     * The random number generator for all gameplay decisions in this Round.
+     * Using this instead of MathUtils.random means a Round can be recreated exactly from its seed.
+     */
+    private final RandomXS128 random;
+
+    /**
+     * The number of random mobs spawned at the start of this Round.
+     */
+    private final int initialMobs;
+
+    /**
+     * Whether this Round is a boss round.
+     */
+    private final boolean isBoss;
+
+    /**
+     * Whether this Round is an endless survival round.
+     */
+    private final boolean survival;
+
+    /**
+     * Keeps mobs coming in waves during survival rounds.
+     */
+    private final Director director = new Director(this);
+
+    /**
+     * Where the player's input comes from.
+     */
+    private InputSource inputSource = new LiveInputSource();
+
+    /**
+     * The player's input for the current update.
+     */
+    private final InputFrame input = new InputFrame();
+
+    /**
+     * Whether this Round has been won or lost.
+     */
+    private boolean finished = false;
+
+    /**
+     * Plays this Round's sound effects.
+     */
+    private final SoundQueue sounds = new SoundQueue();
+
+    /**
+     * The Box2D world moving entities in this Round, or null if entities move and collide by themselves.
+     */
+    private PhysicsWorld physics = null;
+
+    /**
+     * Initialises a new Round with the specified map and a random seed, using the game's collision backend.
      *
      * @param parent the game the round is associated with
      * @param map the Round's map
      * @param mobs the number of random mobs to spawn.
+     * @param isBoss whether this is a boss round
      */
     public Round(DuckGame parent, TiledMap map, int mobs, boolean isBoss) {
+        this(parent, map, mobs, isBoss, MathUtils.random.nextLong(), parent != null && parent.usesPhysics(),
+                parent != null && parent.isSurvival());
+    }
+
+    /**
+     * Initialises a new Round with the specified map and seed, using the built-in collision checks.
+     *
+     * @param parent the game the round is associated with, or null when running without a game (e.g. headless)
+     * @param map the Round's map
+     * @param mobs the number of random mobs to spawn.
+     * @param isBoss whether this is a boss round
+     * @param seed the seed for this Round's random number generator
+     */
+    public Round(DuckGame parent, TiledMap map, int mobs, boolean isBoss, long seed) {
+        this(parent, map, mobs, isBoss, seed, false);
+    }
+
+    /**
+     * Initialises a new Round with the specified map and seed.
+     *
+     * @param parent the game the round is associated with, or null when running without a game (e.g. headless)
+     * @param map the Round's map
+     * @param mobs the number of random mobs to spawn.
+     * @param isBoss whether this is a boss round
+     * @param seed the seed for this Round's random number generator
+     * @param usePhysics whether entities are moved by a Box2D world instead of the built-in collision checks
+     */
+    public Round(DuckGame parent, TiledMap map, int mobs, boolean isBoss, long seed, boolean usePhysics) {
+        this(parent, map, mobs, isBoss, seed, usePhysics, false);
+    }
+
+    /**
+     * Initialises a new Round with the specified map and seed.
+     *
+     * @param parent the game the round is associated with, or null when running without a game (e.g. headless)
+     * @param map the Round's map
+     * @param mobs the number of random mobs to spawn.
+     * @param isBoss whether this is a boss round
+     * @param seed the seed for this Round's random number generator
+     * @param usePhysics whether entities are moved by a Box2D world instead of the built-in collision checks
+     * @param survival whether this is an endless survival round, with mobs coming in waves until the player dies
+     */
+    public Round(DuckGame parent, TiledMap map, int mobs, boolean isBoss, long seed, boolean usePhysics, boolean survival) {
         this.parent = parent;
         this.map = map;
+        this.baseLayer = (TiledMapTileLayer) map.getLayers().get("Base");
+        this.terrain = new TerrainTable(map.getTileSets(), Player.WATER_SPEED_MODIFIER);
+        this.seed = seed;
+        this.random = new RandomXS128(seed);
+        this.initialMobs = mobs;
+        this.isBoss = isBoss;
+        this.survival = survival;
+
+        this.collisionGrid = new SpatialGrid(getMapWidth(), getMapHeight(), COLLISION_CELL_SIZE);
+        this.characters = engine.getEntitiesFor(Families.CHARACTERS);
+        this.mobs = engine.getEntitiesFor(Families.MOBS);
+
+        engine.addEntityListener(Families.ENTITIES, new EntityListener() {
+            @Override
+            public void entityAdded(com.badlogic.ashley.core.Entity entity) {
+                entityIndices.put((Entity) entity, entities.size());
+                entities.add((Entity) entity);
+            }
+
+            @Override
+            public void entityRemoved(com.badlogic.ashley.core.Entity entity) {
+                int index = entityIndices.remove((Entity) entity, -1);
+                Entity last = entities.remove(entities.size() - 1);
+
+                if (last != entity) {
+                    entities.set(index, last);
+                    entityIndices.put(last, index);
+                }
+            }
+        });
+
+        engine.addEntityListener(Families.COLLIDERS, new EntityListener() {
+            @Override
+            public void entityAdded(com.badlogic.ashley.core.Entity entity) {
+                collisionGrid.insert((Entity) entity);
+            }
+
+            @Override
+            public void entityRemoved(com.badlogic.ashley.core.Entity entity) {
+                collisionGrid.remove((Entity) entity);
+            }
+        });
+
+        engine.addEntityListener(Families.MOBS, new EntityListener() {
+            @Override
+            public void entityAdded(com.badlogic.ashley.core.Entity entity) {
+            }
+
+            @Override
+            public void entityRemoved(com.badlogic.ashley.core.Entity entity) {
+                mobRemoved((Mob) entity);
+            }
+        });
+
+        engine.addSystem(new AISystem(this, 0));
+        engine.addSystem(new UpdateSystem(this, 1));
+        engine.addSystem(new MovementSystem(this, 2));
+        engine.addSystem(new ProjectileSystem(this, 3));
+        engine.addSystem(new RemovalSystem(5));
 
         // Choose which obstacles to use.
         obstaclesLayer = chooseObstacles();
 
+        // Merge the blocked tiles into rectangles for collision checks.
+        int columns = getMapWidth() / getTileWidth(), rows = getMapHeight() / getTileHeight();
+        staticCollision = new StaticCollisionIndex(CollisionBitmap.fromLayers(columns, rows, getCollisionLayer(), obstaclesLayer), getTileWidth(), getTileHeight());
+        spawnIndex = new SpawnIndex(getSpawnLayer(), columns, rows);
+
+        // Pathfinding graphs only depend on the blocked tiles, so they are cached on disk per map and obstacle set.
+        graphCacheDirectory = Gdx.files != null && Gdx.files.isLocalStorageAvailable() ? Gdx.files.local(PATH_CACHE_DIRECTORY) : null;
+        clearance = new ClearanceMap(staticCollision.getBitmap());
+        jumpPointSearch = new JumpPointSearch(clearance);
+        pathCache = new PathCache(clearance.getWidth(), PathCache.DEFAULT_CAPACITY);
+        crowdSteering = new CrowdSteering(this);
+
+        if (usePhysics) {
+            physics = new PhysicsWorld(this);
+
+            engine.addEntityListener(Families.BODIES, new EntityListener() {
+                @Override
+                public void entityAdded(com.badlogic.ashley.core.Entity entity) {
+                    physics.createBody((Entity) entity);
+                }
+
+                @Override
+                public void entityRemoved(com.badlogic.ashley.core.Entity entity) {
+                    physics.destroyBody((Entity) entity);
+                }
+            });
+
+            engine.addSystem(new PhysicsSystem(physics, 4));
+        }
+
         // Determine starting coordinates for player (0, 0 default).
         int startX = Integer.parseInt(map.getProperties().get("StartX", "0", String.class)) * getTileWidth();
         int startY = Integer.parseInt(map.getProperties().get("StartY", "0", String.class)) * getTileHeight();
 
+        // Chunked maps only hold the chunks around the player, so bring in the ones around the start.
+        if (map instanceof ChunkedMap) {
+            ((ChunkedMap) map).loadAround(startX, startY);
+        }
 
         player = new Player(this, startX, startY);
 
-        entities = new ArrayList<Entity>(128);
-        entities.add(player);
+        addEntity(player);
 
 
         //createUpgrade(startX + 40, startY, Player.Upgrade.GUN);
@@ -111,17 +451,21 @@ public class Round {
 //        createPowerup(startX + 80, startY, PowerupManager.powerupTypes.INVULNERABLE, 60);
 //        createPowerup(startX + 100, startY, PowerupManager.powerupTypes.SCORE_MULTIPLIER, 60);
 
-        spawnRandomMobs(mobs, 200, 200, 1000, 1000);
+        spawnRandomMobs(mobs, 200, 1000);
 
         //Set the objective to the boss objective if is a boss round, also spawn boss
-        if(isBoss){
-            addEntity(new Mob(this, 50*16, 50*16, 2500, 100, 5000, Assets.bossBadGuy, Assets.bossBadGuy, new BossAI(this), Mob.MobType.BOSS));
+        if (survival) {
+            setObjective(new SurvivalObjective(this, Objective.objectiveType.SURVIVE, 0));
+            director.setEnabled(true);
+        }
+        else if(isBoss){
+            addEntity(new Mob(this, 50*16, 50*16, 2500, 100, 5000, Assets.bossBadGuy, Assets.bossBadGuy, new BehaviourTreeAI(this, BehaviourTreeAI.BOSS_TREE, 1), Mob.MobType.BOSS));
             setObjective(new BossObjective(this, Objective.objectiveType.BOSS));
         }
         else {
 
             //Decide on objective
-            int objectiveRandom = MathUtils.random(0, 1);
+            int objectiveRandom = random.nextInt(2);
             switch (Objective.objectiveType.values()[objectiveRandom]) {
                 case COLLECT: {
                     // Determine where to spawn the objective.
@@ -131,11 +475,11 @@ public class Round {
                     Item objective = new Item(this, objectiveX, objectiveY, Assets.flag);
                     setObjective(new CollectObjective(this, Objective.objectiveType.COLLECT, objective));
 
-                    entities.add(objective);
+                    addEntity(objective);
                     break;
                 }
                 case KILL: {
-                    setObjective(new KillObjective(this, Objective.objectiveType.KILL, MathUtils.random(mobs / 2, mobs)));
+                    setObjective(new KillObjective(this, Objective.objectiveType.KILL, randomRange(mobs / 2, mobs)));
                 }
             }
         }
@@ -158,33 +502,187 @@ public class Round {
         if (count == 0) {
             return null;
         } else {
-            return (TiledMapTileLayer) map.getLayers().get(String.format("Obstacles%d", MathUtils.random(0, count - 1)));
+            return (TiledMapTileLayer) map.getLayers().get(String.format("Obstacles%d", random.nextInt(count)));
         }
     }
 
     /**
-     * Spawns a number of random mobs the specified distance from the player.
-     * @param amount how many random mobs to spawn
-     * @param minX the minimum x distance from the player to spawn the mobs
-     * @param minY the minimum y distance from the player to spawn the mobs
-     * @param maxX the maximum x distance from the player to spawn the mobs
-     * @param maxY the maximum y distance from the player to spawn the mobs
+     * Spawns a number of random mobs on spawn tiles the specified distance from the player. Tiles are drawn from the
+     * spawn index and checked against the map and other characters, and a mob is only created once its tile has been
+     * accepted. Gives up after a limited number of attempts, so a crowded map or one with few spawn tiles can't stall
+     * the round.
+     *
+     * @param amount      how many random mobs to spawn
+     * @param minDistance the minimum distance from the player, in pixels along the x or y axis
+     * @param maxDistance the maximum distance from the player, in pixels along the x and y axes
+     * @return how many mobs were spawned
      */
-    private void spawnRandomMobs(int amount, int minX, int minY, int maxX, int maxY) {
-        while(amount > 0) {
-            int x = MathUtils.random(minX, maxX) * (MathUtils.randomBoolean() ? -1 : 1);
-            int y = MathUtils.random(minY, maxY) * (MathUtils.randomBoolean() ? -1 : 1);
+    public int spawnRandomMobs(int amount, int minDistance, int maxDistance) {
+        int centreX = (int) player.getX() / getTileWidth(), centreY = (int) player.getY() / getTileHeight();
+        int minRing = minDistance / getTileWidth(), maxRing = maxDistance / getTileWidth();
+        int spawned = 0;
+
+        for (int attempt = 0; spawned < amount && attempt < amount * SPAWN_ATTEMPTS; attempt++) {
+            if (!spawnIndex.sample(centreX, centreY, minRing, maxRing, random, spawnTile)) {
+                break;
+            }
+
+            int ring = Math.max(Math.abs(spawnTile.x - centreX), Math.abs(spawnTile.y - centreY));
+            boolean ranged = random.nextInt(4) == 0;
+            TextureSet textureSet = ranged ? Assets.rangedBadGuy : Assets.badGuyNormal;
+            float x = spawnTile.x * getTileWidth(), y = spawnTile.y * getTileHeight();
+
+            if (ring < minRing || ring > maxRing || !canSpawnAt(x, y, Mob.widthOf(textureSet), Mob.heightOf(textureSet))) {
+                continue;
+            }
 
-            Mob mob1 = new Mob(this, getPlayer().getX() + x, getPlayer().getY() + y, 100, 100, 15, Assets.badGuyNormal, Assets.badGuySwimming, new MovementAI(this, 48), Mob.MobType.MELEE);
-            //amount -= spawnMob(mob1) ? 1 : 0;
-            Mob mob2 = new Mob(this, getPlayer().getX() + x, getPlayer().getY() + y, 100, 100, 25, Assets.rangedBadGuy, Assets.rangedBadGuySwimming, new RangedAI(this, 300, 300), Mob.MobType.RANGED);
-            //amount -= spawnMob(mob2) ? 1 : 0;
-            if(MathUtils.random(0,3)==0)
-                amount -= spawnMob(mob2) ? 1 : 0;
-            else
-                amount -= spawnMob(mob1) ? 1 : 0;
+            if (ranged) {
+                addEntity(new Mob(this, x, y, 100, 100, 25, Assets.rangedBadGuy, Assets.rangedBadGuySwimming, new BehaviourTreeAI(this, BehaviourTreeAI.RANGED_TREE, 6), Mob.MobType.RANGED));
+            } else {
+                addEntity(new Mob(this, x, y, 100, 100, 15, Assets.badGuyNormal, Assets.badGuySwimming, new BehaviourTreeAI(this, BehaviourTreeAI.MELEE_TREE, 6), Mob.MobType.MELEE));
+            }
 
+            spawned++;
         }
+
+        return spawned;
+    }
+
+    /**
+     * Gets whether a mob of the specified size could stand somewhere without leaving the map, standing on a tile mobs
+     * can't spawn on, or overlapping a wall or another character. Characters are found through the collision grid.
+     *
+     * @param x      the x coordinate of the mob's bottom left corner
+     * @param y      the y coordinate of the mob's bottom left corner
+     * @param width  the width of the mob
+     * @param height the height of the mob
+     * @return whether the mob fits
+     */
+    private boolean canSpawnAt(float x, float y, int width, int height) {
+        if (x < 0 || y < 0 || x > getMapWidth() - width || y > getMapHeight() - height) {
+            return false;
+        }
+
+        if ((getTerrainFlags((int) x / getTileWidth(), (int) y / getTileHeight()) & TerrainTable.NO_SPAWN) != 0) {
+            return false;
+        }
+
+        // Mobs check the tiles under their corners and edges inclusively, so include the pixel past each edge.
+        if (staticCollision.overlaps((int) x, (int) y, width + 1, height + 1)) {
+            return false;
+        }
+
+        return !collisionGrid.overlaps(x, y, width, height, ColliderComponent.MOB, ColliderComponent.SOLID, null);
+    }
+
+    /**
+     * Returns a random integer between start and end, inclusive, from this Round's random number generator.
+     *
+     * @param start the lower bound
+     * @param end the upper bound
+     * @return the random integer
+     */
+    public int randomRange(int start, int end) {
+        return start + random.nextInt(end - start + 1);
+    }
+
+    /**
+     * Gets the random number generator for gameplay decisions in this Round.
+     *
+     * @return this Round's random number generator
+     */
+    public RandomXS128 getRandom() {
+        return random;
+    }
+
+    /**
+     * @return the seed of this Round's random number generator
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the number of random mobs spawned at the start of this Round
+     */
+    public int getInitialMobs() {
+        return initialMobs;
+    }
+
+    /**
+     * @return whether this Round is a boss round
+     */
+    public boolean isBossRound() {
+        return isBoss;
+    }
+
+    /**
+     * @return whether this Round is an endless survival round
+     */
+    public boolean isSurvival() {
+        return survival;
+    }
+
+    /**
+     * @return whether entities in this Round are moved by a Box2D world
+     */
+    public boolean usesPhysics() {
+        return physics != null;
+    }
+
+    /**
+     * Gets whether this Round has been won or lost. A Round keeps running after it finishes, until its game moves on
+     * to the next screen, so callers without a game (e.g. replaying headless) should stop updating it.
+     *
+     * @return true if the objective has been completed or the player has died
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Gets the queue this Round's sound effects are played through, which the game screen defers while the Round is
+     * updated off the render thread.
+     *
+     * @return this Round's sound queue
+     */
+    public SoundQueue getSounds() {
+        return sounds;
+    }
+
+    /**
+     * Gets the player's input for the current update.
+     *
+     * @return the current input frame
+     */
+    public InputFrame getInput() {
+        return input;
+    }
+
+    /**
+     * @return where the player's input comes from
+     */
+    public InputSource getInputSource() {
+        return inputSource;
+    }
+
+    /**
+     * Sets where the player's input comes from, e.g. a replay.
+     *
+     * @param inputSource the new input source
+     */
+    public void setInputSource(InputSource inputSource) {
+        this.inputSource = inputSource;
+    }
+
+    /**
+     * Gets whether this Round has to play out the same every time it is run with the same input, because it is being
+     * recorded or replayed. Nothing that depends on how fast the game runs may then change what happens.
+     *
+     * @return whether this Round has to be deterministic
+     */
+    public boolean isDeterministic() {
+        return !(inputSource instanceof LiveInputSource);
     }
 
     /**
@@ -200,7 +698,7 @@ public class Round {
      * @return this Round's base layer (used for calculating map width/height)
      */
     public TiledMapTileLayer getBaseLayer() {
-        return (TiledMapTileLayer) getMap().getLayers().get("Base");
+        return baseLayer;
     }
 
     /**
@@ -275,21 +773,128 @@ public class Round {
      * @return whether or not the map tile is blocked
      */
     public boolean isTileBlocked(int x, int y) {
-        int tileX = x / getTileWidth();
-        int tileY = y / getTileHeight();
-        
-        return getCollisionLayer().getCell(tileX, tileY) != null || (getObstaclesLayer() != null && getObstaclesLayer().getCell(tileX, tileY) != null);
+        return staticCollision.isBlocked(x, y);
+    }
+
+    /**
+     * Gets the terrain flags of the map tile at the specified coordinates.
+     *
+     * @param x the x coordinate of the map tile
+     * @param y the y coordinate of the map tile
+     * @return the tile's TerrainTable flags, or 0 if it has no base tile
+     */
+    public int getTerrainFlags(int x, int y) {
+        return terrain.getFlags(PackedCell.getId(TileLayers.getPackedCell(baseLayer, x, y)));
+    }
+
+    /**
+     * Gets how much a character's speed is multiplied by on the map tile at the specified coordinates.
+     *
+     * @param x the x coordinate of the map tile
+     * @param y the y coordinate of the map tile
+     * @return the tile's speed multiplier, or 1 if it has no base tile
+     */
+    public float getTerrainSpeed(int x, int y) {
+        return terrain.getSpeed(PackedCell.getId(TileLayers.getPackedCell(baseLayer, x, y)));
+    }
+
+    /**
+     * Gets the blocked tiles of the map, merged into rectangles. These include the chosen obstacles.
+     *
+     * @return this Round's static collision index
+     */
+    public StaticCollisionIndex getStaticCollision() {
+        return staticCollision;
+    }
+
+    /**
+     * Gets the tiles of the map's spawn layer, bucketed by position.
+     *
+     * @return this Round's spawn index
+     */
+    public SpawnIndex getSpawnIndex() {
+        return spawnIndex;
+    }
+
+    /**
+     * Gets the clearance of every tile of the map.
+     *
+     * @return this Round's clearance map
+     */
+    public ClearanceMap getClearance() {
+        return clearance;
+    }
+
+    /**
+     * Gets the pathfinder used for long-range paths over the map by bodies of the specified size, loading or
+     * building it the first time. Sizes over MAX_PATH_SIZE share the largest pathfinder.
+     *
+     * @param size the size of the bodies, in tiles
+     * @return this Round's pathfinder for the size
+     */
+    public synchronized HierarchicalPathfinder getPathfinder(int size) {
+        size = MathUtils.clamp(size, 1, MAX_PATH_SIZE);
+
+        if (pathfinders[size] == null) {
+            pathfinders[size] = HierarchicalPathfinder.load(clearance, size, graphCacheDirectory);
+        }
+
+        return pathfinders[size];
+    }
+
+    /**
+     * Gets the pathfinder used for short paths near the player.
+     *
+     * @return this Round's jump point search
+     */
+    public JumpPointSearch getJumpPointSearch() {
+        return jumpPointSearch;
+    }
+
+    /**
+     * Gets the cache of recent pathfinding results shared between mobs.
+     *
+     * @return this Round's path cache
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Gets the steering layer that keeps crowds of mobs flowing around each other.
+     *
+     * @return this Round's crowd steering
+     */
+    public CrowdSteering getCrowdSteering() {
+        return crowdSteering;
+    }
+
+    /**
+     * Gets the policy deciding how much thinking each mob does by its distance from the player. Its settings can be
+     * changed per mob type.
+     *
+     * @return this Round's AI level of detail
+     */
+    public AILevelOfDetail getAILevelOfDetail() {
+        return aiLevelOfDetail;
+    }
+
+    /**
+     * Gets the scheduler that spreads the thinking of mobs with behaviour tree AI over frames, within a budget.
+     *
+     * @return this Round's AI scheduler
+     */
+    public AIScheduler getAIScheduler() {
+        return aiScheduler;
     }
 
     /**
-     * Converts screen coordinates to world coordinates.
+     * Gets the director that keeps mobs coming in waves. It is only enabled in survival rounds.
      *
-     * @param x the x coordinate on screen
-     * @param y the y coordinate on screen
-     * @return a Vector3 containing the world coordinates (x and y)
+     * @return this Round's director
      */
-    public Vector3 unproject(int x, int y) {
-        return parent.getGameScreen().unproject(x, y);
+    public Director getDirector() {
+        return director;
     }
 
     /**
@@ -309,12 +914,60 @@ public class Round {
     }
 
     /**
-     * Adds an entity to the entity list.
+     * Gets the physics world of the round.
+     *
+     * @return the Box2D world moving entities, or null if this Round uses the built-in collision checks
+     */
+    public PhysicsWorld getPhysics() {
+        return physics;
+    }
+
+    /**
+     * Gets the collision broadphase of the round.
+     *
+     * @return the grid holding every entity with a collider except projectiles
+     */
+    public SpatialGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+
+    /**
+     * Gets a list to reuse for collision grid queries. Cleared on every call, so only one query result can be in
+     * use at a time.
+     *
+     * @return an empty list
+     */
+    public Array<Entity> getQueryResults() {
+        queryResults.clear();
+        return queryResults;
+    }
+
+    /**
+     * Gets the entities in the round that can be damaged.
+     *
+     * @return the player and all mobs
+     */
+    public ImmutableArray<com.badlogic.ashley.core.Entity> getCharacters() {
+        return characters;
+    }
+
+    /**
+     * Gets the mobs in the round.
+     *
+     * @return all mobs
+     */
+    public ImmutableArray<com.badlogic.ashley.core.Entity> getMobs() {
+        return mobs;
+    }
+
+    /**
+     * Adds an entity to the round. Entities added while the round is updating join it once the current system
+     * has finished.
      *
      * @param newEntity new entity of any type
      */
     public void addEntity(Entity newEntity) {
-        entities.add(newEntity);
+        engine.addEntity(newEntity);
     }
 
     /**
@@ -356,8 +1009,8 @@ public class Round {
      * @param owner           the owner of the projectile (i.e. the one who fired it)
      */
     public void createProjectile(float x, float y, float targetX, float targetY, float speed, float velocityXOffset, float velocityYOffset, int damage, Entity owner) {
-        entities.add(new Projectile(this, x, y, targetX, targetY, speed, velocityXOffset, velocityYOffset, damage, owner));
-        Assets.laser.play(0.1f);
+        addEntity(new Projectile(this, x, y, targetX, targetY, speed, velocityXOffset, velocityYOffset, damage, owner));
+        sounds.play(Assets.laser, 0.1f);
     }
 
     /**
@@ -369,7 +1022,7 @@ public class Round {
      * @param animation the animation to use for the particle effect
      */
     public void createParticle(float x, float y, float duration, Animation animation) {
-        entities.add(new Particle(this, x , y, duration, animation));
+        addEntity(new Particle(this, x , y, duration, animation));
     }
 
     /**
@@ -381,7 +1034,7 @@ public class Round {
      * @param time    how long the powerup should last for
      */
     public void createPowerup(float x, float y, PowerupManager.powerupTypes powerup, float time) {
-        entities.add(new PowerupItem(this, x, y, powerup, time));
+        addEntity(new PowerupItem(this, x, y, powerup, time));
     }
 
     /**
@@ -392,7 +1045,7 @@ public class Round {
      * @param upgrade the upgrade to grant to the player
      */
     public void createUpgrade(int x, int y, Player.Upgrade upgrade) {
-        entities.add(new Upgrade(this, x, y, upgrade));
+        addEntity(new Upgrade(this, x, y, upgrade));
     }
 
     /**
@@ -412,45 +1065,11 @@ public class Round {
         }
 
         // Check mob doesn't intersect anything.
-        for (Entity entity : entities) {
-            if (entity instanceof Character
-                    && (mob.intersects(entity.getX(), entity.getY(), entity.getWidth(), entity.getHeight()) || mob.collidesX(0) || mob.collidesY(0))) {
-                return false;
-            }
-        }
-
-        entities.add(mob);
-        return true;
-    }
-
-    /**
-     * Spawns a mob somewhere on the map. Ensures it doesn't intersect anything and is on a spawn tile
-     * @param mob
-     * @return
-     */
-    public boolean spawnMob(Mob mob){
-        float x = mob.getX();
-        float y = mob.getY();
-        TextureSet textureSet = mob.getWalkingTextureSet();
-
-        // Check mob isn't out of bounds.
-        if (x < 0 || x > getMapWidth() - textureSet.getWidth() || y > getMapHeight() - textureSet.getHeight()) {
-            return false;
-        }
-
-        // Check mob doesn't intersect anything.
-        for (Entity entity : entities) {
-            if (entity instanceof Character
-                    && (mob.intersects(entity.getX(), entity.getY(), entity.getWidth(), entity.getHeight()) || mob.collidesX(0) || mob.collidesY(0))) {
-                return false;
-            }
-        }
-
-        if (getSpawnLayer().getCell((int)x / getTileWidth(), (int)y / getTileHeight()) == null){
+        if (mob.collidesX(0) || mob.collidesY(0)) {
             return false;
         }
 
-        entities.add(mob);
+        addEntity(mob);
         return true;
     }
 
@@ -460,6 +1079,16 @@ public class Round {
      * @param delta the time elapsed since the last update
      */
     public void update(float delta) {
+        long start = TimeUtils.nanoTime();
+
+        // When a replay runs out, hand control back to the player.
+        if (!inputSource.poll(this, delta, input)) {
+            inputSource = new LiveInputSource();
+            inputSource.poll(this, delta, input);
+        }
+
+        // The input decides the delta so that replays run with the recorded timings.
+        delta = input.getDelta();
 
         powerUpManager.update(delta);
         floatyNumbersManager.update(delta);
@@ -467,44 +1096,76 @@ public class Round {
         if (objective != null) {
             objective.update(delta);
 
+            // Screens can only be changed on the render thread, so the change is posted to it, once.
             if (objective.getStatus() == Objective.OBJECTIVE_COMPLETED) {
-                parent.showWinScreen(player.getScore());
+                if (!finished && parent != null) {
+                    final int score = player.getScore();
+                    Gdx.app.postRunnable(new Runnable() {
+                        @Override
+                        public void run() {
+                            parent.showWinScreen(score);
+                        }
+                    });
+                }
+                finished = true;
             } else if (player.isDead()) {
-                parent.showLoseScreen();
+                if (!finished && parent != null) {
+                    Gdx.app.postRunnable(new Runnable() {
+                        @Override
+                        public void run() {
+                            parent.showLoseScreen();
+                        }
+                    });
+                }
+                finished = true;
             }
         }
 
-        //int updateNumber =0, totalNumber=entities.size(), numMobs=0;
-        for (int i = 0; i < entities.size(); i++) {
-            Entity entity = entities.get(i);
-/*            if(entity instanceof Mob)
-                numMobs++;*/
-
-            if (entity.isRemoved()) {
-                if (entity instanceof Mob && ((Mob) entity).isDead()) {
-                    int score = (int) (((Mob) entity).getScore()* (powerUpManager.getIsActive(PowerupManager.powerupTypes.SCORE_MULTIPLIER) ? Player.PLAYER_SCORE_MULTIPLIER : 1));
-                    player.addScore(score);
-                    floatyNumbersManager.createScoreNumber(score, entity.getX(), entity.getY());
-                    if(objective.getObjectiveType()== Objective.objectiveType.BOSS){
-                        spawnRandomMobs(1, 0, 0, 1000, 1000);
-                    }
+        director.update(delta);
 
-                }
+        if (map instanceof ChunkedMap) {
+            ((ChunkedMap) map).update(player.getX(), player.getY());
+        }
 
-                entities.remove(i);
-            } else if ((entity.distanceTo(player.getX(), player.getY()) < UPDATE_DISTANCE_X)&&(entity.distanceTo(player.getX(), player.getY()) < UPDATE_DISTANCE_Y)){
-                // Don't bother updating entities that aren't on screen.
-                entity.update(delta);
-                //updateNumber++;
+        // Update entities, then remove the ones that have been flagged for removal.
+        engine.update(delta);
+
+        if (input.isPressed(InputFrame.STRESS_TEST)) {
+            for (int x=0;x<1000; x++) {
+                createProjectile(randomRange(300, 1500), randomRange(300, 1500), randomRange(300, 1500), randomRange(300, 1500), 500, 0, 0, 0, player);
             }
         }
 
-        if (Gdx.input.isKeyJustPressed(Input.Keys.P)) {
-            for (int x=0;x<1000; x++) {
-                createProjectile(MathUtils.random(300, 1500), MathUtils.random(300, 1500), MathUtils.random(300, 1500), MathUtils.random(300, 1500), 500, 0, 0, 0, player);
+        director.recordTickTime(TimeUtils.nanoTime() - start);
+    }
+
+    /**
+     * Called when a mob leaves the round. Awards its score to the player if it was killed.
+     *
+     * @param mob the mob that was removed
+     */
+    private void mobRemoved(Mob mob) {
+        if (mob.isDead()) {
+            int score = (int) (mob.getScore()* (powerUpManager.getIsActive(PowerupManager.powerupTypes.SCORE_MULTIPLIER) ? Player.PLAYER_SCORE_MULTIPLIER : 1));
+            player.addScore(score);
+            floatyNumbersManager.createScoreNumber(score, mob.getX(), mob.getY());
+            if(objective.getObjectiveType()== Objective.objectiveType.BOSS){
+                spawnRandomMobs(1, 0, 1000);
             }
         }
-        //System.out.println("total:"+totalNumber+" updated:"+updateNumber+" numMobs:"+numMobs);
+    }
+
+    /**
+     * Releases resources held by this Round, finishing any replay being recorded and freeing the physics world.
+     */
+    public void dispose() {
+        if (inputSource instanceof InputRecorder) {
+            ((InputRecorder) inputSource).close();
+        }
+
+        if (physics != null) {
+            physics.dispose();
+        }
     }
 
 
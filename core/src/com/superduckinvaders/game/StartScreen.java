@@ -59,7 +59,7 @@ public class StartScreen implements Screen {
         playButton.addListener(new ClickListener() {
 
             public void clicked(InputEvent event, float x, float y) {
-                parent.showGameScreen(new Round(parent, Assets.levels[0], Assets.levelMobs[0], false));
+                parent.showGameScreen(new Round(parent, parent.getLevelMap(1), Assets.levelMobs[0], false));
             }
         });
 
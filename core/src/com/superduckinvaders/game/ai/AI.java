@@ -1,7 +1,10 @@
 package com.superduckinvaders.game.ai;
 
+import com.badlogic.gdx.math.GridPoint2;
 import com.superduckinvaders.game.Round;
 import com.superduckinvaders.game.entity.Mob;
+import com.superduckinvaders.game.entity.Player;
+import com.superduckinvaders.game.map.ClearanceMap;
 
 /**
  * Defines movement and attacking behaviour for Mobs.
@@ -13,6 +16,16 @@ public abstract class AI {
      */
     protected Round round;
 
+    /**
+     * The tile to head for next, set by findPathStep.
+     */
+    protected final GridPoint2 pathStep = new GridPoint2();
+
+    /**
+     * The tiles a path was last found between.
+     */
+    private final GridPoint2 pathStart = new GridPoint2(), pathGoal = new GridPoint2();
+
     /**
      * Initialises this AI.
      *
@@ -28,4 +41,104 @@ public abstract class AI {
      * @param delta time since the previous update
      */
     public abstract void update(Mob mob, float delta);
+
+    /**
+     * Finds a path from a Mob to a target and sets pathStep to the tile to move the Mob's bottom left corner to next.
+     * A jump point search expanding at most the specified number of jump points is tried first, then a search over
+     * the whole map. Both use the clearance map, so the path is wide enough for the Mob. Results are shared
+     * through the Round's path cache.
+     *
+     * @param mob      the Mob to find a path for
+     * @param targetX  the x coordinate of the target
+     * @param targetY  the y coordinate of the target
+     * @param maxNodes how many jump points the local search may expand
+     * @return whether a path was found
+     */
+    public boolean findPathStep(Mob mob, float targetX, float targetY, int maxNodes) {
+        int tileWidth = round.getTileWidth(), tileHeight = round.getTileHeight();
+        int size = ClearanceMap.sizeOf(mob.getWidth(), mob.getHeight(), tileWidth, tileHeight);
+        ClearanceMap clearance = round.getClearance();
+
+        // Stand the Mob on the nearest tile it fits on, and aim for a tile where it would overlap the target.
+        if (!clearance.findNearest(mob.getX() / tileWidth, mob.getY() / tileHeight, size, 1, pathStart)
+                || !clearance.findNearest(targetX / tileWidth - (size - 1) / 2f, targetY / tileHeight, size, size, pathGoal)) {
+            return false;
+        }
+
+        // Mobs near each other often ask for the same path, so share the results.
+        int step = lookUpPath(pathStart, pathGoal, size);
+
+        if (step == PathCache.MISS) {
+            boolean found = round.getJumpPointSearch().findNextStep(pathStart.x, pathStart.y, pathGoal.x, pathGoal.y, size, maxNodes, pathStep)
+                    || round.getPathfinder(size).findNextStep(pathStart.x, pathStart.y, pathGoal.x, pathGoal.y, pathStep);
+
+            step = found ? pathStep.y * clearance.getWidth() + pathStep.x : PathCache.NO_PATH;
+            storePath(pathStart, pathGoal, size, step);
+        }
+
+        if (step == PathCache.NO_PATH) {
+            return false;
+        }
+
+        pathStep.set(step % clearance.getWidth(), step / clearance.getWidth());
+        return true;
+    }
+
+    /**
+     * Looks a path up in the Round's path cache.
+     *
+     * @param start the start tile
+     * @param goal  the goal tile
+     * @param size  the body size, in tiles
+     * @return the index of the first tile along the path (row * width + column), PathCache.NO_PATH, or PathCache.MISS
+     */
+    protected int lookUpPath(GridPoint2 start, GridPoint2 goal, int size) {
+        return round.getPathCache().get(start, goal, size);
+    }
+
+    /**
+     * Stores a path found by searching in the Round's path cache.
+     *
+     * @param start the start tile
+     * @param goal  the goal tile
+     * @param size  the body size, in tiles
+     * @param step  the index of the first tile along the path (row * width + column), or PathCache.NO_PATH
+     */
+    protected void storePath(GridPoint2 start, GridPoint2 goal, int size, int step) {
+        round.getPathCache().put(start, goal, size, step);
+    }
+
+    /**
+     * @return the tile to head for next, as set by the last successful findPathStep
+     */
+    public GridPoint2 getPathStep() {
+        return pathStep;
+    }
+
+    /**
+     * Plans a route over the whole map towards the player and heads along it. Used instead of update when the Mob
+     * is in the coarse level of detail tier, so it is only called every so often.
+     *
+     * @param mob pointer to the Mob using this AI
+     */
+    public void updateCoarse(Mob mob) {
+        Player player = round.getPlayer();
+
+        if (findPathStep(mob, player.getX(), player.getY(), 0)) {
+            mob.setVelocity(pathStep.x * round.getTileWidth() - mob.getX(), pathStep.y * round.getTileHeight() - mob.getY());
+        } else {
+            updateDrift(mob);
+        }
+    }
+
+    /**
+     * Heads straight for the player. Used instead of update when the Mob is in the drift level of detail tier, so
+     * it is only called every so often.
+     *
+     * @param mob pointer to the Mob using this AI
+     */
+    public void updateDrift(Mob mob) {
+        Player player = round.getPlayer();
+        mob.setVelocity(player.getX() - mob.getX(), player.getY() - mob.getY());
+    }
 }
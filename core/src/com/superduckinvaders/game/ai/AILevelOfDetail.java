@@ -0,0 +1,128 @@
+package com.superduckinvaders.game.ai;
+
+import com.superduckinvaders.game.entity.Mob;
+
+import java.util.EnumMap;
+
+/**
+ * Decides how much thinking each mob does from how far it is from the player, so that large battles stay cheap
+ * without distant mobs freezing in place.
+ * <p>
+ * Near the player a mob runs its full AI every tick. Further away it only plans a route over the whole map every
+ * so often, further still it just heads straight for the player, and past the last range it stops updating at all.
+ * The ranges and intervals are set per mob type.
+ */
+public class AILevelOfDetail {
+
+    /**
+     * How much thinking a mob does.
+     */
+    public enum Tier {
+        /**
+         * The full AI runs every tick.
+         */
+        FULL,
+        /**
+         * A map-wide path is planned every coarse interval.
+         */
+        COARSE,
+        /**
+         * The mob heads straight for the player, rethinking every drift interval.
+         */
+        DRIFT,
+        /**
+         * The mob isn't updated.
+         */
+        FROZEN
+    }
+
+    /**
+     * The ranges and intervals of the tiers for one mob type.
+     */
+    public static class Settings {
+
+        /**
+         * How far from the player, in pixels, each tier extends. A mob further than the drift range is frozen.
+         */
+        public final float fullRange, coarseRange, driftRange;
+
+        /**
+         * How often, in seconds, mobs in the coarse and drift tiers rethink.
+         */
+        public final float coarseInterval, driftInterval;
+
+        /**
+         * Initialises these Settings.
+         *
+         * @param fullRange      how far the full tier extends
+         * @param coarseRange    how far the coarse tier extends
+         * @param driftRange     how far the drift tier extends
+         * @param coarseInterval how often mobs in the coarse tier plan a path
+         * @param driftInterval  how often mobs in the drift tier turn towards the player
+         */
+        public Settings(float fullRange, float coarseRange, float driftRange, float coarseInterval, float driftInterval) {
+            this.fullRange = fullRange;
+            this.coarseRange = coarseRange;
+            this.driftRange = driftRange;
+            this.coarseInterval = coarseInterval;
+            this.driftInterval = driftInterval;
+        }
+    }
+
+    /**
+     * The settings for each mob type.
+     */
+    private final EnumMap<Mob.MobType, Settings> settings = new EnumMap<Mob.MobType, Settings>(Mob.MobType.class);
+
+    /**
+     * Initialises an AILevelOfDetail with the default settings. Melee and ranged mobs run their full AI as far out
+     * as they used to pathfind, plan coarse paths out to a screen's width and drift beyond that. The boss only ever
+     * runs its full AI, and freezes once it is off screen.
+     */
+    public AILevelOfDetail() {
+        set(Mob.MobType.MELEE, new Settings(1280 / 4, 1280, Float.MAX_VALUE, 0.5f, 1));
+        set(Mob.MobType.RANGED, new Settings(1280 / 2, 1280, Float.MAX_VALUE, 0.5f, 1));
+        set(Mob.MobType.BOSS, new Settings(720, 720, 720, 1, 1));
+    }
+
+    /**
+     * Sets the ranges and intervals for a mob type.
+     *
+     * @param type     the mob type
+     * @param settings the new settings
+     */
+    public void set(Mob.MobType type, Settings settings) {
+        this.settings.put(type, settings);
+    }
+
+    /**
+     * Gets the ranges and intervals for a mob type.
+     *
+     * @param type the mob type
+     * @return the settings
+     */
+    public Settings get(Mob.MobType type) {
+        return settings.get(type);
+    }
+
+    /**
+     * Gets how much thinking a mob of the specified type should do.
+     *
+     * @param type     the mob type
+     * @param distance how far the mob is from the player, in pixels
+     * @return the tier
+     */
+    public Tier tierOf(Mob.MobType type, float distance) {
+        Settings typeSettings = settings.get(type);
+
+        if (distance < typeSettings.fullRange) {
+            return Tier.FULL;
+        } else if (distance < typeSettings.coarseRange) {
+            return Tier.COARSE;
+        } else if (distance < typeSettings.driftRange) {
+            return Tier.DRIFT;
+        } else {
+            return Tier.FROZEN;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.gdx.ai.sched.LoadBalancingScheduler;
+import com.badlogic.gdx.ai.sched.Schedulable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.superduckinvaders.game.ecs.Workers;
+
+/**
+ * Decides when each BehaviourTreeAI thinks, keeping the AI's share of every frame within a budget.
+ * <p>
+ * The AIs sharing a tree are split into as many buckets as frames in their period, and each bucket is given to a
+ * LoadBalancingScheduler to run once per period. The scheduler phases every bucket, of every tree, so that as few as
+ * possible run on the same frame, and divides the frame's budget between the buckets that do. A new tree only adds
+ * buckets of its own, so it doesn't make the existing trees think any more often.
+ * <p>
+ * The AIs due to think do so in parallel on the Workers threads, then act on their Intents in the order they were
+ * gathered. A bucket only puts forward as many AIs as its share of the budget fits, unless the Round is deterministic.
+ */
+public class AIScheduler {
+
+    /**
+     * How long, in nanoseconds, the AI may spend thinking each frame by default.
+     */
+    public static final long DEFAULT_BUDGET = 2000000;
+
+    /**
+     * How many frames ahead the scheduler looks when choosing the phase of a new bucket.
+     */
+    private static final int DRY_RUN_FRAMES = 100;
+
+    /**
+     * How many AIs a worker thread thinks for at once.
+     */
+    private static final int THINK_GRAIN = 4;
+
+    /**
+     * How much each frame's measurement moves the expected cost of thinking.
+     */
+    private static final float COST_SMOOTHING = 0.1f;
+
+    /**
+     * The scheduler running the buckets.
+     */
+    private final LoadBalancingScheduler scheduler = new LoadBalancingScheduler(DRY_RUN_FRAMES);
+
+    /**
+     * The buckets of AIs sharing each tree, by the tree's path.
+     */
+    private final ObjectMap<String, Bucket[]> buckets = new ObjectMap<String, Bucket[]>();
+
+    /**
+     * How long, in nanoseconds, the AI may spend thinking each frame.
+     */
+    private long budget = DEFAULT_BUDGET;
+
+    /**
+     * Whether every AI due to think does, whatever the budget.
+     */
+    private boolean ignoreBudget = false;
+
+    /**
+     * The AIs thinking this frame, in the order they act.
+     */
+    private final Array<BehaviourTreeAI> thinking = new Array<BehaviourTreeAI>();
+
+    /**
+     * How long, in nanoseconds, each AI thinking is expected to add to the frame, or 0 before any have.
+     */
+    private float thinkCost = 0;
+
+    /**
+     * Lets a range of the AIs thinking this frame think.
+     */
+    private final Workers.Job think = new Workers.Job() {
+        @Override
+        public void run(int from, int to) {
+            for (int i = from; i < to; i++) {
+                thinking.get(i).think();
+            }
+        }
+    };
+
+    /**
+     * Starts scheduling an AI. It stops being scheduled once its Mob has been removed.
+     *
+     * @param ai the AI to schedule
+     */
+    public void add(BehaviourTreeAI ai) {
+        Bucket[] treeBuckets = buckets.get(ai.getTreePath());
+
+        if (treeBuckets == null) {
+            treeBuckets = new Bucket[ai.getPeriod()];
+
+            for (int i = 0; i < treeBuckets.length; i++) {
+                treeBuckets[i] = new Bucket();
+                scheduler.addWithAutomaticPhasing(treeBuckets[i], treeBuckets.length);
+            }
+
+            buckets.put(ai.getTreePath(), treeBuckets);
+        }
+
+        // Keep the buckets the same size so that every frame does a similar amount of thinking.
+        Bucket smallest = treeBuckets[0];
+
+        for (int i = 1; i < treeBuckets.length; i++) {
+            if (treeBuckets[i].members.size < smallest.members.size) {
+                smallest = treeBuckets[i];
+            }
+        }
+
+        smallest.members.add(ai);
+    }
+
+    /**
+     * Lets the AIs of the buckets due this frame think, then act.
+     *
+     * @param ignoreBudget whether every AI due to think should, whatever the budget
+     */
+    public void update(boolean ignoreBudget) {
+        this.ignoreBudget = ignoreBudget;
+        thinking.clear();
+        scheduler.run(budget);
+
+        if (thinking.size == 0) {
+            return;
+        }
+
+        long start = TimeUtils.nanoTime();
+        Workers.run(thinking.size, THINK_GRAIN, think);
+
+        float cost = (float) (TimeUtils.nanoTime() - start) / thinking.size;
+        thinkCost = thinkCost == 0 ? cost : thinkCost + (cost - thinkCost) * COST_SMOOTHING;
+
+        for (int i = 0; i < thinking.size; i++) {
+            thinking.get(i).act();
+        }
+
+        thinking.clear();
+    }
+
+    /**
+     * @return how long, in nanoseconds, the AI may spend thinking each frame
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets how long the AI may spend thinking each frame.
+     *
+     * @param budget the budget, in nanoseconds
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * The AIs sharing a tree that are due to think on the same frames.
+     */
+    private class Bucket implements Schedulable {
+
+        /**
+         * The AIs in this bucket, in the order they think.
+         */
+        final Array<BehaviourTreeAI> members = new Array<BehaviourTreeAI>();
+
+        /**
+         * The member to think first on the next run, after one that ran out of budget.
+         */
+        int next = 0;
+
+        /**
+         * Gathers the members due to think this frame, starting where the last run left off, until every member has
+         * been looked at or the budget is expected to run out.
+         *
+         * @param nanoTimeToRun the share of the frame's budget this bucket has
+         */
+        @Override
+        public void run(long nanoTimeToRun) {
+            // Forget the AIs of removed mobs.
+            for (int i = members.size - 1; i >= 0; i--) {
+                if (members.get(i).getMob().isRemoved()) {
+                    members.removeIndex(i);
+
+                    if (next > i) {
+                        next--;
+                    }
+                }
+            }
+
+            int allowed = ignoreBudget || thinkCost == 0 ? members.size : (int) Math.max(1, nanoTimeToRun / thinkCost);
+            int added = 0;
+
+            for (int count = 0; count < members.size; count++) {
+                if (next >= members.size) {
+                    next = 0;
+                }
+
+                if (added == allowed) {
+                    return;
+                }
+
+                BehaviourTreeAI ai = members.get(next++);
+
+                if (ai.isPending()) {
+                    thinking.add(ai);
+                    added++;
+                }
+            }
+
+            next = 0;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.utils.BehaviorTreeLibraryManager;
+import com.badlogic.gdx.math.GridPoint2;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.entity.Mob;
+
+/**
+ * AI driven by a behaviour tree loaded from a data file, with this AI as the tree's blackboard.
+ * <p>
+ * Updating the AI only records how much time has passed. The tree itself is stepped by the Round's AIScheduler, which
+ * spreads the mobs sharing a tree over the specified number of frames, so each Mob thinks once in that many frames.
+ * <p>
+ * Thinking, stepping the tree, may happen on a worker thread alongside other AIs thinking, so the tree's tasks only
+ * read the world and record what the Mob should do in this AI's Intent. Acting, back on the Round's thread, carries
+ * the Intent out. Path cache lookups made while thinking don't change the cache, and are repeated when acting.
+ */
+public class BehaviourTreeAI extends AI {
+
+    /**
+     * The tree mobs fighting on foot use.
+     */
+    public static final String MELEE_TREE = "ai/melee.tree";
+
+    /**
+     * The tree mobs shooting from a distance use.
+     */
+    public static final String RANGED_TREE = "ai/ranged.tree";
+
+    /**
+     * The tree the boss uses.
+     */
+    public static final String BOSS_TREE = "ai/boss.tree";
+
+    /**
+     * The file this AI's tree was loaded from.
+     */
+    private final String treePath;
+
+    /**
+     * How many frames apart this AI thinks.
+     */
+    private final int period;
+
+    /**
+     * This AI's copy of the tree.
+     */
+    private final BehaviorTree<BehaviourTreeAI> tree;
+
+    /**
+     * The Mob this AI controls, known from its first update.
+     */
+    private Mob mob;
+
+    /**
+     * How much time has passed since this AI last thought.
+     */
+    private float elapsed = 0;
+
+    /**
+     * Whether the Mob has been updated since this AI last thought.
+     */
+    private boolean pending = false;
+
+    /**
+     * Whether the tree is being stepped.
+     */
+    private boolean thinking = false;
+
+    /**
+     * What the Mob should do, decided when this AI last thought.
+     */
+    private final Intent intent = new Intent();
+
+    /**
+     * Initialises this BehaviourTreeAI.
+     *
+     * @param round    the round the Mob this AI controls is a part of
+     * @param treePath the internal path of the file to load the tree from
+     * @param period   how many frames apart the Mob thinks
+     */
+    public BehaviourTreeAI(Round round, String treePath, int period) {
+        super(round);
+
+        this.treePath = treePath;
+        this.period = period;
+        this.tree = BehaviorTreeLibraryManager.getInstance().createBehaviorTree(treePath, this);
+    }
+
+    /**
+     * Records that time has passed. The first update hands this AI to the Round's scheduler.
+     *
+     * @param mob   pointer to the Mob using this AI
+     * @param delta time since the previous update
+     */
+    @Override
+    public void update(Mob mob, float delta) {
+        if (this.mob == null) {
+            this.mob = mob;
+            round.getAIScheduler().add(this);
+        }
+
+        elapsed += delta;
+        pending = true;
+    }
+
+    /**
+     * Steps the tree if the Mob has been updated since the last time, recording what the Mob should do. Only reads
+     * the world, so different AIs may think at the same time.
+     *
+     * @return whether the tree was stepped
+     */
+    public boolean think() {
+        if (!pending) {
+            return false;
+        }
+
+        thinking = true;
+        tree.step();
+        thinking = false;
+        elapsed = 0;
+        pending = false;
+
+        return true;
+    }
+
+    /**
+     * Carries out what the Mob should do, as decided when this AI last thought.
+     */
+    public void act() {
+        intent.apply(mob, round);
+    }
+
+    /**
+     * Looks a path up without changing the path cache while thinking, recording the lookup to be repeated when
+     * acting.
+     */
+    @Override
+    protected int lookUpPath(GridPoint2 start, GridPoint2 goal, int size) {
+        if (!thinking) {
+            return super.lookUpPath(start, goal, size);
+        }
+
+        int step = round.getPathCache().peek(start, goal, size);
+
+        if (step != PathCache.MISS) {
+            intent.recordPath(start, goal, size, PathCache.MISS);
+        }
+
+        return step;
+    }
+
+    /**
+     * Records a path found while thinking, to be stored in the path cache when acting.
+     */
+    @Override
+    protected void storePath(GridPoint2 start, GridPoint2 goal, int size, int step) {
+        if (thinking) {
+            intent.recordPath(start, goal, size, step);
+        } else {
+            super.storePath(start, goal, size, step);
+        }
+    }
+
+    /**
+     * @return whether the Mob has been updated since this AI last thought, so it is due to think
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * @return what the Mob should do, as decided so far while thinking
+     */
+    public Intent getIntent() {
+        return intent;
+    }
+
+    /**
+     * @return the file this AI's tree was loaded from
+     */
+    public String getTreePath() {
+        return treePath;
+    }
+
+    /**
+     * @return how many frames apart this AI thinks
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return the round the Mob this AI controls is a part of
+     */
+    public Round getRound() {
+        return round;
+    }
+
+    /**
+     * @return the Mob this AI controls
+     */
+    public Mob getMob() {
+        return mob;
+    }
+
+    /**
+     * @return how much time has passed since this AI last thought, in seconds
+     */
+    public float getElapsed() {
+        return elapsed;
+    }
+}
@@ -0,0 +1,185 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.gdx.utils.Array;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.Mappers;
+import com.superduckinvaders.game.ecs.SteeringComponent;
+import com.superduckinvaders.game.entity.Entity;
+import com.superduckinvaders.game.entity.Mob;
+
+/**
+ * Adjusts each mob's velocity every tick so that crowds flow around each other instead of jamming, starting from the
+ * velocity its AI prefers. Nearby mobs are found through the Round's spatial grid.
+ * <p>
+ * Three behaviours are blended:
+ * <ul>
+ * <li>separation pushes apart mobs that are closer than their combined size plus a margin;</li>
+ * <li>alignment leans towards the average velocity of neighbours heading the same way, so crowds move as a stream;
+ * </li>
+ * <li>avoidance predicts when two mobs will collide from their relative velocity and, like reciprocal velocity
+ * obstacles, has each take half the sideways correction needed to pass.</li>
+ * </ul>
+ * The result is never faster than the preferred speed.
+ */
+public class CrowdSteering {
+
+    /**
+     * How far beyond its own size a mob looks for neighbours, in pixels.
+     */
+    public static final float NEIGHBOUR_RANGE = 32;
+
+    /**
+     * How much space mobs try to keep between each other, in pixels.
+     */
+    public static final float SEPARATION_MARGIN = 4;
+
+    /**
+     * How far ahead collisions are predicted, in seconds.
+     */
+    public static final float AVOIDANCE_HORIZON = 1;
+
+    /**
+     * How strongly each behaviour pulls on the preferred velocity.
+     */
+    private static final float SEPARATION_WEIGHT = 1.5f, ALIGNMENT_WEIGHT = 0.3f, AVOIDANCE_WEIGHT = 1;
+
+    /**
+     * The round whose mobs are steered.
+     */
+    private final Round round;
+
+    /**
+     * Initialises a CrowdSteering for the specified round.
+     *
+     * @param round the round whose mobs are steered
+     */
+    public CrowdSteering(Round round) {
+        this.round = round;
+    }
+
+    /**
+     * Sets a mob's velocity from its preferred velocity and its neighbours. Mobs that don't want to move, or that
+     * have collision disabled, keep their preferred velocity.
+     *
+     * @param mob the mob to steer
+     */
+    public void steer(Mob mob) {
+        SteeringComponent steering = Mappers.steering.get(mob);
+        float preferredX = steering.preferredX, preferredY = steering.preferredY;
+        float speed = (float) Math.sqrt(preferredX * preferredX + preferredY * preferredY);
+
+        if (speed == 0 || !mob.isCollisionEnabled()) {
+            mob.setSteeredVelocity(preferredX, preferredY);
+            return;
+        }
+
+        float radius = radiusOf(mob);
+        float centreX = mob.getX() + mob.getWidth() / 2f, centreY = mob.getY() + mob.getHeight() / 2f;
+        float range = radius + NEIGHBOUR_RANGE;
+
+        ColliderComponent collider = Mappers.collider.get(mob);
+        Array<Entity> neighbours = round.getQueryResults();
+        round.getCollisionGrid().query(centreX - range, centreY - range, range * 2, range * 2, collider.category,
+                collider.mask & (ColliderComponent.MOB | ColliderComponent.BOSS), neighbours);
+
+        float separationX = 0, separationY = 0;
+        float alignmentX = 0, alignmentY = 0;
+        float avoidanceX = 0, avoidanceY = 0;
+        int aligned = 0;
+
+        for (int i = 0; i < neighbours.size; i++) {
+            Entity other = neighbours.get(i);
+
+            if (other == mob) {
+                continue;
+            }
+
+            float otherRadius = radiusOf(other);
+            float offsetX = centreX - (other.getX() + other.getWidth() / 2f);
+            float offsetY = centreY - (other.getY() + other.getHeight() / 2f);
+            float distance = (float) Math.sqrt(offsetX * offsetX + offsetY * offsetY);
+            float minimum = radius + otherRadius + SEPARATION_MARGIN;
+
+            if (distance > range + otherRadius) {
+                continue;
+            }
+
+            // Separation: push away harder the deeper the overlap.
+            if (distance < minimum) {
+                if (distance == 0) {
+                    // Exactly on top of each other; split them along the preferred direction.
+                    offsetX = -preferredY;
+                    offsetY = preferredX;
+                    distance = speed;
+                }
+
+                float push = (minimum - distance) / minimum * speed;
+                separationX += offsetX / distance * push;
+                separationY += offsetY / distance * push;
+            }
+
+            // Alignment: follow neighbours already heading the same way.
+            float otherVelocityX = other.getVelocityX(), otherVelocityY = other.getVelocityY();
+
+            if (otherVelocityX * preferredX + otherVelocityY * preferredY > 0) {
+                alignmentX += otherVelocityX;
+                alignmentY += otherVelocityY;
+                aligned++;
+            }
+
+            // Avoidance: find the time of closest approach at the current relative velocity.
+            float relativeX = preferredX - otherVelocityX, relativeY = preferredY - otherVelocityY;
+            float relativeSpeed = relativeX * relativeX + relativeY * relativeY;
+
+            if (relativeSpeed > 0) {
+                float time = -(offsetX * relativeX + offsetY * relativeY) / relativeSpeed;
+
+                if (time > 0 && time < AVOIDANCE_HORIZON) {
+                    float missX = offsetX + relativeX * time, missY = offsetY + relativeY * time;
+                    float miss = (float) Math.sqrt(missX * missX + missY * missY);
+                    float combined = radius + otherRadius;
+
+                    if (miss < combined) {
+                        // Sidestep away from the point of closest approach, taking half the correction each.
+                        if (miss == 0) {
+                            missX = -relativeY;
+                            missY = relativeX;
+                            miss = (float) Math.sqrt(relativeSpeed);
+                        }
+
+                        float correction = (combined - miss) / (2 * time);
+                        avoidanceX += missX / miss * correction;
+                        avoidanceY += missY / miss * correction;
+                    }
+                }
+            }
+        }
+
+        float velocityX = preferredX + separationX * SEPARATION_WEIGHT + avoidanceX * AVOIDANCE_WEIGHT;
+        float velocityY = preferredY + separationY * SEPARATION_WEIGHT + avoidanceY * AVOIDANCE_WEIGHT;
+
+        if (aligned > 0) {
+            velocityX += (alignmentX / aligned - preferredX) * ALIGNMENT_WEIGHT;
+            velocityY += (alignmentY / aligned - preferredY) * ALIGNMENT_WEIGHT;
+        }
+
+        // Never go faster than the AI asked for.
+        float steeredSpeed = (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+
+        if (steeredSpeed > speed) {
+            velocityX *= speed / steeredSpeed;
+            velocityY *= speed / steeredSpeed;
+        }
+
+        mob.setSteeredVelocity(velocityX, velocityY);
+    }
+
+    /**
+     * @param entity an entity
+     * @return the radius of the circle steering treats the entity as
+     */
+    private static float radiusOf(Entity entity) {
+        return Math.max(entity.getWidth(), entity.getHeight()) / 2f;
+    }
+}
@@ -0,0 +1,246 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.ecs.AIComponent;
+import com.superduckinvaders.game.ecs.Mappers;
+import com.superduckinvaders.game.entity.Mob;
+import com.superduckinvaders.game.entity.Player;
+
+/**
+ * Keeps a target population of mobs around the player, so that rounds can go on for as long as the player survives.
+ * <p>
+ * Every wave interval the director counts the mobs near the player and spawns enough, up to a wave's worth, to make
+ * up the target. Mobs are spawned off screen from the Round's spawn index. Mobs that have been far from the player
+ * for a while are despawned, making room for new ones where the fighting is, so the number of mobs never grows.
+ * <p>
+ * While the Round's updates are over budget the director halves its waves, and grows them back slowly once they are
+ * within it. A deterministic Round always gets full waves.
+ */
+public class Director {
+
+    /**
+     * How many mobs the director keeps around the player by default.
+     */
+    public static final int DEFAULT_POPULATION = 30;
+
+    /**
+     * How many seconds apart waves are.
+     */
+    public static final float WAVE_INTERVAL = 5;
+
+    /**
+     * The most mobs a wave spawns.
+     */
+    public static final int WAVE_SIZE = 8;
+
+    /**
+     * How far from the player, in pixels along the x or y axis, mobs are spawned, so that they appear off screen.
+     */
+    public static final int MIN_SPAWN_DISTANCE = 700, MAX_SPAWN_DISTANCE = 1200;
+
+    /**
+     * How close to the player, in pixels, a mob has to be to count towards the population.
+     */
+    public static final float POPULATION_RANGE = 1600;
+
+    /**
+     * How far from the player, in pixels, a mob has to be to be despawned.
+     */
+    public static final float DESPAWN_DISTANCE = 2000;
+
+    /**
+     * How many seconds a mob has to stay that far away to be despawned.
+     */
+    public static final float DESPAWN_TIME = 5;
+
+    /**
+     * How long, in nanoseconds, an update may take before the director backs off. Leaves a quarter of a 60 FPS frame
+     * for rendering.
+     */
+    public static final long DEFAULT_TICK_BUDGET = 12500000;
+
+    /**
+     * The smallest fraction of a wave the director backs off to. Waves this small spawn nothing.
+     */
+    private static final float MIN_RATE = 1f / 16;
+
+    /**
+     * How much the wave size grows back after each wave within budget.
+     */
+    private static final float RECOVERY = 0.125f;
+
+    /**
+     * How much each new measurement counts towards the smoothed update time.
+     */
+    private static final float SMOOTHING = 0.1f;
+
+    /**
+     * The round this Director populates.
+     */
+    private final Round round;
+
+    /**
+     * Whether this Director spawns and despawns mobs.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How many mobs to keep around the player.
+     */
+    private int population = DEFAULT_POPULATION;
+
+    /**
+     * How long, in nanoseconds, an update may take before this Director backs off.
+     */
+    private long tickBudget = DEFAULT_TICK_BUDGET;
+
+    /**
+     * How long until the next wave, in seconds.
+     */
+    private float waveTimer = 0;
+
+    /**
+     * The fraction of a full wave currently spawned.
+     */
+    private float rate = 1;
+
+    /**
+     * How long the Round's updates take, in nanoseconds, smoothed over recent updates.
+     */
+    private float tickTime = 0;
+
+    /**
+     * Initialises a disabled Director.
+     *
+     * @param round the round to populate
+     */
+    public Director(Round round) {
+        this.round = round;
+    }
+
+    /**
+     * Records how long one of the Round's updates took.
+     *
+     * @param nanos the time taken, in nanoseconds
+     */
+    public void recordTickTime(long nanos) {
+        tickTime += (nanos - tickTime) * SMOOTHING;
+    }
+
+    /**
+     * Despawns far mobs and spawns a wave if one is due.
+     *
+     * @param delta how much time has passed since the last update
+     */
+    public void update(float delta) {
+        if (!enabled) {
+            return;
+        }
+
+        Player player = round.getPlayer();
+        ImmutableArray<com.badlogic.ashley.core.Entity> mobs = round.getMobs();
+        int nearby = 0;
+
+        for (int i = 0; i < mobs.size(); i++) {
+            Mob mob = (Mob) mobs.get(i);
+
+            if (mob.isRemoved() || mob.getType() == Mob.MobType.BOSS) {
+                continue;
+            }
+
+            AIComponent ai = Mappers.ai.get(mob);
+            float distance = mob.distanceTo(player.getX(), player.getY());
+
+            if (distance < DESPAWN_DISTANCE) {
+                ai.farTime = 0;
+            } else if ((ai.farTime += delta) >= DESPAWN_TIME) {
+                mob.remove();
+                continue;
+            }
+
+            if (distance < POPULATION_RANGE) {
+                nearby++;
+            }
+        }
+
+        waveTimer -= delta;
+
+        if (waveTimer > 0) {
+            return;
+        }
+
+        waveTimer = WAVE_INTERVAL;
+
+        // Back off while updates are over budget, and recover slowly once they aren't.
+        if (round.isDeterministic()) {
+            rate = 1;
+        } else if (tickTime > tickBudget) {
+            rate = Math.max(MIN_RATE, rate / 2);
+        } else {
+            rate = Math.min(1, rate + RECOVERY);
+        }
+
+        int wave = MathUtils.floor(Math.min(WAVE_SIZE, population - nearby) * rate);
+
+        if (wave > 0) {
+            round.spawnRandomMobs(wave, MIN_SPAWN_DISTANCE, MAX_SPAWN_DISTANCE);
+        }
+    }
+
+    /**
+     * @return whether this Director spawns and despawns mobs
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether this Director spawns and despawns mobs.
+     *
+     * @param enabled whether to populate the Round
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return how many mobs this Director keeps around the player
+     */
+    public int getPopulation() {
+        return population;
+    }
+
+    /**
+     * Sets how many mobs to keep around the player.
+     *
+     * @param population the target population
+     */
+    public void setPopulation(int population) {
+        this.population = population;
+    }
+
+    /**
+     * @return how long, in nanoseconds, an update may take before this Director backs off
+     */
+    public long getTickBudget() {
+        return tickBudget;
+    }
+
+    /**
+     * Sets how long an update may take before this Director backs off.
+     *
+     * @param tickBudget the budget, in nanoseconds
+     */
+    public void setTickBudget(long tickBudget) {
+        this.tickBudget = tickBudget;
+    }
+
+    /**
+     * @return the fraction of a full wave currently spawned
+     */
+    public float getRate() {
+        return rate;
+    }
+}
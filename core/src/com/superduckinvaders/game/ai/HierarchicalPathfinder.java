@@ -0,0 +1,792 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.superduckinvaders.game.map.ClearanceMap;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Finds paths across the whole map using hierarchical A* (HPA*).
+ * <p>
+ * The map is split into square clusters of tiles. Wherever two neighbouring clusters share a run of open tiles, one
+ * or two entrances are placed across the border, and every pair of entrance tiles inside a cluster is joined by the
+ * length of the shortest path between them. A query then only searches inside the start and goal clusters plus this
+ * much smaller abstract graph, so its cost depends on the number of clusters rather than the length of the path.
+ * <p>
+ * Each graph is built for bodies of one size, using the clearance map to tell where they fit; tiles are where the
+ * bottom left corner of the body stands. The graph only depends on which tiles are blocked, so it can be saved and
+ * loaded again for the same map. Queries keep their scratch state per thread.
+ */
+public class HierarchicalPathfinder {
+
+    /**
+     * The width and height of each cluster, in tiles.
+     */
+    public static final int CLUSTER_SIZE = 10;
+
+    /**
+     * Runs of open tiles along a border at least this long get an entrance at each end instead of one in the middle.
+     */
+    private static final int LONG_ENTRANCE = 6;
+
+    /**
+     * Identifies a saved graph ("SDHP") and the version of its format.
+     */
+    private static final int MAGIC = 0x53444850, VERSION = 2;
+
+    /**
+     * The clearance of every tile.
+     */
+    private final ClearanceMap clearance;
+
+    /**
+     * The size of the bodies this graph is for, in tiles.
+     */
+    private final int size;
+
+    /**
+     * The number of columns and rows of clusters.
+     */
+    private final int clustersX, clustersY;
+
+    /**
+     * The tile coordinates of each abstract node.
+     */
+    private int[] nodeX, nodeY;
+
+    /**
+     * The nodes each node is joined to, and the cost of each of those edges in tile steps.
+     */
+    private int[][] neighbours, costs;
+
+    /**
+     * The nodes in each cluster. Indexed by row * clustersX + column.
+     */
+    private int[][] clusterNodes;
+
+    /**
+     * Scratch state for queries, one per thread.
+     */
+    private final ThreadLocal<Search> searches = new ThreadLocal<Search>() {
+        @Override
+        protected Search initialValue() {
+            return new Search();
+        }
+    };
+
+    /**
+     * Initialises a HierarchicalPathfinder for bodies of the specified size, building its abstract graph.
+     *
+     * @param clearance the clearance of every tile
+     * @param size      the size of the bodies, in tiles
+     */
+    public HierarchicalPathfinder(ClearanceMap clearance, int size) {
+        this.clearance = clearance;
+        this.size = size;
+        this.clustersX = (clearance.getWidth() + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        this.clustersY = (clearance.getHeight() + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+
+        build();
+    }
+
+    /**
+     * Initialises a HierarchicalPathfinder for bodies of the specified size from a saved abstract graph.
+     *
+     * @param clearance the clearance of every tile
+     * @param size      the size of the bodies, in tiles
+     * @param in        the stream to read the graph from
+     * @throws IOException if the graph can't be read or doesn't match the map
+     */
+    private HierarchicalPathfinder(ClearanceMap clearance, int size, DataInputStream in) throws IOException {
+        this.clearance = clearance;
+        this.size = size;
+        this.clustersX = (clearance.getWidth() + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        this.clustersY = (clearance.getHeight() + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+
+        read(in);
+    }
+
+    /**
+     * Gets a HierarchicalPathfinder for bodies of the specified size, loading its graph from the cache directory if
+     * the same map has been seen before and saving it there otherwise. Problems with the cache are ignored.
+     *
+     * @param clearance the clearance of every tile
+     * @param size      the size of the bodies, in tiles
+     * @param directory the cache directory, or null to always build the graph
+     * @return the HierarchicalPathfinder
+     */
+    public static HierarchicalPathfinder load(ClearanceMap clearance, int size, FileHandle directory) {
+        if (directory == null) {
+            return new HierarchicalPathfinder(clearance, size);
+        }
+
+        FileHandle file = directory.child(Long.toHexString(hash(clearance, size)) + ".hpa");
+
+        if (file.exists()) {
+            DataInputStream in = null;
+
+            try {
+                in = new DataInputStream(file.read(4096));
+                return new HierarchicalPathfinder(clearance, size, in);
+            } catch (IOException e) {
+                // Fall through and rebuild the graph.
+            } catch (GdxRuntimeException e) {
+                // Fall through and rebuild the graph.
+            } finally {
+                closeQuietly(in);
+            }
+        }
+
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(clearance, size);
+        DataOutputStream out = null;
+
+        try {
+            out = new DataOutputStream(file.write(false, 4096));
+            pathfinder.write(out);
+        } catch (IOException e) {
+            file.delete();
+        } catch (GdxRuntimeException e) {
+            // The cache directory isn't writable; keep the graph in memory only.
+        } finally {
+            closeQuietly(out);
+        }
+
+        return pathfinder;
+    }
+
+    /**
+     * Hashes the blocked tiles of a map and a body size, identifying a graph in the cache.
+     *
+     * @param clearance the clearance of every tile
+     * @param size      the size of the bodies, in tiles
+     * @return the hash
+     */
+    public static long hash(ClearanceMap clearance, int size) {
+        // 64 bit FNV-1a over the sizes and every tile.
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ clearance.getWidth()) * 0x100000001b3L;
+        hash = (hash ^ clearance.getHeight()) * 0x100000001b3L;
+        hash = (hash ^ CLUSTER_SIZE) * 0x100000001b3L;
+        hash = (hash ^ size) * 0x100000001b3L;
+
+        for (int y = 0; y < clearance.getHeight(); y++) {
+            for (int x = 0; x < clearance.getWidth(); x++) {
+                hash = (hash ^ (clearance.get(x, y) > 0 ? 1 : 0)) * 0x100000001b3L;
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * @return the number of nodes in the abstract graph
+     */
+    public int getNodeCount() {
+        return nodeX.length;
+    }
+
+    /**
+     * Finds the shortest path between two tiles, moving between edge-adjacent tiles where the body fits, and gets
+     * the first tile to step onto.
+     *
+     * @param startX the column of the start tile
+     * @param startY the row of the start tile
+     * @param goalX  the column of the goal tile
+     * @param goalY  the row of the goal tile
+     * @param step   set to the first tile along the path, or the start tile if it is already the goal
+     * @return whether a path was found
+     */
+    public boolean findNextStep(int startX, int startY, int goalX, int goalY, GridPoint2 step) {
+        if (!fits(startX, startY) || !fits(goalX, goalY)) {
+            return false;
+        }
+
+        if (startX == goalX && startY == goalY) {
+            step.set(startX, startY);
+            return true;
+        }
+
+        Search search = searches.get();
+        search.prepare(nodeX.length);
+
+        int startCluster = clusterOf(startX, startY), goalCluster = clusterOf(goalX, goalY);
+        int startNode = nodeX.length, goalNode = nodeX.length + 1;
+
+        // Join the start and goal to the entrances of their clusters.
+        search.fromGoal.explore(this, goalX, goalY, goalCluster);
+        search.fromStart.explore(this, startX, startY, startCluster);
+
+        if (!search.open(startNode, 0, heuristic(startX, startY, goalX, goalY), -1)) {
+            return false;
+        }
+
+        while (search.heapSize > 0) {
+            int node = search.pop();
+
+            if (node < 0 || node == goalNode) {
+                break;
+            }
+
+            if (node == startNode) {
+                int[] nodes = clusterNodes[startCluster];
+
+                for (int i = 0; i < nodes.length; i++) {
+                    int cost = search.fromStart.distanceTo(this, nodeX[nodes[i]], nodeY[nodes[i]]);
+
+                    if (cost >= 0) {
+                        search.open(nodes[i], cost, cost + heuristic(nodeX[nodes[i]], nodeY[nodes[i]], goalX, goalY), node);
+                    }
+                }
+
+                if (startCluster == goalCluster) {
+                    int cost = search.fromStart.distanceTo(this, goalX, goalY);
+
+                    if (cost >= 0) {
+                        search.open(goalNode, cost, cost, node);
+                    }
+                }
+            } else {
+                int g = search.g[node];
+
+                for (int i = 0; i < neighbours[node].length; i++) {
+                    int next = neighbours[node][i], cost = g + costs[node][i];
+                    search.open(next, cost, cost + heuristic(nodeX[next], nodeY[next], goalX, goalY), node);
+                }
+
+                if (clusterOf(nodeX[node], nodeY[node]) == goalCluster) {
+                    int cost = search.fromGoal.distanceTo(this, nodeX[node], nodeY[node]);
+
+                    if (cost >= 0) {
+                        search.open(goalNode, g + cost, g + cost, node);
+                    }
+                }
+            }
+        }
+
+        if (search.stamp[goalNode] != search.currentStamp) {
+            return false;
+        }
+
+        // Walk back to the first node after the start that isn't on the start tile.
+        int first = goalNode;
+        int node = goalNode;
+
+        while (node != startNode) {
+            int x = node == goalNode ? goalX : nodeX[node], y = node == goalNode ? goalY : nodeY[node];
+
+            if (x != startX || y != startY) {
+                first = node;
+            }
+
+            node = search.parent[node];
+        }
+
+        int firstX = first == goalNode ? goalX : nodeX[first], firstY = first == goalNode ? goalY : nodeY[first];
+
+        if (clusterOf(firstX, firstY) != startCluster) {
+            // Only an entrance edge leaves the start cluster, and those join neighbouring tiles.
+            step.set(firstX, firstY);
+        } else {
+            search.fromStart.firstStep(this, firstX, firstY, step);
+        }
+
+        return true;
+    }
+
+    /**
+     * @param x a column
+     * @param y a row
+     * @return whether a body fits with its bottom left corner on the tile
+     */
+    private boolean fits(int x, int y) {
+        return clearance.fits(x, y, size);
+    }
+
+    /**
+     * @param x the column of a tile
+     * @param y the row of a tile
+     * @return the index of the cluster containing the tile
+     */
+    private int clusterOf(int x, int y) {
+        return (y / CLUSTER_SIZE) * clustersX + x / CLUSTER_SIZE;
+    }
+
+    /**
+     * @return the Manhattan distance between two tiles
+     */
+    private static int heuristic(int x, int y, int goalX, int goalY) {
+        return Math.abs(goalX - x) + Math.abs(goalY - y);
+    }
+
+    /**
+     * Builds the abstract graph: entrances between every pair of neighbouring clusters, then the paths between the
+     * entrances inside each cluster.
+     */
+    private void build() {
+        int width = clearance.getWidth(), height = clearance.getHeight();
+        int[] nodeAt = new int[width * height];
+        IntArray xs = new IntArray(), ys = new IntArray();
+        IntArray edgeFrom = new IntArray(), edgeTo = new IntArray(), edgeCost = new IntArray();
+
+        for (int i = 0; i < nodeAt.length; i++) {
+            nodeAt[i] = -1;
+        }
+
+        // Vertical borders, between a cluster and the one to its right.
+        for (int borderX = CLUSTER_SIZE - 1; borderX + 1 < width; borderX += CLUSTER_SIZE) {
+            for (int minY = 0; minY < height; minY += CLUSTER_SIZE) {
+                int maxY = Math.min(height, minY + CLUSTER_SIZE);
+                int runStart = -1;
+
+                for (int y = minY; y <= maxY; y++) {
+                    boolean open = y < maxY && fits(borderX, y) && fits(borderX + 1, y);
+
+                    if (open && runStart < 0) {
+                        runStart = y;
+                    } else if (!open && runStart >= 0) {
+                        for (int entrance : entrancesOf(runStart, y)) {
+                            int a = node(nodeAt, xs, ys, borderX, entrance), b = node(nodeAt, xs, ys, borderX + 1, entrance);
+                            edgeFrom.add(a);
+                            edgeTo.add(b);
+                            edgeCost.add(1);
+                        }
+
+                        runStart = -1;
+                    }
+                }
+            }
+        }
+
+        // Horizontal borders, between a cluster and the one above it.
+        for (int borderY = CLUSTER_SIZE - 1; borderY + 1 < height; borderY += CLUSTER_SIZE) {
+            for (int minX = 0; minX < width; minX += CLUSTER_SIZE) {
+                int maxX = Math.min(width, minX + CLUSTER_SIZE);
+                int runStart = -1;
+
+                for (int x = minX; x <= maxX; x++) {
+                    boolean open = x < maxX && fits(x, borderY) && fits(x, borderY + 1);
+
+                    if (open && runStart < 0) {
+                        runStart = x;
+                    } else if (!open && runStart >= 0) {
+                        for (int entrance : entrancesOf(runStart, x)) {
+                            int a = node(nodeAt, xs, ys, entrance, borderY), b = node(nodeAt, xs, ys, entrance, borderY + 1);
+                            edgeFrom.add(a);
+                            edgeTo.add(b);
+                            edgeCost.add(1);
+                        }
+
+                        runStart = -1;
+                    }
+                }
+            }
+        }
+
+        nodeX = xs.toArray();
+        nodeY = ys.toArray();
+        buildClusterNodes();
+
+        // Join every pair of entrances inside each cluster that can reach each other.
+        ClusterSearch search = new ClusterSearch();
+
+        for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+            int[] nodes = clusterNodes[cluster];
+
+            for (int i = 0; i < nodes.length; i++) {
+                search.explore(this, nodeX[nodes[i]], nodeY[nodes[i]], cluster);
+
+                for (int j = i + 1; j < nodes.length; j++) {
+                    int cost = search.distanceTo(this, nodeX[nodes[j]], nodeY[nodes[j]]);
+
+                    if (cost >= 0) {
+                        edgeFrom.add(nodes[i]);
+                        edgeTo.add(nodes[j]);
+                        edgeCost.add(cost);
+                    }
+                }
+            }
+        }
+
+        // Store the edges both ways, grouped by node.
+        int[] degree = new int[nodeX.length];
+
+        for (int i = 0; i < edgeFrom.size; i++) {
+            degree[edgeFrom.get(i)]++;
+            degree[edgeTo.get(i)]++;
+        }
+
+        neighbours = new int[nodeX.length][];
+        costs = new int[nodeX.length][];
+
+        for (int i = 0; i < nodeX.length; i++) {
+            neighbours[i] = new int[degree[i]];
+            costs[i] = new int[degree[i]];
+            degree[i] = 0;
+        }
+
+        for (int i = 0; i < edgeFrom.size; i++) {
+            int a = edgeFrom.get(i), b = edgeTo.get(i);
+            neighbours[a][degree[a]] = b;
+            costs[a][degree[a]++] = edgeCost.get(i);
+            neighbours[b][degree[b]] = a;
+            costs[b][degree[b]++] = edgeCost.get(i);
+        }
+    }
+
+    /**
+     * Gets where to place entrances along a run of open tiles on a border.
+     *
+     * @param start the first tile of the run
+     * @param end   the tile after the last tile of the run
+     * @return the positions of the entrances along the border
+     */
+    private static int[] entrancesOf(int start, int end) {
+        if (end - start >= LONG_ENTRANCE) {
+            return new int[] {start, end - 1};
+        } else {
+            return new int[] {(start + end - 1) / 2};
+        }
+    }
+
+    /**
+     * Gets the node on the specified tile, adding one if there isn't one yet.
+     *
+     * @return the index of the node
+     */
+    private int node(int[] nodeAt, IntArray xs, IntArray ys, int x, int y) {
+        int index = y * clearance.getWidth() + x;
+
+        if (nodeAt[index] < 0) {
+            nodeAt[index] = xs.size;
+            xs.add(x);
+            ys.add(y);
+        }
+
+        return nodeAt[index];
+    }
+
+    /**
+     * Groups the nodes by the cluster they are in.
+     */
+    private void buildClusterNodes() {
+        int[] counts = new int[clustersX * clustersY];
+
+        for (int i = 0; i < nodeX.length; i++) {
+            counts[clusterOf(nodeX[i], nodeY[i])]++;
+        }
+
+        clusterNodes = new int[counts.length][];
+
+        for (int i = 0; i < counts.length; i++) {
+            clusterNodes[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+
+        for (int i = 0; i < nodeX.length; i++) {
+            int cluster = clusterOf(nodeX[i], nodeY[i]);
+            clusterNodes[cluster][counts[cluster]++] = i;
+        }
+    }
+
+    /**
+     * Writes the abstract graph.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the graph can't be written
+     */
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(clearance.getWidth());
+        out.writeInt(clearance.getHeight());
+        out.writeInt(size);
+        out.writeInt(nodeX.length);
+
+        for (int i = 0; i < nodeX.length; i++) {
+            out.writeShort(nodeX[i]);
+            out.writeShort(nodeY[i]);
+            out.writeShort(neighbours[i].length);
+
+            for (int j = 0; j < neighbours[i].length; j++) {
+                out.writeInt(neighbours[i][j]);
+                out.writeShort(costs[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Reads an abstract graph written by write.
+     *
+     * @param in the stream to read from
+     * @throws IOException if the graph can't be read or doesn't match the map
+     */
+    private void read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != clearance.getWidth() || in.readInt() != clearance.getHeight() || in.readInt() != size) {
+            throw new IOException("Saved graph doesn't match this map");
+        }
+
+        int count = in.readInt();
+        nodeX = new int[count];
+        nodeY = new int[count];
+        neighbours = new int[count][];
+        costs = new int[count][];
+
+        for (int i = 0; i < count; i++) {
+            nodeX[i] = in.readShort();
+            nodeY[i] = in.readShort();
+            neighbours[i] = new int[in.readShort()];
+            costs[i] = new int[neighbours[i].length];
+
+            for (int j = 0; j < neighbours[i].length; j++) {
+                neighbours[i][j] = in.readInt();
+                costs[i][j] = in.readShort();
+            }
+        }
+
+        buildClusterNodes();
+    }
+
+    /**
+     * Closes a stream, ignoring any error.
+     *
+     * @param stream the stream to close, or null
+     */
+    private static void closeQuietly(Closeable stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Nothing more can be done.
+            }
+        }
+    }
+
+    /**
+     * A breadth-first search from one tile to every tile it can reach within its cluster.
+     */
+    private static class ClusterSearch {
+
+        /**
+         * The distance to each tile of the cluster, valid where the stamp matches. Indexed by local row * CLUSTER_SIZE
+         * + local column.
+         */
+        private final int[] distance = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+
+        /**
+         * The tile each tile was reached from.
+         */
+        private final int[] previous = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+
+        /**
+         * Which search last reached each tile.
+         */
+        private final int[] stamp = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+
+        /**
+         * The tiles waiting to be expanded.
+         */
+        private final int[] queue = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+
+        /**
+         * The current search and the first tile of the explored cluster.
+         */
+        private int currentStamp, originX, originY, startIndex;
+
+        /**
+         * Explores the cluster from the specified tile.
+         */
+        void explore(HierarchicalPathfinder pathfinder, int x, int y, int cluster) {
+            currentStamp++;
+            originX = (cluster % pathfinder.clustersX) * CLUSTER_SIZE;
+            originY = (cluster / pathfinder.clustersX) * CLUSTER_SIZE;
+
+            int maxX = Math.min(CLUSTER_SIZE, pathfinder.clearance.getWidth() - originX);
+            int maxY = Math.min(CLUSTER_SIZE, pathfinder.clearance.getHeight() - originY);
+
+            startIndex = (y - originY) * CLUSTER_SIZE + x - originX;
+            distance[startIndex] = 0;
+            previous[startIndex] = -1;
+            stamp[startIndex] = currentStamp;
+
+            int head = 0, tail = 0;
+            queue[tail++] = startIndex;
+
+            while (head < tail) {
+                int index = queue[head++];
+                int localX = index % CLUSTER_SIZE, localY = index / CLUSTER_SIZE;
+
+                for (int direction = 0; direction < 4; direction++) {
+                    int nextX = localX + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+                    int nextY = localY + (direction == 2 ? 1 : direction == 3 ? -1 : 0);
+
+                    if (nextX < 0 || nextY < 0 || nextX >= maxX || nextY >= maxY) {
+                        continue;
+                    }
+
+                    int next = nextY * CLUSTER_SIZE + nextX;
+
+                    if (stamp[next] != currentStamp && pathfinder.fits(originX + nextX, originY + nextY)) {
+                        stamp[next] = currentStamp;
+                        distance[next] = distance[index] + 1;
+                        previous[next] = index;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the number of steps to a tile in the explored cluster, or -1 if it can't be reached
+         */
+        int distanceTo(HierarchicalPathfinder pathfinder, int x, int y) {
+            int index = (y - originY) * CLUSTER_SIZE + x - originX;
+            return stamp[index] == currentStamp ? distance[index] : -1;
+        }
+
+        /**
+         * Sets the first tile to step onto along the path to a reachable tile in the explored cluster.
+         */
+        void firstStep(HierarchicalPathfinder pathfinder, int x, int y, GridPoint2 step) {
+            int index = (y - originY) * CLUSTER_SIZE + x - originX;
+
+            while (previous[index] != startIndex && previous[index] >= 0) {
+                index = previous[index];
+            }
+
+            step.set(originX + index % CLUSTER_SIZE, originY + index / CLUSTER_SIZE);
+        }
+    }
+
+    /**
+     * The scratch state of one query: searches in the start and goal clusters, and A* over the abstract graph.
+     */
+    private static class Search {
+
+        /**
+         * The searches from the start and goal tiles within their clusters.
+         */
+        final ClusterSearch fromStart = new ClusterSearch(), fromGoal = new ClusterSearch();
+
+        /**
+         * The cost so far and the previous node of each abstract node, valid where the stamp matches.
+         */
+        int[] g = new int[0], parent = new int[0], stamp = new int[0];
+
+        /**
+         * Whether each node has been expanded in the current query, valid where the stamp matches.
+         */
+        boolean[] closed = new boolean[0];
+
+        /**
+         * The open nodes and their estimated total costs, as a binary min-heap. Nodes may appear more than once.
+         */
+        int[] heapNodes = new int[64], heapCosts = new int[64];
+
+        /**
+         * The number of entries in the heap and the current query.
+         */
+        int heapSize, currentStamp;
+
+        /**
+         * Clears the state for a graph with the specified number of nodes, plus the start and goal.
+         */
+        void prepare(int nodes) {
+            if (g.length < nodes + 2) {
+                g = new int[nodes + 2];
+                parent = new int[nodes + 2];
+                stamp = new int[nodes + 2];
+                closed = new boolean[nodes + 2];
+            }
+
+            currentStamp++;
+            heapSize = 0;
+        }
+
+        /**
+         * Records a path to a node if it is better than any found so far.
+         *
+         * @return whether the node was opened
+         */
+        boolean open(int node, int cost, int estimate, int from) {
+            if (stamp[node] == currentStamp && (closed[node] || g[node] <= cost)) {
+                return false;
+            }
+
+            stamp[node] = currentStamp;
+            closed[node] = false;
+            g[node] = cost;
+            parent[node] = from;
+            push(node, estimate);
+            return true;
+        }
+
+        /**
+         * Adds an entry to the heap.
+         */
+        private void push(int node, int cost) {
+            if (heapSize == heapNodes.length) {
+                int[] nodes = new int[heapSize * 2], costs = new int[heapSize * 2];
+                System.arraycopy(heapNodes, 0, nodes, 0, heapSize);
+                System.arraycopy(heapCosts, 0, costs, 0, heapSize);
+                heapNodes = nodes;
+                heapCosts = costs;
+            }
+
+            int index = heapSize++;
+
+            while (index > 0 && heapCosts[(index - 1) / 2] > cost) {
+                heapNodes[index] = heapNodes[(index - 1) / 2];
+                heapCosts[index] = heapCosts[(index - 1) / 2];
+                index = (index - 1) / 2;
+            }
+
+            heapNodes[index] = node;
+            heapCosts[index] = cost;
+        }
+
+        /**
+         * Removes the cheapest node not yet expanded from the heap and marks it expanded.
+         *
+         * @return the node, or -1 if the heap has run out
+         */
+        int pop() {
+            while (heapSize > 0) {
+                int node = heapNodes[0];
+                int lastNode = heapNodes[--heapSize], lastCost = heapCosts[heapSize];
+                int index = 0;
+
+                while (index * 2 + 1 < heapSize) {
+                    int child = index * 2 + 1;
+
+                    if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) {
+                        child++;
+                    }
+
+                    if (heapCosts[child] >= lastCost) {
+                        break;
+                    }
+
+                    heapNodes[index] = heapNodes[child];
+                    heapCosts[index] = heapCosts[child];
+                    index = child;
+                }
+
+                heapNodes[index] = lastNode;
+                heapCosts[index] = lastCost;
+
+                if (!closed[node]) {
+                    closed[node] = true;
+                    return node;
+                }
+            }
+
+            return -1;
+        }
+    }
+}
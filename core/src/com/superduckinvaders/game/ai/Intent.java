@@ -0,0 +1,151 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.entity.Mob;
+
+/**
+ * What a BehaviourTreeAI decided to do when it last thought, to be carried out once every AI due to think has.
+ */
+public class Intent {
+
+    /**
+     * How many ints each path query takes up: start x and y, goal x and y, body size and step found.
+     */
+    private static final int PATH_STRIDE = 6;
+
+    /**
+     * How many floats each shot takes up: target x and y, speed and damage.
+     */
+    private static final int SHOT_STRIDE = 4;
+
+    /**
+     * Whether the Mob should change velocity.
+     */
+    private boolean moving = false;
+
+    /**
+     * The direction the Mob should head in.
+     */
+    private float moveX, moveY;
+
+    /**
+     * The shots to fire, SHOT_STRIDE floats each.
+     */
+    private final FloatArray shots = new FloatArray();
+
+    /**
+     * The damage of each hit on the player.
+     */
+    private final IntArray hits = new IntArray();
+
+    /**
+     * The path cache queries made, PATH_STRIDE ints each, to be repeated against the cache.
+     */
+    private final IntArray paths = new IntArray();
+
+    /**
+     * Scratch space for repeating path cache queries.
+     */
+    private final GridPoint2 start = new GridPoint2(), goal = new GridPoint2();
+
+    /**
+     * Asks for the Mob to head in a direction at its own speed, or to stop.
+     *
+     * @param x the x component of the direction
+     * @param y the y component of the direction, or 0 with x to stop
+     */
+    public void move(float x, float y) {
+        moving = true;
+        moveX = x;
+        moveY = y;
+    }
+
+    /**
+     * Asks for the Mob to fire a projectile.
+     *
+     * @param targetX the x coordinate to fire at
+     * @param targetY the y coordinate to fire at
+     * @param speed   how fast the projectile moves
+     * @param damage  how much damage the projectile does
+     */
+    public void fireAt(float targetX, float targetY, int speed, int damage) {
+        shots.add(targetX);
+        shots.add(targetY);
+        shots.add(speed);
+        shots.add(damage);
+    }
+
+    /**
+     * Asks for the player to be hit.
+     *
+     * @param damage how much damage the hit does
+     */
+    public void hitPlayer(int damage) {
+        hits.add(damage);
+    }
+
+    /**
+     * Records a path cache query, to be repeated against the cache when carried out.
+     *
+     * @param start the start tile
+     * @param goal  the goal tile
+     * @param size  the body size, in tiles
+     * @param step  the step found by searching, or PathCache.MISS if the query was answered from the cache
+     */
+    public void recordPath(GridPoint2 start, GridPoint2 goal, int size, int step) {
+        paths.add(start.x);
+        paths.add(start.y);
+        paths.add(goal.x);
+        paths.add(goal.y);
+        paths.add(size);
+        paths.add(step);
+    }
+
+    /**
+     * Carries out the decisions and forgets them.
+     *
+     * @param mob   the Mob that decided
+     * @param round the Round the Mob is part of
+     */
+    public void apply(Mob mob, Round round) {
+        PathCache cache = round.getPathCache();
+
+        // Repeat the queries in order, so the cache ends up as if the AIs had thought one after another.
+        for (int i = 0; i < paths.size; i += PATH_STRIDE) {
+            start.set(paths.get(i), paths.get(i + 1));
+            goal.set(paths.get(i + 2), paths.get(i + 3));
+            cache.get(start, goal, paths.get(i + 4));
+
+            if (paths.get(i + 5) != PathCache.MISS) {
+                cache.put(start, goal, paths.get(i + 4), paths.get(i + 5));
+            }
+        }
+
+        if (moving) {
+            mob.setVelocity(moveX, moveY);
+        }
+
+        for (int i = 0; i < shots.size; i += SHOT_STRIDE) {
+            mob.fireAt(shots.get(i), shots.get(i + 1), (int) shots.get(i + 2), (int) shots.get(i + 3));
+        }
+
+        for (int i = 0; i < hits.size; i++) {
+            round.getPlayer().damage(hits.get(i));
+        }
+
+        clear();
+    }
+
+    /**
+     * Forgets the decisions without carrying them out.
+     */
+    public void clear() {
+        moving = false;
+        shots.clear();
+        hits.clear();
+        paths.clear();
+    }
+}
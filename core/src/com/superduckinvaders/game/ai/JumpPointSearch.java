@@ -0,0 +1,420 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.superduckinvaders.game.map.ClearanceMap;
+
+/**
+ * Finds paths between tiles with Jump Point Search, an A* variant for uniform-cost grids that skips over the
+ * straight and diagonal runs of open tiles where every path is as good as any other, only stopping at tiles where
+ * the way forward branches.
+ * <p>
+ * Moves are 8-connected, but diagonal moves are only allowed when the body fits on both tiles beside the diagonal,
+ * so that a path never clips the corner of a wall. Searches read the clearance map directly, so bodies of every size
+ * share it, and keep their scratch state per thread. That state only covers the tiles a search reaches, so it stays
+ * small however big the map is.
+ */
+public class JumpPointSearch {
+
+    /**
+     * The cost of a diagonal move.
+     */
+    private static final float DIAGONAL_COST = 1.4142135f;
+
+    /**
+     * The clearance of every tile.
+     */
+    private final ClearanceMap clearance;
+
+    /**
+     * The number of columns of tiles.
+     */
+    private final int width;
+
+    /**
+     * Scratch state for searches, one per thread.
+     */
+    private final ThreadLocal<Search> searches = new ThreadLocal<Search>() {
+        @Override
+        protected Search initialValue() {
+            return new Search();
+        }
+    };
+
+    /**
+     * Initialises a JumpPointSearch over the specified clearances.
+     *
+     * @param clearance the clearance of every tile
+     */
+    public JumpPointSearch(ClearanceMap clearance) {
+        this.clearance = clearance;
+        this.width = clearance.getWidth();
+    }
+
+    /**
+     * Finds the shortest path for a body between two tiles and gets the first jump point along it. Tiles are where
+     * the bottom left corner of the body stands, and the body fits on every tile along the straight or diagonal line
+     * from the start to that jump point.
+     *
+     * @param startX   the column of the start tile
+     * @param startY   the row of the start tile
+     * @param goalX    the column of the goal tile
+     * @param goalY    the row of the goal tile
+     * @param size     the size of the body moving along the path, in tiles
+     * @param maxNodes how many jump points may be expanded before giving up
+     * @param step     set to the first jump point along the path, or the start tile if it is already the goal
+     * @return whether a path was found within the limit
+     */
+    public boolean findNextStep(int startX, int startY, int goalX, int goalY, int size, int maxNodes, GridPoint2 step) {
+        if (!fits(size, startX, startY) || !fits(size, goalX, goalY)) {
+            return false;
+        }
+
+        int start = startY * width + startX, goal = goalY * width + goalX;
+
+        if (start == goal) {
+            step.set(startX, startY);
+            return true;
+        }
+
+        Search search = searches.get();
+        search.prepare();
+        search.open(start, 0, heuristic(startX, startY, goalX, goalY), -1);
+
+        int expanded = 0;
+
+        while (expanded < maxNodes) {
+            int node = search.pop();
+
+            if (node < 0) {
+                return false;
+            }
+
+            if (node == goal) {
+                // Walk back to the jump point straight after the start.
+                while (search.parentOf(node) != start) {
+                    node = search.parentOf(node);
+                }
+
+                step.set(node % width, node / width);
+                return true;
+            }
+
+            expanded++;
+            expand(search, node, goalX, goalY, size);
+        }
+
+        return false;
+    }
+
+    /**
+     * Opens the jump points reachable from a node, pruning the directions its parent already covers.
+     */
+    private void expand(Search search, int node, int goalX, int goalY, int size) {
+        int x = node % width, y = node / width;
+        int parent = search.parentOf(node);
+
+        if (parent < 0) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if ((dx != 0 || dy != 0) && canMove(size, x, y, dx, dy)) {
+                        jumpFrom(search, node, x, y, dx, dy, goalX, goalY, size);
+                    }
+                }
+            }
+
+            return;
+        }
+
+        int dx = Integer.signum(x - parent % width), dy = Integer.signum(y - parent / width);
+
+        if (dx != 0 && dy != 0) {
+            if (fits(size, x, y + dy)) {
+                jumpFrom(search, node, x, y, 0, dy, goalX, goalY, size);
+            }
+
+            if (fits(size, x + dx, y)) {
+                jumpFrom(search, node, x, y, dx, 0, goalX, goalY, size);
+            }
+
+            if (canMove(size, x, y, dx, dy)) {
+                jumpFrom(search, node, x, y, dx, dy, goalX, goalY, size);
+            }
+        } else if (dx != 0) {
+            boolean next = fits(size, x + dx, y), up = fits(size, x, y + 1), down = fits(size, x, y - 1);
+
+            if (next) {
+                jumpFrom(search, node, x, y, dx, 0, goalX, goalY, size);
+
+                if (up && fits(size, x + dx, y + 1)) {
+                    jumpFrom(search, node, x, y, dx, 1, goalX, goalY, size);
+                }
+
+                if (down && fits(size, x + dx, y - 1)) {
+                    jumpFrom(search, node, x, y, dx, -1, goalX, goalY, size);
+                }
+            }
+
+            if (up) {
+                jumpFrom(search, node, x, y, 0, 1, goalX, goalY, size);
+            }
+
+            if (down) {
+                jumpFrom(search, node, x, y, 0, -1, goalX, goalY, size);
+            }
+        } else {
+            boolean next = fits(size, x, y + dy), right = fits(size, x + 1, y), left = fits(size, x - 1, y);
+
+            if (next) {
+                jumpFrom(search, node, x, y, 0, dy, goalX, goalY, size);
+
+                if (right && fits(size, x + 1, y + dy)) {
+                    jumpFrom(search, node, x, y, 1, dy, goalX, goalY, size);
+                }
+
+                if (left && fits(size, x - 1, y + dy)) {
+                    jumpFrom(search, node, x, y, -1, dy, goalX, goalY, size);
+                }
+            }
+
+            if (right) {
+                jumpFrom(search, node, x, y, 1, 0, goalX, goalY, size);
+            }
+
+            if (left) {
+                jumpFrom(search, node, x, y, -1, 0, goalX, goalY, size);
+            }
+        }
+    }
+
+    /**
+     * Jumps from a node in one direction and opens the jump point found, if any.
+     */
+    private void jumpFrom(Search search, int node, int x, int y, int dx, int dy, int goalX, int goalY, int size) {
+        int point = jump(x + dx, y + dy, dx, dy, goalX, goalY, size);
+
+        if (point >= 0) {
+            int pointX = point % width, pointY = point / width;
+            float cost = search.costOf(node) + distance(x, y, pointX, pointY);
+            search.open(point, cost, cost + heuristic(pointX, pointY, goalX, goalY), node);
+        }
+    }
+
+    /**
+     * Moves from a tile in one direction until reaching the goal, a tile where the path could branch, or a wall.
+     *
+     * @return the index of the jump point, or -1 if there isn't one
+     */
+    private int jump(int x, int y, int dx, int dy, int goalX, int goalY, int size) {
+        while (true) {
+            if (!fits(size, x, y)) {
+                return -1;
+            }
+
+            if (x == goalX && y == goalY) {
+                return y * width + x;
+            }
+
+            if (dx != 0 && dy != 0) {
+                // A diagonal run stops wherever one of its straight runs would.
+                if (jump(x + dx, y, dx, 0, goalX, goalY, size) >= 0 || jump(x, y + dy, 0, dy, goalX, goalY, size) >= 0) {
+                    return y * width + x;
+                }
+            } else if (dx != 0) {
+                if ((fits(size, x, y - 1) && !fits(size, x - dx, y - 1)) || (fits(size, x, y + 1) && !fits(size, x - dx, y + 1))) {
+                    return y * width + x;
+                }
+            } else {
+                if ((fits(size, x - 1, y) && !fits(size, x - 1, y - dy)) || (fits(size, x + 1, y) && !fits(size, x + 1, y - dy))) {
+                    return y * width + x;
+                }
+            }
+
+            if (!canMove(size, x, y, dx, dy)) {
+                return -1;
+            }
+
+            x += dx;
+            y += dy;
+        }
+    }
+
+    /**
+     * @return whether a body of the specified size can stand with its bottom left corner on the tile
+     */
+    private boolean fits(int size, int x, int y) {
+        return clearance.fits(x, y, size);
+    }
+
+    /**
+     * @return whether a body of the specified size can move one tile in the specified direction without cutting a
+     * corner
+     */
+    private boolean canMove(int size, int x, int y, int dx, int dy) {
+        return fits(size, x + dx, y + dy) && fits(size, x + dx, y) && fits(size, x, y + dy);
+    }
+
+    /**
+     * @return the octile distance between two tiles, which is exact along a straight or diagonal line
+     */
+    private static float distance(int x, int y, int toX, int toY) {
+        int dx = Math.abs(toX - x), dy = Math.abs(toY - y);
+        return Math.max(dx, dy) + (DIAGONAL_COST - 1) * Math.min(dx, dy);
+    }
+
+    /**
+     * @return the estimated cost to the goal
+     */
+    private static float heuristic(int x, int y, int goalX, int goalY) {
+        return distance(x, y, goalX, goalY);
+    }
+
+    /**
+     * The scratch state of one search.
+     */
+    private static class Search {
+
+        /**
+         * The slot holding the state of each tile the current search has reached.
+         */
+        final IntIntMap slots = new IntIntMap(256);
+
+        /**
+         * The tile, cost so far, previous jump point and whether it has been expanded, for each slot in use.
+         */
+        int[] nodes = new int[64];
+        float[] g = new float[64];
+        int[] parent = new int[64];
+        boolean[] closed = new boolean[64];
+
+        /**
+         * The open slots and their estimated total costs, as a binary min-heap. Slots may appear more than once.
+         */
+        int[] heapSlots = new int[64];
+        float[] heapCosts = new float[64];
+
+        /**
+         * The number of slots in use and the number of entries in the heap.
+         */
+        int reached, heapSize;
+
+        /**
+         * Clears the state for a new search.
+         */
+        void prepare() {
+            slots.clear();
+            reached = 0;
+            heapSize = 0;
+        }
+
+        /**
+         * @return the cost so far of a tile the search has reached
+         */
+        float costOf(int node) {
+            return g[slots.get(node, -1)];
+        }
+
+        /**
+         * @return the previous jump point of a tile the search has reached, or -1 for the start
+         */
+        int parentOf(int node) {
+            return parent[slots.get(node, -1)];
+        }
+
+        /**
+         * Records a path to a tile if it is better than any found so far.
+         */
+        void open(int node, float cost, float estimate, int from) {
+            int slot = slots.get(node, -1);
+
+            if (slot >= 0 && (closed[slot] || g[slot] <= cost)) {
+                return;
+            }
+
+            if (slot < 0) {
+                if (reached == nodes.length) {
+                    int[] newNodes = new int[reached * 2];
+                    float[] newG = new float[reached * 2];
+                    int[] newParent = new int[reached * 2];
+                    boolean[] newClosed = new boolean[reached * 2];
+                    System.arraycopy(nodes, 0, newNodes, 0, reached);
+                    System.arraycopy(g, 0, newG, 0, reached);
+                    System.arraycopy(parent, 0, newParent, 0, reached);
+                    System.arraycopy(closed, 0, newClosed, 0, reached);
+                    nodes = newNodes;
+                    g = newG;
+                    parent = newParent;
+                    closed = newClosed;
+                }
+
+                slot = reached++;
+                slots.put(node, slot);
+                nodes[slot] = node;
+            }
+
+            closed[slot] = false;
+            g[slot] = cost;
+            parent[slot] = from;
+
+            if (heapSize == heapSlots.length) {
+                int[] newSlots = new int[heapSize * 2];
+                float[] newCosts = new float[heapSize * 2];
+                System.arraycopy(heapSlots, 0, newSlots, 0, heapSize);
+                System.arraycopy(heapCosts, 0, newCosts, 0, heapSize);
+                heapSlots = newSlots;
+                heapCosts = newCosts;
+            }
+
+            int index = heapSize++;
+
+            while (index > 0 && heapCosts[(index - 1) / 2] > estimate) {
+                heapSlots[index] = heapSlots[(index - 1) / 2];
+                heapCosts[index] = heapCosts[(index - 1) / 2];
+                index = (index - 1) / 2;
+            }
+
+            heapSlots[index] = slot;
+            heapCosts[index] = estimate;
+        }
+
+        /**
+         * Removes the cheapest tile not yet expanded from the heap and marks it expanded.
+         *
+         * @return the tile, or -1 if the heap has run out
+         */
+        int pop() {
+            while (heapSize > 0) {
+                int slot = heapSlots[0];
+                int lastSlot = heapSlots[--heapSize];
+                float lastCost = heapCosts[heapSize];
+                int index = 0;
+
+                while (index * 2 + 1 < heapSize) {
+                    int child = index * 2 + 1;
+
+                    if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) {
+                        child++;
+                    }
+
+                    if (heapCosts[child] >= lastCost) {
+                        break;
+                    }
+
+                    heapSlots[index] = heapSlots[child];
+                    heapCosts[index] = heapCosts[child];
+                    index = child;
+                }
+
+                heapSlots[index] = lastSlot;
+                heapCosts[index] = lastCost;
+
+                if (!closed[slot]) {
+                    closed[slot] = true;
+                    return nodes[slot];
+                }
+            }
+
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.superduckinvaders.game.ai;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * A least recently used cache of pathfinding results, keyed by start tile, goal tile and body size, so that mobs
+ * asking for the same path within a short time share one search.
+ * <p>
+ * Every mob heads for the player, so when the goal for a body size moves, every result for that size is dropped.
+ * The map never changes during a Round, and each Round has its own cache. Hits and misses are counted so the hit
+ * ratio can be reported.
+ */
+public class PathCache {
+
+    /**
+     * How many results a cache holds by default.
+     */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * Returned by get when a query isn't cached.
+     */
+    public static final int MISS = -2;
+
+    /**
+     * Stored and returned when a query found no path.
+     */
+    public static final int NO_PATH = -1;
+
+    /**
+     * How many bits of a key hold the body size.
+     */
+    private static final int SIZE_BITS = 8;
+
+    /**
+     * The number of columns of tiles, used to number them.
+     */
+    private final int width;
+
+    /**
+     * The cached results by key, each also in the recency list.
+     */
+    private final LongMap<Entry> entries;
+
+    /**
+     * The ends of the recency list, most recently used first. The head's next is the first entry, and the head's
+     * previous the last.
+     */
+    private final Entry head = new Entry();
+
+    /**
+     * Spare entries, so that a full cache reuses the entry it evicts.
+     */
+    private final Entry[] spare;
+
+    /**
+     * The number of spare entries.
+     */
+    private int spareCount;
+
+    /**
+     * The goal last asked for by each body size, or -1.
+     */
+    private int[] goals = new int[0];
+
+    /**
+     * How many queries were and weren't answered from the cache.
+     */
+    private long hits, misses;
+
+    /**
+     * Initialises an empty PathCache.
+     *
+     * @param width    the number of columns of tiles in the map
+     * @param capacity how many results to hold
+     */
+    public PathCache(int width, int capacity) {
+        this.width = width;
+        this.entries = new LongMap<Entry>(capacity * 2);
+        this.spare = new Entry[capacity];
+
+        for (int i = 0; i < capacity; i++) {
+            spare[spareCount++] = new Entry();
+        }
+
+        head.next = head;
+        head.previous = head;
+    }
+
+    /**
+     * Looks up a cached result.
+     *
+     * @param start the start tile
+     * @param goal  the goal tile
+     * @param size  the body size, in tiles
+     * @return the index of the first tile along the path (row * width + column), NO_PATH, or MISS
+     */
+    public synchronized int get(GridPoint2 start, GridPoint2 goal, int size) {
+        setGoal(size, goal.y * width + goal.x);
+        Entry entry = entries.get(key(start, goal, size));
+
+        if (entry == null) {
+            misses++;
+            return MISS;
+        }
+
+        hits++;
+        unlink(entry);
+        linkFirst(entry);
+
+        return entry.step;
+    }
+
+    /**
+     * Looks up a cached result without counting the query or changing which results are kept, so that lookups made
+     * while the cache isn't otherwise being used don't depend on each other's order.
+     *
+     * @param start the start tile
+     * @param goal  the goal tile
+     * @param size  the body size, in tiles
+     * @return the index of the first tile along the path (row * width + column), NO_PATH, or MISS
+     */
+    public synchronized int peek(GridPoint2 start, GridPoint2 goal, int size) {
+        // Results for any other goal would be dropped by get.
+        if (size >= goals.length || goals[size] != goal.y * width + goal.x) {
+            return MISS;
+        }
+
+        Entry entry = entries.get(key(start, goal, size));
+
+        return entry == null ? MISS : entry.step;
+    }
+
+    /**
+     * Stores a result, evicting the least recently used one if the cache is full.
+     *
+     * @param start the start tile
+     * @param goal  the goal tile
+     * @param size  the body size, in tiles
+     * @param step  the index of the first tile along the path (row * width + column), or NO_PATH
+     */
+    public synchronized void put(GridPoint2 start, GridPoint2 goal, int size, int step) {
+        long key = key(start, goal, size);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            if (spareCount == 0) {
+                remove(head.previous);
+            }
+
+            entry = spare[--spareCount];
+            entry.key = key;
+            entries.put(key, entry);
+        } else {
+            unlink(entry);
+        }
+
+        entry.step = step;
+        linkFirst(entry);
+    }
+
+    /**
+     * Drops every result.
+     */
+    public synchronized void clear() {
+        while (head.next != head) {
+            remove(head.next);
+        }
+    }
+
+    /**
+     * @return how many queries were answered from the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return how many queries weren't answered from the cache
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the fraction of queries answered from the cache, or 0 if there haven't been any
+     */
+    public synchronized float getHitRatio() {
+        return hits + misses == 0 ? 0 : (float) hits / (hits + misses);
+    }
+
+    /**
+     * Records the goal a body size is heading for, dropping its results for any other goal.
+     */
+    private void setGoal(int size, int goal) {
+        if (size >= goals.length) {
+            int[] grown = new int[size + 1];
+            System.arraycopy(goals, 0, grown, 0, goals.length);
+
+            for (int i = goals.length; i < grown.length; i++) {
+                grown[i] = -1;
+            }
+
+            goals = grown;
+        }
+
+        if (goals[size] != goal) {
+            goals[size] = goal;
+
+            for (Entry entry = head.next; entry != head; ) {
+                Entry next = entry.next;
+
+                if ((entry.key & ((1 << SIZE_BITS) - 1)) == size) {
+                    remove(entry);
+                }
+
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * @return the key for a query
+     */
+    private long key(GridPoint2 start, GridPoint2 goal, int size) {
+        long startIndex = start.y * width + start.x, goalIndex = goal.y * width + goal.x;
+        return (((startIndex << 28) | goalIndex) << SIZE_BITS) | size;
+    }
+
+    /**
+     * Removes an entry from the cache and returns it to the spares.
+     */
+    private void remove(Entry entry) {
+        entries.remove(entry.key);
+        unlink(entry);
+        spare[spareCount++] = entry;
+    }
+
+    /**
+     * Takes an entry out of the recency list.
+     */
+    private void unlink(Entry entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+    }
+
+    /**
+     * Puts an entry at the front of the recency list.
+     */
+    private void linkFirst(Entry entry) {
+        entry.previous = head;
+        entry.next = head.next;
+        head.next.previous = entry;
+        head.next = entry;
+    }
+
+    /**
+     * A cached result.
+     */
+    private static class Entry {
+
+        /**
+         * The query this is the result of.
+         */
+        long key;
+
+        /**
+         * The first tile along the path, or NO_PATH.
+         */
+        int step;
+
+        /**
+         * The neighbouring entries in the recency list.
+         */
+        Entry previous, next;
+    }
+}
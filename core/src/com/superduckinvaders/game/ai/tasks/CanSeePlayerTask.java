@@ -0,0 +1,67 @@
+package com.superduckinvaders.game.ai.tasks;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.superduckinvaders.game.ai.BehaviourTreeAI;
+import com.superduckinvaders.game.entity.Mob;
+import com.superduckinvaders.game.entity.Player;
+
+/**
+ * Checks for a wall between the Mob and the player, against the map's merged collision rectangles. Succeeds if there
+ * isn't one. The check is only redone every so often, reusing the last result in between.
+ */
+public class CanSeePlayerTask extends LeafTask<BehaviourTreeAI> {
+
+    /**
+     * How many seconds apart the check is redone.
+     */
+    @TaskAttribute
+    public float rate = 0.5f;
+
+    /**
+     * How long until the check is redone.
+     */
+    private float timer = 0;
+
+    /**
+     * Whether there was a wall in the way last time.
+     */
+    private boolean blocked = true;
+
+    /**
+     * Checks for a wall if it is due.
+     */
+    @Override
+    public void run() {
+        BehaviourTreeAI ai = getObject();
+        timer -= ai.getElapsed();
+
+        if (timer <= 0) {
+            Mob mob = ai.getMob();
+            Player player = ai.getRound().getPlayer();
+
+            timer = rate;
+            blocked = ai.getRound().getStaticCollision().raycast(mob.getX(), mob.getY(), player.getX(), player.getY());
+        }
+
+        if (blocked) {
+            fail();
+        } else {
+            success();
+        }
+    }
+
+    /**
+     * Copies this task's attributes to another.
+     *
+     * @param task the task to copy to
+     * @return the task copied to
+     */
+    @Override
+    protected Task<BehaviourTreeAI> copyTo(Task<BehaviourTreeAI> task) {
+        ((CanSeePlayerTask) task).rate = rate;
+
+        return task;
+    }
+}
@@ -0,0 +1,85 @@
+package com.superduckinvaders.game.ai.tasks;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.badlogic.gdx.math.GridPoint2;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.ai.BehaviourTreeAI;
+import com.superduckinvaders.game.entity.Mob;
+import com.superduckinvaders.game.entity.Player;
+
+/**
+ * Heads along a path towards the player, replanning the path every so often. Fails, stopping the Mob, if the player
+ * can't be reached, and succeeds otherwise.
+ */
+public class ChasePlayerTask extends LeafTask<BehaviourTreeAI> {
+
+    /**
+     * How many jump points the local search may expand before falling back to the map-wide pathfinder.
+     */
+    @TaskAttribute
+    public int searchLimit = 20;
+
+    /**
+     * How many seconds apart the path is replanned.
+     */
+    @TaskAttribute
+    public float interval = 0.2f;
+
+    /**
+     * How long since the path was last planned. Starts full so that the first run plans one.
+     */
+    private float sinceReplan = Float.MAX_VALUE;
+
+    /**
+     * Whether the player could be reached when the path was last planned.
+     */
+    private boolean reachable = false;
+
+    /**
+     * Replans the path if it is due and heads along it.
+     */
+    @Override
+    public void run() {
+        BehaviourTreeAI ai = getObject();
+        sinceReplan += ai.getElapsed();
+
+        if (sinceReplan >= interval) {
+            sinceReplan = 0;
+
+            Round round = ai.getRound();
+            Mob mob = ai.getMob();
+            Player player = round.getPlayer();
+            reachable = ai.findPathStep(mob, player.getX(), player.getY(), searchLimit);
+
+            if (reachable) {
+                GridPoint2 step = ai.getPathStep();
+                ai.getIntent().move(step.x * round.getTileWidth() - mob.getX(), step.y * round.getTileHeight() - mob.getY());
+            } else {
+                ai.getIntent().move(0, 0);
+            }
+        }
+
+        if (reachable) {
+            success();
+        } else {
+            fail();
+        }
+    }
+
+    /**
+     * Copies this task's attributes to another.
+     *
+     * @param task the task to copy to
+     * @return the task copied to
+     */
+    @Override
+    protected Task<BehaviourTreeAI> copyTo(Task<BehaviourTreeAI> task) {
+        ChasePlayerTask chase = (ChasePlayerTask) task;
+        chase.searchLimit = searchLimit;
+        chase.interval = interval;
+
+        return task;
+    }
+}
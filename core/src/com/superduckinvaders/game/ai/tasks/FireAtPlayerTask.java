@@ -0,0 +1,91 @@
+package com.superduckinvaders.game.ai.tasks;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.superduckinvaders.game.ai.BehaviourTreeAI;
+import com.superduckinvaders.game.entity.Mob;
+import com.superduckinvaders.game.entity.Player;
+
+/**
+ * Shoots at the player whenever the Mob has reloaded. Succeeds while the player is in range, whether or not a shot
+ * was fired, so the Mob holds its ground, and fails otherwise.
+ */
+public class FireAtPlayerTask extends LeafTask<BehaviourTreeAI> {
+
+    /**
+     * How close, in pixels, the player has to be to be shot at.
+     */
+    @TaskAttribute
+    public int range = 300;
+
+    /**
+     * How fast the projectiles move.
+     */
+    @TaskAttribute
+    public int speed = 300;
+
+    /**
+     * How many seconds apart shots are.
+     */
+    @TaskAttribute
+    public float delay = 1;
+
+    /**
+     * How much damage each projectile does.
+     */
+    @TaskAttribute
+    public int damage = 1;
+
+    /**
+     * How far above the player's position, in pixels, to aim.
+     */
+    @TaskAttribute
+    public int aimAbove = 0;
+
+    /**
+     * How long until the Mob can shoot again.
+     */
+    private float cooldown = 0;
+
+    /**
+     * Shoots at the player if possible.
+     */
+    @Override
+    public void run() {
+        BehaviourTreeAI ai = getObject();
+        Mob mob = ai.getMob();
+        Player player = ai.getRound().getPlayer();
+        cooldown -= ai.getElapsed();
+
+        if (mob.distanceTo(player.getX(), player.getY()) > range) {
+            fail();
+            return;
+        }
+
+        if (cooldown <= 0) {
+            ai.getIntent().fireAt(player.getX(), player.getY() + aimAbove, speed, damage);
+            cooldown = delay;
+        }
+
+        success();
+    }
+
+    /**
+     * Copies this task's attributes to another.
+     *
+     * @param task the task to copy to
+     * @return the task copied to
+     */
+    @Override
+    protected Task<BehaviourTreeAI> copyTo(Task<BehaviourTreeAI> task) {
+        FireAtPlayerTask fire = (FireAtPlayerTask) task;
+        fire.range = range;
+        fire.speed = speed;
+        fire.delay = delay;
+        fire.damage = damage;
+        fire.aimAbove = aimAbove;
+
+        return task;
+    }
+}
@@ -0,0 +1,104 @@
+package com.superduckinvaders.game.ai.tasks;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.superduckinvaders.game.ai.BehaviourTreeAI;
+import com.superduckinvaders.game.entity.Player;
+
+/**
+ * Fires bursts of projectiles at the player, the shots in a burst a number of thinks apart. Always succeeds.
+ */
+public class FireBurstTask extends LeafTask<BehaviourTreeAI> {
+
+    /**
+     * How many seconds apart bursts start.
+     */
+    @TaskAttribute
+    public float rate = 1;
+
+    /**
+     * How many shots are in a burst.
+     */
+    @TaskAttribute
+    public int shots = 6;
+
+    /**
+     * How many thinks apart the shots in a burst are.
+     */
+    @TaskAttribute
+    public int spacing = 5;
+
+    /**
+     * How fast the projectiles move.
+     */
+    @TaskAttribute
+    public int speed = 300;
+
+    /**
+     * How much damage each projectile does.
+     */
+    @TaskAttribute
+    public int damage = 1;
+
+    /**
+     * How long until the next burst starts.
+     */
+    private float timer = 0;
+
+    /**
+     * How many shots are left in the current burst.
+     */
+    private int shotsLeft = 0;
+
+    /**
+     * How many thinks until the next shot in the current burst.
+     */
+    private int untilShot = 0;
+
+    /**
+     * Starts a burst if it is due and fires its next shot if it is due.
+     */
+    @Override
+    public void run() {
+        BehaviourTreeAI ai = getObject();
+        timer -= ai.getElapsed();
+
+        if (timer <= 0) {
+            timer = rate;
+            shotsLeft = shots;
+            untilShot = 0;
+        }
+
+        if (shotsLeft > 0) {
+            if (untilShot == 0) {
+                Player player = ai.getRound().getPlayer();
+                ai.getIntent().fireAt((int) player.getX(), (int) player.getY(), speed, damage);
+                shotsLeft--;
+                untilShot = spacing;
+            }
+
+            untilShot--;
+        }
+
+        success();
+    }
+
+    /**
+     * Copies this task's attributes to another.
+     *
+     * @param task the task to copy to
+     * @return the task copied to
+     */
+    @Override
+    protected Task<BehaviourTreeAI> copyTo(Task<BehaviourTreeAI> task) {
+        FireBurstTask burst = (FireBurstTask) task;
+        burst.rate = rate;
+        burst.shots = shots;
+        burst.spacing = spacing;
+        burst.speed = speed;
+        burst.damage = damage;
+
+        return task;
+    }
+}
@@ -0,0 +1,71 @@
+package com.superduckinvaders.game.ai.tasks;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.superduckinvaders.game.ai.BehaviourTreeAI;
+import com.superduckinvaders.game.entity.Player;
+
+/**
+ * Hits the player if they are close enough and the Mob has recovered from its last hit. Succeeds if the player was
+ * hit, and fails otherwise.
+ */
+public class MeleeAttackTask extends LeafTask<BehaviourTreeAI> {
+
+    /**
+     * How close, in pixels, the player has to be to be hit.
+     */
+    @TaskAttribute
+    public int range = 48;
+
+    /**
+     * How many seconds apart hits are.
+     */
+    @TaskAttribute
+    public float delay = 1;
+
+    /**
+     * How much damage each hit does.
+     */
+    @TaskAttribute
+    public int damage = 1;
+
+    /**
+     * How long until the Mob can hit again.
+     */
+    private float cooldown = 0;
+
+    /**
+     * Hits the player if possible.
+     */
+    @Override
+    public void run() {
+        BehaviourTreeAI ai = getObject();
+        Player player = ai.getRound().getPlayer();
+        cooldown -= ai.getElapsed();
+
+        if (cooldown <= 0 && (int) ai.getMob().distanceTo(player.getX(), player.getY()) < range) {
+            ai.getIntent().hitPlayer(damage);
+            cooldown = delay;
+            success();
+        } else {
+            fail();
+        }
+    }
+
+    /**
+     * Copies this task's attributes to another.
+     *
+     * @param task the task to copy to
+     * @return the task copied to
+     */
+    @Override
+    protected Task<BehaviourTreeAI> copyTo(Task<BehaviourTreeAI> task) {
+        MeleeAttackTask attack = (MeleeAttackTask) task;
+        attack.range = range;
+        attack.delay = delay;
+        attack.damage = damage;
+
+        return task;
+    }
+}
@@ -0,0 +1,93 @@
+package com.superduckinvaders.game.ai.tasks;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.superduckinvaders.game.ai.BehaviourTreeAI;
+import com.superduckinvaders.game.entity.Mob;
+
+/**
+ * Paces left and right around where the Mob first thought, turning a number of body widths either side of it.
+ * Always succeeds.
+ */
+public class PatrolTask extends LeafTask<BehaviourTreeAI> {
+
+    /**
+     * How fast to move.
+     */
+    @TaskAttribute
+    public float speed = 100;
+
+    /**
+     * How many body widths left of the start to turn around.
+     */
+    @TaskAttribute
+    public float left = 2;
+
+    /**
+     * How many body widths right of the start to turn around.
+     */
+    @TaskAttribute
+    public float right = 3;
+
+    /**
+     * Whether the start has been recorded yet.
+     */
+    private boolean started = false;
+
+    /**
+     * Where the Mob first thought.
+     */
+    private float startX;
+
+    /**
+     * Whether the Mob is moving left.
+     */
+    private boolean movingLeft = true;
+
+    /**
+     * Keeps the Mob moving, turning it around at the ends of its patrol.
+     */
+    @Override
+    public void run() {
+        BehaviourTreeAI ai = getObject();
+        Mob mob = ai.getMob();
+
+        if (!started) {
+            startX = mob.getX();
+            started = true;
+        }
+
+        if (movingLeft) {
+            if (mob.getX() < startX - mob.getWidth() * left) {
+                movingLeft = false;
+            } else {
+                ai.getIntent().move(-speed, 0);
+            }
+        } else {
+            if (mob.getX() > startX + mob.getWidth() * right) {
+                movingLeft = true;
+            } else {
+                ai.getIntent().move(speed, 0);
+            }
+        }
+
+        success();
+    }
+
+    /**
+     * Copies this task's attributes to another.
+     *
+     * @param task the task to copy to
+     * @return the task copied to
+     */
+    @Override
+    protected Task<BehaviourTreeAI> copyTo(Task<BehaviourTreeAI> task) {
+        PatrolTask patrol = (PatrolTask) task;
+        patrol.speed = speed;
+        patrol.left = left;
+        patrol.right = right;
+
+        return task;
+    }
+}
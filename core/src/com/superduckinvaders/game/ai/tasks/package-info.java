@@ -0,0 +1,6 @@
+/**
+ * Contains the behaviour tree tasks mob AI is built from. Trees are loaded from the data files in the ai asset folder,
+ * which refer to these tasks by class name. Trees are stepped on worker threads, so tasks only read the world, and
+ * record what their Mob should do in its AI's Intent.
+ */
+package com.superduckinvaders.game.ai.tasks;
@@ -11,6 +11,8 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.utils.Array;
+import com.superduckinvaders.game.map.CompactTileLayer;
+import com.superduckinvaders.game.map.LevelGenerator;
 
 /**
  * Responsible for loading game assets.
@@ -67,6 +69,11 @@ public class Assets {
      */
     public static TiledMap[] levels;
 
+    /**
+     * Generates maps of any size, drawn with the tiles of the level maps.
+     */
+    public static LevelGenerator levelGenerator;
+
     /**
      * Path names for each round in the order that they will be played.
      */
@@ -189,6 +196,7 @@ public class Assets {
         loadLevel(5);
         loadLevel(6);
         loadLevel(7);
+        levelGenerator = new LevelGenerator(levels[0].getTileSets());
 
         font = loadFont("font/gamefont2.fnt");
 
@@ -422,12 +430,13 @@ public class Assets {
     }
 
     /**
-     * Loads the tile map for a particular level.
+     * Loads the tile map for a particular level, storing its tile layers compactly.
      *
      * @param i the level to be loaded from file.
      */
     public static void loadLevel(int i) {
         levels[i] = mapLoader.load(levelPaths[i]);
+        CompactTileLayer.compactLayers(levels[i]);
     }
 
     /**
@@ -0,0 +1,145 @@
+package com.superduckinvaders.game.assets;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Plays, loops and stops the sound effects of a Round.
+ * <p>
+ * The audio device may only be used from the render thread. While a Round is updated on a thread of its own, its
+ * SoundQueue is deferred: requests are queued instead of carried out, and the render thread carries them out in
+ * order with playQueued. Otherwise requests are carried out straight away.
+ */
+public class SoundQueue {
+
+    /**
+     * The kinds of request.
+     */
+    private static final int PLAY = 0, LOOP = 1, STOP = 2;
+
+    /**
+     * Whether requests are queued instead of carried out.
+     */
+    private boolean deferred = false;
+
+    /**
+     * The queued requests: the sound, the kind of request, and the volume to play at.
+     */
+    private Array<Sound> sounds = new Array<Sound>();
+    private IntArray actions = new IntArray();
+    private FloatArray volumes = new FloatArray();
+
+    /**
+     * The requests being carried out by playQueued, swapped with the queue so that queueing never waits for audio.
+     */
+    private Array<Sound> playingSounds = new Array<Sound>();
+    private IntArray playingActions = new IntArray();
+    private FloatArray playingVolumes = new FloatArray();
+
+    /**
+     * Sets whether requests are queued until playQueued instead of carried out straight away.
+     *
+     * @param deferred whether to queue requests
+     */
+    public synchronized void setDeferred(boolean deferred) {
+        this.deferred = deferred;
+    }
+
+    /**
+     * Plays a sound once.
+     *
+     * @param sound  the sound
+     * @param volume the volume, from 0 to 1
+     */
+    public void play(Sound sound, float volume) {
+        request(sound, PLAY, volume);
+    }
+
+    /**
+     * Plays a sound over and over until it is stopped.
+     *
+     * @param sound the sound
+     */
+    public void loop(Sound sound) {
+        request(sound, LOOP, 1);
+    }
+
+    /**
+     * Stops every instance of a sound.
+     *
+     * @param sound the sound
+     */
+    public void stop(Sound sound) {
+        request(sound, STOP, 1);
+    }
+
+    /**
+     * Queues a request if deferred, otherwise carries it out.
+     *
+     * @param sound  the sound
+     * @param action the kind of request
+     * @param volume the volume, for PLAY requests
+     */
+    private void request(Sound sound, int action, float volume) {
+        synchronized (this) {
+            if (deferred) {
+                sounds.add(sound);
+                actions.add(action);
+                volumes.add(volume);
+                return;
+            }
+        }
+
+        carryOut(sound, action, volume);
+    }
+
+    /**
+     * Carries out the queued requests in the order they were made. Only to be called from the render thread.
+     */
+    public void playQueued() {
+        synchronized (this) {
+            Array<Sound> queuedSounds = sounds;
+            IntArray queuedActions = actions;
+            FloatArray queuedVolumes = volumes;
+
+            sounds = playingSounds;
+            actions = playingActions;
+            volumes = playingVolumes;
+
+            playingSounds = queuedSounds;
+            playingActions = queuedActions;
+            playingVolumes = queuedVolumes;
+        }
+
+        for (int i = 0; i < playingSounds.size; i++) {
+            carryOut(playingSounds.get(i), playingActions.get(i), playingVolumes.get(i));
+        }
+
+        playingSounds.clear();
+        playingActions.clear();
+        playingVolumes.clear();
+    }
+
+    /**
+     * Carries out a request.
+     *
+     * @param sound  the sound
+     * @param action the kind of request
+     * @param volume the volume, for PLAY requests
+     */
+    private void carryOut(Sound sound, int action, float volume) {
+        switch (action) {
+            case PLAY:
+                sound.play(volume);
+                break;
+            case LOOP:
+                sound.loop();
+                break;
+            default:
+                sound.stop();
+                break;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.superduckinvaders.game.ai.AI;
+import com.superduckinvaders.game.ai.AILevelOfDetail;
+
+/**
+ * Holds the AI that controls a mob.
+ */
+public class AIComponent implements Component {
+
+    /**
+     * The AI controlling the entity.
+     */
+    public AI ai;
+
+    /**
+     * How much thinking the AI did on the entity's last update.
+     */
+    public AILevelOfDetail.Tier tier = AILevelOfDetail.Tier.FULL;
+
+    /**
+     * How long until the entity next rethinks in the coarse or drift tier, in seconds.
+     */
+    public float thinkTimer = 0;
+
+    /**
+     * How long the entity has been far enough from the player to be despawned by the director, in seconds.
+     */
+    public float farTime = 0;
+
+    /**
+     * Initialises this AIComponent.
+     *
+     * @param ai the AI controlling the entity
+     */
+    public AIComponent(AI ai) {
+        this.ai = ai;
+    }
+}
@@ -0,0 +1,37 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.superduckinvaders.game.Round;
+
+/**
+ * Lets the mobs due to think this frame do so, through the round's AI scheduler, before anything moves.
+ */
+public class AISystem extends EntitySystem {
+
+    /**
+     * The round this AISystem belongs to.
+     */
+    private Round round;
+
+    /**
+     * Initialises this AISystem.
+     *
+     * @param round    the round this AISystem belongs to
+     * @param priority the order this system runs in relative to other systems (lower runs first)
+     */
+    public AISystem(Round round, int priority) {
+        super(priority);
+
+        this.round = round;
+    }
+
+    /**
+     * Runs the AI scheduler, ignoring its time budget if the round is deterministic.
+     *
+     * @param delta how much time has passed since the last update
+     */
+    @Override
+    public void update(float delta) {
+        round.getAIScheduler().update(round.isDeterministic());
+    }
+}
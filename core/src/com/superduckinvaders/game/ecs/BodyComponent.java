@@ -0,0 +1,29 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.physics.box2d.Body;
+
+/**
+ * Holds the physics body of an entity in a Round that uses the Box2D backend.
+ */
+public class BodyComponent implements Component {
+
+    /**
+     * The entity's body.
+     */
+    public Body body;
+
+    /**
+     * Whether the body currently collides physically, rather than only reporting contacts.
+     */
+    public boolean solid = true;
+
+    /**
+     * Initialises this BodyComponent.
+     *
+     * @param body the entity's body
+     */
+    public BodyComponent(Body body) {
+        this.body = body;
+    }
+}
@@ -0,0 +1,101 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Holds the collision filter of an entity. Two colliders only interact if each one's category is in the other's
+ * mask, so the broadphase can discard pairs with a couple of bitwise operations before any bounds are compared.
+ */
+public class ColliderComponent implements Component {
+
+    /**
+     * The player.
+     */
+    public static final int PLAYER = 1;
+
+    /**
+     * Ordinary mobs.
+     */
+    public static final int MOB = 1 << 1;
+
+    /**
+     * The boss.
+     */
+    public static final int BOSS = 1 << 2;
+
+    /**
+     * Projectiles fired by the player.
+     */
+    public static final int PLAYER_PROJECTILE = 1 << 3;
+
+    /**
+     * Projectiles fired by mobs and the boss.
+     */
+    public static final int MOB_PROJECTILE = 1 << 4;
+
+    /**
+     * Items lying on the floor.
+     */
+    public static final int ITEM = 1 << 5;
+
+    /**
+     * Areas that detect overlaps without being solid, such as the player's melee hitbox.
+     */
+    public static final int TRIGGER = 1 << 6;
+
+    /**
+     * The categories with solid bodies, which block each other's movement.
+     */
+    public static final int SOLID = PLAYER | MOB | BOSS;
+
+    /**
+     * The category this collider belongs to (one of the constants above).
+     */
+    public int category;
+
+    /**
+     * The categories this collider interacts with.
+     */
+    public int mask;
+
+    /**
+     * The range of spatial grid cells this collider is stored in, or -1 if it isn't in a grid.
+     */
+    int minCellX = -1, minCellY = -1, maxCellX = -1, maxCellY = -1;
+
+    /**
+     * Initialises this ColliderComponent.
+     *
+     * @param category the category this collider belongs to
+     * @param mask     the categories this collider interacts with
+     */
+    public ColliderComponent(int category, int mask) {
+        this.category = category;
+        this.mask = mask;
+    }
+
+    /**
+     * Gets whether this collider interacts with a collider with the specified filter.
+     *
+     * @param category the other collider's category
+     * @param mask     the other collider's mask
+     * @return whether each collider's category is in the other's mask
+     */
+    public boolean accepts(int category, int mask) {
+        return (this.category & mask) != 0 && (category & this.mask) != 0;
+    }
+
+    /**
+     * @return whether this collider has a solid body
+     */
+    public boolean isSolid() {
+        return (category & SOLID) != 0;
+    }
+
+    /**
+     * @return whether this collider is stored in a spatial grid
+     */
+    public boolean isInGrid() {
+        return minCellX >= 0;
+    }
+}
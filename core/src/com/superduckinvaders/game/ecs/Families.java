@@ -0,0 +1,57 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Family;
+
+/**
+ * The families of entities that systems and queries iterate over, in place of instanceof checks.
+ */
+@SuppressWarnings("unchecked")
+public final class Families {
+
+    /**
+     * Every entity in the world.
+     */
+    public static final Family ENTITIES = Family.all(PositionComponent.class).get();
+
+    /**
+     * Entities stored in the collision grid: everything with a collider except projectiles, which only query it.
+     */
+    public static final Family COLLIDERS = Family.all(PositionComponent.class, ColliderComponent.class).exclude(ProjectileComponent.class).get();
+
+    /**
+     * Entities that can be damaged (the player and mobs).
+     */
+    public static final Family CHARACTERS = Family.all(PositionComponent.class, HealthComponent.class).get();
+
+    /**
+     * Mobs, i.e. damageable entities controlled by an AI.
+     */
+    public static final Family MOBS = Family.all(PositionComponent.class, HealthComponent.class, AIComponent.class).get();
+
+    /**
+     * Entities that move under their own velocity and are stopped by walls: everything with a velocity except
+     * projectiles.
+     */
+    public static final Family MOVERS = Family.all(PositionComponent.class, VelocityComponent.class).exclude(ProjectileComponent.class).get();
+
+    /**
+     * Projectiles.
+     */
+    public static final Family PROJECTILES = Family.all(PositionComponent.class, VelocityComponent.class, ProjectileComponent.class).get();
+
+    /**
+     * Entities that get a physics body when a Round uses the Box2D backend: everything that moves and collides.
+     */
+    public static final Family BODIES = Family.all(PositionComponent.class, VelocityComponent.class, ColliderComponent.class).get();
+
+    /**
+     * Entities that have a physics body.
+     */
+    public static final Family PHYSICAL = Family.all(PositionComponent.class, BodyComponent.class).get();
+
+    /**
+     * Not instantiable.
+     */
+    private Families() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Holds the health of an entity that can be damaged.
+ */
+public class HealthComponent implements Component {
+
+    /**
+     * The maximum and current health.
+     */
+    public int maximum, current;
+
+    /**
+     * Initialises this HealthComponent at full health.
+     *
+     * @param maximum the maximum (and initial) health
+     */
+    public HealthComponent(int maximum) {
+        this.maximum = this.current = maximum;
+    }
+
+    /**
+     * @return whether the health has run out
+     */
+    public boolean isDead() {
+        return current <= 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * Component mappers for fast component lookup by systems.
+ */
+public final class Mappers {
+
+    /**
+     * Maps entities to their PositionComponent.
+     */
+    public static final ComponentMapper<PositionComponent> position = ComponentMapper.getFor(PositionComponent.class);
+
+    /**
+     * Maps entities to their VelocityComponent.
+     */
+    public static final ComponentMapper<VelocityComponent> velocity = ComponentMapper.getFor(VelocityComponent.class);
+
+    /**
+     * Maps entities to their HealthComponent.
+     */
+    public static final ComponentMapper<HealthComponent> health = ComponentMapper.getFor(HealthComponent.class);
+
+    /**
+     * Maps entities to their ColliderComponent.
+     */
+    public static final ComponentMapper<ColliderComponent> collider = ComponentMapper.getFor(ColliderComponent.class);
+
+    /**
+     * Maps entities to their AIComponent.
+     */
+    public static final ComponentMapper<AIComponent> ai = ComponentMapper.getFor(AIComponent.class);
+
+    /**
+     * Maps entities to their SpriteComponent.
+     */
+    public static final ComponentMapper<SpriteComponent> sprite = ComponentMapper.getFor(SpriteComponent.class);
+
+    /**
+     * Maps entities to their ProjectileComponent.
+     */
+    public static final ComponentMapper<ProjectileComponent> projectile = ComponentMapper.getFor(ProjectileComponent.class);
+
+    /**
+     * Maps entities to their BodyComponent.
+     */
+    public static final ComponentMapper<BodyComponent> body = ComponentMapper.getFor(BodyComponent.class);
+
+    /**
+     * Maps entities to their SteeringComponent.
+     */
+    public static final ComponentMapper<SteeringComponent> steering = ComponentMapper.getFor(SteeringComponent.class);
+
+    /**
+     * Not instantiable.
+     */
+    private Mappers() {
+    }
+}
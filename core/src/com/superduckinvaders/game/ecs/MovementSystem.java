@@ -0,0 +1,79 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.math.MathUtils;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.ai.AILevelOfDetail;
+import com.superduckinvaders.game.entity.Character;
+import com.superduckinvaders.game.physics.PhysicsWorld;
+
+/**
+ * Moves every character by its velocity once every entity has been updated, in the order the characters were added.
+ * Walls and solid entities stop a character unless it has collision disabled. When the Round uses the physics
+ * backend, the velocity is handed to the physics world instead, which moves the character when it steps.
+ */
+public class MovementSystem extends IteratingSystem {
+
+    /**
+     * The round this MovementSystem belongs to.
+     */
+    private Round round;
+
+    /**
+     * Initialises this MovementSystem.
+     *
+     * @param round    the round this MovementSystem belongs to
+     * @param priority the order this system runs in relative to other systems (lower runs first)
+     */
+    public MovementSystem(Round round, int priority) {
+        super(Families.MOVERS, priority);
+
+        this.round = round;
+    }
+
+    /**
+     * Moves a character by its velocity, keeping it inside the map.
+     *
+     * @param entity the character to move
+     * @param delta  how much time has passed since the last update
+     */
+    @Override
+    protected void processEntity(com.badlogic.ashley.core.Entity entity, float delta) {
+        Character character = (Character) entity;
+        AIComponent ai = Mappers.ai.get(character);
+
+        // Frozen mobs stand still until the player comes back.
+        if (character.isRemoved() || (ai != null && ai.tier == AILevelOfDetail.Tier.FROZEN)) {
+            return;
+        }
+
+        PositionComponent position = Mappers.position.get(character);
+        VelocityComponent velocity = Mappers.velocity.get(character);
+        PhysicsWorld physics = round.getPhysics();
+
+        if (physics != null) {
+            physics.setSolid(character, character.isCollisionEnabled());
+            physics.move(character, velocity.x, velocity.y);
+        } else {
+            float deltaX = velocity.x * delta;
+            float deltaY = velocity.y * delta;
+
+            // Move along one axis at a time, so that a diagonal step can't cut into the corner of something that
+            // neither axis on its own would hit.
+            if (character.isCollisionEnabled() && character.collidesX(deltaX)) {
+                deltaX = 0;
+            }
+
+            position.x = MathUtils.clamp(position.x + (int) deltaX, 0, round.getMapWidth() - character.getWidth());
+
+            if (character.isCollisionEnabled() && character.collidesY(deltaY)) {
+                deltaY = 0;
+            }
+
+            position.y = MathUtils.clamp(position.y + (int) deltaY, 0, round.getMapHeight() - character.getHeight());
+        }
+
+        // Characters move one at a time, so the grid is always up to date for the next one.
+        round.getCollisionGrid().update(character);
+    }
+}
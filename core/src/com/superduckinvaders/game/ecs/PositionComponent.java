@@ -0,0 +1,25 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Holds where an entity is in the world.
+ */
+public class PositionComponent implements Component {
+
+    /**
+     * The x and y coordinates of the entity's bottom left corner, in pixels.
+     */
+    public float x, y;
+
+    /**
+     * Initialises this PositionComponent.
+     *
+     * @param x the initial x coordinate
+     * @param y the initial y coordinate
+     */
+    public PositionComponent(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+}
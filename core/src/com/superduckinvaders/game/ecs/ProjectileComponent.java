@@ -0,0 +1,31 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.superduckinvaders.game.entity.Entity;
+
+/**
+ * Holds what a projectile does when it hits something.
+ */
+public class ProjectileComponent implements Component {
+
+    /**
+     * The entity that fired the projectile.
+     */
+    public Entity owner;
+
+    /**
+     * How much damage the projectile does to what it hits.
+     */
+    public int damage;
+
+    /**
+     * Initialises this ProjectileComponent.
+     *
+     * @param owner  the entity that fired the projectile
+     * @param damage how much damage the projectile does to what it hits
+     */
+    public ProjectileComponent(Entity owner, int damage) {
+        this.owner = owner;
+        this.damage = damage;
+    }
+}
@@ -0,0 +1,81 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.gdx.utils.Array;
+import com.superduckinvaders.game.entity.Character;
+import com.superduckinvaders.game.entity.Entity;
+import com.superduckinvaders.game.entity.Projectile;
+
+/**
+ * What a run of projectiles hit while moving, in the order they hit it, to be applied once every projectile has moved.
+ */
+public class ProjectileHits {
+
+    /**
+     * The projectile behind each hit.
+     */
+    private final Array<Projectile> projectiles = new Array<Projectile>();
+
+    /**
+     * The character each projectile hit, or null where it exploded against a wall.
+     */
+    private final Array<Character> targets = new Array<Character>();
+
+    /**
+     * Scratch space for the characters a projectile might hit.
+     */
+    private final Array<Entity> candidates = new Array<Entity>();
+
+    /**
+     * Records a projectile hitting a character.
+     *
+     * @param projectile the projectile
+     * @param target     the character it hit
+     */
+    public void addHit(Projectile projectile, Character target) {
+        projectiles.add(projectile);
+        targets.add(target);
+    }
+
+    /**
+     * Records a projectile exploding against a wall or the edge of the map.
+     *
+     * @param projectile the projectile
+     */
+    public void addExplosion(Projectile projectile) {
+        projectiles.add(projectile);
+        targets.add(null);
+    }
+
+    /**
+     * @return empty scratch space for the characters a projectile might hit
+     */
+    public Array<Entity> getCandidates() {
+        candidates.clear();
+        return candidates;
+    }
+
+    /**
+     * Applies the hits and explosions in the order they were recorded, then forgets them.
+     */
+    public void apply() {
+        for (int i = 0; i < projectiles.size; i++) {
+            Character target = targets.get(i);
+
+            if (target != null) {
+                projectiles.get(i).hit(target);
+            } else {
+                projectiles.get(i).explode();
+            }
+        }
+
+        clear();
+    }
+
+    /**
+     * Forgets the hits and explosions without applying them.
+     */
+    public void clear() {
+        projectiles.clear();
+        targets.clear();
+    }
+}
@@ -0,0 +1,127 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.entity.Player;
+import com.superduckinvaders.game.entity.Projectile;
+
+/**
+ * Moves every projectile near enough to the player, once the characters have moved. Without a physics world they
+ * move in parallel on the Workers threads, and what they hit is applied afterwards in the order they were added.
+ */
+public class ProjectileSystem extends EntitySystem {
+
+    /**
+     * How many projectiles are in each run.
+     */
+    private static final int RUN_SIZE = 128;
+
+    /**
+     * The round this ProjectileSystem belongs to.
+     */
+    private Round round;
+
+    /**
+     * Every projectile in the round.
+     */
+    private ImmutableArray<com.badlogic.ashley.core.Entity> projectiles;
+
+    /**
+     * The projectiles moving this frame.
+     */
+    private final Array<Projectile> moving = new Array<Projectile>();
+
+    /**
+     * What each run of projectiles hit, reused from frame to frame.
+     */
+    private final Array<ProjectileHits> hits = new Array<ProjectileHits>();
+
+    /**
+     * How much time has passed since the last update.
+     */
+    private float delta;
+
+    /**
+     * Moves the projectiles of a range of runs.
+     */
+    private final Workers.Job move = new Workers.Job() {
+        @Override
+        public void run(int from, int to) {
+            for (int run = from; run < to; run++) {
+                ProjectileHits runHits = hits.get(run);
+                int end = Math.min(moving.size, (run + 1) * RUN_SIZE);
+
+                for (int i = run * RUN_SIZE; i < end; i++) {
+                    moving.get(i).move(delta, runHits);
+                }
+            }
+        }
+    };
+
+    /**
+     * Initialises this ProjectileSystem.
+     *
+     * @param round    the round this ProjectileSystem belongs to
+     * @param priority the order this system runs in relative to other systems (lower runs first)
+     */
+    public ProjectileSystem(Round round, int priority) {
+        super(priority);
+
+        this.round = round;
+    }
+
+    /**
+     * Looks up the projectiles when added to the engine.
+     *
+     * @param engine the engine this system was added to
+     */
+    @Override
+    public void addedToEngine(Engine engine) {
+        projectiles = engine.getEntitiesFor(Families.PROJECTILES);
+    }
+
+    /**
+     * Moves the projectiles and applies what they hit.
+     *
+     * @param delta how much time has passed since the last update
+     */
+    @Override
+    public void update(float delta) {
+        Player player = round.getPlayer();
+        moving.clear();
+
+        // Don't bother moving projectiles that aren't on screen.
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = (Projectile) projectiles.get(i);
+            float distance = projectile.distanceTo(player.getX(), player.getY());
+
+            if (!projectile.isRemoved() && distance < Round.UPDATE_DISTANCE_X && distance < Round.UPDATE_DISTANCE_Y) {
+                moving.add(projectile);
+            }
+        }
+
+        if (round.getPhysics() != null) {
+            for (int i = 0; i < moving.size; i++) {
+                moving.get(i).update(delta);
+            }
+
+            return;
+        }
+
+        int runs = (moving.size + RUN_SIZE - 1) / RUN_SIZE;
+
+        while (hits.size < runs) {
+            hits.add(new ProjectileHits());
+        }
+
+        this.delta = delta;
+        Workers.run(runs, 1, move);
+
+        for (int run = 0; run < runs; run++) {
+            hits.get(run).apply();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.superduckinvaders.game.entity.Entity;
+
+/**
+ * Removes entities that have flagged themselves for removal from the engine. Listeners on the engine see the removal
+ * once this system has finished.
+ */
+public class RemovalSystem extends IteratingSystem {
+
+    /**
+     * Initialises this RemovalSystem.
+     *
+     * @param priority the order this system runs in relative to other systems (lower runs first)
+     */
+    public RemovalSystem(int priority) {
+        super(Families.ENTITIES, priority);
+    }
+
+    /**
+     * Removes an entity from the engine if it has been flagged for removal.
+     *
+     * @param entity the entity to check
+     * @param delta  how much time has passed since the last update
+     */
+    @Override
+    protected void processEntity(com.badlogic.ashley.core.Entity entity, float delta) {
+        if (((Entity) entity).isRemoved()) {
+            getEngine().removeEntity(entity);
+        }
+    }
+}
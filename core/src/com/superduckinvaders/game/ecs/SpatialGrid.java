@@ -0,0 +1,235 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.gdx.utils.Array;
+import com.superduckinvaders.game.entity.Entity;
+
+/**
+ * A uniform grid over the map used as the collision broadphase. Each collider is stored in every cell its bounds
+ * touch, and is moved between cells incrementally as it moves.
+ * <p>
+ * Queries only look at the cells the query area touches and filter on collision bits before any bounds are compared.
+ * A collider spanning several cells is reported from only one of them, chosen from the cell ranges alone, so queries
+ * don't need any scratch state and can run on several threads at once as long as nothing is moving.
+ */
+public class SpatialGrid {
+
+    /**
+     * The width and height of each cell, in pixels.
+     */
+    private final int cellSize;
+
+    /**
+     * The number of columns and rows of cells.
+     */
+    private final int columns, rows;
+
+    /**
+     * The entities in each cell, in the order they entered it. Indexed by row * columns + column.
+     */
+    private final Array<Entity>[] cells;
+
+    /**
+     * Initialises an empty SpatialGrid covering the specified area.
+     *
+     * @param width    the width of the area, in pixels
+     * @param height   the height of the area, in pixels
+     * @param cellSize the width and height of each cell, in pixels
+     */
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cells = newCells(columns * rows);
+
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Array<Entity>(true, 4, Entity.class);
+        }
+    }
+
+    /**
+     * Creates an empty array of cells, which Java can't do directly for a generic type.
+     *
+     * @param count the number of cells
+     * @return the array, with every cell null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Array<Entity>[] newCells(int count) {
+        return new Array[count];
+    }
+
+    /**
+     * @param x an x coordinate in pixels
+     * @return the column containing the coordinate, clamped to the grid
+     */
+    private int column(float x) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+    }
+
+    /**
+     * @param y a y coordinate in pixels
+     * @return the row containing the coordinate, clamped to the grid
+     */
+    private int row(float y) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+    }
+
+    /**
+     * Adds an entity to every cell its bounds touch. The entity must have a ColliderComponent.
+     *
+     * @param entity the entity to add
+     */
+    public void insert(Entity entity) {
+        ColliderComponent collider = Mappers.collider.get(entity);
+
+        collider.minCellX = column(entity.getX());
+        collider.minCellY = row(entity.getY());
+        collider.maxCellX = column(entity.getX() + entity.getWidth());
+        collider.maxCellY = row(entity.getY() + entity.getHeight());
+
+        addToCells(entity, collider);
+    }
+
+    /**
+     * Removes an entity from the grid, if it is in it.
+     *
+     * @param entity the entity to remove
+     */
+    public void remove(Entity entity) {
+        ColliderComponent collider = Mappers.collider.get(entity);
+
+        if (collider == null || !collider.isInGrid()) {
+            return;
+        }
+
+        removeFromCells(entity, collider);
+        collider.minCellX = collider.minCellY = collider.maxCellX = collider.maxCellY = -1;
+    }
+
+    /**
+     * Moves an entity to the cells its current bounds touch. Does nothing if the entity isn't in the grid or is
+     * still in the same cells.
+     *
+     * @param entity the entity that may have moved
+     */
+    public void update(Entity entity) {
+        ColliderComponent collider = Mappers.collider.get(entity);
+
+        if (collider == null || !collider.isInGrid()) {
+            return;
+        }
+
+        int minX = column(entity.getX()), minY = row(entity.getY());
+        int maxX = column(entity.getX() + entity.getWidth()), maxY = row(entity.getY() + entity.getHeight());
+
+        if (minX == collider.minCellX && minY == collider.minCellY && maxX == collider.maxCellX && maxY == collider.maxCellY) {
+            return;
+        }
+
+        removeFromCells(entity, collider);
+
+        collider.minCellX = minX;
+        collider.minCellY = minY;
+        collider.maxCellX = maxX;
+        collider.maxCellY = maxY;
+
+        addToCells(entity, collider);
+    }
+
+    /**
+     * Adds an entity to the cells in its collider's cell range.
+     *
+     * @param entity   the entity
+     * @param collider the entity's collider
+     */
+    private void addToCells(Entity entity, ColliderComponent collider) {
+        for (int y = collider.minCellY; y <= collider.maxCellY; y++) {
+            for (int x = collider.minCellX; x <= collider.maxCellX; x++) {
+                cells[y * columns + x].add(entity);
+            }
+        }
+    }
+
+    /**
+     * Removes an entity from the cells in its collider's cell range.
+     *
+     * @param entity   the entity
+     * @param collider the entity's collider
+     */
+    private void removeFromCells(Entity entity, ColliderComponent collider) {
+        for (int y = collider.minCellY; y <= collider.maxCellY; y++) {
+            for (int x = collider.minCellX; x <= collider.maxCellX; x++) {
+                cells[y * columns + x].removeValue(entity, true);
+            }
+        }
+    }
+
+    /**
+     * Gets whether any entity accepted by the specified filter intersects the specified rectangle.
+     *
+     * @param x        the x coordinate of the rectangle's bottom left corner
+     * @param y        the y coordinate of the rectangle's bottom left corner
+     * @param width    the width of the rectangle
+     * @param height   the height of the rectangle
+     * @param category the category of the collider asking
+     * @param mask     the categories the collider asking interacts with
+     * @param exclude  an entity to ignore, usually the one asking (may be null)
+     * @return whether any accepted entity intersects the rectangle
+     */
+    public boolean overlaps(float x, float y, int width, int height, int category, int mask, Entity exclude) {
+        int minX = column(x), minY = row(y);
+        int maxX = column(x + width), maxY = row(y + height);
+
+        for (int cellY = minY; cellY <= maxY; cellY++) {
+            for (int cellX = minX; cellX <= maxX; cellX++) {
+                Array<Entity> cell = cells[cellY * columns + cellX];
+                Entity[] items = cell.items;
+
+                for (int i = 0; i < cell.size; i++) {
+                    Entity entity = items[i];
+
+                    if (entity != exclude && Mappers.collider.get(entity).accepts(category, mask)
+                            && entity.intersects(x, y, width, height)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds every entity accepted by the specified filter whose cells touch the specified rectangle to a list, once
+     * each. The caller does the exact bounds test.
+     *
+     * @param x        the x coordinate of the rectangle's bottom left corner
+     * @param y        the y coordinate of the rectangle's bottom left corner
+     * @param width    the width of the rectangle
+     * @param height   the height of the rectangle
+     * @param category the category of the collider asking
+     * @param mask     the categories the collider asking interacts with
+     * @param results  the list to add candidates to (not cleared first)
+     */
+    public void query(float x, float y, float width, float height, int category, int mask, Array<Entity> results) {
+        int minX = column(x), minY = row(y);
+        int maxX = column(x + width), maxY = row(y + height);
+
+        for (int cellY = minY; cellY <= maxY; cellY++) {
+            for (int cellX = minX; cellX <= maxX; cellX++) {
+                Array<Entity> cell = cells[cellY * columns + cellX];
+                Entity[] items = cell.items;
+
+                for (int i = 0; i < cell.size; i++) {
+                    Entity entity = items[i];
+                    ColliderComponent collider = Mappers.collider.get(entity);
+
+                    // Report each entity from the first cell both ranges share.
+                    if (cellX == Math.max(minX, collider.minCellX) && cellY == Math.max(minY, collider.minCellY)
+                            && collider.accepts(category, mask)) {
+                        results.add(entity);
+                    }
+                }
+            }
+        }
+    }
+}
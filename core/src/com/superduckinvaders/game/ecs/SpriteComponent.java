@@ -0,0 +1,38 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Holds how an entity is ordered when rendering.
+ */
+public class SpriteComponent implements Component {
+
+    /**
+     * Characters, which are drawn in front of or behind each other and items depending on their height.
+     */
+    public static final int LAYER_CHARACTER = 0;
+
+    /**
+     * Items, which are drawn in front of or behind everything depending on their height.
+     */
+    public static final int LAYER_ITEM = 1;
+
+    /**
+     * Effects such as projectiles and particles, which are only ordered against items and other effects.
+     */
+    public static final int LAYER_EFFECT = 2;
+
+    /**
+     * The render layer of the entity (one of the LAYER_ constants).
+     */
+    public int layer;
+
+    /**
+     * Initialises this SpriteComponent.
+     *
+     * @param layer the render layer of the entity (one of the LAYER_ constants)
+     */
+    public SpriteComponent(int layer) {
+        this.layer = layer;
+    }
+}
@@ -0,0 +1,14 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Holds the velocity a mob's AI wants it to move at, before crowd steering adjusts it to avoid other mobs.
+ */
+public class SteeringComponent implements Component {
+
+    /**
+     * The preferred velocity, in pixels per second.
+     */
+    public float preferredX, preferredY;
+}
@@ -0,0 +1,54 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.entity.Entity;
+
+/**
+ * Updates every entity that is near enough to the player, and every mob, in the order the entities were added.
+ * Characters are moved afterwards by the MovementSystem, and projectiles are left to the ProjectileSystem.
+ */
+public class UpdateSystem extends IteratingSystem {
+
+    /**
+     * The round this UpdateSystem belongs to.
+     */
+    private Round round;
+
+    /**
+     * Initialises this UpdateSystem.
+     *
+     * @param round    the round this UpdateSystem belongs to
+     * @param priority the order this system runs in relative to other systems (lower runs first)
+     */
+    public UpdateSystem(Round round, int priority) {
+        super(Families.ENTITIES, priority);
+
+        this.round = round;
+    }
+
+    /**
+     * Updates an entity unless it has been removed or is too far from the player.
+     *
+     * @param entity the entity to update
+     * @param delta  how much time has passed since the last update
+     */
+    @Override
+    protected void processEntity(com.badlogic.ashley.core.Entity entity, float delta) {
+        Entity gameEntity = (Entity) entity;
+
+        if (gameEntity.isRemoved() || Mappers.projectile.has(gameEntity)) {
+            return;
+        }
+
+        // Don't bother updating entities that aren't on screen. Mobs decide for themselves how much to do when far
+        // away, using the AI level of detail.
+        PositionComponent position = Mappers.position.get(gameEntity), playerPosition = Mappers.position.get(round.getPlayer());
+        float distanceX = playerPosition.x - position.x, distanceY = playerPosition.y - position.y;
+        float distance = (float) Math.sqrt(distanceX * distanceX + distanceY * distanceY);
+
+        if (Mappers.ai.has(gameEntity) || (distance < Round.UPDATE_DISTANCE_X && distance < Round.UPDATE_DISTANCE_Y)) {
+            gameEntity.update(delta);
+        }
+    }
+}
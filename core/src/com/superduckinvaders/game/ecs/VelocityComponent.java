@@ -0,0 +1,14 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Holds how fast an entity that moves under its own velocity (characters and projectiles) is moving.
+ */
+public class VelocityComponent implements Component {
+
+    /**
+     * The x and y velocity of the entity, in pixels per second.
+     */
+    public float x = 0, y = 0;
+}
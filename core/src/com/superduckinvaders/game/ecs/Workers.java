@@ -0,0 +1,152 @@
+package com.superduckinvaders.game.ecs;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The threads that systems split data-parallel work across. Work is split into ranges of indices, and the caller
+ * waits until every range has run.
+ * <p>
+ * Which thread runs which range, and in what order, changes from run to run, so a job must only write to state owned
+ * by the indices it was given. Anything shared has to be written afterwards, on the calling thread, in index order,
+ * so that a Round plays out the same whatever the number of threads.
+ */
+public final class Workers {
+
+    /**
+     * The number of threads to use.
+     */
+    private static int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The pool of threads, created when first needed.
+     */
+    private static ForkJoinPool pool;
+
+    /**
+     * Not instantiable.
+     */
+    private Workers() {
+    }
+
+    /**
+     * @return the number of threads work is split across
+     */
+    public static synchronized int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads work is split across, replacing the pool if it has already been created.
+     *
+     * @param parallelism the number of threads, at least 1
+     */
+    public static synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new GdxRuntimeException("There must be at least one worker thread, not " + parallelism);
+        }
+
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+
+        Workers.parallelism = parallelism;
+    }
+
+    /**
+     * Runs a job over a range of indices, split across the threads. Ranges of at most the specified grain are run
+     * whole, and if the range is no bigger than that, or there is only one thread, the job runs on the calling thread.
+     *
+     * @param count the number of indices, from 0
+     * @param grain the largest range to run without splitting it further, at least 1
+     * @param job   the job to run
+     */
+    public static void run(int count, int grain, Job job) {
+        if (count <= grain || getParallelism() == 1) {
+            if (count > 0) {
+                job.run(0, count);
+            }
+
+            return;
+        }
+
+        getPool().invoke(new Split(job, 0, count, grain));
+    }
+
+    /**
+     * @return the pool of threads, created if it hasn't been yet
+     */
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        return pool;
+    }
+
+    /**
+     * Work over a range of indices.
+     */
+    public interface Job {
+
+        /**
+         * Does the work for a range of indices.
+         *
+         * @param from the first index
+         * @param to   one past the last index
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Halves a range until it is no bigger than the grain, then runs the job over it.
+     */
+    private static class Split extends RecursiveAction {
+
+        /**
+         * The serialisation version, which RecursiveAction being Serializable calls for.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The job to run.
+         */
+        private final Job job;
+
+        /**
+         * The range of indices, and the largest range to run without splitting it.
+         */
+        private final int from, to, grain;
+
+        /**
+         * Initialises a Split.
+         *
+         * @param job   the job to run
+         * @param from  the first index
+         * @param to    one past the last index
+         * @param grain the largest range to run without splitting it
+         */
+        Split(Job job, int from, int to, int grain) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        /**
+         * Runs the job over the range, or over each half of it.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                job.run(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Split(job, from, middle, grain), new Split(job, middle, to, grain));
+            }
+        }
+    }
+}
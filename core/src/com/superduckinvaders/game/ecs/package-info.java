@@ -0,0 +1,5 @@
+/**
+ * Contains the entity-component-system layer: components, families and the systems that update a Round, and the
+ * worker threads that systems split data-parallel work across.
+ */
+package com.superduckinvaders.game.ecs;
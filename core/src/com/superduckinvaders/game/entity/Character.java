@@ -1,7 +1,13 @@
 package com.superduckinvaders.game.entity;
 
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.superduckinvaders.game.Round;
 import com.superduckinvaders.game.assets.TextureSet;
+import com.superduckinvaders.game.ecs.HealthComponent;
+import com.superduckinvaders.game.ecs.Mappers;
+import com.superduckinvaders.game.ecs.SpriteComponent;
+import com.superduckinvaders.game.ecs.VelocityComponent;
+import com.superduckinvaders.game.map.TerrainTable;
 
 /**
  * Represents a character in the game.
@@ -26,7 +32,12 @@ public abstract class Character extends Entity {
     /**
      * Current health and the maximum health of this Character.
      */
-    protected int maximumHealth, currentHealth;
+    protected final HealthComponent health;
+
+    /**
+     * How fast this Character is moving.
+     */
+    protected final VelocityComponent velocity = new VelocityComponent();
 
     /**
      * Initialises this Character.
@@ -39,7 +50,11 @@ public abstract class Character extends Entity {
     public Character(Round parent, float x, float y, int maximumHealth) {
         super(parent, x, y);
 
-        this.maximumHealth = this.currentHealth = maximumHealth;
+        this.health = new HealthComponent(maximumHealth);
+        sprite.layer = SpriteComponent.LAYER_CHARACTER;
+
+        add(health);
+        add(velocity);
     }
 
     /**
@@ -56,7 +71,7 @@ public abstract class Character extends Entity {
      * @return the current health of this Character
      */
     public int getCurrentHealth() {
-        return currentHealth;
+        return health.current;
     }
 
     /**
@@ -65,7 +80,7 @@ public abstract class Character extends Entity {
      * @return the maximum health of this Character
      */
     public int getMaximumHealth() {
-        return maximumHealth;
+        return health.maximum;
     }
 
     /**
@@ -82,6 +97,13 @@ public abstract class Character extends Entity {
         shouldCheckCollision=false;
     }
 
+    /**
+     * @return whether this Character is blocked by walls and other solid entities
+     */
+    public boolean isCollisionEnabled() {
+        return shouldCheckCollision;
+    }
+
 
     /**
      * Heals this Character's current health by the specified number of points.
@@ -89,10 +111,10 @@ public abstract class Character extends Entity {
      * @param health the number of health points to heal
      */
     public void heal(int health) {
-        this.currentHealth += health;
+        this.health.current += health;
 
-        if (currentHealth > maximumHealth) {
-            currentHealth = maximumHealth;
+        if (this.health.current > this.health.maximum) {
+            this.health.current = this.health.maximum;
         }
     }
 
@@ -108,7 +130,25 @@ public abstract class Character extends Entity {
      * @return whether this Character is dead (i.e. its health is 0)
      */
     public boolean isDead() {
-        return currentHealth <= 0;
+        return health.isDead();
+    }
+
+    /**
+     * Gets the terrain flags of the tile under this Character's feet.
+     *
+     * @return the tile's TerrainTable flags, or 0 if it has no base tile
+     */
+    protected int getTerrainFlags() {
+        return parent.getTerrainFlags(((int) position.x + getWidth() / 2) / parent.getTileWidth(), (int) position.y / parent.getTileHeight());
+    }
+
+    /**
+     * Gets how much this Character's speed is multiplied by on the tile under its feet.
+     *
+     * @return the tile's speed multiplier
+     */
+    protected float getTerrainSpeed() {
+        return parent.getTerrainSpeed(((int) position.x + getWidth() / 2) / parent.getTileWidth(), (int) position.y / parent.getTileHeight());
     }
 
     /**
@@ -117,11 +157,9 @@ public abstract class Character extends Entity {
      * @return true if player is on water tile, otherwise false
      */
     protected boolean isOnWater(){
-        int tileX = ((int) x+getWidth()/2) / parent.getTileWidth();
-        int tileY = (int) y / parent.getTileHeight();
-        Object property = parent.getBaseLayer().getCell(tileX,tileY).getTile().getProperties().get("water");
-        return property!=null ? true : false;
+        return (getTerrainFlags() & TerrainTable.WATER) != 0;
     }
+
     /**
      * Causes this Character to fire a projectile at the specified coordinates.
      *
@@ -131,7 +169,7 @@ public abstract class Character extends Entity {
      * @param damage how much damage the projectile deals
      */
     public void fireAt(float targetx, float targety, int speed, int damage) {
-        parent.createProjectile(this.x + getWidth() / 2, this.y + getHeight() / 2, targetx, targety, speed, 0 ,0, damage, this);
+        parent.createProjectile(position.x + getWidth() / 2, position.y + getHeight() / 2, targetx, targety, speed, 0 ,0, damage, this);
     }
 
     /**
@@ -143,7 +181,7 @@ public abstract class Character extends Entity {
      * @param damage how much damage the projectile deals
      */
     public void fireAt(int startx, int starty, float targetx, float targety, int speed, int damage) {
-        parent.createProjectile(this.x + startx, this.y + starty, targetx, targety, speed, 0, 0, damage, this);
+        parent.createProjectile(position.x + startx, position.y + starty, targetx, targety, speed, 0, 0, damage, this);
     }
 
     /**
@@ -154,7 +192,7 @@ public abstract class Character extends Entity {
      */
     protected void melee(float range, int damage) {
         // Don't let mobs melee other mobs (for now).
-        if (this instanceof Mob) {
+        if (Mappers.ai.has(this)) {
             Player player = parent.getPlayer();
 
             if (distanceTo(player.getX(), player.getY()) <= range && directionTo(player.getX(), player.getY()) == facing) {
@@ -164,15 +202,19 @@ public abstract class Character extends Entity {
             // Attack the closest Character within the range.
             Character closest = null;
 
-            for (Entity entity : parent.getEntities()) {
-                // Disregard entity if it's me or it isn't a Character.
-                if (this == entity || !(entity instanceof Character)) {
+            ImmutableArray<com.badlogic.ashley.core.Entity> characters = parent.getCharacters();
+
+            for (int i = 0; i < characters.size(); i++) {
+                Character entity = (Character) characters.get(i);
+
+                // Disregard entity if it's me.
+                if (this == entity) {
                     continue;
                 }
 
                 float x = entity.getX(), y = entity.getY();
                 if (distanceTo(x, y) <= range && directionTo(x, y) == facing && (closest == null || distanceTo(x, y) < distanceTo(closest.getX(), closest.getY()))) {
-                    closest = (Character) entity;
+                    closest = entity;
                 }
             }
 
@@ -184,45 +226,26 @@ public abstract class Character extends Entity {
     }
 
     /**
-     * Updates the state of this Character. Will check collision if shouldCheckCollision is true
+     * Updates the state of this Character. The MovementSystem moves it by its velocity once every entity has been
+     * updated.
      *
      * @param delta how much time has passed since the last update
      */
     @Override
     public void update(float delta) {
         // Update Character facing.
-        if (velocityX < 0) {
+        if (velocity.x < 0) {
             facing = TextureSet.FACING_LEFT;
-        } else if (velocityX > 0) {
+        } else if (velocity.x > 0) {
             facing = TextureSet.FACING_RIGHT;
         }
 
-        if (velocityY < 0) {
+        if (velocity.y < 0) {
             facing = TextureSet.FACING_FRONT;
-        } else if (velocityY > 0) {
+        } else if (velocity.y > 0) {
             facing = TextureSet.FACING_BACK;
         }
 
-
-        float deltaX = velocityX * delta;
-        float deltaY = velocityY * delta;
-
-        //Check Collision if should
-        if(shouldCheckCollision) {
-
-            if (collidesX(deltaX)) {
-                deltaX = 0;
-            }
-
-            if (collidesY(deltaY)) {
-                deltaY = 0;
-            }
-        }
-
-        //Update position
-        x += (int) deltaX;
-        y += (int) deltaY;
-
         if (isDead()) {
             removed = true;
         }
@@ -1,16 +1,21 @@
 package com.superduckinvaders.game.entity;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.superduckinvaders.game.Round;
 import com.superduckinvaders.game.assets.TextureSet;
-import com.superduckinvaders.game.entity.item.Item;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.Mappers;
+import com.superduckinvaders.game.ecs.PositionComponent;
+import com.superduckinvaders.game.ecs.SpriteComponent;
+import com.superduckinvaders.game.ecs.VelocityComponent;
+import com.superduckinvaders.game.render.RenderSnapshot;
 
 import java.util.Comparator;
 
 /**
- * Represents an object in the game.
+ * Represents an object in the game. Every Entity is also an entity in its Round's entity-component-system engine,
+ * and subclasses add the components that describe what they are.
  */
-public abstract class Entity {
+public abstract class Entity extends com.badlogic.ashley.core.Entity {
 
     /**
      * The round that this Entity is in.
@@ -18,19 +23,19 @@ public abstract class Entity {
     protected Round parent;
 
     /**
-     * The x and y coordinates of this Entity.
+     * Where this Entity is.
      */
-    protected float x, y;
+    protected final PositionComponent position;
 
     /**
-     * The x and y velocity of this MobileEntity in pixels per second.
+     * Whether or not to remove this Entity on the next frame.
      */
-    protected float velocityX = 0, velocityY = 0;
+    protected boolean removed = false;
 
     /**
-     * Whether or not to remove this Entity on the next frame.
+     * How this Entity is ordered when rendering.
      */
-    protected boolean removed = false;
+    protected final SpriteComponent sprite = new SpriteComponent(SpriteComponent.LAYER_EFFECT);
 
     /**
      * Initialises this Entity with zero initial coordinates.
@@ -50,8 +55,10 @@ public abstract class Entity {
      */
     public Entity(Round parent, float x, float y) {
         this.parent = parent;
-        this.x = x;
-        this.y = y;
+        this.position = new PositionComponent(x, y);
+
+        add(position);
+        add(sprite);
     }
 
     /**
@@ -59,7 +66,7 @@ public abstract class Entity {
      * @return the x coordinate of this Entity
      */
     public float getX() {
-        return x;
+        return position.x;
     }
 
     /**
@@ -67,23 +74,36 @@ public abstract class Entity {
      * @return the y coordinate of this Entity
      */
     public float getY() {
-        return y;
+        return position.y;
+    }
+
+    /**
+     * Moves this Entity. Used by the physics backend to copy back where a body has moved to.
+     *
+     * @param x the new x coordinate
+     * @param y the new y coordinate
+     */
+    public void setPosition(float x, float y) {
+        position.x = x;
+        position.y = y;
     }
 
     /**
      * Returns the x velocity of the entity
-     * @return the x velocity of this MobileEntity in pixels per second
+     * @return the x velocity of this Entity in pixels per second, or 0 if it doesn't move under its own velocity
      */
     public float getVelocityX() {
-        return velocityX;
+        VelocityComponent velocity = Mappers.velocity.get(this);
+        return velocity != null ? velocity.x : 0;
     }
 
     /**
      * Returns the y velocity of the entity
-     * @return the y coordinate of this MobileEntity in pixels per second
+     * @return the y velocity of this Entity in pixels per second, or 0 if it doesn't move under its own velocity
      */
     public float getVelocityY() {
-        return velocityY;
+        VelocityComponent velocity = Mappers.velocity.get(this);
+        return velocity != null ? velocity.y : 0;
     }
 
     /**
@@ -96,7 +116,7 @@ public abstract class Entity {
      * @return whether the specified rectangle intersects this Entity
      */
     public boolean intersects(float x, float y, int width, int height) {
-        return this.x < x + width && this.x + getWidth() > x && this.y < y + height && this.y + getHeight() > y;
+        return position.x < x + width && position.x + getWidth() > x && position.y < y + height && position.y + getHeight() > y;
     }
 
     /**
@@ -107,7 +127,7 @@ public abstract class Entity {
      * @return the distance between this Entity and the coordinates, in pixels
      */
     public float distanceTo(float x, float y) {
-        return (float) Math.sqrt(Math.pow(x - this.x, 2) + Math.pow(y - this.y, 2));
+        return (float) Math.sqrt(Math.pow(x - position.x, 2) + Math.pow(y - position.y, 2));
     }
 
     /**
@@ -118,7 +138,7 @@ public abstract class Entity {
      * @return the angle between this Entity and the coordinates, in radians
      */
     public float angleTo(float x, float y) {
-        return (float) Math.atan2(y - (this.y + this.getHeight()/2), x - (this.x + this.getWidth()/2));
+        return (float) Math.atan2(y - (position.y + this.getHeight()/2), x - (position.x + this.getWidth()/2));
     }
 
     /**
@@ -192,20 +212,27 @@ public abstract class Entity {
         return removed;
     }
 
+    /**
+     * Flags this Entity for removal from the round, without it having died.
+     */
+    public void remove() {
+        removed = true;
+    }
+
     /**
      * Ensures that this MobileEntity stays within the map area.
      */
     protected void checkBounds() {
-        if (x < 0) {
-            x = 0;
-        } else if (x > parent.getMapWidth() - getWidth()) {
-            x = parent.getMapWidth() - getWidth();
+        if (position.x < 0) {
+            position.x = 0;
+        } else if (position.x > parent.getMapWidth() - getWidth()) {
+            position.x = parent.getMapWidth() - getWidth();
         }
 
-        if (y < 0) {
-            y = 0;
-        } else if (y > parent.getMapHeight() - getHeight()) {
-            y = parent.getMapHeight() - getHeight();
+        if (position.y < 0) {
+            position.y = 0;
+        } else if (position.y > parent.getMapHeight() - getHeight()) {
+            position.y = parent.getMapHeight() - getHeight();
         }
     }
 
@@ -217,14 +244,8 @@ public abstract class Entity {
      */
     public boolean collidesX(float deltaX) {
         // Check for entity collisions.
-        for (Entity entity : parent.getEntities()) {
-            if (entity == this || this instanceof Projectile) {
-                continue;
-            }
-
-            if (entity instanceof Character && entity.intersects(x + deltaX, y, getWidth(), getHeight())) {
-                return true;
-            }
+        if (collidesWithEntity(position.x + deltaX, position.y)) {
+            return true;
         }
 
         // Check for tile collisions.
@@ -239,15 +260,8 @@ public abstract class Entity {
      */
     public boolean collidesY(float deltaY) {
         // Check for entity collisions.
-        for (Entity entity : parent.getEntities()) {
-            // Don't damage my owner.
-            if (entity == this || this instanceof Projectile) {
-                continue;
-            }
-
-            if (entity instanceof Character && entity.intersects(x, y + deltaY, getWidth(), getHeight())) {
-                return true;
-            }
+        if (collidesWithEntity(position.x, position.y + deltaY)) {
+            return true;
         }
 
         // Check for tile collisions.
@@ -255,43 +269,21 @@ public abstract class Entity {
     }
 
     /**
-     * Gets whether specified x delta will cause a collision from an arbitrary position
-     * Used in AI path detection.
+     * Gets whether this Entity would overlap another solid entity at the specified position. Only solid entities
+     * are blocked by other entities, and only by the solid categories in their collision mask.
      *
-     * @param deltaX the x delta
-     * @param fromX  arbitrary x position
-     * @param fromY  arbitrary y position
-     * @return whether collides
-     */
-    public boolean collidesXfrom(float deltaX, float fromX, float fromY) {
-        float tempX = this.x;
-        float tempY = this.y;
-        this.x = fromX;
-        this.y = fromY;
-        boolean result = collidesLeft(deltaX) || collidesRight(deltaX);
-        this.x = tempX;
-        this.y = tempY;
-        return result;
-    }
+     * @param atX the x coordinate to test at
+     * @param atY the y coordinate to test at
+     * @return whether this Entity would overlap another solid entity
+     */
+    private boolean collidesWithEntity(float atX, float atY) {
+        ColliderComponent collider = Mappers.collider.get(this);
 
-    /**
-     * Gets whether specified y delta will cause a collision from an arbitrary position
-     * Used in AI path detection.
-     *
-     * @param deltaY the y delta
-     * @param fromX  arbitrary x position
-     * @param fromY  arbitrary y position
-     * @return whether collides
-     */
-    public boolean collidesYfrom(float deltaY, float fromX, float fromY) {
-        float tempX = this.x;
-        float tempY = this.y;
-        this.x = fromX;
-        this.y = fromY;
-        boolean result = collidesTop(deltaY) || collidesBottom(deltaY);
-        this.x = tempX;
-        this.y = tempY;
-        return result;
+        if (collider == null || !collider.isSolid()) {
+            return false;
+        }
+
+        return parent.getCollisionGrid().overlaps(atX, atY, getWidth(), getHeight(), collider.category, collider.mask & ColliderComponent.SOLID, this);
     }
 
     /**
@@ -303,15 +295,9 @@ public abstract class Entity {
     private boolean collidesLeft(float deltaX) {
         // If entity is smaller than tile we can just check to see if each corner collides instead of all points along the edge.
         if (getHeight() <= parent.getTileHeight()) {
-            return parent.isTileBlocked((int) Math.floor(x + deltaX), (int) y) || parent.isTileBlocked((int) Math.floor(x + deltaX), (int) y + getHeight());
+            return parent.isTileBlocked((int) Math.floor(position.x + deltaX), (int) position.y) || parent.isTileBlocked((int) Math.floor(position.x + deltaX), (int) position.y + getHeight());
         } else {
-            for (int i = (int) y; i < y + getHeight(); i++) {
-                if (parent.isTileBlocked((int) Math.floor(x + deltaX), i)) {
-                    return true;
-                }
-            }
-
-            return false;
+            return isColumnBlocked((int) Math.floor(position.x + deltaX));
         }
     }
 
@@ -324,15 +310,9 @@ public abstract class Entity {
     private boolean collidesRight(float deltaX) {
         // If entity is smaller than tile we can just check to see if each corner collides instead of all points along the edge.
         if (getHeight() <= parent.getTileHeight()) {
-            return parent.isTileBlocked((int) Math.floor(x + getWidth() + deltaX), (int) y) || parent.isTileBlocked((int) Math.floor(x + getWidth() + deltaX), (int) y + getHeight());
+            return parent.isTileBlocked((int) Math.floor(position.x + getWidth() + deltaX), (int) position.y) || parent.isTileBlocked((int) Math.floor(position.x + getWidth() + deltaX), (int) position.y + getHeight());
         } else {
-            for (int i = (int) y; i < y + getHeight(); i++) {
-                if (parent.isTileBlocked((int) Math.ceil(x + getWidth() - 1 + deltaX), i)) {
-                    return true;
-                }
-            }
-
-            return false;
+            return isColumnBlocked((int) Math.ceil(position.x + getWidth() - 1 + deltaX));
         }
     }
 
@@ -345,15 +325,9 @@ public abstract class Entity {
     private boolean collidesBottom(float deltaY) {
         // If entity is smaller than tile we can just check to see if each corner collides instead of all points along the edge.
         if (getWidth() <= parent.getTileWidth()) {
-            return parent.isTileBlocked((int) x, (int) Math.floor(y + deltaY)) || parent.isTileBlocked((int) x + getWidth(), (int) Math.floor(y + deltaY));
+            return parent.isTileBlocked((int) position.x, (int) Math.floor(position.y + deltaY)) || parent.isTileBlocked((int) position.x + getWidth(), (int) Math.floor(position.y + deltaY));
         } else {
-            for (int i = (int) x; i < x + getWidth(); i++) {
-                if (parent.isTileBlocked(i, (int) Math.floor(y + deltaY))) {
-                    return true;
-                }
-            }
-
-            return false;
+            return isRowBlocked((int) Math.floor(position.y + deltaY));
         }
     }
 
@@ -367,18 +341,34 @@ public abstract class Entity {
     private boolean collidesTop(float deltaY) {
         // If entity is smaller than tile we can just check to see if each corner collides instead of all points along the edge.
         if (getWidth() <= parent.getTileWidth()) {
-            return parent.isTileBlocked((int) x, (int) Math.floor(y + getHeight() + deltaY)) || parent.isTileBlocked((int) x + getWidth(), (int) Math.floor(y + getHeight() + deltaY));
+            return parent.isTileBlocked((int) position.x, (int) Math.floor(position.y + getHeight() + deltaY)) || parent.isTileBlocked((int) position.x + getWidth(), (int) Math.floor(position.y + getHeight() + deltaY));
         } else {
-            for (int i = (int) x; i < x + getWidth(); i++) {
-                if (parent.isTileBlocked(i, (int) Math.ceil(y + getHeight() - 1 + deltaY))) {
-                    return true;
-                }
-            }
-
-            return false;
+            return isRowBlocked((int) Math.ceil(position.y + getHeight() - 1 + deltaY));
         }
     }
 
+    /**
+     * Gets whether any tile along the height of this Entity in the specified pixel column is blocked.
+     *
+     * @param column the x coordinate of the column
+     * @return whether the column is blocked
+     */
+    private boolean isColumnBlocked(int column) {
+        int minY = (int) position.y;
+        return parent.getStaticCollision().overlaps(column, minY, 1, (int) Math.ceil(position.y + getHeight()) - minY);
+    }
+
+    /**
+     * Gets whether any tile along the width of this Entity in the specified pixel row is blocked.
+     *
+     * @param row the y coordinate of the row
+     * @return whether the row is blocked
+     */
+    private boolean isRowBlocked(int row) {
+        int minX = (int) position.x;
+        return parent.getStaticCollision().overlaps(minX, row, (int) Math.ceil(position.x + getWidth()) - minX, 1);
+    }
+
     /**
      * Updates the state of this Entity.
      *
@@ -390,61 +380,59 @@ public abstract class Entity {
     }
 
     /**
-     * Renders this Entity.
+     * Adds what this Entity looks like to a snapshot, to be drawn on the render thread.
      *
-     * @param spriteBatch the sprite batch on which to render
+     * @param snapshot the snapshot to add to
      */
-    public abstract void render(SpriteBatch spriteBatch);
+    public abstract void snapshot(RenderSnapshot snapshot);
 
     /**
-     * Used to determine the order that entities are rendered.
+     * Used to determine the order that entities are rendered, using the layer in each entity's SpriteComponent.
      */
     public static class EntityComparator implements Comparator<Entity> {
 
         @Override
         public int compare(Entity o1, Entity o2) {
             //front of list rendered first
-            if (o1 instanceof Character) {
-                if (o2 instanceof Character || o2 instanceof Item) {
-                    //calc height
-                    float x = o2.getY() - o1.getY();
-                    if (x > 0) {
-                        return 1;
-                    } else if (x == 0) {
-                        return 0;
-                    } else {
-                        return -1;
-                    }
+            int layer1 = Mappers.sprite.get(o1).layer;
+            int layer2 = Mappers.sprite.get(o2).layer;
+
+            if (layer1 == SpriteComponent.LAYER_CHARACTER) {
+                if (layer2 == SpriteComponent.LAYER_CHARACTER || layer2 == SpriteComponent.LAYER_ITEM) {
+                    return compareHeight(o1, o2);
                 } else {
                     return 0;
                 }
-            } if (o1 instanceof Item) {
-                    //calc height
-                    float x = o2.getY() - o1.getY();
-                    if (x > 0) {
-                        return 1;
-                    } else if (x == 0) {
-                        return 0;
-                    } else {
-                        return -1;
-                    }
+            } if (layer1 == SpriteComponent.LAYER_ITEM) {
+                return compareHeight(o1, o2);
             } else {
-                if (o2 instanceof Character) {
+                if (layer2 == SpriteComponent.LAYER_CHARACTER) {
                     return 0;
                 } else {
-                    //calc height
-                    float x = o2.getY() - o1.getY();
-                    if (x > 0) {
-                        return 1;
-                    } else if (x == 0) {
-                        return 0;
-                    } else {
-                        return -1;
-                    }
+                    return compareHeight(o1, o2);
                 }
             }
         }
 
+        /**
+         * Orders two entities so that the higher one is rendered first.
+         *
+         * @param o1 the first entity
+         * @param o2 the second entity
+         * @return a positive number if o2 is higher, negative if o1 is higher, 0 if they are level
+         */
+        private static int compareHeight(Entity o1, Entity o2) {
+            //calc height
+            float x = o2.getY() - o1.getY();
+            if (x > 0) {
+                return 1;
+            } else if (x == 0) {
+                return 0;
+            } else {
+                return -1;
+            }
+        }
+
     }
 
 }
@@ -1,17 +1,21 @@
 
 package com.superduckinvaders.game.entity;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.MathUtils;
 import com.superduckinvaders.game.Round;
 import com.superduckinvaders.game.ai.AI;
+import com.superduckinvaders.game.ai.AILevelOfDetail;
 import com.superduckinvaders.game.ai.DummyAI;
-import com.superduckinvaders.game.assets.Assets;
 import com.superduckinvaders.game.assets.TextureSet;
+import com.superduckinvaders.game.ecs.AIComponent;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.SteeringComponent;
 import com.superduckinvaders.game.entity.item.PowerupManager;
 import com.superduckinvaders.game.objective.BossObjective;
 import com.superduckinvaders.game.objective.KillObjective;
 import com.superduckinvaders.game.objective.Objective;
+import com.superduckinvaders.game.render.MobSprite;
+import com.superduckinvaders.game.render.RenderSnapshot;
+import com.superduckinvaders.game.render.SpriteKind;
 
 public class Mob extends Character {
 
@@ -19,11 +23,21 @@ public class Mob extends Character {
      * The texture set to use for this Mob.
      */
     private TextureSet walkingTextureSet, swimmingTextureSet;
+
+    /**
+     * The id of the SpriteKind that draws this Mob.
+     */
+    private final int spriteKind;
     
     /**
      * AI class for the mob
      */
-    private AI ai;
+    private final AIComponent ai;
+
+    /**
+     * The velocity the AI wants this Mob to move at, before crowd steering.
+     */
+    private final SteeringComponent steering = new SteeringComponent();
     
     /**
      * checks whether mob should be updated
@@ -65,9 +79,15 @@ public class Mob extends Character {
         this.swimmingTextureSet = swimmingTextureSet;
         this.speed = speed;
         this.score = score;
-        this.ai = ai;
+        this.ai = new AIComponent(ai);
 
         this.type = type;
+        this.spriteKind = SpriteKind.idOf(new MobSprite(type, walkingTextureSet, swimmingTextureSet));
+
+        add(this.ai);
+        add(steering);
+        add(new ColliderComponent(type == MobType.BOSS ? ColliderComponent.BOSS : ColliderComponent.MOB,
+                ColliderComponent.SOLID | ColliderComponent.PLAYER_PROJECTILE | ColliderComponent.TRIGGER));
 
         if(type==MobType.BOSS)
             disableCollision();
@@ -79,7 +99,7 @@ public class Mob extends Character {
      * @param ai the new AI to use
      */
     public void setAI(AI ai) {
-        this.ai = ai;
+        this.ai.ai = ai;
     }
 
     /**
@@ -92,19 +112,32 @@ public class Mob extends Character {
     
     /**
      * Change where the given mob moves to according to its speed and a new direction vector.
+     * Crowd steering may adjust the velocity each tick to avoid other mobs.
      * @param dirX x component of the direction vector
      * @param dirY y component of the direction vector
      */
     public void setVelocity(float dirX, float dirY){
     	if(dirX == 0 && dirY==0){
-    		velocityX=0;
-    		velocityY=0;
-    		return;
+    		velocity.x=0;
+    		velocity.y=0;
+    	} else {
+    		float magnitude = (float) Math.sqrt(dirX*dirX + dirY*dirY);
+    		velocity.x = (dirX*speed)/magnitude;
+    		velocity.y = (dirY*speed)/magnitude;
     	}
-    	float magnitude = (float) Math.sqrt(dirX*dirX + dirY*dirY);
-    	velocityX = (dirX*speed)/magnitude;
-    	velocityY = (dirY*speed)/magnitude;
 
+    	steering.preferredX = velocity.x;
+    	steering.preferredY = velocity.y;
+    }
+
+    /**
+     * Sets the velocity this Mob actually moves at this tick, leaving the velocity its AI prefers alone.
+     * @param velocityX the x velocity in pixels per second
+     * @param velocityY the y velocity in pixels per second
+     */
+    public void setSteeredVelocity(float velocityX, float velocityY) {
+        velocity.x = velocityX;
+        velocity.y = velocityY;
     }
 
     /**
@@ -112,7 +145,7 @@ public class Mob extends Character {
      */
     @Override
     public int getWidth() {
-            return walkingTextureSet.getTexture(TextureSet.FACING_FRONT, 0).getRegionWidth();
+            return widthOf(walkingTextureSet);
     }
 
     /**
@@ -120,18 +153,40 @@ public class Mob extends Character {
      */
     @Override
     public int getHeight() {
-            return walkingTextureSet.getTexture(TextureSet.FACING_FRONT, 0).getRegionHeight()*3/4;
+            return heightOf(walkingTextureSet);
 
     }
 
+    /**
+     * Gets the width a Mob walking with the specified textures would have, so that where it fits can be checked
+     * before creating it.
+     *
+     * @param walkingTextureSet the textures of the Mob when on land
+     * @return the width of the Mob
+     */
+    public static int widthOf(TextureSet walkingTextureSet) {
+        return walkingTextureSet.getTexture(TextureSet.FACING_FRONT, 0).getRegionWidth();
+    }
+
+    /**
+     * Gets the height a Mob walking with the specified textures would have, so that where it fits can be checked
+     * before creating it.
+     *
+     * @param walkingTextureSet the textures of the Mob when on land
+     * @return the height of the Mob
+     */
+    public static int heightOf(TextureSet walkingTextureSet) {
+        return walkingTextureSet.getTexture(TextureSet.FACING_FRONT, 0).getRegionHeight() * 3 / 4;
+    }
+
     /**
      * Damages this Character's health by the specified number of points.
      *
      * @param health the number of points to damage
      */
     public void damage(int health) {
-        this.currentHealth -= health;
-        parent.floatyNumbersManager.createDamageNumber(health, x, y);
+        this.health.current -= health;
+        parent.floatyNumbersManager.createDamageNumber(health, position.x, position.y);
     }
 
     /**
@@ -162,16 +217,47 @@ public class Mob extends Character {
     }
 
     /**
-     * Updates the Mob. Checks for death, updates animation and movement using it's ai
+     * Updates the Mob. Checks for death, updates animation and movement using it's ai, at the level of detail its
+     * distance from the player calls for
      * @param delta how much time has passed since the last update
      */
     @Override
     public void update(float delta) {
-        ai.update(this, delta);
+        // Think as much as this Mob's distance from the player calls for.
+        Player player = parent.getPlayer();
+        AILevelOfDetail levelOfDetail = parent.getAILevelOfDetail();
+        ai.tier = levelOfDetail.tierOf(type, distanceTo(player.getX(), player.getY()));
+
+        switch (ai.tier) {
+            case FULL:
+                ai.ai.update(this, delta);
+                parent.getCrowdSteering().steer(this);
+                break;
+            case COARSE:
+                ai.thinkTimer -= delta;
+
+                if (ai.thinkTimer <= 0) {
+                    ai.thinkTimer = levelOfDetail.get(type).coarseInterval;
+                    ai.ai.updateCoarse(this);
+                }
+
+                parent.getCrowdSteering().steer(this);
+                break;
+            case DRIFT:
+                ai.thinkTimer -= delta;
+
+                if (ai.thinkTimer <= 0) {
+                    ai.thinkTimer = levelOfDetail.get(type).driftInterval;
+                    ai.ai.updateDrift(this);
+                }
+                break;
+            case FROZEN:
+                return;
+        }
 
         // Chance of spawning a random powerup.
         if (isDead()) {
-            float random = MathUtils.random();
+            float random = parent.getRandom().nextFloat();
             PowerupManager.powerupTypes powerup = null;
 
             if (random < 0.05) {
@@ -185,7 +271,7 @@ public class Mob extends Character {
             }
 
             if (powerup != null) {
-                parent.createPowerup(x, y, powerup, 10);
+                parent.createPowerup(position.x, position.y, powerup, 10);
             }
 
             if(type==MobType.BOSS) {
@@ -200,7 +286,7 @@ public class Mob extends Character {
         }
 
         // Update animation state time.
-        if (velocityX != 0 || velocityY != 0) {
+        if (velocity.x != 0 || velocity.y != 0) {
             stateTime += delta;
         } else {
             stateTime = 0;
@@ -210,38 +296,13 @@ public class Mob extends Character {
     }
 
     /**
-     * Renders the Mob with correct textures/animations
-     * @param spriteBatch the sprite batch on which to render
+     * Adds the Mob and its health bar to a snapshot, swimming if it is in water
+     * @param snapshot the snapshot to add to
      */
     @Override
-    public void render(SpriteBatch spriteBatch) {
-
-        if(type==MobType.RANGED) {
-            if(isOnWater()){
-                spriteBatch.draw(Assets.shadow2, x, y+3);
-                spriteBatch.draw(swimmingTextureSet.getTexture(facing, stateTime), x, y );
-            }
-            else{
-                spriteBatch.draw(Assets.shadow2, x, y+3);
-                spriteBatch.draw(walkingTextureSet.getTexture(facing, stateTime), x, y );
-            }
-
-
-        }
-        else if(type==MobType.MELEE){
-            if(isOnWater()) {
-                spriteBatch.draw(Assets.shadow, x-5, y);
-                spriteBatch.draw(swimmingTextureSet.getTexture(facing, stateTime), x, y);
-            }
-            else {
-                spriteBatch.draw(Assets.shadow, x - 5, y - 5);
-                spriteBatch.draw(walkingTextureSet.getTexture(facing, stateTime), x, y);
-            }
-        }
-        else if(type==MobType.BOSS){
-            spriteBatch.draw(Assets.bossShadow, x-10, y-20);
-            spriteBatch.draw(walkingTextureSet.getTexture(facing, stateTime), x, y);
-        }
+    public void snapshot(RenderSnapshot snapshot) {
+        int index = snapshot.addSprite(spriteKind, position.x, position.y, facing, stateTime, isOnWater() ? RenderSnapshot.SWIMMING : 0);
+        snapshot.setHealth(index, (float) getCurrentHealth() / getMaximumHealth());
     }
 
     /**
@@ -1,8 +1,10 @@
 package com.superduckinvaders.game.entity;
 
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.render.ParticleSprite;
+import com.superduckinvaders.game.render.RenderSnapshot;
+import com.superduckinvaders.game.render.SpriteKind;
 
 /**
  * Represents a particle effect using an Animation.
@@ -19,6 +21,11 @@ public class Particle extends Entity {
      */
     private Animation animation;
 
+    /**
+     * The id of the SpriteKind that draws this Particle.
+     */
+    private final int spriteKind;
+
     /**
      * Initialises this Particle.
      *
@@ -33,6 +40,7 @@ public class Particle extends Entity {
 
         this.initialDuration = this.duration = duration;
         this.animation = animation;
+        this.spriteKind = SpriteKind.idOf(new ParticleSprite(animation));
     }
 
     /**
@@ -67,12 +75,12 @@ public class Particle extends Entity {
     }
 
     /**
-     * Renders this Particle.
+     * Adds this Particle to a snapshot, as far into its animation as it has got.
      *
-     * @param spriteBatch the sprite batch on which to render
+     * @param snapshot the snapshot to add to
      */
     @Override
-    public void render(SpriteBatch spriteBatch) {
-        spriteBatch.draw(animation.getKeyFrame((initialDuration - duration)), x , y);
+    public void snapshot(RenderSnapshot snapshot) {
+        snapshot.addSprite(spriteKind, position.x, position.y, 0, initialDuration - duration, 0);
     }
 }
\ No newline at end of file
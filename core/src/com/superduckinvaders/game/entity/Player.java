@@ -1,14 +1,18 @@
 package com.superduckinvaders.game.entity;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
 import com.superduckinvaders.game.Round;
 import com.superduckinvaders.game.assets.Assets;
 import com.superduckinvaders.game.assets.TextureSet;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.Mappers;
 import com.superduckinvaders.game.entity.item.PowerupManager;
+import com.superduckinvaders.game.input.InputFrame;
+import com.superduckinvaders.game.map.TerrainTable;
+import com.superduckinvaders.game.render.PlayerSprite;
+import com.superduckinvaders.game.render.RenderSnapshot;
+import com.superduckinvaders.game.render.SpriteKind;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,10 +33,15 @@ public class Player extends Character {
     public static final int PLAYER_SPEED = 125;
 
     /**
-     * How much the player's speed should be multiplied by if they are swimming.
+     * How much the player's speed should be multiplied by if they are swimming, unless the water tile sets its own.
      */
     public static final float WATER_SPEED_MODIFIER=1.6f;
 
+    /**
+     * How much health the player loses from damaging terrain each time their damage frames run out.
+     */
+    public static final int TERRAIN_DAMAGE = 1;
+
     /**
      * Player's standard attack delay (how many seconds between attacks).
      */
@@ -114,7 +123,7 @@ public class Player extends Character {
      */
     private boolean isDamageFrames = false;
     /**
-     * Whether the player should be drawn or not. Variable is notted each frame when isDamageFrames is true
+     * Whether the player should be drawn or not. Variable is notted each snapshot when isDamageFrames is true
      */
     private boolean damageFramesFrame = false;
 
@@ -152,6 +161,11 @@ public class Player extends Character {
      */
     private int boundsY = 7;
 
+    /**
+     * The id of the SpriteKind that draws this Player.
+     */
+    private final int spriteKind = SpriteKind.idOf(new PlayerSprite(boundsX, boundsY));
+
     /**
      * Used in flying movement
      * The maximum acceleration amount
@@ -198,6 +212,8 @@ public class Player extends Character {
     public Player(Round parent, int x, int y) {
         super(parent, x, y, PLAYER_HEALTH);
 
+        add(new ColliderComponent(ColliderComponent.PLAYER, ColliderComponent.MOB | ColliderComponent.BOSS | ColliderComponent.MOB_PROJECTILE | ColliderComponent.ITEM));
+
         //Fill the correct values for the projectile draw points
         projectileDrawPoint[TextureSet.FACING_FRONT][0]=7-boundsX;
         projectileDrawPoint[TextureSet.FACING_FRONT][1]=26-boundsY;
@@ -300,18 +316,18 @@ public class Player extends Character {
      */
     public void enableFlying(){
         //Get left/right movement
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
-            velocityX = -(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+        if (parent.getInput().isHeld(InputFrame.MOVE_LEFT)) {
+            velocity.x = -(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
             facing=TextureSet.FACING_LEFT;
-        } else if (Gdx.input.isKeyPressed(Input.Keys.D)) {
-            velocityX = (PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+        } else if (parent.getInput().isHeld(InputFrame.MOVE_RIGHT)) {
+            velocity.x = (PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
             facing=TextureSet.FACING_RIGHT;
         }
         //Get up/down movement
-        if (Gdx.input.isKeyPressed(Input.Keys.W)) {
-            velocityY = (PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
-        } else if (Gdx.input.isKeyPressed(Input.Keys.S)) {
-            velocityY = -(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+        if (parent.getInput().isHeld(InputFrame.MOVE_UP)) {
+            velocity.y = (PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+        } else if (parent.getInput().isHeld(InputFrame.MOVE_DOWN)) {
+            velocity.y = -(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
         }
         accX=0;
         accY=0;
@@ -319,12 +335,12 @@ public class Player extends Character {
         isFlying = true;
 
         //Normalizes vectors to prevent diagonal movement being faster
-        if (velocityX != 0 && velocityY != 0) {
-            velocityX /= SQUAREROOT2;
-            velocityY /= SQUAREROOT2;
+        if (velocity.x != 0 && velocity.y != 0) {
+            velocity.x /= SQUAREROOT2;
+            velocity.y /= SQUAREROOT2;
         }
 
-        Assets.flying.loop();
+        parent.getSounds().loop(Assets.flying);
     }
 
     /**
@@ -340,7 +356,7 @@ public class Player extends Character {
         isFlying=false;
         if(flyingTimer<0)
             flyingTimer=0;
-        Assets.flying.stop();
+        parent.getSounds().stop(Assets.flying);
     }
 
     /**
@@ -350,7 +366,7 @@ public class Player extends Character {
         if(!isOnWater() && !isFlying) {
             stateTime = 0;
             isMeleeing = true;
-            Assets.saber.play(0.1f);
+            parent.getSounds().play(Assets.saber, 0.1f);
         }
     }
 
@@ -369,35 +385,35 @@ public class Player extends Character {
         MeleeHitbox mHitbox;
         switch (facing){
             case TextureSet.FACING_BACK:{
-                mHitbox= new MeleeHitbox(parent, x, y+getHeight(), 32,32);
+                mHitbox= new MeleeHitbox(parent, position.x, position.y+getHeight(), 32,32);
                 break;
             }
             case TextureSet.FACING_BACK_RIGHT:{
-                mHitbox= new MeleeHitbox(parent, x+getWidth(), y, 32,64);
+                mHitbox= new MeleeHitbox(parent, position.x+getWidth(), position.y, 32,64);
                 break;
             }
             case TextureSet.FACING_RIGHT:{
-                mHitbox= new MeleeHitbox(parent, x+getWidth(), y, 32,64);
+                mHitbox= new MeleeHitbox(parent, position.x+getWidth(), position.y, 32,64);
                 break;
             }
             case TextureSet.FACING_FRONT_RIGHT:{
-                mHitbox= new MeleeHitbox(parent, x+getWidth(), y, 32,64);
+                mHitbox= new MeleeHitbox(parent, position.x+getWidth(), position.y, 32,64);
                 break;
             }
             case TextureSet.FACING_FRONT:{
-                mHitbox= new MeleeHitbox(parent, x, y-32, 32,32);
+                mHitbox= new MeleeHitbox(parent, position.x, position.y-32, 32,32);
                 break;
             }
             case TextureSet.FACING_FRONT_LEFT:{
-                mHitbox= new MeleeHitbox(parent, x-32, y, 32,64);
+                mHitbox= new MeleeHitbox(parent, position.x-32, position.y, 32,64);
                 break;
             }
             case TextureSet.FACING_LEFT:{
-                mHitbox= new MeleeHitbox(parent, x-32, y, 32,64);
+                mHitbox= new MeleeHitbox(parent, position.x-32, position.y, 32,64);
                 break;
             }
             case TextureSet.FACING_BACK_LEFT:{
-                mHitbox= new MeleeHitbox(parent, x-32, y, 32,64);
+                mHitbox= new MeleeHitbox(parent, position.x-32, position.y, 32,64);
                 break;
             }
             default:{
@@ -411,7 +427,7 @@ public class Player extends Character {
             thisMob.damage(100);
         }
         if(collideMobs.size()!=0)
-            Assets.saberHit.play(0.05f);
+            parent.getSounds().play(Assets.saberHit, 0.05f);
 
     }
 
@@ -458,8 +474,8 @@ public class Player extends Character {
             if (!(parent.powerUpManager.getIsActive(PowerupManager.powerupTypes.INVULNERABLE) && !isDamageFrames)) {
                 isDamageFrames = true;
                 damageFramesTimer = DAMAGE_FRAMES_LENGTH;
-                this.currentHealth -= health;
-                parent.floatyNumbersManager.createDamageNumber(health, x, y);
+                this.health.current -= health;
+                parent.floatyNumbersManager.createDamageNumber(health, position.x, position.y);
             }
         }
     }
@@ -480,6 +496,10 @@ public class Player extends Character {
                 isDamageFrames=false;
         }
 
+        // Damaging terrain hurts again each time the damage frames run out.
+        if(!isDamageFrames && (getTerrainFlags() & TerrainTable.DAMAGING) != 0)
+            damage(TERRAIN_DAMAGE);
+
         if(isMeleeing)
             updateMeleeAttack();
 
@@ -496,7 +516,7 @@ public class Player extends Character {
             updateWalkingMovement();
 
         // Update animation state time.
-        if (velocityX != 0 || velocityY != 0 || isMeleeing) {
+        if (velocity.x != 0 || velocity.y != 0 || isMeleeing) {
             stateTime += delta;
         } else {
             stateTime = 0;
@@ -512,7 +532,7 @@ public class Player extends Character {
                 disableFlying();
 
             //Update the flying direction texture using the x velocity
-            if(velocityX>=0){
+            if(velocity.x>=0){
                 facing=TextureSet.FACING_RIGHT;
             }
             else{
@@ -525,8 +545,7 @@ public class Player extends Character {
                 flyingTimer+=delta;
 
             //Update the facing direction using current mouse position
-            Vector3 target = parent.unproject(Gdx.input.getX(), Gdx.input.getY());
-            facing = directionTo(target.x, target.y);
+            facing = directionTo(parent.getInput().getAimX(), parent.getInput().getAimY());
         }
     }
 
@@ -537,35 +556,35 @@ public class Player extends Character {
      */
     private void updatePlayerInputs(){
         // Left mouse to attack.
-        if (Gdx.input.isButtonPressed(Input.Buttons.LEFT) && !isFlying && !isMeleeing) {
+        if (parent.getInput().isHeld(InputFrame.FIRE) && !isFlying && !isMeleeing) {
             //Limits attack rate to attackTimer
             if (attackTimer >= PLAYER_ATTACK_DELAY * (parent.powerUpManager.getIsActive(PowerupManager.powerupTypes.RATE_OF_FIRE) ? PLAYER_ATTACK_DELAY_MULTIPLIER : 1)) {
                 attackTimer = 0;
 
                     //Update aim direction
-                    Vector3 target = parent.unproject(Gdx.input.getX(), Gdx.input.getY());
+                    InputFrame input = parent.getInput();
 
                     //Alter starting point based on if on water or not
                     if(isOnWater()){
-                        fireAt(projectileDrawPointSwimming[facing][0],projectileDrawPointSwimming[facing][1],target.x, target.y, 500, 50);
+                        fireAt(projectileDrawPointSwimming[facing][0],projectileDrawPointSwimming[facing][1],input.getAimX(), input.getAimY(), 500, 50);
                     }
                     else
-                        fireAt(projectileDrawPoint[facing][0],projectileDrawPoint[facing][1],target.x, target.y + 4, 500, 50);
+                        fireAt(projectileDrawPoint[facing][0],projectileDrawPoint[facing][1],input.getAimX(), input.getAimY() + 4, 500, 50);
 
             }
         }
 
-        if(Gdx.input.isKeyJustPressed(Input.Keys.E)){
+        if(parent.getInput().isPressed(InputFrame.MELEE)){
             if(!isOnWater() && !isFlying)
                 doMeleeAttack();
         }
 
         // Press space to start flying, but only if flying isn't cooling down and we're moving.
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)){
+        if (parent.getInput().isPressed(InputFrame.FLY)){
             if(isFlying){
                 disableFlying();
             }
-            if(flyingTimer >= PLAYER_MAX_FLIGHT_TIME && (velocityX != 0 || velocityY != 0))
+            if(flyingTimer >= PLAYER_MAX_FLIGHT_TIME && (velocity.x != 0 || velocity.y != 0))
                 enableFlying();
 
         }
@@ -579,24 +598,24 @@ public class Player extends Character {
         // Only allow movement via keys if not flying.
             // Calculate speed at which to move the player.
             float speed = PLAYER_SPEED * (parent.powerUpManager.getIsActive(PowerupManager.powerupTypes.SUPER_SPEED) ? PLAYER_SUPER_SPEED_MULTIPLIER : 1);
-            speed *= isOnWater() ? WATER_SPEED_MODIFIER : 1;
+            speed *= getTerrainSpeed();
 
             // Left/right movement.
-            if (Gdx.input.isKeyPressed(Input.Keys.A)) {
-                velocityX = -speed;
-            } else if (Gdx.input.isKeyPressed(Input.Keys.D)) {
-                velocityX = speed;
+            if (parent.getInput().isHeld(InputFrame.MOVE_LEFT)) {
+                velocity.x = -speed;
+            } else if (parent.getInput().isHeld(InputFrame.MOVE_RIGHT)) {
+                velocity.x = speed;
             } else {
-                velocityX = 0;
+                velocity.x = 0;
             }
 
             // Left/right movement.
-            if (Gdx.input.isKeyPressed(Input.Keys.W)) {
-                velocityY = speed;
-            } else if (Gdx.input.isKeyPressed(Input.Keys.S)) {
-                velocityY = -speed;
+            if (parent.getInput().isHeld(InputFrame.MOVE_UP)) {
+                velocity.y = speed;
+            } else if (parent.getInput().isHeld(InputFrame.MOVE_DOWN)) {
+                velocity.y = -speed;
             } else {
-                velocityY = 0;
+                velocity.y = 0;
             }
 
     }
@@ -609,12 +628,12 @@ public class Player extends Character {
     private void updateFlyingMovement(){
 
         //Check key inputs  to influence acceleration.
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
+        if (parent.getInput().isHeld(InputFrame.MOVE_LEFT)) {
             if(accX==0) //Set a starting speed
                 accX=-MIN_ACC;
             else
                 accX -= ACC_SPEED;
-        } else if (Gdx.input.isKeyPressed(Input.Keys.D)) {
+        } else if (parent.getInput().isHeld(InputFrame.MOVE_RIGHT)) {
             if(accX==0)
                 accX=MIN_ACC;
             else
@@ -622,12 +641,12 @@ public class Player extends Character {
         }
 
         // Left/right movement.
-        if (Gdx.input.isKeyPressed(Input.Keys.W)) {
+        if (parent.getInput().isHeld(InputFrame.MOVE_UP)) {
             if(accY==0)
                 accY=MIN_ACC;
             else
                 accY += ACC_SPEED;
-        } else if (Gdx.input.isKeyPressed(Input.Keys.S)) {
+        } else if (parent.getInput().isHeld(InputFrame.MOVE_DOWN)) {
             if(accY==0)
                 accY=-MIN_ACC;
             else
@@ -646,41 +665,32 @@ public class Player extends Character {
             accY=MAX_ACC;
 
         //Update velocities with acceleration
-        velocityX+=accX;
-        velocityY+=accY;
+        velocity.x+=accX;
+        velocity.y+=accY;
 
         //Limit The Maximum velocity
-        if(velocityX<-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
-            velocityX=-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
-        else if(velocityX>(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
-            velocityX=(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
-
-        if(velocityY<-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
-            velocityY=-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
-        else if(velocityY>(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
-            velocityY=(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+        if(velocity.x<-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
+            velocity.x=-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+        else if(velocity.x>(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
+            velocity.x=(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+
+        if(velocity.y<-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
+            velocity.y=-(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
+        else if(velocity.y>(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER))
+            velocity.y=(PLAYER_SPEED*PLAYER_FLIGHT_SPEED_MULTIPLIER);
     }
 
     /**
-     * Renders this Player with the correct set of animations based on current states
+     * Adds this Player to a snapshot with the flags that pick the correct set of animations based on current states
      *
-     * @param spriteBatch the sprite batch on which to render
+     * @param snapshot the snapshot to add to
      */
     @Override
-    public void render(SpriteBatch spriteBatch) {
-        // Use the right texture set.
-        TextureSet textureSet = isOnWater() ? Assets.playerSwimming : Assets.playerNormal;
+    public void snapshot(RenderSnapshot snapshot) {
+        int flags = (isOnWater() ? RenderSnapshot.SWIMMING : 0) | (isFlying ? RenderSnapshot.FLYING : 0)
+                | (isMeleeing ? RenderSnapshot.MELEE : 0) | (isDamageFrames && !damageFramesFrame ? RenderSnapshot.HIDDEN : 0);
 
-        spriteBatch.draw(Assets.shadow2, x-2, y-6);//Draw the shadow under the player
-        if(isFlying)
-            spriteBatch.draw(Assets.playerFlying.getTexture(facing, 0), x - getBoundsX()-18, y - getBoundsY()+10);
-        else {
-            if(!isDamageFrames || isDamageFrames && damageFramesFrame)
-                if(isMeleeing)
-                    spriteBatch.draw(Assets.playerMelee.getTexture(facing, stateTime), x - getBoundsX()-16, y - getBoundsY());
-                else
-                    spriteBatch.draw(textureSet.getTexture(facing, stateTime), x - getBoundsX(), y - getBoundsY());
-        }
+        snapshot.addSprite(spriteKind, position.x, position.y, facing, stateTime, flags);
         damageFramesFrame=!damageFramesFrame;
     }
 
@@ -728,13 +738,15 @@ public class Player extends Character {
             super(parent, x, y);
             this.width=width;
             this.height=height;
+
+            add(new ColliderComponent(ColliderComponent.TRIGGER, ColliderComponent.MOB | ColliderComponent.BOSS));
         }
 
         /**
-         * Render function, does nothing currently, could be used for debug rendering
-         * @param spriteBatch the sprite batch on which to render
+         * Snapshot function, adds nothing currently, could be used for debug rendering
+         * @param snapshot the snapshot to add to
          */
-        public void render(SpriteBatch spriteBatch){
+        public void snapshot(RenderSnapshot snapshot){
 
         }
 
@@ -761,10 +773,15 @@ public class Player extends Character {
         public List<Mob> getCollides() {
             // Check for entity collisions.
             List<Mob> collisionMobs = new ArrayList<Mob>();
-            for (Entity entity : parent.getEntities()) {
+            ColliderComponent collider = Mappers.collider.get(this);
+            Array<Entity> candidates = parent.getQueryResults();
+            parent.getCollisionGrid().query(position.x, position.y, getWidth(), getHeight(), collider.category, collider.mask, candidates);
+
+            for (int i = 0; i < candidates.size; i++) {
+                Entity entity = candidates.get(i);
 
-                if (entity instanceof Mob && entity.intersects(x, y, getWidth(), getHeight())) {
-                    collisionMobs.add((Mob)entity);
+                if (entity.intersects(position.x, position.y, getWidth(), getHeight())) {
+                    collisionMobs.add((Mob) entity);
                 }
             }
             return collisionMobs;
@@ -1,9 +1,18 @@
 package com.superduckinvaders.game.entity;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.graphics.g3d.particles.ParallelArray;
 import com.superduckinvaders.game.Round;
 import com.superduckinvaders.game.assets.Assets;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.Mappers;
+import com.superduckinvaders.game.ecs.ProjectileComponent;
+import com.superduckinvaders.game.ecs.ProjectileHits;
+import com.superduckinvaders.game.ecs.VelocityComponent;
+import com.superduckinvaders.game.physics.PhysicsWorld;
+import com.superduckinvaders.game.render.ProjectileSprite;
+import com.superduckinvaders.game.render.RenderSnapshot;
+import com.superduckinvaders.game.render.SpriteKind;
 
 /**
  * Represents a projectile.
@@ -11,14 +20,24 @@ import com.superduckinvaders.game.assets.Assets;
 public class Projectile extends Entity {
 
     /**
-     * The owner of this Projectile (i.e. the Entity that fired it).
+     * The id of the SpriteKind that draws every Projectile.
      */
-    private Entity owner;
+    private static final int SPRITE_KIND = SpriteKind.idOf(new ProjectileSprite());
 
     /**
-     * How much damage this Projectile does to what it hits.
+     * The owner of this Projectile (i.e. the Entity that fired it) and how much damage it does to what it hits.
      */
-    private int damage;
+    private final ProjectileComponent projectile;
+
+    /**
+     * Which characters this Projectile can hit, decided by who fired it.
+     */
+    private final ColliderComponent collider;
+
+    /**
+     * How fast this Projectile is travelling.
+     */
+    private final VelocityComponent velocity = new VelocityComponent();
 
     /**
      * The angle this Projectile is travelling from it's start point
@@ -65,17 +84,29 @@ public class Projectile extends Entity {
 
         // Angle between initial position and target.
         this.angle = angleTo(targetX, targetY);
-        velocityX = (float) Math.cos(angle) * speed;
-        velocityY = (float) Math.sin(angle) * speed;
+        velocity.x = (float) Math.cos(angle) * speed;
+        velocity.y = (float) Math.sin(angle) * speed;
 
         this.angle = (float)Math.toDegrees((double)angleTo(targetX, targetY));//Turn angle to degrees for correct render rotation
 
         // Projectile should only move faster if we're moving in the same direction.
-        velocityX += (Math.signum(velocityX) == Math.signum(velocityXOffset) ? velocityXOffset : 0);
-        velocityY += (Math.signum(velocityY) == Math.signum(velocityYOffset) ? velocityYOffset : 0);
+        velocity.x += (Math.signum(velocity.x) == Math.signum(velocityXOffset) ? velocityXOffset : 0);
+        velocity.y += (Math.signum(velocity.y) == Math.signum(velocityYOffset) ? velocityYOffset : 0);
+
+        this.projectile = new ProjectileComponent(owner, damage);
 
-        this.damage = damage;
-        this.owner = owner;
+        // Projectiles hit whichever side didn't fire them.
+        ColliderComponent ownerCollider = owner != null ? Mappers.collider.get(owner) : null;
+
+        if (ownerCollider != null && ownerCollider.category == ColliderComponent.PLAYER) {
+            this.collider = new ColliderComponent(ColliderComponent.PLAYER_PROJECTILE, ColliderComponent.MOB | ColliderComponent.BOSS);
+        } else {
+            this.collider = new ColliderComponent(ColliderComponent.MOB_PROJECTILE, ColliderComponent.PLAYER);
+        }
+
+        add(velocity);
+        add(projectile);
+        add(collider);
     }
 
     /**
@@ -95,28 +126,49 @@ public class Projectile extends Entity {
     }
 
     /**
-     * Updates the state of this Projectile.
+     * Updates the state of this Projectile on its own. ProjectileSystem moves projectiles together, through move,
+     * unless they are moved by the physics world.
      *
      * @param delta how much time has passed since the last update
      */
     @Override
     public void update(float delta) {
+        PhysicsWorld physics = parent.getPhysics();
+
+        // The physics world moves this Projectile and reports what it hits.
+        if (physics != null) {
+            physics.move(this, velocity.x, velocity.y);
+            return;
+        }
 
+        ProjectileHits hits = new ProjectileHits();
+        move(delta, hits);
+        hits.apply();
+    }
+
+    /**
+     * Moves this Projectile, recording what it hits instead of hitting it, so that projectiles can move in parallel.
+     * Only changes this Projectile.
+     *
+     * @param delta how much time has passed since the last update
+     * @param hits  where to record what this Projectile hits
+     */
+    public void move(float delta, ProjectileHits hits) {
         // Do manual collision checking in order to remove projectile.
 
-        float deltaX = velocityX * delta;
-        float deltaY = velocityY * delta;
-
-        //Ensure that a mobs can't shoot each other & player can't somehow shoot themselves
-        for (Entity entity : parent.getEntities()) {
-            if (entity instanceof Character && entity != owner) {
-                if(owner.getClass()!=entity.getClass()) {
-                    if (x > entity.x && x < entity.x + entity.getWidth()) {
-                        if (y > entity.y && y < entity.y + entity.getHeight()) {
-                            ((Character) entity).damage(damage);
-                            removed = true;
-                        }
-                    }
+        float deltaX = velocity.x * delta;
+        float deltaY = velocity.y * delta;
+
+        //The collision bits ensure that mobs can't shoot each other & player can't somehow shoot themselves
+        Array<Entity> candidates = hits.getCandidates();
+        parent.getCollisionGrid().query(position.x, position.y, 0, 0, collider.category, collider.mask, candidates);
+
+        for (int i = 0; i < candidates.size; i++) {
+            Character entity = (Character) candidates.get(i);
+
+            if (position.x > entity.position.x && position.x < entity.position.x + entity.getWidth()) {
+                if (position.y > entity.position.y && position.y < entity.position.y + entity.getHeight()) {
+                    hits.addHit(this, entity);
                 }
             }
         }
@@ -128,15 +180,15 @@ public class Projectile extends Entity {
             isFirstUpdate=false;
         } else {
 
-            if (x < 0) {
+            if (position.x < 0) {
                 collided = true;
-            } else if (x > parent.getMapWidth() - getWidth()) {
+            } else if (position.x > parent.getMapWidth() - getWidth()) {
                 collided = true;
             }
 
-            if (y < 0) {
+            if (position.y < 0) {
                 collided = true;
-            } else if (y > parent.getMapHeight() - getHeight()) {
+            } else if (position.y > parent.getMapHeight() - getHeight()) {
                 collided = true;
             }
 
@@ -150,34 +202,51 @@ public class Projectile extends Entity {
 
         //If collision has occurred, destroy itself and create particle.
         if (collided) {
-            // Create explosion particle effect.
-            parent.createParticle(x, y , 0.6f, Assets.explosionAnimation);
-
-            removed = true;
+            hits.addExplosion(this);
         } else {
-            x += deltaX;
-            y += deltaY;
+            position.x += deltaX;
+            position.y += deltaY;
         }
     }
 
     /**
-     * Renders this Projectile. Rotates to correct angle
+     * Damages a character this Projectile has hit and removes this Projectile.
+     *
+     * @param character the character that was hit
+     */
+    public void hit(Character character) {
+        character.damage(projectile.damage);
+        removed = true;
+    }
+
+    /**
+     * Destroys this Projectile against a wall, creating an explosion.
+     */
+    public void explode() {
+        // Create explosion particle effect.
+        parent.createParticle(position.x, position.y , 0.6f, Assets.explosionAnimation);
+
+        removed = true;
+    }
+
+    /**
+     * Adds this Projectile to a snapshot, rotated to the correct angle.
      *
-     * @param spriteBatch the sprite batch on which to render
+     * @param snapshot the snapshot to add to
      */
     @Override
-    public void render(SpriteBatch spriteBatch) {
-        spriteBatch.draw(Assets.projectile, x, y, Assets.projectile.getRegionWidth()/2, Assets.projectile.getRegionHeight()/2, Assets.projectile.getRegionWidth(), Assets.projectile.getRegionHeight(), 1,1 , angle);
+    public void snapshot(RenderSnapshot snapshot) {
+        snapshot.setAngle(snapshot.addSprite(SPRITE_KIND, position.x, position.y, 0, 0, 0), angle);
     }
 
     /**
      * Set the x coordinate of the projectile
      * @param x The value to set the x coordinate to
      */
-    public void setX(float x){this.x=x;}
+    public void setX(float x){position.x=x;}
     /**
      * Set the y coordinate of the projectile
      * @param y The value to set the y coordinate to
      */
-    public void setY(float y){this.y=y;}
+    public void setY(float y){position.y=y;}
 }
@@ -1,11 +1,13 @@
 package com.superduckinvaders.game.entity.item;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.MathUtils;
 import com.superduckinvaders.game.Round;
-import com.superduckinvaders.game.assets.Assets;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.SpriteComponent;
 import com.superduckinvaders.game.entity.Entity;
+import com.superduckinvaders.game.render.ItemSprite;
+import com.superduckinvaders.game.render.RenderSnapshot;
+import com.superduckinvaders.game.render.SpriteKind;
 
 public class Item extends Entity {
 
@@ -19,6 +21,11 @@ public class Item extends Entity {
      */
     private float runningTime;
 
+    /**
+     * The id of the SpriteKind that draws this Item.
+     */
+    private final int spriteKind;
+
     /**
      * Creates an item at a specified x, y position.
      * @param parent The current round.
@@ -30,6 +37,10 @@ public class Item extends Entity {
         super(parent, x, y);
         runningTime = 0;
         this.texture = texture;
+        this.spriteKind = SpriteKind.idOf(new ItemSprite(texture));
+        sprite.layer = SpriteComponent.LAYER_ITEM;
+
+        add(new ColliderComponent(ColliderComponent.ITEM, ColliderComponent.PLAYER));
     }
 
     /**
@@ -59,14 +70,12 @@ public class Item extends Entity {
     }
 
     /**
-     * Render the item
-     * @param spriteBatch the sprite batch on which to render
+     * Adds the item to a snapshot, bobbing by how long it has existed for
+     * @param snapshot the snapshot to add to
      */
     @Override
-    public void render(SpriteBatch spriteBatch) {
-        //System.out.println("RENDERING? " + runningTime);
-        spriteBatch.draw(Assets.shadow, x-8, y-4);
-        spriteBatch.draw(texture, x, y + (int) (MathUtils.sin(runningTime*2)*6) + 6);
+    public void snapshot(RenderSnapshot snapshot) {
+        snapshot.addSprite(spriteKind, position.x, position.y, 0, runningTime, 0);
     }
 
 }
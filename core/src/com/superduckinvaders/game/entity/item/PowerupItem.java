@@ -49,7 +49,7 @@ public class PowerupItem extends Item {
         if (this.intersects(player.getX(), player.getY(), player.getWidth(), player.getHeight())) {
             parent.powerUpManager.addPowerup(type, DURATION);
             removed = true;
-            Assets.pickup.play(0.3f);
+            parent.getSounds().play(Assets.pickup, 0.3f);
         }
     }
 
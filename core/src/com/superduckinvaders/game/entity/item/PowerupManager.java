@@ -5,6 +5,8 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.superduckinvaders.game.assets.Assets;
+import com.superduckinvaders.game.render.RenderSnapshot;
+import com.superduckinvaders.game.ui.BarRenderer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -57,29 +59,37 @@ public class PowerupManager {
     }
 
     /**
-     * Renders a bar and icon for each active powerup at the bottom-right of the screen
+     * Adds each active powerup and how much of it is left to a snapshot, in the order their bars are rendered
+     * @param snapshot the snapshot to add to
+     */
+    public void snapshot(RenderSnapshot snapshot){
+        for(Powerup thisPowerup : powerups){
+            if(thisPowerup.isActive)
+                snapshot.addPowerup(thisPowerup.type.ordinal(), thisPowerup.currentDuration / thisPowerup.duration);
+        }
+    }
+
+    /**
+     * Renders a bar and icon for each active powerup in a snapshot at the bottom-right of the screen
      * The bars are rendered from the bottom to the top of the screen
      * @param uiBatch The Spritebatch to draw to
+     * @param snapshot The snapshot holding the active powerups
      */
-    public void render(SpriteBatch uiBatch){
+    public static void render(SpriteBatch uiBatch, RenderSnapshot snapshot){
 
         float poweupBarPointer=0;
         float powerupBarX = Gdx.graphics.getWidth()-Assets.small_powerupEmpty.getRegionWidth()-15;
 
-        //Iterate through powerups and render if it is active
-        for(Powerup thisPowerup : powerups){
-            if(thisPowerup.isActive){
+        //Iterate through the active powerups and render them
+        for(int i = 0; i < snapshot.getPowerupCount(); i++){
 
-                //Render the timer bar
-                uiBatch.draw(Assets.small_powerupEmpty, powerupBarX, 50-poweupBarPointer);
-                Assets.small_powerupFull.setRegionWidth((int) Math.max(0, thisPowerup.currentDuration / thisPowerup.duration * 96));
-                uiBatch.draw(Assets.small_powerupFull, powerupBarX, 50-poweupBarPointer);
+            //Render the timer bar
+            BarRenderer.draw(uiBatch, Assets.small_powerupEmpty, Assets.small_powerupFull, powerupBarX, 50-poweupBarPointer, snapshot.getPowerupFraction(i));
 
-                //Render the icon of the powerup next to the bar
-                TextureRegion powerupIcon = PowerupItem.getTextureForPowerup(thisPowerup.type);
-                uiBatch.draw(powerupIcon, powerupBarX-powerupIcon.getRegionWidth()*1.5f, 50-poweupBarPointer-3, 0, 0, powerupIcon.getRegionWidth(), powerupIcon.getRegionHeight(), 1.5f,1.5f, 0);
-                poweupBarPointer-=14;
-            }
+            //Render the icon of the powerup next to the bar
+            TextureRegion powerupIcon = PowerupItem.getTextureForPowerup(powerupTypes.values()[snapshot.getPowerupType(i)]);
+            uiBatch.draw(powerupIcon, powerupBarX-powerupIcon.getRegionWidth()*1.5f, 50-poweupBarPointer-3, 0, 0, powerupIcon.getRegionWidth(), powerupIcon.getRegionHeight(), 1.5f,1.5f, 0);
+            poweupBarPointer-=14;
         }
 
     }
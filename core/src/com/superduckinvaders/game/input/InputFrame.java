@@ -0,0 +1,106 @@
+package com.superduckinvaders.game.input;
+
+/**
+ * The player's input for a single update of a Round.
+ * Keys are mapped to actions so that a frame can be stored in a couple of bytes.
+ */
+public class InputFrame {
+
+    /**
+     * Action bits, one for each action the player can perform.
+     */
+    public static final int MOVE_LEFT = 1, MOVE_RIGHT = 1 << 1, MOVE_UP = 1 << 2, MOVE_DOWN = 1 << 3,
+                            FIRE = 1 << 4, MELEE = 1 << 5, FLY = 1 << 6, STRESS_TEST = 1 << 7;
+
+    /**
+     * The actions being held down this frame.
+     */
+    private int held;
+
+    /**
+     * The actions that were pressed this frame.
+     */
+    private int pressed;
+
+    /**
+     * The world coordinates the player is aiming at.
+     */
+    private float aimX, aimY;
+
+    /**
+     * The time elapsed since the previous frame.
+     */
+    private float delta;
+
+    /**
+     * Sets the contents of this InputFrame.
+     *
+     * @param held    the actions being held down
+     * @param pressed the actions pressed this frame
+     * @param aimX    the world x coordinate being aimed at
+     * @param aimY    the world y coordinate being aimed at
+     * @param delta   the time elapsed since the previous frame
+     */
+    public void set(int held, int pressed, float aimX, float aimY, float delta) {
+        this.held = held;
+        this.pressed = pressed;
+        this.aimX = aimX;
+        this.aimY = aimY;
+        this.delta = delta;
+    }
+
+    /**
+     * Gets whether an action is being held down.
+     *
+     * @param action the action (one of the action bits)
+     * @return true if the action is held down this frame
+     */
+    public boolean isHeld(int action) {
+        return (held & action) != 0;
+    }
+
+    /**
+     * Gets whether an action was pressed this frame.
+     *
+     * @param action the action (one of the action bits)
+     * @return true if the action was pressed this frame
+     */
+    public boolean isPressed(int action) {
+        return (pressed & action) != 0;
+    }
+
+    /**
+     * @return the bitmask of held actions
+     */
+    public int getHeld() {
+        return held;
+    }
+
+    /**
+     * @return the bitmask of actions pressed this frame
+     */
+    public int getPressed() {
+        return pressed;
+    }
+
+    /**
+     * @return the world x coordinate being aimed at
+     */
+    public float getAimX() {
+        return aimX;
+    }
+
+    /**
+     * @return the world y coordinate being aimed at
+     */
+    public float getAimY() {
+        return aimY;
+    }
+
+    /**
+     * @return the time elapsed since the previous frame
+     */
+    public float getDelta() {
+        return delta;
+    }
+}
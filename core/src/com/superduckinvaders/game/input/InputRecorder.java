@@ -0,0 +1,116 @@
+package com.superduckinvaders.game.input;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.superduckinvaders.game.Round;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Passes input through from another source while writing every frame to a replay file.
+ */
+public class InputRecorder implements InputSource {
+
+    /**
+     * How much game time, in seconds, is recorded between flushes of the replay file.
+     */
+    private static final float FLUSH_INTERVAL = 1;
+
+    /**
+     * The source being recorded.
+     */
+    private final InputSource source;
+
+    /**
+     * The stream the replay is written to, or null once closed.
+     */
+    private DataOutputStream out;
+
+    /**
+     * The last aim coordinates written. Aim is only written when it changes.
+     */
+    private float lastAimX = 0, lastAimY = 0;
+
+    /**
+     * How much game time has been recorded since the replay file was last flushed, in seconds.
+     */
+    private float sinceFlush = 0;
+
+    /**
+     * Initialises this InputRecorder and writes the replay header.
+     *
+     * @param source the source to record
+     * @param file   the file to write the replay to
+     * @param header the settings of the Round being recorded
+     */
+    public InputRecorder(InputSource source, FileHandle file, Replay header) {
+        this.source = source;
+
+        try {
+            // Sync flushes keep what has been recorded readable even if the game isn't shut down cleanly.
+            out = new DataOutputStream(new GZIPOutputStream(file.write(false, 8192), true));
+            header.writeHeader(out);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't create replay: " + file, e);
+        }
+    }
+
+    /**
+     * Polls the recorded source and writes the frame it produced.
+     *
+     * @param round the round being updated
+     * @param delta the time elapsed since the previous frame
+     * @param frame the frame to fill in
+     * @return the result of polling the recorded source
+     */
+    @Override
+    public boolean poll(Round round, float delta, InputFrame frame) {
+        if (!source.poll(round, delta, frame)) {
+            return false;
+        }
+
+        if (out != null) {
+            try {
+                boolean aimChanged = frame.getAimX() != lastAimX || frame.getAimY() != lastAimY;
+
+                out.writeByte(aimChanged ? Replay.FLAG_AIM_CHANGED : 0);
+                out.writeByte(frame.getHeld());
+                out.writeByte(frame.getPressed());
+                out.writeFloat(frame.getDelta());
+
+                if (aimChanged) {
+                    out.writeFloat(lastAimX = frame.getAimX());
+                    out.writeFloat(lastAimY = frame.getAimY());
+                }
+
+                sinceFlush += frame.getDelta();
+
+                if (sinceFlush >= FLUSH_INTERVAL) {
+                    out.flush();
+                    sinceFlush = 0;
+                }
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Couldn't write replay frame", e);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Finishes the replay file. Further frames are passed through but not recorded.
+     */
+    public void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // The frames written so far are still readable.
+            }
+
+            out = null;
+        }
+    }
+}
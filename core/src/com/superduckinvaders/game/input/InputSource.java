@@ -0,0 +1,19 @@
+package com.superduckinvaders.game.input;
+
+import com.superduckinvaders.game.Round;
+
+/**
+ * Provides the player's input to a Round, one frame at a time.
+ */
+public interface InputSource {
+
+    /**
+     * Fills in the input for the next frame.
+     *
+     * @param round the round being updated
+     * @param delta the time elapsed since the previous frame
+     * @param frame the frame to fill in
+     * @return false if this source has no more input, true otherwise
+     */
+    boolean poll(Round round, float delta, InputFrame frame);
+}
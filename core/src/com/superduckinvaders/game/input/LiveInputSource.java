@@ -0,0 +1,79 @@
+package com.superduckinvaders.game.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Vector3;
+import com.superduckinvaders.game.Round;
+
+/**
+ * Reads the player's input from the keyboard and mouse.
+ * <p>
+ * The keyboard and mouse can only be read on the render thread, so the game screen samples them once a frame with
+ * sample, and the Round, updating on its own thread, polls the latest sample. Actions pressed are kept from sample to
+ * sample until polled, so a press is seen exactly once however the frames and updates line up.
+ */
+public class LiveInputSource implements InputSource {
+
+    /**
+     * The actions held down when last sampled, and the actions pressed since the last poll. There is only one
+     * keyboard and mouse, so every LiveInputSource shares them.
+     */
+    private static int held = 0, pressed = 0;
+
+    /**
+     * The world coordinates the player was aiming at when last sampled.
+     */
+    private static float aimX = 0, aimY = 0;
+
+    /**
+     * Scratch space for unprojecting the mouse. Only used on the render thread.
+     */
+    private static final Vector3 mouse = new Vector3();
+
+    /**
+     * Reads the keyboard and mouse. Only to be called from the render thread.
+     *
+     * @param camera the camera the game is being drawn with, to find where the mouse is aiming
+     */
+    public static void sample(Camera camera) {
+        int heldNow = 0, pressedNow = 0;
+
+        if (Gdx.input.isKeyPressed(Input.Keys.A)) heldNow |= InputFrame.MOVE_LEFT;
+        if (Gdx.input.isKeyPressed(Input.Keys.D)) heldNow |= InputFrame.MOVE_RIGHT;
+        if (Gdx.input.isKeyPressed(Input.Keys.W)) heldNow |= InputFrame.MOVE_UP;
+        if (Gdx.input.isKeyPressed(Input.Keys.S)) heldNow |= InputFrame.MOVE_DOWN;
+        if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) heldNow |= InputFrame.FIRE;
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.E)) pressedNow |= InputFrame.MELEE;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) pressedNow |= InputFrame.FLY;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.P)) pressedNow |= InputFrame.STRESS_TEST;
+
+        camera.unproject(mouse.set(Gdx.input.getX(), Gdx.input.getY(), 0));
+
+        synchronized (LiveInputSource.class) {
+            held = heldNow;
+            pressed |= pressedNow;
+            aimX = mouse.x;
+            aimY = mouse.y;
+        }
+    }
+
+    /**
+     * Fills in the frame with the latest sample of the keyboard and mouse.
+     *
+     * @param round the round being updated
+     * @param delta the time elapsed since the previous frame
+     * @param frame the frame to fill in
+     * @return always true
+     */
+    @Override
+    public boolean poll(Round round, float delta, InputFrame frame) {
+        synchronized (LiveInputSource.class) {
+            frame.set(held, pressed, aimX, aimY, delta);
+            pressed = 0;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,349 @@
+package com.superduckinvaders.game.input;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.superduckinvaders.game.DuckGame;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.assets.Assets;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A recorded session: the settings needed to recreate the Round plus the player's input for every frame.
+ * Replays are stored as a gzipped stream of frames, each taking 7 bytes (15 when the aim has moved).
+ */
+public class Replay {
+
+    /**
+     * Identifies a replay file ("SDIR").
+     */
+    public static final int MAGIC = 0x53444952;
+
+    /**
+     * The version of the replay format.
+     */
+    public static final int VERSION = 4;
+
+    /**
+     * Frame flag set when the aim coordinates follow the frame.
+     */
+    static final int FLAG_AIM_CHANGED = 1;
+
+    /**
+     * The seed of the recorded Round's random number generator.
+     */
+    private final long seed;
+
+    /**
+     * The level (starting at 1) and number of mobs of the recorded Round.
+     */
+    private final int level, mobs;
+
+    /**
+     * Whether the recorded Round was a boss round.
+     */
+    private final boolean boss;
+
+    /**
+     * Whether the recorded Round used the Box2D collision backend.
+     */
+    private final boolean physics;
+
+    /**
+     * Whether the recorded Round was an endless survival round.
+     */
+    private final boolean survival;
+
+    /**
+     * The width and height, in tiles, of the generated map the recorded Round was played on, or 0 if it was played
+     * on its level's map.
+     */
+    private final int mapSize;
+
+    /**
+     * The seed the recorded Round's map was generated from, if it was generated.
+     */
+    private final long mapSeed;
+
+    /**
+     * How many frames have been read into this Replay.
+     */
+    private int frameCount = 0;
+
+    /**
+     * The input for each frame.
+     */
+    private byte[] held = new byte[1024], pressed = new byte[1024];
+
+    /**
+     * The timing and aim for each frame.
+     */
+    private float[] delta = new float[1024], aimX = new float[1024], aimY = new float[1024];
+
+    /**
+     * Initialises an empty Replay for the specified Round settings.
+     *
+     * @param seed  the seed of the Round's random number generator
+     * @param level the level of the Round, starting at 1
+     * @param mobs  the number of mobs spawned at the start of the Round
+     * @param boss    whether the Round is a boss round
+     * @param physics whether the Round uses the Box2D collision backend
+     */
+    public Replay(long seed, int level, int mobs, boolean boss, boolean physics) {
+        this(seed, level, mobs, boss, physics, false);
+    }
+
+    /**
+     * Initialises an empty Replay for the specified Round settings.
+     *
+     * @param seed     the seed of the Round's random number generator
+     * @param level    the level of the Round, starting at 1
+     * @param mobs     the number of mobs spawned at the start of the Round
+     * @param boss     whether the Round is a boss round
+     * @param physics  whether the Round uses the Box2D collision backend
+     * @param survival whether the Round is an endless survival round
+     */
+    public Replay(long seed, int level, int mobs, boolean boss, boolean physics, boolean survival) {
+        this(seed, level, mobs, boss, physics, survival, 0, 0);
+    }
+
+    /**
+     * Initialises an empty Replay for the specified Round settings.
+     *
+     * @param seed     the seed of the Round's random number generator
+     * @param level    the level of the Round, starting at 1
+     * @param mobs     the number of mobs spawned at the start of the Round
+     * @param boss     whether the Round is a boss round
+     * @param physics  whether the Round uses the Box2D collision backend
+     * @param survival whether the Round is an endless survival round
+     * @param mapSize  the width and height, in tiles, of the Round's generated map, or 0 if it uses its level's map
+     * @param mapSeed  the seed the Round's map was generated from, if it was generated
+     */
+    public Replay(long seed, int level, int mobs, boolean boss, boolean physics, boolean survival, int mapSize, long mapSeed) {
+        this.seed = seed;
+        this.level = level;
+        this.mobs = mobs;
+        this.boss = boss;
+        this.physics = physics;
+        this.survival = survival;
+        this.mapSize = mapSize;
+        this.mapSeed = mapSeed;
+    }
+
+    /**
+     * Loads a Replay from a file.
+     *
+     * @param file the file to load from
+     * @return the loaded Replay
+     */
+    public static Replay load(FileHandle file) {
+        DataInputStream in = null;
+
+        try {
+            in = new DataInputStream(new GZIPInputStream(file.read(8192)));
+
+            if (in.readInt() != MAGIC) {
+                throw new GdxRuntimeException("Not a replay file: " + file);
+            }
+
+            // Version 1 replays predate the physics backend, version 2 replays predate survival rounds and version 3
+            // replays predate generated maps.
+            int version = in.readUnsignedByte();
+
+            if (version < 1 || version > VERSION) {
+                throw new GdxRuntimeException("Unsupported replay version " + version + ": " + file);
+            }
+
+            Replay replay = new Replay(in.readLong(), in.readUnsignedByte(), in.readUnsignedShort(), in.readBoolean(),
+                    version >= 2 && in.readBoolean(), version >= 3 && in.readBoolean(), version >= 4 ? in.readInt() : 0,
+                    version >= 4 ? in.readLong() : 0);
+            float lastAimX = 0, lastAimY = 0;
+
+            // Frames run until the end of the stream. A recording cut short ends part way through a frame.
+            try {
+                while (true) {
+                    int flags = in.readUnsignedByte();
+                    int held = in.readUnsignedByte();
+                    int pressed = in.readUnsignedByte();
+                    float delta = in.readFloat();
+
+                    if ((flags & FLAG_AIM_CHANGED) != 0) {
+                        lastAimX = in.readFloat();
+                        lastAimY = in.readFloat();
+                    }
+
+                    replay.addFrame(held, pressed, lastAimX, lastAimY, delta);
+                }
+            } catch (EOFException e) {
+                // End of the recording.
+            }
+
+            return replay;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read replay: " + file, e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // Nothing we can do.
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the Round settings of this Replay to the start of a replay stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream can't be written to
+     */
+    void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeByte(level);
+        out.writeShort(mobs);
+        out.writeBoolean(boss);
+        out.writeBoolean(physics);
+        out.writeBoolean(survival);
+        out.writeInt(mapSize);
+        out.writeLong(mapSeed);
+    }
+
+    /**
+     * Adds a frame to the end of this Replay.
+     */
+    private void addFrame(int held, int pressed, float aimX, float aimY, float delta) {
+        if (frameCount == this.held.length) {
+            int capacity = frameCount * 2;
+
+            this.held = copyOf(this.held, capacity);
+            this.pressed = copyOf(this.pressed, capacity);
+            this.delta = copyOf(this.delta, capacity);
+            this.aimX = copyOf(this.aimX, capacity);
+            this.aimY = copyOf(this.aimY, capacity);
+        }
+
+        this.held[frameCount] = (byte) held;
+        this.pressed[frameCount] = (byte) pressed;
+        this.aimX[frameCount] = aimX;
+        this.aimY[frameCount] = aimY;
+        this.delta[frameCount] = delta;
+        frameCount++;
+    }
+
+    private static byte[] copyOf(byte[] array, int length) {
+        byte[] copy = new byte[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static float[] copyOf(float[] array, int length) {
+        float[] copy = new float[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    /**
+     * Copies a recorded frame into an InputFrame.
+     *
+     * @param index the index of the frame
+     * @param frame the frame to fill in
+     */
+    public void getFrame(int index, InputFrame frame) {
+        frame.set(held[index] & 0xFF, pressed[index] & 0xFF, aimX[index], aimY[index], delta[index]);
+    }
+
+    /**
+     * Creates a Round with the same settings as the recorded one.
+     *
+     * @param parent the game the round is associated with
+     * @return the new Round
+     */
+    public Round createRound(DuckGame parent) {
+        return createRound(parent, physics);
+    }
+
+    /**
+     * Creates a Round with the same settings as the recorded one, but with the specified collision backend.
+     * The replay will only play out the same if the backend is the one it was recorded with.
+     *
+     * @param parent     the game the round is associated with
+     * @param usePhysics whether the Round uses the Box2D collision backend
+     * @return the new Round
+     */
+    public Round createRound(DuckGame parent, boolean usePhysics) {
+        TiledMap map = mapSize > 0 ? Assets.levelGenerator.generate(mapSize, mapSize, mapSeed) : Assets.levels[level - 1];
+
+        return new Round(parent, map, mobs, boss, seed, usePhysics, survival);
+    }
+
+    /**
+     * @return the seed of the recorded Round's random number generator
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the level of the recorded Round, starting at 1
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the number of mobs spawned at the start of the recorded Round
+     */
+    public int getMobs() {
+        return mobs;
+    }
+
+    /**
+     * @return whether the recorded Round was a boss round
+     */
+    public boolean isBoss() {
+        return boss;
+    }
+
+    /**
+     * @return whether the recorded Round used the Box2D collision backend
+     */
+    public boolean usesPhysics() {
+        return physics;
+    }
+
+    /**
+     * @return whether the recorded Round was an endless survival round
+     */
+    public boolean isSurvival() {
+        return survival;
+    }
+
+    /**
+     * @return the width and height, in tiles, of the recorded Round's generated map, or 0 if it used its level's map
+     */
+    public int getMapSize() {
+        return mapSize;
+    }
+
+    /**
+     * @return the seed the recorded Round's map was generated from, if it was generated
+     */
+    public long getMapSeed() {
+        return mapSeed;
+    }
+
+    /**
+     * @return the number of recorded frames
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+}
@@ -0,0 +1,60 @@
+package com.superduckinvaders.game.input;
+
+import com.superduckinvaders.game.Round;
+
+/**
+ * Feeds a recorded Replay back into a Round, frame for frame.
+ */
+public class ReplayInputSource implements InputSource {
+
+    /**
+     * The replay being played back.
+     */
+    private final Replay replay;
+
+    /**
+     * The index of the next frame to play.
+     */
+    private int position = 0;
+
+    /**
+     * Initialises this ReplayInputSource.
+     *
+     * @param replay the replay to play back
+     */
+    public ReplayInputSource(Replay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * @return whether there are frames left to play
+     */
+    public boolean hasNext() {
+        return position < replay.getFrameCount();
+    }
+
+    /**
+     * @return the index of the next frame to play
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Fills in the next recorded frame. The recorded delta replaces the real one.
+     *
+     * @param round the round being updated
+     * @param delta the time elapsed since the previous frame (ignored)
+     * @param frame the frame to fill in
+     * @return false once every frame has been played
+     */
+    @Override
+    public boolean poll(Round round, float delta, InputFrame frame) {
+        if (!hasNext()) {
+            return false;
+        }
+
+        replay.getFrame(position++, frame);
+        return true;
+    }
+}
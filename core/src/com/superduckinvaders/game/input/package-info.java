@@ -0,0 +1,4 @@
+/**
+ * Contains classes relating to player input, including recording and replaying it.
+ */
+package com.superduckinvaders.game.input;
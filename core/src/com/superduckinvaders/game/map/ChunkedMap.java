@@ -0,0 +1,480 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A map too large to keep in memory, split into square chunks that are loaded from a chunked map file as the player
+ * approaches them and dropped once they are far behind.
+ * <p>
+ * The file starts with a header holding the map's size, properties and layers, then which tiles of each layer have
+ * a cell, for the whole map at one bit per tile. That is all the static per-round data (collision, spawn tiles)
+ * needs, so it is read once when the map is loaded. The cells themselves are stored compressed per chunk and only
+ * read when the chunk is within LOAD_RADIUS chunks of the player.
+ * <p>
+ * Chunks are read by a background thread and installed by update. Besides the thread updating the map, only the
+ * render thread may read the tile layers: chunks are swapped in or out whole through an atomic array, so it sees
+ * every cell of a chunk once it sees the chunk, and chunks are only dropped well off screen. The chunk under the
+ * player is read immediately if it isn't in yet, so the player never stands on a missing chunk. Tiles come from the
+ * tile sets of a TMX map named in the header.
+ */
+public class ChunkedMap extends TiledMap {
+
+    /**
+     * The width and height of each chunk, in tiles.
+     */
+    public static final int CHUNK_SIZE = 32;
+
+    /**
+     * How many chunks around the player, along either axis, are kept loaded.
+     */
+    public static final int LOAD_RADIUS = 2;
+
+    /**
+     * How many chunks from the player, along either axis, a chunk has to be before it is dropped. Larger than
+     * LOAD_RADIUS so that walking along a chunk's edge doesn't load and drop the same chunks over and over.
+     */
+    public static final int UNLOAD_RADIUS = 3;
+
+    /**
+     * Identifies a chunked map file: "SDCM".
+     */
+    static final int MAGIC = 0x5344434d;
+
+    /**
+     * The version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The file the chunks are read from.
+     */
+    private final FileHandle file;
+
+    /**
+     * The number of columns and rows of tiles.
+     */
+    private final int width, height;
+
+    /**
+     * The size of each tile, in pixels.
+     */
+    private final int tileWidth, tileHeight;
+
+    /**
+     * The number of columns and rows of chunks.
+     */
+    private final int columns, rows;
+
+    /**
+     * Where each chunk's compressed cells start in the file.
+     */
+    private long[] chunkOffsets;
+
+    /**
+     * How many bytes each chunk's compressed cells take. Chunks with no cells at all take none.
+     */
+    private int[] chunkLengths;
+
+    /**
+     * Which tiles of each layer have a cell, one bit per tile, indexed by layer then by row * width + column.
+     */
+    private long[][] occupied;
+
+    /**
+     * The loaded chunks, indexed by row * columns + column, or null where a chunk isn't loaded. Written by the thread
+     * updating the map and read by the render thread too.
+     */
+    private final AtomicReferenceArray<MapChunk> chunks;
+
+    /**
+     * Whether each chunk has been asked for since it was last dropped.
+     */
+    private final boolean[] requested;
+
+    /**
+     * The indices of the chunks that have been asked for.
+     */
+    private final IntArray requestedChunks = new IntArray();
+
+    /**
+     * Chunks read by the background thread and waiting to be installed.
+     */
+    private final ConcurrentLinkedQueue<MapChunk> loaded = new ConcurrentLinkedQueue<MapChunk>();
+
+    /**
+     * The thread reading chunks in the background.
+     */
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "chunk-loader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * The last error the background thread ran into, rethrown on the next update.
+     */
+    private volatile RuntimeException loadError = null;
+
+    /**
+     * Initialises a ChunkedMap with no chunks loaded.
+     *
+     * @param file       the file to read chunks from
+     * @param width      the number of columns of tiles
+     * @param height     the number of rows of tiles
+     * @param tileWidth  the width of each tile, in pixels
+     * @param tileHeight the height of each tile, in pixels
+     */
+    private ChunkedMap(FileHandle file, int width, int height, int tileWidth, int tileHeight) {
+        this.file = file;
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.columns = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.rows = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new AtomicReferenceArray<MapChunk>(columns * rows);
+        this.requested = new boolean[columns * rows];
+    }
+
+    /**
+     * Loads the header of a chunked map file, and the tile sets it names. No chunks are loaded until they are asked
+     * for.
+     *
+     * @param file the chunked map file
+     * @return the map
+     */
+    public static ChunkedMap load(FileHandle file) {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(file.read()));
+
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new GdxRuntimeException("Not a chunked map: " + file);
+            }
+
+            int version = in.readInt();
+
+            if (version != VERSION) {
+                throw new GdxRuntimeException("Unsupported chunked map version " + version + ": " + file);
+            }
+
+            int width = in.readInt(), height = in.readInt();
+            int tileWidth = in.readInt(), tileHeight = in.readInt();
+
+            if (in.readInt() != CHUNK_SIZE) {
+                throw new GdxRuntimeException("Chunked map has the wrong chunk size: " + file);
+            }
+
+            ChunkedMap map = new ChunkedMap(file, width, height, tileWidth, tileHeight);
+            map.loadTileSets(in.readUTF());
+
+            int properties = in.readInt();
+
+            for (int i = 0; i < properties; i++) {
+                map.getProperties().put(in.readUTF(), in.readUTF());
+            }
+
+            int layers = in.readInt();
+
+            for (int i = 0; i < layers; i++) {
+                ChunkedTileLayer layer = new ChunkedTileLayer(map, i, width, height, tileWidth, tileHeight);
+                layer.setName(in.readUTF());
+                layer.setVisible(in.readBoolean());
+                layer.setOpacity(in.readFloat());
+                map.getLayers().add(layer);
+            }
+
+            // Which tiles have a cell is compressed as one block, so it can be inflated in one go.
+            byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+            DataInputStream bits = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+            map.occupied = new long[layers][(width * height + 63) / 64];
+
+            for (int i = 0; i < layers; i++) {
+                for (int j = 0; j < map.occupied[i].length; j++) {
+                    map.occupied[i][j] = bits.readLong();
+                }
+            }
+
+            map.chunkOffsets = new long[map.chunks.length()];
+            map.chunkLengths = new int[map.chunks.length()];
+
+            for (int i = 0; i < map.chunks.length(); i++) {
+                map.chunkOffsets[i] = in.readLong();
+                map.chunkLengths[i] = in.readInt();
+            }
+
+            return map;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read chunked map " + file, e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // Already read.
+            }
+        }
+    }
+
+    /**
+     * Takes the tile sets of a TMX map, which then belongs to this map. Its layers are dropped so that only the
+     * tiles stay in memory.
+     *
+     * @param tileSetSource the internal path of the TMX map
+     */
+    private void loadTileSets(String tileSetSource) {
+        TiledMap source = new TmxMapLoader().load(tileSetSource);
+
+        for (TiledMapTileSet tileSet : source.getTileSets()) {
+            getTileSets().addTileSet(tileSet);
+        }
+
+        while (source.getLayers().getCount() > 0) {
+            source.getLayers().remove(0);
+        }
+
+        Array<TiledMap> owned = new Array<TiledMap>();
+        owned.add(source);
+        setOwnedResources(owned);
+    }
+
+    /**
+     * Loads every chunk within LOAD_RADIUS chunks of a point straight away, e.g. where the player starts.
+     *
+     * @param x the x coordinate of the point, in pixels
+     * @param y the y coordinate of the point, in pixels
+     */
+    public void loadAround(float x, float y) {
+        int centreColumn = chunkColumnOf(x), centreRow = chunkRowOf(y);
+
+        for (int row = centreRow - LOAD_RADIUS; row <= centreRow + LOAD_RADIUS; row++) {
+            for (int column = centreColumn - LOAD_RADIUS; column <= centreColumn + LOAD_RADIUS; column++) {
+                if (column >= 0 && row >= 0 && column < columns && row < rows) {
+                    int index = row * columns + column;
+
+                    markRequested(index);
+
+                    if (chunks.get(index) == null && chunkLengths[index] > 0) {
+                        chunks.set(index, readChunk(index));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Installs the chunks read since the last update, drops the chunks far from a point, and asks for the chunks
+     * near it to be read.
+     *
+     * @param x the x coordinate of the point, usually the player's, in pixels
+     * @param y the y coordinate of the point, usually the player's, in pixels
+     */
+    public void update(float x, float y) {
+        if (loadError != null) {
+            throw loadError;
+        }
+
+        MapChunk chunk;
+
+        while ((chunk = loaded.poll()) != null) {
+            int index = chunk.getRow() * columns + chunk.getColumn();
+
+            // Chunks dropped while they were being read aren't wanted any more.
+            if (requested[index] && chunks.get(index) == null) {
+                chunks.set(index, chunk);
+            }
+        }
+
+        int centreColumn = chunkColumnOf(x), centreRow = chunkRowOf(y);
+
+        for (int i = requestedChunks.size - 1; i >= 0; i--) {
+            int index = requestedChunks.get(i);
+
+            if (Math.abs(index % columns - centreColumn) > UNLOAD_RADIUS || Math.abs(index / columns - centreRow) > UNLOAD_RADIUS) {
+                chunks.set(index, null);
+                requested[index] = false;
+                requestedChunks.removeIndex(i);
+            }
+        }
+
+        for (int row = Math.max(0, centreRow - LOAD_RADIUS); row <= Math.min(rows - 1, centreRow + LOAD_RADIUS); row++) {
+            for (int column = Math.max(0, centreColumn - LOAD_RADIUS); column <= Math.min(columns - 1, centreColumn + LOAD_RADIUS); column++) {
+                final int index = row * columns + column;
+
+                if (!requested[index] && chunkLengths[index] > 0) {
+                    loader.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                loaded.add(readChunk(index));
+                            } catch (RuntimeException e) {
+                                loadError = e;
+                            }
+                        }
+                    });
+                }
+
+                markRequested(index);
+            }
+        }
+
+        // Never leave the point itself on a missing chunk.
+        int centre = centreRow * columns + centreColumn;
+
+        if (chunks.get(centre) == null && chunkLengths[centre] > 0) {
+            chunks.set(centre, readChunk(centre));
+        }
+    }
+
+    /**
+     * Records that a chunk has been asked for.
+     *
+     * @param index the index of the chunk
+     */
+    private void markRequested(int index) {
+        if (!requested[index]) {
+            requested[index] = true;
+            requestedChunks.add(index);
+        }
+    }
+
+    /**
+     * Reads a chunk's cells from the file. Safe to call from any thread.
+     *
+     * @param index the index of the chunk
+     * @return the chunk
+     */
+    private MapChunk readChunk(int index) {
+        InputStream stream = file.read();
+
+        try {
+            long offset = chunkOffsets[index];
+
+            while (offset > 0) {
+                long skipped = stream.skip(offset);
+
+                if (skipped <= 0) {
+                    throw new GdxRuntimeException("Chunked map ended early: " + file);
+                }
+
+                offset -= skipped;
+            }
+
+            byte[] compressed = new byte[chunkLengths[index]];
+            new DataInputStream(stream).readFully(compressed);
+
+            DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+            int[][] cells = new int[getLayers().getCount()][CHUNK_SIZE * CHUNK_SIZE];
+
+            for (int[] layer : cells) {
+                for (int i = 0; i < layer.length; i++) {
+                    layer[i] = in.readInt();
+                }
+            }
+
+            return new MapChunk(index % columns, index / columns, cells);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read chunk " + index + " of " + file, e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Already read.
+            }
+        }
+    }
+
+    /**
+     * Gets a packed cell of a layer, if its chunk is loaded.
+     *
+     * @param layer the index of the layer
+     * @param x     the column of the tile
+     * @param y     the row of the tile
+     * @return the packed cell, or 0 if it is empty, outside the map or its chunk isn't loaded
+     */
+    public int getPackedCell(int layer, int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0;
+        }
+
+        MapChunk chunk = chunks.get((y / CHUNK_SIZE) * columns + x / CHUNK_SIZE);
+
+        return chunk == null ? 0 : chunk.getCell(layer, x % CHUNK_SIZE, y % CHUNK_SIZE);
+    }
+
+    /**
+     * Gets whether a tile of a layer has a cell, whether or not its chunk is loaded.
+     *
+     * @param layer the index of the layer
+     * @param x     the column of the tile
+     * @param y     the row of the tile
+     * @return whether the tile has a cell
+     */
+    public boolean isOccupied(int layer, int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+
+        int i = y * width + x;
+
+        return (occupied[layer][i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * @return how many chunks are loaded
+     */
+    public int getLoadedChunkCount() {
+        int count = 0;
+
+        for (int i = 0; i < requestedChunks.size; i++) {
+            if (chunks.get(requestedChunks.get(i)) != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the column of the chunk containing an x coordinate, clamped to the map
+     */
+    private int chunkColumnOf(float x) {
+        return Math.max(0, Math.min(columns - 1, (int) x / tileWidth / CHUNK_SIZE));
+    }
+
+    /**
+     * @return the row of the chunk containing a y coordinate, clamped to the map
+     */
+    private int chunkRowOf(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) y / tileHeight / CHUNK_SIZE));
+    }
+
+    /**
+     * Stops the background thread and frees the tile sets.
+     */
+    @Override
+    public void dispose() {
+        loader.shutdownNow();
+        super.dispose();
+    }
+}
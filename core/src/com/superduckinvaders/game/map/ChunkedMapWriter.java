@@ -0,0 +1,177 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes tile maps as chunked map files, to be streamed by ChunkedMap.
+ */
+public final class ChunkedMapWriter {
+
+    /**
+     * Not instantiable.
+     */
+    private ChunkedMapWriter() {
+    }
+
+    /**
+     * Writes a map's tile layers and string properties to a chunked map file. Every tile layer must be the same size.
+     *
+     * @param map           the map to write
+     * @param tileSetSource the internal path of a TMX map with the same tile sets as the map, to load tiles from
+     * @param file          the file to write
+     */
+    public static void write(TiledMap map, String tileSetSource, FileHandle file) {
+        Array<TiledMapTileLayer> layers = new Array<TiledMapTileLayer>();
+
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                layers.add((TiledMapTileLayer) layer);
+            }
+        }
+
+        if (layers.size == 0) {
+            throw new GdxRuntimeException("Map has no tile layers to write");
+        }
+
+        int width = layers.first().getWidth(), height = layers.first().getHeight();
+        int columns = (width + ChunkedMap.CHUNK_SIZE - 1) / ChunkedMap.CHUNK_SIZE;
+        int rows = (height + ChunkedMap.CHUNK_SIZE - 1) / ChunkedMap.CHUNK_SIZE;
+
+        try {
+            // Compress every chunk first, so that the header can say where each one starts.
+            byte[][] chunks = new byte[columns * rows][];
+            long[][] occupied = new long[layers.size][(width * height + 63) / 64];
+
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    chunks[row * columns + column] = writeChunk(layers, column, row, width, height, occupied);
+                }
+            }
+
+            ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(headerBytes);
+
+            header.writeInt(ChunkedMap.MAGIC);
+            header.writeInt(ChunkedMap.VERSION);
+            header.writeInt(width);
+            header.writeInt(height);
+            header.writeInt((int) layers.first().getTileWidth());
+            header.writeInt((int) layers.first().getTileHeight());
+            header.writeInt(ChunkedMap.CHUNK_SIZE);
+            header.writeUTF(tileSetSource);
+
+            Array<String> keys = new Array<String>();
+
+            for (Iterator<String> i = map.getProperties().getKeys(); i.hasNext(); ) {
+                String key = i.next();
+
+                if (map.getProperties().get(key) instanceof String) {
+                    keys.add(key);
+                }
+            }
+
+            header.writeInt(keys.size);
+
+            for (String key : keys) {
+                header.writeUTF(key);
+                header.writeUTF(map.getProperties().get(key, String.class));
+            }
+
+            header.writeInt(layers.size);
+
+            for (TiledMapTileLayer layer : layers) {
+                header.writeUTF(layer.getName());
+                header.writeBoolean(layer.isVisible());
+                header.writeFloat(layer.getOpacity());
+            }
+
+            ByteArrayOutputStream bitBytes = new ByteArrayOutputStream();
+            DataOutputStream bits = new DataOutputStream(new DeflaterOutputStream(bitBytes));
+
+            for (long[] layer : occupied) {
+                for (long word : layer) {
+                    bits.writeLong(word);
+                }
+            }
+
+            bits.close();
+            header.writeInt(bitBytes.size());
+            bitBytes.writeTo(header);
+
+            // The chunk table follows: an offset and a length per chunk.
+            long offset = header.size() + chunks.length * 12L;
+
+            for (byte[] chunk : chunks) {
+                header.writeLong(chunk.length > 0 ? offset : 0);
+                header.writeInt(chunk.length);
+                offset += chunk.length;
+            }
+
+            header.flush();
+
+            OutputStream out = file.write(false);
+
+            try {
+                headerBytes.writeTo(out);
+
+                for (byte[] chunk : chunks) {
+                    out.write(chunk);
+                }
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write chunked map " + file, e);
+        }
+    }
+
+    /**
+     * Compresses the cells of every layer within a chunk, and marks the tiles that have one.
+     *
+     * @param layers   the layers to write
+     * @param column   the column of the chunk
+     * @param row      the row of the chunk
+     * @param width    the number of columns of tiles in the map
+     * @param height   the number of rows of tiles in the map
+     * @param occupied the bits to mark, per layer
+     * @return the compressed cells, or an empty array if the chunk has none
+     */
+    private static byte[] writeChunk(Array<TiledMapTileLayer> layers, int column, int row, int width, int height,
+                                     long[][] occupied) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes));
+        boolean empty = true;
+
+        for (int i = 0; i < layers.size; i++) {
+            for (int y = row * ChunkedMap.CHUNK_SIZE; y < (row + 1) * ChunkedMap.CHUNK_SIZE; y++) {
+                for (int x = column * ChunkedMap.CHUNK_SIZE; x < (column + 1) * ChunkedMap.CHUNK_SIZE; x++) {
+                    int packed = x < width && y < height ? PackedCell.pack(layers.get(i).getCell(x, y)) : 0;
+
+                    if (packed != 0) {
+                        int tile = y * width + x;
+                        occupied[i][tile >>> 6] |= 1L << tile;
+                        empty = false;
+                    }
+
+                    out.writeInt(packed);
+                }
+            }
+        }
+
+        out.close();
+
+        return empty ? new byte[0] : bytes.toByteArray();
+    }
+}
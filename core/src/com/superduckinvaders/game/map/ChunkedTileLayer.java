@@ -0,0 +1,113 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * A tile layer of a ChunkedMap, reading its cells from whichever chunks are loaded. Cells in chunks that aren't
+ * loaded read as empty.
+ * <p>
+ * getCell returns the same Cell every time, filled in for the tile asked for, so it must be read before the next
+ * call. The renderer and gameplay code only ever look at one cell at a time, so they can use the layer like any
+ * other.
+ */
+public class ChunkedTileLayer extends TiledMapTileLayer {
+
+    /**
+     * The map this layer belongs to.
+     */
+    private final ChunkedMap map;
+
+    /**
+     * The index of this layer among the map's layers.
+     */
+    private final int index;
+
+    /**
+     * The number of columns and rows of tiles.
+     */
+    private final int width, height;
+
+    /**
+     * The cell returned by getCell.
+     */
+    private final Cell cell = new Cell();
+
+    /**
+     * Initialises a ChunkedTileLayer.
+     *
+     * @param map        the map the layer belongs to
+     * @param index      the index of the layer among the map's layers
+     * @param width      the number of columns of tiles
+     * @param height     the number of rows of tiles
+     * @param tileWidth  the width of each tile, in pixels
+     * @param tileHeight the height of each tile, in pixels
+     */
+    public ChunkedTileLayer(ChunkedMap map, int index, int width, int height, int tileWidth, int tileHeight) {
+        // The cells live in the map's chunks, so the superclass's cell array is kept as small as it goes.
+        super(1, 1, tileWidth, tileHeight);
+
+        this.map = map;
+        this.index = index;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return the number of columns of tiles
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows of tiles
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets a cell of this layer.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return the cell, or null if it is empty, outside the map or its chunk isn't loaded
+     */
+    @Override
+    public Cell getCell(int x, int y) {
+        return PackedCell.unpack(getPackedCell(x, y), map.getTileSets(), cell);
+    }
+
+    /**
+     * Gets a cell of this layer without unpacking it.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return the cell as packed by PackedCell, or 0 if it is empty, outside the map or its chunk isn't loaded
+     */
+    public int getPackedCell(int x, int y) {
+        return map.getPackedCell(index, x, y);
+    }
+
+    /**
+     * Chunked layers are read from file and can't be changed.
+     */
+    @Override
+    public void setCell(int x, int y, Cell cell) {
+        throw new GdxRuntimeException("Chunked map layers are read-only");
+    }
+
+    /**
+     * Gets whether a tile has a cell, whether or not its chunk is loaded.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return whether the tile has a cell
+     */
+    public boolean hasCell(int x, int y) {
+        return map.isOccupied(index, x, y);
+    }
+}
@@ -0,0 +1,142 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+/**
+ * The size of the largest square of open tiles that has each tile as its bottom left corner, so that whether a body
+ * of any size fits somewhere is a single lookup.
+ * <p>
+ * The clearances are a distance transform of the collision bitmap: a blocked tile has no clearance, and an open tile
+ * has one more than the smallest clearance of the tiles to its right, above it and diagonally between them. Tiles
+ * off the map count as blocked.
+ */
+public class ClearanceMap {
+
+    /**
+     * The largest clearance recorded. Larger squares are recorded as this size.
+     */
+    public static final int MAX_CLEARANCE = 127;
+
+    /**
+     * The blocked tiles this map was built from.
+     */
+    private final CollisionBitmap bitmap;
+
+    /**
+     * The number of columns and rows of tiles.
+     */
+    private final int width, height;
+
+    /**
+     * The clearance of each tile. Indexed by row * width + column.
+     */
+    private final byte[] clearance;
+
+    /**
+     * Initialises a ClearanceMap from the specified blocked tiles.
+     *
+     * @param bitmap the blocked tiles
+     */
+    public ClearanceMap(CollisionBitmap bitmap) {
+        this.bitmap = bitmap;
+        this.width = bitmap.getWidth();
+        this.height = bitmap.getHeight();
+        this.clearance = new byte[width * height];
+
+        for (int y = height - 1; y >= 0; y--) {
+            for (int x = width - 1; x >= 0; x--) {
+                if (bitmap.isBlocked(x, y)) {
+                    continue;
+                }
+
+                int smallest = Math.min(get(x + 1, y), Math.min(get(x, y + 1), get(x + 1, y + 1)));
+                clearance[y * width + x] = (byte) Math.min(MAX_CLEARANCE, smallest + 1);
+            }
+        }
+    }
+
+    /**
+     * @return the blocked tiles this map was built from
+     */
+    public CollisionBitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * @return the number of columns of tiles
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows of tiles
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the clearance of the specified tile.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return the size of the largest open square with the tile as its bottom left corner, or 0 off the map
+     */
+    public int get(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height ? clearance[y * width + x] : 0;
+    }
+
+    /**
+     * Gets whether a square body of the specified size can stand with its bottom left corner on a tile.
+     *
+     * @param x    the column of the tile
+     * @param y    the row of the tile
+     * @param size the width and height of the body, in tiles
+     * @return whether the body fits
+     */
+    public boolean fits(int x, int y, int size) {
+        return get(x, y) >= size;
+    }
+
+    /**
+     * Gets the size in tiles of the smallest square a body fits into.
+     *
+     * @param width      the width of the body, in pixels
+     * @param height     the height of the body, in pixels
+     * @param tileWidth  the width of each tile, in pixels
+     * @param tileHeight the height of each tile, in pixels
+     * @return the size of the body, in tiles
+     */
+    public static int sizeOf(int width, int height, int tileWidth, int tileHeight) {
+        return Math.max(1, Math.max((width + tileWidth - 1) / tileWidth, (height + tileHeight - 1) / tileHeight));
+    }
+
+    /**
+     * Finds the tile closest to a position, within a square around it, where a body of the specified size fits.
+     *
+     * @param x      the x position, in tiles
+     * @param y      the y position, in tiles
+     * @param size   the size of the body, in tiles
+     * @param radius how many tiles around the tile containing the position to look
+     * @param result set to the closest tile found
+     * @return whether a tile was found
+     */
+    public boolean findNearest(float x, float y, int size, int radius, GridPoint2 result) {
+        int tileX = (int) Math.floor(x), tileY = (int) Math.floor(y);
+        float best = Float.MAX_VALUE;
+
+        for (int candidateY = tileY - radius; candidateY <= tileY + radius; candidateY++) {
+            for (int candidateX = tileX - radius; candidateX <= tileX + radius; candidateX++) {
+                float distance = Math.abs(candidateX - x) + Math.abs(candidateY - y);
+
+                if (distance < best && fits(candidateX, candidateY, size)) {
+                    best = distance;
+                    result.set(candidateX, candidateY);
+                }
+            }
+        }
+
+        return best != Float.MAX_VALUE;
+    }
+}
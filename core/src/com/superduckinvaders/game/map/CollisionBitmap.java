@@ -0,0 +1,158 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A flat record of which tiles of a map block movement, so that collision checks don't have to look cells up in
+ * the tile layers.
+ */
+public class CollisionBitmap {
+
+    /**
+     * The number of columns and rows of tiles.
+     */
+    private final int width, height;
+
+    /**
+     * Whether each tile is blocked. Indexed by row * width + column.
+     */
+    private final boolean[] blocked;
+
+    /**
+     * Initialises a CollisionBitmap with no blocked tiles.
+     *
+     * @param width  the number of columns of tiles
+     * @param height the number of rows of tiles
+     */
+    public CollisionBitmap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.blocked = new boolean[width * height];
+    }
+
+    /**
+     * Creates a CollisionBitmap in which every tile with a cell in any of the specified layers is blocked.
+     *
+     * @param width  the number of columns of tiles
+     * @param height the number of rows of tiles
+     * @param layers the layers to read, any of which may be null
+     * @return the new CollisionBitmap
+     */
+    public static CollisionBitmap fromLayers(int width, int height, TiledMapTileLayer... layers) {
+        CollisionBitmap bitmap = new CollisionBitmap(width, height);
+
+        for (TiledMapTileLayer layer : layers) {
+            if (layer == null) {
+                continue;
+            }
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (TileLayers.hasCell(layer, x, y)) {
+                        bitmap.setBlocked(x, y, true);
+                    }
+                }
+            }
+        }
+
+        return bitmap;
+    }
+
+    /**
+     * @return the number of columns of tiles
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows of tiles
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets whether the specified tile is blocked. Tiles outside the map are not blocked.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return whether the tile is blocked
+     */
+    public boolean isBlocked(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && blocked[y * width + x];
+    }
+
+    /**
+     * Sets whether the specified tile is blocked.
+     *
+     * @param x       the column of the tile
+     * @param y       the row of the tile
+     * @param blocked whether the tile is blocked
+     */
+    public void setBlocked(int x, int y, boolean blocked) {
+        this.blocked[y * width + x] = blocked;
+    }
+
+    /**
+     * Merges the blocked tiles into rectangles that exactly cover them without overlapping. Each rectangle is grown
+     * greedily from the lowest, leftmost tile not yet covered: first as far right as it can go, then upwards for as
+     * long as the whole row beneath it is blocked and uncovered.
+     *
+     * @return the rectangles
+     */
+    public Array<TileRect> toRects() {
+        Array<TileRect> rects = new Array<TileRect>(false, 64, TileRect.class);
+        boolean[] covered = new boolean[blocked.length];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (!blocked[y * width + x] || covered[y * width + x]) {
+                    continue;
+                }
+
+                int right = x + 1;
+
+                while (right < width && blocked[y * width + right] && !covered[y * width + right]) {
+                    right++;
+                }
+
+                int top = y + 1;
+
+                while (top < height && isRowFree(top, x, right, covered)) {
+                    top++;
+                }
+
+                for (int row = y; row < top; row++) {
+                    for (int column = x; column < right; column++) {
+                        covered[row * width + column] = true;
+                    }
+                }
+
+                rects.add(new TileRect(x, y, right - x, top - y));
+            }
+        }
+
+        return rects;
+    }
+
+    /**
+     * Gets whether the specified span of a row is entirely blocked and not yet covered by a rectangle.
+     *
+     * @param y       the row
+     * @param minX    the first column, inclusive
+     * @param maxX    the last column, exclusive
+     * @param covered which tiles are already covered
+     * @return whether the span can be added to a rectangle
+     */
+    private boolean isRowFree(int y, int minX, int maxX, boolean[] covered) {
+        for (int x = minX; x < maxX; x++) {
+            if (!blocked[y * width + x] || covered[y * width + x]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
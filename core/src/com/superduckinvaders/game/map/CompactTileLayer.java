@@ -0,0 +1,252 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * A tile layer that stores each cell as a single short instead of a Cell object: the tile's id in the low 12 bits,
+ * with its flips and rotation in the top 4, laid out as in PackedCell. A whole layer is one flat array, indexed by
+ * row * width + column, so it takes two bytes a tile instead of a reference plus an object per cell.
+ * <p>
+ * getCell returns the same Cell every time, filled in for the tile asked for, so it must be read before the next
+ * call. The renderer and gameplay code only ever look at one cell at a time, so they can use the layer like any
+ * other.
+ */
+public class CompactTileLayer extends TiledMapTileLayer {
+
+    /**
+     * The largest tile id that fits in a compact cell.
+     */
+    public static final int MAX_ID = 0xfff;
+
+    /**
+     * How far the flips and rotation of a PackedCell are shifted down to fit in a short.
+     */
+    private static final int FLAGS_SHIFT = 16;
+
+    /**
+     * The tile sets that the cells' tiles come from.
+     */
+    private final TiledMapTileSets tileSets;
+
+    /**
+     * The number of columns and rows of tiles.
+     */
+    private final int width, height;
+
+    /**
+     * The compact cells, indexed by row * width + column. 0 is an empty cell.
+     */
+    private final short[] cells;
+
+    /**
+     * The tiles looked up so far, indexed by id, so that getCell doesn't search the tile sets every time.
+     */
+    private final TiledMapTile[] tiles = new TiledMapTile[MAX_ID + 1];
+
+    /**
+     * The cell returned by getCell.
+     */
+    private final Cell cell = new Cell();
+
+    /**
+     * Initialises an empty CompactTileLayer.
+     *
+     * @param width      the number of columns of tiles
+     * @param height     the number of rows of tiles
+     * @param tileWidth  the width of each tile, in pixels
+     * @param tileHeight the height of each tile, in pixels
+     * @param tileSets   the tile sets that the cells' tiles come from
+     */
+    public CompactTileLayer(int width, int height, int tileWidth, int tileHeight, TiledMapTileSets tileSets) {
+        // The cells live in the short array, so the superclass's cell array is kept as small as it goes.
+        super(1, 1, tileWidth, tileHeight);
+
+        this.tileSets = tileSets;
+        this.width = width;
+        this.height = height;
+        this.cells = new short[width * height];
+    }
+
+    /**
+     * Replaces every ordinary tile layer of a map with a compact copy, keeping the layers in the same order. Does
+     * nothing if any of the map's tiles has an id too large to be stored compactly.
+     *
+     * @param map the map whose layers to replace
+     */
+    public static void compactLayers(TiledMap map) {
+        MapLayers layers = map.getLayers();
+        Array<MapLayer> compacted = new Array<MapLayer>(layers.getCount());
+
+        for (MapLayer layer : layers) {
+            if (layer.getClass() == TiledMapTileLayer.class) {
+                CompactTileLayer compact = copy((TiledMapTileLayer) layer, map.getTileSets());
+
+                if (compact == null) {
+                    return;
+                }
+
+                compacted.add(compact);
+            } else {
+                compacted.add(layer);
+            }
+        }
+
+        while (layers.getCount() > 0) {
+            layers.remove(layers.getCount() - 1);
+        }
+
+        for (MapLayer layer : compacted) {
+            layers.add(layer);
+        }
+    }
+
+    /**
+     * Copies a tile layer into a new compact one.
+     *
+     * @param layer    the layer to copy
+     * @param tileSets the tile sets that the layer's tiles come from
+     * @return the copy, or null if one of the layer's tiles has an id too large to be stored compactly
+     */
+    private static CompactTileLayer copy(TiledMapTileLayer layer, TiledMapTileSets tileSets) {
+        CompactTileLayer compact = new CompactTileLayer(layer.getWidth(), layer.getHeight(),
+                (int) layer.getTileWidth(), (int) layer.getTileHeight(), tileSets);
+
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                int packed = PackedCell.pack(layer.getCell(x, y));
+
+                if (PackedCell.getId(packed) > MAX_ID) {
+                    return null;
+                }
+
+                compact.setPackedCell(x, y, packed);
+            }
+        }
+
+        compact.setName(layer.getName());
+        compact.setVisible(layer.isVisible());
+        compact.setOpacity(layer.getOpacity());
+        compact.getProperties().putAll(layer.getProperties());
+
+        return compact;
+    }
+
+    /**
+     * @return the number of columns of tiles
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows of tiles
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets a cell of this layer.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return the cell, or null if it is empty, outside the layer or its tile isn't in the tile sets
+     */
+    @Override
+    public Cell getCell(int x, int y) {
+        int packed = getPackedCell(x, y);
+
+        if (packed == 0) {
+            return null;
+        }
+
+        int id = PackedCell.getId(packed);
+        TiledMapTile tile = tiles[id];
+
+        if (tile == null) {
+            tile = tiles[id] = tileSets.getTile(id);
+
+            if (tile == null) {
+                return null;
+            }
+        }
+
+        cell.setTile(tile);
+        cell.setFlipHorizontally((packed & PackedCell.FLIP_HORIZONTALLY) != 0);
+        cell.setFlipVertically((packed & PackedCell.FLIP_VERTICALLY) != 0);
+        cell.setRotation(PackedCell.getRotation(packed));
+
+        return cell;
+    }
+
+    /**
+     * Sets a cell of this layer. Only the cell's tile id, flips and rotation are kept, so the cell can be changed or
+     * reused afterwards.
+     *
+     * @param x    the column of the tile
+     * @param y    the row of the tile
+     * @param cell the cell, or null to empty the tile
+     */
+    @Override
+    public void setCell(int x, int y, Cell cell) {
+        setPackedCell(x, y, PackedCell.pack(cell));
+    }
+
+    /**
+     * Gets a cell of this layer without unpacking it.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return the cell as packed by PackedCell, or 0 if it is empty or outside the layer
+     */
+    public int getPackedCell(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return 0;
+        }
+
+        int compact = cells[y * width + x] & 0xffff;
+
+        return (compact & MAX_ID) | (compact & ~MAX_ID) << FLAGS_SHIFT;
+    }
+
+    /**
+     * Sets a cell of this layer from its packed form. Does nothing if the tile is outside the layer.
+     *
+     * @param x      the column of the tile
+     * @param y      the row of the tile
+     * @param packed the cell as packed by PackedCell, or 0 to empty the tile
+     */
+    public void setPackedCell(int x, int y, int packed) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return;
+        }
+
+        int id = PackedCell.getId(packed);
+
+        if (id > MAX_ID) {
+            throw new GdxRuntimeException("Tile id " + id + " is too large for a compact tile layer");
+        }
+
+        cells[y * width + x] = (short) (id | (packed & ~PackedCell.ID_MASK) >>> FLAGS_SHIFT);
+    }
+
+    /**
+     * Gets whether a tile has a cell.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @return whether the tile has a cell
+     */
+    public boolean hasCell(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && cells[y * width + x] != 0;
+    }
+}
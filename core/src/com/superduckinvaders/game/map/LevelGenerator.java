@@ -0,0 +1,499 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Generates levels of any size from a seed, laid out like the hand-made ones: the same layers and properties, drawn
+ * with the tiles of the level tile set.
+ * <p>
+ * Grass is broken up by lakes, whose outline comes from smoothed random noise, and dotted with trees and bushes. The
+ * map is divided into blocks and each block gets at most one tree or bush, so they never join up into walls and every
+ * part of the map can be reached. Lakes can be walked through. Each obstacle layer holds a different set of extra
+ * bushes, so rounds on the same map still differ.
+ * <p>
+ * Every tile is visited a fixed number of times and cells of the same kind share one Cell object, so even very
+ * large maps generate quickly. The same seed and size always give the same map.
+ */
+public class LevelGenerator {
+
+    /**
+     * The smallest width and height of a generated map, in tiles. Leaves room for the start and objective, and for
+     * the boss, which always appears at the same place.
+     */
+    public static final int MIN_SIZE = 64;
+
+    /**
+     * The map property recording the seed a map was generated from.
+     */
+    public static final String SEED_PROPERTY = "GeneratorSeed";
+
+    /**
+     * How many obstacle layers are generated.
+     */
+    public static final int OBSTACLE_SETS = 2;
+
+    /**
+     * The ids of the grass tiles, one of which is picked at random for every tile of land.
+     */
+    private static final int[] GRASS = {1, 2, 3, 4, 41, 42, 43, 44, 81, 82, 83, 84, 121, 122, 123, 124};
+
+    /**
+     * The ids of the water tiles, one per frame of the water animation.
+     */
+    private static final int[] WATER = {131, 132, 133};
+
+    /**
+     * The ids of the tiles drawn over the edge of a lake.
+     */
+    private static final int[] WATER_EDGES = {171, 211, 251};
+
+    /**
+     * The id of the tile drawn over the corner of a lake.
+     */
+    private static final int WATER_CORNER = 250;
+
+    /**
+     * The id of the tile marking where mobs may spawn.
+     */
+    private static final int SPAWN = 11;
+
+    /**
+     * The ids of a bush's tiles, bottom row first.
+     */
+    private static final int[][] BUSH = {{55, 56}, {15, 16}};
+
+    /**
+     * The ids of the bottom row of a tree's tiles, its shadow.
+     */
+    private static final int[] TREE_SHADOW = {417, 418, 419, 420};
+
+    /**
+     * The ids of the second row of a tree's tiles. Only the middle two, the trunk, block movement.
+     */
+    private static final int[] TREE_TRUNK = {377, 378, 379, 380};
+
+    /**
+     * The ids of the rest of a tree's tiles, bottom row first, drawn over entities.
+     */
+    private static final int[][] TREE_LEAVES = {{337, 338, 339, 340}, {297, 298, 299, 300}, {257, 258, 259, 260}};
+
+    /**
+     * The width and height of the blocks the map is divided into, each getting at most one tree or bush.
+     */
+    private static final int BLOCK_SIZE = 8;
+
+    /**
+     * The chances of a block getting a tree, or failing that a bush.
+     */
+    private static final float TREE_CHANCE = 0.35f, BUSH_CHANCE = 0.3f;
+
+    /**
+     * The chance of a block getting a bush in each obstacle layer.
+     */
+    private static final float OBSTACLE_CHANCE = 0.15f;
+
+    /**
+     * How far apart, in tiles, the random values smoothed into lakes are.
+     */
+    private static final int LAKE_SCALE = 24;
+
+    /**
+     * How high the smoothed noise has to be for a tile to be water. Higher gives fewer, smaller lakes.
+     */
+    private static final float WATER_LEVEL = 0.68f;
+
+    /**
+     * How far, in tiles, the start, the objective and the boss are kept clear of water and obstacles.
+     */
+    private static final int CLEAR_RADIUS = 6;
+
+    /**
+     * How far, in tiles, mobs can't spawn from the start, the objective and the boss.
+     */
+    private static final int SPAWN_CLEAR_RADIUS = 12;
+
+    /**
+     * The column and row of the tile boss rounds put the boss on.
+     */
+    private static final int BOSS_TILE = 50;
+
+    /**
+     * How far, in tiles, the start and objective are from the left and right edges of the map.
+     */
+    private static final int EDGE_MARGIN = 8;
+
+    /**
+     * The tile sets the generated maps are drawn with.
+     */
+    private final TiledMapTileSets tileSets;
+
+    /**
+     * Initialises a LevelGenerator.
+     *
+     * @param tileSets the tile sets of a level, which the generated maps share
+     */
+    public LevelGenerator(TiledMapTileSets tileSets) {
+        this.tileSets = tileSets;
+    }
+
+    /**
+     * Generates a map.
+     *
+     * @param width  the number of columns of tiles, at least MIN_SIZE
+     * @param height the number of rows of tiles, at least MIN_SIZE
+     * @param seed   the seed to generate the map from
+     * @return the map, which shares this generator's tile sets and so doesn't need disposing
+     */
+    public TiledMap generate(int width, int height, long seed) {
+        if (width < MIN_SIZE || height < MIN_SIZE) {
+            throw new GdxRuntimeException("Generated maps must be at least " + MIN_SIZE + " tiles across");
+        }
+
+        return new Generation(width, height, seed).build();
+    }
+
+    /**
+     * The state of one map being generated.
+     */
+    private class Generation {
+
+        /**
+         * The number of columns and rows of tiles.
+         */
+        final int width, height;
+
+        /**
+         * The seed the map is generated from.
+         */
+        final long seed;
+
+        /**
+         * The random number generator for every decision.
+         */
+        final RandomXS128 random;
+
+        /**
+         * The tiles of the start and the objective.
+         */
+        final int startX, startY, objectiveX, objectiveY;
+
+        /**
+         * Whether each tile is water. Indexed by row * width + column.
+         */
+        final boolean[] water;
+
+        /**
+         * Whether each tile has a tree or bush on it, in any layer. Indexed by row * width + column.
+         */
+        final boolean[] taken;
+
+        /**
+         * One Cell for each kind of packed cell used, checked to have a tile when first asked for.
+         */
+        final IntMap<TiledMapTileLayer.Cell> cells = new IntMap<TiledMapTileLayer.Cell>();
+
+        /**
+         * The layers being filled in.
+         */
+        final TiledMapTileLayer base, waterEdge, collision, overhang, spawn;
+
+        /**
+         * The obstacle layers being filled in.
+         */
+        final TiledMapTileLayer[] obstacles = new TiledMapTileLayer[OBSTACLE_SETS];
+
+        /**
+         * Initialises a Generation, choosing where the start and objective are.
+         */
+        Generation(int width, int height, long seed) {
+            this.width = width;
+            this.height = height;
+            this.seed = seed;
+            this.random = new RandomXS128(seed);
+            this.water = new boolean[width * height];
+            this.taken = new boolean[width * height];
+
+            startX = EDGE_MARGIN;
+            startY = EDGE_MARGIN + random.nextInt(height - 2 * EDGE_MARGIN);
+            objectiveX = width - EDGE_MARGIN;
+            objectiveY = EDGE_MARGIN + random.nextInt(height - 2 * EDGE_MARGIN);
+
+            int tileWidth = tileSets.getTile(GRASS[0]).getTextureRegion().getRegionWidth();
+            int tileHeight = tileSets.getTile(GRASS[0]).getTextureRegion().getRegionHeight();
+
+            base = createLayer("Base", tileWidth, tileHeight);
+            waterEdge = createLayer("WaterEdge", tileWidth, tileHeight);
+            collision = createLayer("Collision", tileWidth, tileHeight);
+
+            for (int i = 0; i < OBSTACLE_SETS; i++) {
+                obstacles[i] = createLayer("Obstacles" + i, tileWidth, tileHeight);
+            }
+
+            overhang = createLayer("Overhang", tileWidth, tileHeight);
+            spawn = createLayer("Spawn", tileWidth, tileHeight);
+        }
+
+        /**
+         * Generates the map.
+         *
+         * @return the map
+         */
+        TiledMap build() {
+            floodLakes();
+            placeObjects();
+            paintGround();
+
+            TiledMap map = new TiledMap();
+
+            for (TiledMapTileSet tileSet : tileSets) {
+                map.getTileSets().addTileSet(tileSet);
+            }
+
+            map.getLayers().add(base);
+            map.getLayers().add(waterEdge);
+            map.getLayers().add(collision);
+
+            for (TiledMapTileLayer layer : obstacles) {
+                map.getLayers().add(layer);
+            }
+
+            map.getLayers().add(overhang);
+            map.getLayers().add(spawn);
+
+            map.getProperties().put("StartX", Integer.toString(startX));
+            map.getProperties().put("StartY", Integer.toString(startY));
+            map.getProperties().put("ObjectiveX", Integer.toString(objectiveX));
+            map.getProperties().put("ObjectiveY", Integer.toString(objectiveY));
+            map.getProperties().put(SEED_PROPERTY, Long.toString(seed));
+
+            return map;
+        }
+
+        /**
+         * Marks the tiles under lakes as water, from random values on a coarse lattice smoothed between its points.
+         */
+        void floodLakes() {
+            int columns = width / LAKE_SCALE + 2, rows = height / LAKE_SCALE + 2;
+            float[] lattice = new float[columns * rows];
+
+            for (int i = 0; i < lattice.length; i++) {
+                lattice[i] = random.nextFloat();
+            }
+
+            for (int y = 0; y < height; y++) {
+                int row = y / LAKE_SCALE;
+                float ty = smooth((y % LAKE_SCALE) / (float) LAKE_SCALE);
+
+                for (int x = 0; x < width; x++) {
+                    int column = x / LAKE_SCALE;
+                    float tx = smooth((x % LAKE_SCALE) / (float) LAKE_SCALE);
+
+                    float bottom = MathUtils.lerp(lattice[row * columns + column], lattice[row * columns + column + 1], tx);
+                    float top = MathUtils.lerp(lattice[(row + 1) * columns + column], lattice[(row + 1) * columns + column + 1], tx);
+
+                    water[y * width + x] = MathUtils.lerp(bottom, top, ty) > WATER_LEVEL && !nearLandmark(x, y, CLEAR_RADIUS);
+                }
+            }
+        }
+
+        /**
+         * Gives each block of the map at most one tree or bush, and at most one extra bush per obstacle layer.
+         */
+        void placeObjects() {
+            for (int blockY = 0; blockY + BLOCK_SIZE <= height; blockY += BLOCK_SIZE) {
+                for (int blockX = 0; blockX + BLOCK_SIZE <= width; blockX += BLOCK_SIZE) {
+                    float roll = random.nextFloat();
+
+                    if (roll < TREE_CHANCE) {
+                        int x = blockX + random.nextInt(BLOCK_SIZE - 3), y = blockY + random.nextInt(BLOCK_SIZE - 4);
+
+                        if (isFree(x, y, 4, 5)) {
+                            placeTree(x, y);
+                        }
+                    } else if (roll < TREE_CHANCE + BUSH_CHANCE) {
+                        placeBush(collision, blockX + random.nextInt(BLOCK_SIZE - 1), blockY + random.nextInt(BLOCK_SIZE - 1));
+                    }
+
+                    for (TiledMapTileLayer layer : obstacles) {
+                        if (random.nextFloat() < OBSTACLE_CHANCE) {
+                            placeBush(layer, blockX + random.nextInt(BLOCK_SIZE - 1), blockY + random.nextInt(BLOCK_SIZE - 1));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Places a tree with its bottom left corner on a tile. Only its trunk blocks movement.
+         */
+        void placeTree(int x, int y) {
+            for (int i = 0; i < 4; i++) {
+                waterEdge.setCell(x + i, y, cell(TREE_SHADOW[i]));
+                (i == 1 || i == 2 ? collision : waterEdge).setCell(x + i, y + 1, cell(TREE_TRUNK[i]));
+
+                for (int j = 0; j < TREE_LEAVES.length; j++) {
+                    overhang.setCell(x + i, y + 2 + j, cell(TREE_LEAVES[j][i]));
+                }
+            }
+
+            take(x, y, 4, 5);
+        }
+
+        /**
+         * Places a bush with its bottom left corner on a tile of a layer, if there is room.
+         */
+        void placeBush(TiledMapTileLayer layer, int x, int y) {
+            if (!isFree(x, y, 2, 2)) {
+                return;
+            }
+
+            for (int j = 0; j < 2; j++) {
+                for (int i = 0; i < 2; i++) {
+                    layer.setCell(x + i, y + j, cell(BUSH[j][i]));
+                }
+            }
+
+            take(x, y, 2, 2);
+        }
+
+        /**
+         * Fills in the grass and water of the base layer, the edges of the lakes and the spawn tiles.
+         */
+        void paintGround() {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (!water[y * width + x]) {
+                        base.setCell(x, y, cell(GRASS[random.nextInt(GRASS.length)]));
+
+                        if (!taken[y * width + x] && !nearLandmark(x, y, SPAWN_CLEAR_RADIUS)) {
+                            spawn.setCell(x, y, cell(SPAWN));
+                        }
+
+                        continue;
+                    }
+
+                    base.setCell(x, y, cell(WATER[random.nextInt(WATER.length)]));
+
+                    // The edge is drawn on the water, facing the land. The tile set's edges face east unturned.
+                    boolean north = isLand(x, y + 1), east = isLand(x + 1, y), south = isLand(x, y - 1), west = isLand(x - 1, y);
+                    int edge = WATER_EDGES[random.nextInt(WATER_EDGES.length)];
+
+                    if (north && east) {
+                        waterEdge.setCell(x, y, cell(WATER_CORNER, false, false, TiledMapTileLayer.Cell.ROTATE_90));
+                    } else if (north && west) {
+                        waterEdge.setCell(x, y, cell(WATER_CORNER, true, true, TiledMapTileLayer.Cell.ROTATE_0));
+                    } else if (south && east) {
+                        waterEdge.setCell(x, y, cell(WATER_CORNER, false, false, TiledMapTileLayer.Cell.ROTATE_0));
+                    } else if (south && west) {
+                        waterEdge.setCell(x, y, cell(WATER_CORNER, false, false, TiledMapTileLayer.Cell.ROTATE_270));
+                    } else if (north) {
+                        waterEdge.setCell(x, y, cell(edge, false, false, TiledMapTileLayer.Cell.ROTATE_90));
+                    } else if (south) {
+                        waterEdge.setCell(x, y, cell(edge, false, false, TiledMapTileLayer.Cell.ROTATE_270));
+                    } else if (east) {
+                        waterEdge.setCell(x, y, cell(edge, false, false, TiledMapTileLayer.Cell.ROTATE_0));
+                    } else if (west) {
+                        waterEdge.setCell(x, y, cell(edge, true, true, TiledMapTileLayer.Cell.ROTATE_0));
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return whether a rectangle of tiles is all land, inside the map, away from the start and objective and
+         * not yet taken
+         */
+        boolean isFree(int x, int y, int w, int h) {
+            if (x < 0 || y < 0 || x + w > width || y + h > height) {
+                return false;
+            }
+
+            for (int j = y; j < y + h; j++) {
+                for (int i = x; i < x + w; i++) {
+                    if (water[j * width + i] || taken[j * width + i] || nearLandmark(i, j, CLEAR_RADIUS)) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Marks a rectangle of tiles as taken.
+         */
+        void take(int x, int y, int w, int h) {
+            for (int j = y; j < y + h; j++) {
+                for (int i = x; i < x + w; i++) {
+                    taken[j * width + i] = true;
+                }
+            }
+        }
+
+        /**
+         * @return whether a tile is land. Tiles outside the map count as water, so lakes have no edge along it.
+         */
+        boolean isLand(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && !water[y * width + x];
+        }
+
+        /**
+         * @return whether a tile is within a distance, along both axes, of the start, the objective or the boss
+         */
+        boolean nearLandmark(int x, int y, int distance) {
+            return (Math.abs(x - startX) <= distance && Math.abs(y - startY) <= distance)
+                    || (Math.abs(x - objectiveX) <= distance && Math.abs(y - objectiveY) <= distance)
+                    || (Math.abs(x - BOSS_TILE) <= distance && Math.abs(y - BOSS_TILE) <= distance);
+        }
+
+        /**
+         * @return a new, empty layer the size of the map
+         */
+        TiledMapTileLayer createLayer(String name, int tileWidth, int tileHeight) {
+            TiledMapTileLayer layer = new CompactTileLayer(width, height, tileWidth, tileHeight, tileSets);
+            layer.setName(name);
+            return layer;
+        }
+
+        /**
+         * @return the shared Cell for an unturned tile
+         */
+        TiledMapTileLayer.Cell cell(int id) {
+            return cell(id, false, false, TiledMapTileLayer.Cell.ROTATE_0);
+        }
+
+        /**
+         * @return the shared Cell for a tile flipped and turned as specified
+         */
+        TiledMapTileLayer.Cell cell(int id, boolean flipHorizontally, boolean flipVertically, int rotation) {
+            int packed = PackedCell.pack(id, flipHorizontally, flipVertically, rotation);
+            TiledMapTileLayer.Cell cell = cells.get(packed);
+
+            if (cell == null) {
+                cell = PackedCell.unpack(packed, tileSets, new TiledMapTileLayer.Cell());
+
+                if (cell == null) {
+                    throw new GdxRuntimeException("The level tile set has no tile " + id);
+                }
+
+                cells.put(packed, cell);
+            }
+
+            return cell;
+        }
+    }
+
+    /**
+     * Eases a fraction in and out, so that the noise between lattice points has no creases.
+     */
+    private static float smooth(float t) {
+        return t * t * (3 - 2 * t);
+    }
+}
@@ -0,0 +1,56 @@
+package com.superduckinvaders.game.map;
+
+/**
+ * The tiles of every layer within one square chunk of a ChunkedMap.
+ */
+public class MapChunk {
+
+    /**
+     * The column and row of this chunk among the map's chunks.
+     */
+    private final int column, row;
+
+    /**
+     * The packed cells of each layer, indexed by layer then by row * ChunkedMap.CHUNK_SIZE + column within the chunk.
+     */
+    private final int[][] cells;
+
+    /**
+     * Initialises a MapChunk.
+     *
+     * @param column the column of the chunk among the map's chunks
+     * @param row    the row of the chunk among the map's chunks
+     * @param cells  the packed cells of each layer
+     */
+    public MapChunk(int column, int row, int[][] cells) {
+        this.column = column;
+        this.row = row;
+        this.cells = cells;
+    }
+
+    /**
+     * @return the column of this chunk among the map's chunks
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * @return the row of this chunk among the map's chunks
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Gets a packed cell of this chunk.
+     *
+     * @param layer the index of the layer
+     * @param x     the column of the tile within the chunk
+     * @param y     the row of the tile within the chunk
+     * @return the packed cell, or 0 if it is empty
+     */
+    public int getCell(int layer, int x, int y) {
+        return cells[layer][y * ChunkedMap.CHUNK_SIZE + x];
+    }
+}
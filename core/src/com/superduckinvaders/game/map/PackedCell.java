@@ -0,0 +1,112 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+
+/**
+ * Packs a cell of a tile layer into a single int: the tile's id in the low bits, with its flips and rotation above.
+ * An empty cell packs to 0, which is never a tile id.
+ */
+public final class PackedCell {
+
+    /**
+     * The bits holding the tile id.
+     */
+    public static final int ID_MASK = 0x0fffffff;
+
+    /**
+     * Set when the tile is flipped horizontally.
+     */
+    public static final int FLIP_HORIZONTALLY = 0x80000000;
+
+    /**
+     * Set when the tile is flipped vertically.
+     */
+    public static final int FLIP_VERTICALLY = 0x40000000;
+
+    /**
+     * Where the tile's rotation, one of the Cell.ROTATE_ constants, is stored.
+     */
+    private static final int ROTATION_SHIFT = 28;
+
+    /**
+     * Not instantiable.
+     */
+    private PackedCell() {
+    }
+
+    /**
+     * Packs a cell.
+     *
+     * @param cell the cell to pack, or null for an empty cell
+     * @return the packed cell
+     */
+    public static int pack(TiledMapTileLayer.Cell cell) {
+        if (cell == null || cell.getTile() == null) {
+            return 0;
+        }
+
+        return pack(cell.getTile().getId(), cell.getFlipHorizontally(), cell.getFlipVertically(), cell.getRotation());
+    }
+
+    /**
+     * Packs a cell from its parts.
+     *
+     * @param id               the id of the cell's tile, which must not be 0
+     * @param flipHorizontally whether the tile is flipped horizontally
+     * @param flipVertically   whether the tile is flipped vertically
+     * @param rotation         the tile's rotation, one of the Cell.ROTATE_ constants
+     * @return the packed cell
+     */
+    public static int pack(int id, boolean flipHorizontally, boolean flipVertically, int rotation) {
+        int packed = (id & ID_MASK) | (rotation & 3) << ROTATION_SHIFT;
+
+        if (flipHorizontally) {
+            packed |= FLIP_HORIZONTALLY;
+        }
+
+        if (flipVertically) {
+            packed |= FLIP_VERTICALLY;
+        }
+
+        return packed;
+    }
+
+    /**
+     * Unpacks a cell into an existing one.
+     *
+     * @param packed   the packed cell
+     * @param tileSets the tile sets to look the tile up in
+     * @param cell     set to the unpacked cell
+     * @return the cell, or null if the packed cell was empty or its tile isn't in the tile sets
+     */
+    public static TiledMapTileLayer.Cell unpack(int packed, TiledMapTileSets tileSets, TiledMapTileLayer.Cell cell) {
+        TiledMapTile tile = packed == 0 ? null : tileSets.getTile(packed & ID_MASK);
+
+        if (tile == null) {
+            return null;
+        }
+
+        cell.setTile(tile);
+        cell.setFlipHorizontally((packed & FLIP_HORIZONTALLY) != 0);
+        cell.setFlipVertically((packed & FLIP_VERTICALLY) != 0);
+        cell.setRotation(getRotation(packed));
+
+        return cell;
+    }
+
+    /**
+     * @return the id of a packed cell's tile, or 0 if it is empty
+     */
+    public static int getId(int packed) {
+        return packed & ID_MASK;
+    }
+
+    /**
+     * @return the rotation of a packed cell's tile, one of the Cell.ROTATE_ constants
+     */
+    public static int getRotation(int packed) {
+        return (packed >>> ROTATION_SHIFT) & 3;
+    }
+}
@@ -0,0 +1,168 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * The tiles of a map's spawn layer, bucketed into a coarse grid so that a spawn tile a certain distance from a point
+ * can be drawn directly instead of by trying random positions until one lands on the layer.
+ * <p>
+ * Distances are measured in rings: the ring of a tile is the larger of its column and row distances from the centre,
+ * so each ring is the outline of a square. Sampling visits only the buckets touching the rings asked for and keeps
+ * its scratch state in the index, so it must only be used from one thread.
+ */
+public class SpawnIndex {
+
+    /**
+     * The width and height of each bucket, in tiles.
+     */
+    public static final int BUCKET_SIZE = 8;
+
+    /**
+     * The number of columns and rows of buckets.
+     */
+    private final int columns, rows;
+
+    /**
+     * Where each bucket's tiles start in the tiles array. Bucket i's tiles run up to bucketStart[i + 1].
+     */
+    private final int[] bucketStart;
+
+    /**
+     * The spawn tiles, grouped by bucket, each stored as row * width + column.
+     */
+    private final int[] tiles;
+
+    /**
+     * The number of columns of tiles, used to number them.
+     */
+    private final int width;
+
+    /**
+     * The buckets touching the rings last sampled, and the running total of their tiles.
+     */
+    private final IntArray candidates = new IntArray(), totals = new IntArray();
+
+    /**
+     * Initialises a SpawnIndex from the tiles of a layer that have a cell.
+     *
+     * @param layer  the spawn layer, or null if the map has none
+     * @param width  the number of columns of tiles in the map
+     * @param height the number of rows of tiles in the map
+     */
+    public SpawnIndex(TiledMapTileLayer layer, int width, int height) {
+        this.width = width;
+        this.columns = (width + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.rows = (height + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.bucketStart = new int[columns * rows + 1];
+
+        // Count the tiles in each bucket, then place them after the tiles of the buckets before.
+        if (layer != null) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (TileLayers.hasCell(layer, x, y)) {
+                        bucketStart[bucketOf(x, y) + 1]++;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < columns * rows; i++) {
+            bucketStart[i + 1] += bucketStart[i];
+        }
+
+        this.tiles = new int[bucketStart[columns * rows]];
+        int[] filled = new int[columns * rows];
+
+        if (layer != null) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (TileLayers.hasCell(layer, x, y)) {
+                        int bucket = bucketOf(x, y);
+                        tiles[bucketStart[bucket] + filled[bucket]++] = y * width + x;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of spawn tiles
+     */
+    public int size() {
+        return tiles.length;
+    }
+
+    /**
+     * Draws a spawn tile at random from the buckets touching the specified rings around a tile. Every tile in those
+     * buckets is equally likely, so the caller should check the tile's exact ring if it matters.
+     *
+     * @param centreX the column of the centre tile
+     * @param centreY the row of the centre tile
+     * @param minRing the nearest ring to draw from
+     * @param maxRing the furthest ring to draw from
+     * @param random  the random number generator to draw with
+     * @param result  set to the tile drawn
+     * @return whether there was a spawn tile to draw
+     */
+    public boolean sample(int centreX, int centreY, int minRing, int maxRing, RandomXS128 random, GridPoint2 result) {
+        candidates.clear();
+        totals.clear();
+
+        int total = 0;
+        int minColumn = Math.max(0, (centreX - maxRing) / BUCKET_SIZE), maxColumn = Math.min(columns - 1, (centreX + maxRing) / BUCKET_SIZE);
+        int minRow = Math.max(0, (centreY - maxRing) / BUCKET_SIZE), maxRow = Math.min(rows - 1, (centreY + maxRing) / BUCKET_SIZE);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int bucket = row * columns + column;
+                int count = bucketStart[bucket + 1] - bucketStart[bucket];
+
+                // Skip buckets wholly inside the nearest ring.
+                if (count == 0 || farthestRing(centreX, centreY, column, row) < minRing) {
+                    continue;
+                }
+
+                total += count;
+                candidates.add(bucket);
+                totals.add(total);
+            }
+        }
+
+        if (total == 0) {
+            return false;
+        }
+
+        int pick = random.nextInt(total);
+        int index = 0;
+
+        while (totals.get(index) <= pick) {
+            index++;
+        }
+
+        int bucket = candidates.get(index);
+        int tile = tiles[bucketStart[bucket] + pick - (totals.get(index) - (bucketStart[bucket + 1] - bucketStart[bucket]))];
+        result.set(tile % width, tile / width);
+
+        return true;
+    }
+
+    /**
+     * @return the ring of the tile in a bucket farthest from the centre
+     */
+    private static int farthestRing(int centreX, int centreY, int column, int row) {
+        int dx = Math.max(Math.abs(column * BUCKET_SIZE - centreX), Math.abs(column * BUCKET_SIZE + BUCKET_SIZE - 1 - centreX));
+        int dy = Math.max(Math.abs(row * BUCKET_SIZE - centreY), Math.abs(row * BUCKET_SIZE + BUCKET_SIZE - 1 - centreY));
+
+        return Math.max(dx, dy);
+    }
+
+    /**
+     * @return the bucket containing a tile
+     */
+    private int bucketOf(int x, int y) {
+        return (y / BUCKET_SIZE) * columns + x / BUCKET_SIZE;
+    }
+}
@@ -0,0 +1,237 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The blocked tiles of a map, merged into rectangles and bucketed into a coarse grid so that large areas and long
+ * lines can be tested against a handful of rectangles instead of every tile they cross.
+ * <p>
+ * The index never changes once built and queries keep no scratch state, so it can be queried from several threads.
+ */
+public class StaticCollisionIndex {
+
+    /**
+     * The width and height of each bucket, in tiles.
+     */
+    public static final int BUCKET_SIZE = 8;
+
+    /**
+     * The blocked tiles.
+     */
+    private final CollisionBitmap bitmap;
+
+    /**
+     * The width and height of each tile, in pixels.
+     */
+    private final int tileWidth, tileHeight;
+
+    /**
+     * The merged rectangles covering every blocked tile.
+     */
+    private final Array<TileRect> rects;
+
+    /**
+     * The number of columns and rows of buckets.
+     */
+    private final int columns, rows;
+
+    /**
+     * The indices of the rectangles touching each bucket. Indexed by row * columns + column.
+     */
+    private final int[][] buckets;
+
+    /**
+     * Initialises a StaticCollisionIndex over the specified blocked tiles.
+     *
+     * @param bitmap     the blocked tiles
+     * @param tileWidth  the width of each tile, in pixels
+     * @param tileHeight the height of each tile, in pixels
+     */
+    public StaticCollisionIndex(CollisionBitmap bitmap, int tileWidth, int tileHeight) {
+        this.bitmap = bitmap;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.rects = bitmap.toRects();
+        this.columns = Math.max(1, (bitmap.getWidth() + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        this.rows = Math.max(1, (bitmap.getHeight() + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        this.buckets = new int[columns * rows][];
+
+        // Count the rectangles touching each bucket, then fill the buckets.
+        int[] counts = new int[buckets.length];
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < rects.size; i++) {
+                TileRect rect = rects.get(i);
+
+                for (int row = rect.y / BUCKET_SIZE; row <= (rect.y + rect.height - 1) / BUCKET_SIZE; row++) {
+                    for (int column = rect.x / BUCKET_SIZE; column <= (rect.x + rect.width - 1) / BUCKET_SIZE; column++) {
+                        int bucket = row * columns + column;
+
+                        if (pass == 0) {
+                            counts[bucket]++;
+                        } else {
+                            buckets[bucket][buckets[bucket].length - counts[bucket]--] = i;
+                        }
+                    }
+                }
+            }
+
+            if (pass == 0) {
+                for (int i = 0; i < buckets.length; i++) {
+                    buckets[i] = new int[counts[i]];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the blocked tiles this index was built from
+     */
+    public CollisionBitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * @return the merged rectangles covering every blocked tile
+     */
+    public Array<TileRect> getRects() {
+        return rects;
+    }
+
+    /**
+     * Gets whether the tile containing the specified point is blocked.
+     *
+     * @param x the x coordinate, in pixels
+     * @param y the y coordinate, in pixels
+     * @return whether the tile is blocked
+     */
+    public boolean isBlocked(int x, int y) {
+        return bitmap.isBlocked(x / tileWidth, y / tileHeight);
+    }
+
+    /**
+     * Gets whether any tile in the specified range is blocked.
+     *
+     * @param minX the first column, inclusive
+     * @param minY the first row, inclusive
+     * @param maxX the last column, inclusive
+     * @param maxY the last row, inclusive
+     * @return whether any tile in the range is blocked
+     */
+    public boolean overlapsTiles(int minX, int minY, int maxX, int maxY) {
+        int minColumn = Math.max(0, minX / BUCKET_SIZE), maxColumn = Math.min(columns - 1, maxX / BUCKET_SIZE);
+        int minRow = Math.max(0, minY / BUCKET_SIZE), maxRow = Math.min(rows - 1, maxY / BUCKET_SIZE);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int[] bucket = buckets[row * columns + column];
+
+                for (int i = 0; i < bucket.length; i++) {
+                    if (rects.get(bucket[i]).overlaps(minX, minY, maxX, maxY)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets whether any tile containing a pixel of the specified area is blocked. Pixels are mapped to tiles the
+     * same way as in isBlocked, so this gives the same answer as checking every pixel in turn.
+     *
+     * @param x      the x coordinate of the first pixel
+     * @param y      the y coordinate of the first pixel
+     * @param width  the number of columns of pixels, at least 1
+     * @param height the number of rows of pixels, at least 1
+     * @return whether any tile in the area is blocked
+     */
+    public boolean overlaps(int x, int y, int width, int height) {
+        return overlapsTiles(x / tileWidth, y / tileHeight, (x + width - 1) / tileWidth, (y + height - 1) / tileHeight);
+    }
+
+    /**
+     * Gets whether the line between two points crosses a blocked tile. Only the buckets the line passes through are
+     * visited, in order from the start.
+     *
+     * @param startX the x coordinate of the start, in pixels
+     * @param startY the y coordinate of the start, in pixels
+     * @param endX   the x coordinate of the end, in pixels
+     * @param endY   the y coordinate of the end, in pixels
+     * @return whether the line is blocked
+     */
+    public boolean raycast(float startX, float startY, float endX, float endY) {
+        float x0 = startX / tileWidth, y0 = startY / tileHeight;
+        float dx = endX / tileWidth - x0, dy = endY / tileHeight - y0;
+
+        int column = (int) Math.floor(x0 / BUCKET_SIZE), row = (int) Math.floor(y0 / BUCKET_SIZE);
+        int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1;
+
+        // How far along the line the next bucket boundary on each axis is, and how far apart the boundaries are.
+        float nextX = dx == 0 ? Float.MAX_VALUE : ((column + (dx > 0 ? 1 : 0)) * BUCKET_SIZE - x0) / dx;
+        float nextY = dy == 0 ? Float.MAX_VALUE : ((row + (dy > 0 ? 1 : 0)) * BUCKET_SIZE - y0) / dy;
+        float stepDistanceX = dx == 0 ? Float.MAX_VALUE : BUCKET_SIZE / Math.abs(dx);
+        float stepDistanceY = dy == 0 ? Float.MAX_VALUE : BUCKET_SIZE / Math.abs(dy);
+
+        while (true) {
+            if (column >= 0 && column < columns && row >= 0 && row < rows) {
+                int[] bucket = buckets[row * columns + column];
+
+                for (int i = 0; i < bucket.length; i++) {
+                    if (segmentHits(rects.get(bucket[i]), x0, y0, dx, dy)) {
+                        return true;
+                    }
+                }
+            }
+
+            if (Math.min(nextX, nextY) > 1) {
+                return false;
+            }
+
+            if (nextX < nextY) {
+                column += stepX;
+                nextX += stepDistanceX;
+            } else {
+                row += stepY;
+                nextY += stepDistanceY;
+            }
+        }
+    }
+
+    /**
+     * Gets whether a line segment, in tiles, passes through a rectangle.
+     *
+     * @param rect the rectangle
+     * @param x0   the x coordinate of the start
+     * @param y0   the y coordinate of the start
+     * @param dx   the x distance to the end
+     * @param dy   the y distance to the end
+     * @return whether the segment passes through the rectangle
+     */
+    private static boolean segmentHits(TileRect rect, float x0, float y0, float dx, float dy) {
+        float enter = 0, exit = 1;
+
+        if (dx == 0) {
+            if (x0 < rect.x || x0 > rect.x + rect.width) {
+                return false;
+            }
+        } else {
+            float a = (rect.x - x0) / dx, b = (rect.x + rect.width - x0) / dx;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        }
+
+        if (dy == 0) {
+            if (y0 < rect.y || y0 > rect.y + rect.height) {
+                return false;
+            }
+        } else {
+            float a = (rect.y - y0) / dy, b = (rect.y + rect.height - y0) / dy;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        }
+
+        return enter <= exit;
+    }
+}
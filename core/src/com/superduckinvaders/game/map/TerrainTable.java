@@ -0,0 +1,111 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.Arrays;
+
+/**
+ * The terrain of every tile of a map's tile sets, read once from the tiles' properties so that asking what a
+ * character is standing on is an array read instead of a property lookup.
+ * <p>
+ * A tile's terrain is a byte of flags, set by giving the tile the matching property with any value, and a speed
+ * multiplier, set by its "speed" property. New kinds of terrain, such as mud, ice or lava, are combinations of these
+ * and need no code.
+ */
+public class TerrainTable {
+
+    /**
+     * Set for tiles that characters swim in. Property "water".
+     */
+    public static final byte WATER = 1;
+
+    /**
+     * Set for tiles that hurt the player while they stand on them. Property "damage".
+     */
+    public static final byte DAMAGING = 2;
+
+    /**
+     * Set for tiles that mobs must not be spawned on, even if the spawn layer allows it. Property "noSpawn".
+     */
+    public static final byte NO_SPAWN = 4;
+
+    /**
+     * The property that sets a tile's speed multiplier.
+     */
+    public static final String SPEED_PROPERTY = "speed";
+
+    /**
+     * The flags of each tile, indexed by tile id.
+     */
+    private final byte[] flags;
+
+    /**
+     * The speed multiplier of each tile, indexed by tile id.
+     */
+    private final float[] speeds;
+
+    /**
+     * Initialises a TerrainTable from the properties of every tile of some tile sets.
+     *
+     * @param tileSets   the tile sets
+     * @param waterSpeed the speed multiplier of water tiles that don't set their own
+     */
+    public TerrainTable(TiledMapTileSets tileSets, float waterSpeed) {
+        int maxId = 0;
+
+        for (TiledMapTileSet tileSet : tileSets) {
+            for (TiledMapTile tile : tileSet) {
+                maxId = Math.max(maxId, tile.getId());
+            }
+        }
+
+        flags = new byte[maxId + 1];
+        speeds = new float[maxId + 1];
+        Arrays.fill(speeds, 1);
+
+        for (TiledMapTileSet tileSet : tileSets) {
+            for (TiledMapTile tile : tileSet) {
+                MapProperties properties = tile.getProperties();
+                int id = tile.getId();
+
+                flags[id] = (byte) ((properties.containsKey("water") ? WATER : 0)
+                        | (properties.containsKey("damage") ? DAMAGING : 0)
+                        | (properties.containsKey("noSpawn") ? NO_SPAWN : 0));
+
+                if (properties.containsKey(SPEED_PROPERTY)) {
+                    try {
+                        speeds[id] = Float.parseFloat(properties.get(SPEED_PROPERTY).toString());
+                    } catch (NumberFormatException e) {
+                        throw new GdxRuntimeException("Tile " + id + " has an invalid speed", e);
+                    }
+                } else if ((flags[id] & WATER) != 0) {
+                    speeds[id] = waterSpeed;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the flags of a tile.
+     *
+     * @param id the id of the tile, or 0 for no tile
+     * @return the tile's flags, or 0 if there is no such tile
+     */
+    public int getFlags(int id) {
+        return id > 0 && id < flags.length ? flags[id] : 0;
+    }
+
+    /**
+     * Gets how much a character's speed is multiplied by on a tile.
+     *
+     * @param id the id of the tile, or 0 for no tile
+     * @return the tile's speed multiplier, or 1 if there is no such tile
+     */
+    public float getSpeed(int id) {
+        return id > 0 && id < speeds.length ? speeds[id] : 1;
+    }
+}
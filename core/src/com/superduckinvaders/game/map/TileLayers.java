@@ -0,0 +1,56 @@
+package com.superduckinvaders.game.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+/**
+ * Queries that work the same on every kind of tile layer.
+ */
+public final class TileLayers {
+
+    /**
+     * Not instantiable.
+     */
+    private TileLayers() {
+    }
+
+    /**
+     * Gets whether a tile of a layer has a cell. Unlike getCell, this also works for the parts of chunked layers that
+     * aren't loaded, so it is what the static per-round data should be built from.
+     *
+     * @param layer the layer
+     * @param x     the column of the tile
+     * @param y     the row of the tile
+     * @return whether the tile has a cell
+     */
+    public static boolean hasCell(TiledMapTileLayer layer, int x, int y) {
+        if (layer instanceof ChunkedTileLayer) {
+            return ((ChunkedTileLayer) layer).hasCell(x, y);
+        }
+
+        if (layer instanceof CompactTileLayer) {
+            return ((CompactTileLayer) layer).hasCell(x, y);
+        }
+
+        return layer.getCell(x, y) != null;
+    }
+
+    /**
+     * Gets a cell of a layer in packed form, without unpacking it on layers that store their cells packed.
+     *
+     * @param layer the layer
+     * @param x     the column of the tile
+     * @param y     the row of the tile
+     * @return the cell as packed by PackedCell, or 0 if it is empty
+     */
+    public static int getPackedCell(TiledMapTileLayer layer, int x, int y) {
+        if (layer instanceof CompactTileLayer) {
+            return ((CompactTileLayer) layer).getPackedCell(x, y);
+        }
+
+        if (layer instanceof ChunkedTileLayer) {
+            return ((ChunkedTileLayer) layer).getPackedCell(x, y);
+        }
+
+        return PackedCell.pack(layer.getCell(x, y));
+    }
+}
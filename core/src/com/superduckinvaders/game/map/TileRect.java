@@ -0,0 +1,45 @@
+package com.superduckinvaders.game.map;
+
+/**
+ * An axis-aligned rectangle of whole tiles.
+ */
+public class TileRect {
+
+    /**
+     * The column and row of the bottom left tile.
+     */
+    public final int x, y;
+
+    /**
+     * The number of columns and rows covered.
+     */
+    public final int width, height;
+
+    /**
+     * Initialises this TileRect.
+     *
+     * @param x      the column of the bottom left tile
+     * @param y      the row of the bottom left tile
+     * @param width  the number of columns covered
+     * @param height the number of rows covered
+     */
+    public TileRect(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Gets whether this TileRect covers any tile in the specified range.
+     *
+     * @param minX the first column, inclusive
+     * @param minY the first row, inclusive
+     * @param maxX the last column, inclusive
+     * @param maxY the last row, inclusive
+     * @return whether any tile in the range is covered
+     */
+    public boolean overlaps(int minX, int minY, int maxX, int maxY) {
+        return minX < x + width && x <= maxX && minY < y + height && y <= maxY;
+    }
+}
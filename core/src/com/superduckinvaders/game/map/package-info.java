@@ -0,0 +1,6 @@
+/**
+ * Contains the static, per-round data derived from a level's tile layers, such as which tiles block movement and what
+ * terrain each tile is, tile layers stored as flat arrays of packed cells instead of Cell objects, and chunked maps
+ * that are streamed in around the player instead of being loaded whole.
+ */
+package com.superduckinvaders.game.map;
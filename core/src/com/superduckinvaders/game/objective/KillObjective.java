@@ -10,6 +10,11 @@ public class KillObjective extends Objective {
 
     private int killCounter;
 
+    /**
+     * The string describing this KillObjective, rebuilt only when the number of kills remaining changes.
+     */
+    private String objectiveString;
+
     /**
      * Initialises this KillObjective.
      *
@@ -18,7 +23,7 @@ public class KillObjective extends Objective {
     public KillObjective(Round parent, objectiveType type, int amount) {
         super(parent, type);
         this.killCounter = amount;
-
+        updateObjectiveString();
     }
 
     /**
@@ -28,7 +33,14 @@ public class KillObjective extends Objective {
      */
     @Override
     public String getObjectiveString() {
-        return "Defeat "+killCounter+" enemies";
+        return objectiveString;
+    }
+
+    /**
+     * Rebuilds the string describing this KillObjective.
+     */
+    private void updateObjectiveString() {
+        objectiveString = "Defeat "+killCounter+" enemies";
     }
 
     /**
@@ -36,6 +48,7 @@ public class KillObjective extends Objective {
      */
     public void decrementKills(){
         killCounter--;
+        updateObjectiveString();
     }
 
     /**
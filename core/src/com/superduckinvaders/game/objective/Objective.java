@@ -81,6 +81,6 @@ public abstract class Objective {
      * Enum of possible types of objectives
      */
     public enum objectiveType{
-        COLLECT, KILL, BOSS
+        COLLECT, KILL, BOSS, SURVIVE
     }
 }
@@ -0,0 +1,88 @@
+package com.superduckinvaders.game.objective;
+
+import com.superduckinvaders.game.Round;
+
+/**
+ * Represents an objective involving staying alive against endless waves of mobs, for a set time or for as long as
+ * possible.
+ */
+public class SurvivalObjective extends Objective {
+
+    /**
+     * How long the player has to survive, in seconds, or 0 to survive for as long as possible.
+     */
+    private float duration;
+
+    /**
+     * How long the player has survived so far, in seconds.
+     */
+    private float survived = 0;
+
+    /**
+     * The whole seconds the objective string was last built for.
+     */
+    private int shownSeconds = -1;
+
+    /**
+     * The string describing this SurvivalObjective, rebuilt only when the seconds shown change.
+     */
+    private String objectiveString;
+
+    /**
+     * Initialises this SurvivalObjective.
+     *
+     * @param parent   the round this SurvivalObjective belongs to
+     * @param duration how long the player has to survive, in seconds, or 0 to survive for as long as possible
+     */
+    public SurvivalObjective(Round parent, objectiveType type, float duration) {
+        super(parent, type);
+
+        this.duration = duration;
+        updateObjectiveString();
+    }
+
+    /**
+     * Gets a string describing this SurvivalObjective to be printed on screen.
+     *
+     * @return a string describing this SurvivalObjective
+     */
+    @Override
+    public String getObjectiveString() {
+        return objectiveString;
+    }
+
+    /**
+     * @return how long the player has survived so far, in seconds
+     */
+    public float getSurvived() {
+        return survived;
+    }
+
+    /**
+     * Rebuilds the string describing this SurvivalObjective if the seconds shown have changed.
+     */
+    private void updateObjectiveString() {
+        int seconds = (int) (duration > 0 ? Math.ceil(duration - survived) : survived);
+
+        if (seconds != shownSeconds) {
+            shownSeconds = seconds;
+            String time = seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60;
+            objectiveString = duration > 0 ? "Survive for " + time : "Survived " + time;
+        }
+    }
+
+    /**
+     * Updates the status towards this SurvivalObjective.
+     *
+     * @param delta how much time has passed since the last update
+     */
+    @Override
+    public void update(float delta) {
+        survived += delta;
+        updateObjectiveString();
+
+        if (duration > 0 && survived >= duration) {
+            status = OBJECTIVE_COMPLETED;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.superduckinvaders.game.physics;
+
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.superduckinvaders.game.ecs.Families;
+import com.superduckinvaders.game.entity.Entity;
+
+/**
+ * Steps a PhysicsWorld once entities have been updated, then copies body positions back to the entities.
+ */
+public class PhysicsSystem extends IteratingSystem {
+
+    /**
+     * The world to step.
+     */
+    private final PhysicsWorld physics;
+
+    /**
+     * Initialises this PhysicsSystem.
+     *
+     * @param physics  the world to step
+     * @param priority the order this system runs in relative to other systems (lower runs first)
+     */
+    public PhysicsSystem(PhysicsWorld physics, int priority) {
+        super(Families.PHYSICAL, priority);
+
+        this.physics = physics;
+    }
+
+    /**
+     * Steps the world and then syncs every entity with a body.
+     *
+     * @param delta how much time has passed since the last update
+     */
+    @Override
+    public void update(float delta) {
+        physics.step(delta);
+        super.update(delta);
+    }
+
+    /**
+     * Copies an entity's body position back to the entity.
+     *
+     * @param entity the entity
+     * @param delta  how much time has passed since the last update
+     */
+    @Override
+    protected void processEntity(com.badlogic.ashley.core.Entity entity, float delta) {
+        physics.sync((Entity) entity);
+    }
+}
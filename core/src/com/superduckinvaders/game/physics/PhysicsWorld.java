@@ -0,0 +1,292 @@
+package com.superduckinvaders.game.physics;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.ChainShape;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.ecs.BodyComponent;
+import com.superduckinvaders.game.ecs.ColliderComponent;
+import com.superduckinvaders.game.ecs.Mappers;
+import com.superduckinvaders.game.entity.Character;
+import com.superduckinvaders.game.entity.Entity;
+import com.superduckinvaders.game.entity.Projectile;
+import com.superduckinvaders.game.map.TileRect;
+
+/**
+ * A Box2D world that takes over movement and collision for a Round, as an alternative to the tile-by-tile checks in
+ * Entity. Blocked tiles become static boxes, characters become dynamic bodies and projectiles become bullet sensors
+ * whose contacts deal damage.
+ * <p>
+ * Entities still decide their own velocity each update. The world then moves every body in one step, and the
+ * resulting positions are copied back to the entities.
+ */
+public class PhysicsWorld implements ContactListener, Disposable {
+
+    /**
+     * How many pixels make up one metre in the physics world. One tile is one metre.
+     */
+    public static final float PIXELS_PER_METRE = 16;
+
+    /**
+     * The collision category of the map's walls, alongside the ColliderComponent categories.
+     */
+    public static final int WALL = 1 << 7;
+
+    /**
+     * The number of velocity and position iterations per step.
+     */
+    private static final int VELOCITY_ITERATIONS = 6, POSITION_ITERATIONS = 2;
+
+    /**
+     * The round this PhysicsWorld belongs to.
+     */
+    private final Round round;
+
+    /**
+     * The Box2D world.
+     */
+    private final World world;
+
+    /**
+     * Definitions and a shape reused for every body created.
+     */
+    private final BodyDef bodyDef = new BodyDef();
+    private final FixtureDef fixtureDef = new FixtureDef();
+    private final PolygonShape box;
+
+    /**
+     * Initialises this PhysicsWorld for the specified round, building the static bodies for its map.
+     *
+     * @param round the round this PhysicsWorld belongs to
+     */
+    public PhysicsWorld(Round round) {
+        Box2D.init();
+
+        this.round = round;
+        this.world = new World(new Vector2(0, 0), true);
+        this.box = new PolygonShape();
+        world.setContactListener(this);
+
+        fixtureDef.shape = box;
+        fixtureDef.friction = 0;
+        fixtureDef.density = 1;
+
+        buildWalls();
+    }
+
+    /**
+     * Builds a static box for every merged rectangle of blocked tiles, and a chain around the edge of the map.
+     */
+    private void buildWalls() {
+        int tileWidth = round.getTileWidth(), tileHeight = round.getTileHeight();
+
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        bodyDef.position.set(0, 0);
+        Body walls = world.createBody(bodyDef);
+
+        fixtureDef.isSensor = false;
+        fixtureDef.filter.categoryBits = WALL;
+        fixtureDef.filter.maskBits = -1;
+
+        Array<TileRect> rects = round.getStaticCollision().getRects();
+
+        for (int i = 0; i < rects.size; i++) {
+            TileRect rect = rects.get(i);
+            float halfWidth = rect.width * tileWidth / 2f / PIXELS_PER_METRE;
+            float halfHeight = rect.height * tileHeight / 2f / PIXELS_PER_METRE;
+            float centreX = rect.x * tileWidth / PIXELS_PER_METRE + halfWidth;
+            float centreY = rect.y * tileHeight / PIXELS_PER_METRE + halfHeight;
+
+            box.setAsBox(halfWidth, halfHeight, new Vector2(centreX, centreY), 0);
+            walls.createFixture(fixtureDef);
+        }
+
+        // Keep everything inside the map.
+        float width = round.getMapWidth() / PIXELS_PER_METRE, height = round.getMapHeight() / PIXELS_PER_METRE;
+        ChainShape edge = new ChainShape();
+        edge.createLoop(new float[] {0, 0, width, 0, width, height, 0, height});
+
+        fixtureDef.shape = edge;
+        walls.createFixture(fixtureDef);
+        fixtureDef.shape = box;
+        edge.dispose();
+    }
+
+    /**
+     * Creates a body for an entity with a ColliderComponent, filtered by the entity's collision bits. Projectiles
+     * become bullet sensors, everything else a solid dynamic body that doesn't rotate.
+     *
+     * @param entity the entity to create a body for
+     */
+    public void createBody(Entity entity) {
+        ColliderComponent collider = Mappers.collider.get(entity);
+        boolean projectile = Mappers.projectile.has(entity);
+        float halfWidth = entity.getWidth() / 2f / PIXELS_PER_METRE;
+        float halfHeight = entity.getHeight() / 2f / PIXELS_PER_METRE;
+
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        bodyDef.fixedRotation = true;
+        bodyDef.bullet = projectile;
+        bodyDef.position.set(entity.getX() / PIXELS_PER_METRE + halfWidth, entity.getY() / PIXELS_PER_METRE + halfHeight);
+
+        Body body = world.createBody(bodyDef);
+        body.setUserData(entity);
+
+        box.setAsBox(halfWidth, halfHeight);
+        fixtureDef.isSensor = projectile;
+        fixtureDef.filter.categoryBits = (short) collider.category;
+        fixtureDef.filter.maskBits = (short) (collider.mask | WALL);
+        body.createFixture(fixtureDef);
+
+        entity.add(new BodyComponent(body));
+    }
+
+    /**
+     * Destroys the body of an entity, if it has one.
+     *
+     * @param entity the entity leaving the world
+     */
+    public void destroyBody(Entity entity) {
+        BodyComponent body = Mappers.body.get(entity);
+
+        if (body != null) {
+            world.destroyBody(body.body);
+            body.body = null;
+        }
+    }
+
+    /**
+     * Sets how fast an entity's body will move during the next step.
+     *
+     * @param entity    the entity
+     * @param velocityX the x velocity in pixels per second
+     * @param velocityY the y velocity in pixels per second
+     */
+    public void move(Entity entity, float velocityX, float velocityY) {
+        BodyComponent body = Mappers.body.get(entity);
+
+        if (body != null) {
+            body.body.setLinearVelocity(velocityX / PIXELS_PER_METRE, velocityY / PIXELS_PER_METRE);
+        }
+    }
+
+    /**
+     * Sets whether an entity's body collides physically or only reports contacts (e.g. while the player is flying).
+     *
+     * @param entity the entity
+     * @param solid  whether the body should collide physically
+     */
+    public void setSolid(Entity entity, boolean solid) {
+        BodyComponent body = Mappers.body.get(entity);
+
+        if (body != null && body.solid != solid) {
+            for (Fixture fixture : body.body.getFixtureList()) {
+                fixture.setSensor(!solid);
+            }
+
+            body.solid = solid;
+        }
+    }
+
+    /**
+     * Advances the world.
+     *
+     * @param delta how much time has passed since the last step
+     */
+    public void step(float delta) {
+        world.step(delta, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+    }
+
+    /**
+     * Copies the position of an entity's body back to the entity and stops the body, so that only entities updated
+     * before the next step move in it. Sensor bodies (e.g. a flying player) pass through the edge of the map, so
+     * they're put back inside it here.
+     *
+     * @param entity the entity
+     */
+    public void sync(Entity entity) {
+        Body body = Mappers.body.get(entity).body;
+        Vector2 position = body.getPosition();
+
+        float x = MathUtils.clamp(position.x * PIXELS_PER_METRE - entity.getWidth() / 2f, 0, round.getMapWidth() - entity.getWidth());
+        float y = MathUtils.clamp(position.y * PIXELS_PER_METRE - entity.getHeight() / 2f, 0, round.getMapHeight() - entity.getHeight());
+
+        if (x != position.x * PIXELS_PER_METRE - entity.getWidth() / 2f || y != position.y * PIXELS_PER_METRE - entity.getHeight() / 2f) {
+            body.setTransform((x + entity.getWidth() / 2f) / PIXELS_PER_METRE, (y + entity.getHeight() / 2f) / PIXELS_PER_METRE, 0);
+        }
+
+        entity.setPosition(x, y);
+        body.setLinearVelocity(0, 0);
+    }
+
+    /**
+     * Handles projectiles touching walls or characters.
+     *
+     * @param contact the contact that began
+     */
+    @Override
+    public void beginContact(Contact contact) {
+        Fixture a = contact.getFixtureA(), b = contact.getFixtureB();
+
+        handleProjectile(a, b);
+        handleProjectile(b, a);
+    }
+
+    /**
+     * Applies the effect of a projectile touching something, if the first fixture belongs to a projectile.
+     * The collision bits mean a projectile only ever touches walls and characters on the other side.
+     *
+     * @param fixture the fixture that may belong to a projectile
+     * @param other   the fixture it touched
+     */
+    private void handleProjectile(Fixture fixture, Fixture other) {
+        Entity entity = (Entity) fixture.getBody().getUserData();
+
+        if (entity == null || !Mappers.projectile.has(entity) || entity.isRemoved()) {
+            return;
+        }
+
+        Projectile projectile = (Projectile) entity;
+        Entity target = (Entity) other.getBody().getUserData();
+
+        if (target == null) {
+            projectile.explode();
+        } else if (Mappers.health.has(target)) {
+            projectile.hit((Character) target);
+        }
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+    }
+
+    /**
+     * Releases the native Box2D world.
+     */
+    @Override
+    public void dispose() {
+        box.dispose();
+        world.dispose();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains the optional Box2D collision backend.
+ */
+package com.superduckinvaders.game.physics;
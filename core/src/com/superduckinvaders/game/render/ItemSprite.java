@@ -0,0 +1,58 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.superduckinvaders.game.assets.Assets;
+
+/**
+ * Draws an item on the floor with one texture, bobbing up and down over its shadow.
+ */
+public class ItemSprite extends SpriteKind {
+
+    /**
+     * The texture of the item.
+     */
+    private final TextureRegion texture;
+
+    /**
+     * Initialises an ItemSprite.
+     *
+     * @param texture the texture of the item
+     */
+    public ItemSprite(TextureRegion texture) {
+        this.texture = texture;
+    }
+
+    /**
+     * Draws the item's shadow and then the item, as high as the time it has existed for puts it.
+     *
+     * @param batch    the batch to draw to, projected to world coordinates
+     * @param snapshot the snapshot holding the item
+     * @param index    the index of the item
+     */
+    @Override
+    public void draw(Batch batch, RenderSnapshot snapshot, int index) {
+        float x = snapshot.getX(index), y = snapshot.getY(index);
+
+        batch.draw(Assets.shadow, x - 8, y - 4);
+        batch.draw(texture, x, y + (int) (MathUtils.sin(snapshot.getTime(index) * 2) * 6) + 6);
+    }
+
+    /**
+     * @param o the object to compare to
+     * @return whether o is an ItemSprite with the same texture
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ItemSprite && ((ItemSprite) o).texture == texture;
+    }
+
+    /**
+     * @return a hash of the texture
+     */
+    @Override
+    public int hashCode() {
+        return texture.hashCode();
+    }
+}
@@ -0,0 +1,116 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.superduckinvaders.game.assets.Assets;
+import com.superduckinvaders.game.assets.TextureSet;
+import com.superduckinvaders.game.entity.Mob;
+import com.superduckinvaders.game.ui.BarRenderer;
+
+/**
+ * Draws a mob of one type with one set of walking and swimming textures, and its health bar.
+ */
+public class MobSprite extends SpriteKind {
+
+    /**
+     * The type of the mob, which decides where its shadow and health bar go.
+     */
+    private final Mob.MobType type;
+
+    /**
+     * The textures of the mob on land and in water.
+     */
+    private final TextureSet walkingTextureSet, swimmingTextureSet;
+
+    /**
+     * The size of the mob.
+     */
+    private final int width, height;
+
+    /**
+     * Initialises a MobSprite.
+     *
+     * @param type               the type of the mob
+     * @param walkingTextureSet  the textures of the mob on land
+     * @param swimmingTextureSet the textures of the mob in water
+     */
+    public MobSprite(Mob.MobType type, TextureSet walkingTextureSet, TextureSet swimmingTextureSet) {
+        this.type = type;
+        this.walkingTextureSet = walkingTextureSet;
+        this.swimmingTextureSet = swimmingTextureSet;
+        this.width = Mob.widthOf(walkingTextureSet);
+        this.height = Mob.heightOf(walkingTextureSet);
+    }
+
+    /**
+     * Draws the mob's shadow and then the mob.
+     *
+     * @param batch    the batch to draw to, projected to world coordinates
+     * @param snapshot the snapshot holding the mob
+     * @param index    the index of the mob
+     */
+    @Override
+    public void draw(Batch batch, RenderSnapshot snapshot, int index) {
+        float x = snapshot.getX(index), y = snapshot.getY(index), stateTime = snapshot.getTime(index);
+        int facing = snapshot.getFacing(index);
+        boolean swimming = snapshot.hasFlag(index, RenderSnapshot.SWIMMING);
+
+        if (type == Mob.MobType.RANGED) {
+            batch.draw(Assets.shadow2, x, y + 3);
+        } else if (type == Mob.MobType.MELEE) {
+            batch.draw(Assets.shadow, x - 5, swimming ? y : y - 5);
+        } else {
+            batch.draw(Assets.bossShadow, x - 10, y - 20);
+            swimming = false;
+        }
+
+        batch.draw((swimming ? swimmingTextureSet : walkingTextureSet).getTexture(facing, stateTime), x, y);
+    }
+
+    /**
+     * Draws the mob's health bar above it.
+     *
+     * @param batch    the batch to draw to, projected to world UI coordinates
+     * @param snapshot the snapshot holding the mob
+     * @param index    the index of the mob
+     */
+    @Override
+    public void drawHealthBar(Batch batch, RenderSnapshot snapshot, int index) {
+        float offsetX = snapshot.getX(index) * 2 - width / 2;
+        float offsetY = snapshot.getY(index) * 2 + height * 2;
+
+        if (type == Mob.MobType.BOSS) {
+            offsetX += 40;
+            offsetY += 15;
+        } else if (type == Mob.MobType.RANGED) {
+            offsetX -= 5;
+            offsetY += 30;
+        } else {
+            offsetX -= 17;
+            offsetY += 10;
+        }
+
+        BarRenderer.draw(batch, Assets.healthEmpty, Assets.healthFull, offsetX, offsetY, snapshot.getHealth(index));
+    }
+
+    /**
+     * @param o the object to compare to
+     * @return whether o is a MobSprite of the same type with the same textures
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MobSprite)) {
+            return false;
+        }
+
+        MobSprite other = (MobSprite) o;
+        return other.type == type && other.walkingTextureSet == walkingTextureSet && other.swimmingTextureSet == swimmingTextureSet;
+    }
+
+    /**
+     * @return a hash of the type and textures
+     */
+    @Override
+    public int hashCode() {
+        return (type.hashCode() * 31 + walkingTextureSet.hashCode()) * 31 + swimmingTextureSet.hashCode();
+    }
+}
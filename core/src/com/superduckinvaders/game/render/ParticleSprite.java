@@ -0,0 +1,53 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+
+/**
+ * Draws a particle effect playing one animation.
+ */
+public class ParticleSprite extends SpriteKind {
+
+    /**
+     * The animation of the particle effect.
+     */
+    private final Animation animation;
+
+    /**
+     * Initialises a ParticleSprite.
+     *
+     * @param animation the animation of the particle effect
+     */
+    public ParticleSprite(Animation animation) {
+        this.animation = animation;
+    }
+
+    /**
+     * Draws the frame of the animation the particle effect has got to.
+     *
+     * @param batch    the batch to draw to, projected to world coordinates
+     * @param snapshot the snapshot holding the particle effect
+     * @param index    the index of the particle effect
+     */
+    @Override
+    public void draw(Batch batch, RenderSnapshot snapshot, int index) {
+        batch.draw(animation.getKeyFrame(snapshot.getTime(index)), snapshot.getX(index), snapshot.getY(index));
+    }
+
+    /**
+     * @param o the object to compare to
+     * @return whether o is a ParticleSprite with the same animation
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ParticleSprite && ((ParticleSprite) o).animation == animation;
+    }
+
+    /**
+     * @return a hash of the animation
+     */
+    @Override
+    public int hashCode() {
+        return animation.hashCode();
+    }
+}
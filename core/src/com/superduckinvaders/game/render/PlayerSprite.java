@@ -0,0 +1,70 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.superduckinvaders.game.assets.Assets;
+import com.superduckinvaders.game.assets.TextureSet;
+
+/**
+ * Draws the player: flying, attacking in melee, swimming or walking, depending on its flags.
+ */
+public class PlayerSprite extends SpriteKind {
+
+    /**
+     * The offset of the player's bounds from the bottom left of its textures.
+     */
+    private final int boundsX, boundsY;
+
+    /**
+     * Initialises a PlayerSprite.
+     *
+     * @param boundsX the x offset of the player's bounds from the bottom left of its textures
+     * @param boundsY the y offset of the player's bounds from the bottom left of its textures
+     */
+    public PlayerSprite(int boundsX, int boundsY) {
+        this.boundsX = boundsX;
+        this.boundsY = boundsY;
+    }
+
+    /**
+     * Draws the player's shadow and then the player, unless it is blinking out.
+     *
+     * @param batch    the batch to draw to, projected to world coordinates
+     * @param snapshot the snapshot holding the player
+     * @param index    the index of the player
+     */
+    @Override
+    public void draw(Batch batch, RenderSnapshot snapshot, int index) {
+        float x = snapshot.getX(index), y = snapshot.getY(index), stateTime = snapshot.getTime(index);
+        int facing = snapshot.getFacing(index);
+
+        batch.draw(Assets.shadow2, x - 2, y - 6);
+
+        if (snapshot.hasFlag(index, RenderSnapshot.FLYING)) {
+            batch.draw(Assets.playerFlying.getTexture(facing, 0), x - boundsX - 18, y - boundsY + 10);
+        } else if (!snapshot.hasFlag(index, RenderSnapshot.HIDDEN)) {
+            if (snapshot.hasFlag(index, RenderSnapshot.MELEE)) {
+                batch.draw(Assets.playerMelee.getTexture(facing, stateTime), x - boundsX - 16, y - boundsY);
+            } else {
+                TextureSet textureSet = snapshot.hasFlag(index, RenderSnapshot.SWIMMING) ? Assets.playerSwimming : Assets.playerNormal;
+                batch.draw(textureSet.getTexture(facing, stateTime), x - boundsX, y - boundsY);
+            }
+        }
+    }
+
+    /**
+     * @param o the object to compare to
+     * @return whether o is a PlayerSprite with the same bounds
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PlayerSprite && ((PlayerSprite) o).boundsX == boundsX && ((PlayerSprite) o).boundsY == boundsY;
+    }
+
+    /**
+     * @return a hash of the bounds
+     */
+    @Override
+    public int hashCode() {
+        return 31 * boundsX + boundsY;
+    }
+}
@@ -0,0 +1,26 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.superduckinvaders.game.assets.Assets;
+
+/**
+ * Draws a projectile, rotated to the direction it is travelling in.
+ */
+public class ProjectileSprite extends SpriteKind {
+
+    /**
+     * Draws the projectile turned about its centre.
+     *
+     * @param batch    the batch to draw to, projected to world coordinates
+     * @param snapshot the snapshot holding the projectile
+     * @param index    the index of the projectile
+     */
+    @Override
+    public void draw(Batch batch, RenderSnapshot snapshot, int index) {
+        TextureRegion texture = Assets.projectile;
+        int width = texture.getRegionWidth(), height = texture.getRegionHeight();
+
+        batch.draw(texture, snapshot.getX(index), snapshot.getY(index), width / 2, height / 2, width, height, 1, 1, snapshot.getAngle(index));
+    }
+}
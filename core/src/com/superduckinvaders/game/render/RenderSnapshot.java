@@ -0,0 +1,414 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Everything the render thread needs to draw one update of a Round: a sprite per entity, in the order they are drawn,
+ * the floaty numbers, and the HUD.
+ * <p>
+ * Sprites are stored as parallel arrays, one entry per sprite, so a snapshot of thousands of entities is a few
+ * arrays of numbers rather than thousands of objects. Which textures a sprite is drawn with is left to its
+ * SpriteKind, on the render thread. A snapshot is only written by the simulation thread until it is published, and
+ * only read by the render thread after, so it never changes while it is being drawn.
+ */
+public class RenderSnapshot {
+
+    /**
+     * Sprite flags: the entity is in water, flying, attacking in melee, or blinking out while invulnerable.
+     */
+    public static final int SWIMMING = 1, FLYING = 1 << 1, MELEE = 1 << 2, HIDDEN = 1 << 3;
+
+    /**
+     * The health of sprites that don't show a health bar.
+     */
+    public static final float NO_HEALTH = -1;
+
+    /**
+     * The SpriteKind id, facing (one of the TextureSet.FACING_ constants) and flags of each sprite.
+     */
+    private final IntArray kinds = new IntArray(), facings = new IntArray(), flags = new IntArray();
+
+    /**
+     * The position of each sprite, in world coordinates.
+     */
+    private final FloatArray x = new FloatArray(), y = new FloatArray();
+
+    /**
+     * How far into its animation each sprite is, in seconds.
+     */
+    private final FloatArray times = new FloatArray();
+
+    /**
+     * The rotation of each sprite, in degrees.
+     */
+    private final FloatArray angles = new FloatArray();
+
+    /**
+     * The fraction of its health each sprite has left, or NO_HEALTH.
+     */
+    private final FloatArray healths = new FloatArray();
+
+    /**
+     * The floaty numbers' text.
+     */
+    private final Array<String> texts = new Array<String>();
+
+    /**
+     * Where each floaty number is drawn, in world UI coordinates.
+     */
+    private final FloatArray textX = new FloatArray(), textY = new FloatArray();
+
+    /**
+     * The colour of each floaty number, as RGBA8888. Its shadow is black with the same alpha.
+     */
+    private final IntArray textColors = new IntArray();
+
+    /**
+     * The active powerups (as PowerupManager.powerupTypes ordinals) and the fraction of each left.
+     */
+    private final IntArray powerups = new IntArray();
+    private final FloatArray powerupFractions = new FloatArray();
+
+    /**
+     * The player's bounds, which the camera follows.
+     */
+    private float playerX, playerY, playerWidth, playerHeight;
+
+    /**
+     * The player's current and maximum health, and score.
+     */
+    private int health, maximumHealth, score;
+
+    /**
+     * The fraction of the player's flight time left.
+     */
+    private float flight;
+
+    /**
+     * The description of the current objective.
+     */
+    private String objective = "";
+
+    /**
+     * Empties this RenderSnapshot to be written again.
+     */
+    public void clear() {
+        kinds.clear();
+        facings.clear();
+        flags.clear();
+        x.clear();
+        y.clear();
+        times.clear();
+        angles.clear();
+        healths.clear();
+
+        texts.clear();
+        textX.clear();
+        textY.clear();
+        textColors.clear();
+
+        powerups.clear();
+        powerupFractions.clear();
+    }
+
+    /**
+     * Adds a sprite, drawn after the sprites already added, with no rotation or health bar.
+     *
+     * @param kind   the id of the SpriteKind that draws it
+     * @param x      the x coordinate of the sprite
+     * @param y      the y coordinate of the sprite
+     * @param facing the direction the sprite faces (one of the TextureSet.FACING_ constants)
+     * @param time   how far into its animation the sprite is, in seconds
+     * @param flags  the sprite's flags
+     * @return the index of the sprite
+     */
+    public int addSprite(int kind, float x, float y, int facing, float time, int flags) {
+        kinds.add(kind);
+        facings.add(facing);
+        this.flags.add(flags);
+        this.x.add(x);
+        this.y.add(y);
+        times.add(time);
+        angles.add(0);
+        healths.add(NO_HEALTH);
+
+        return kinds.size - 1;
+    }
+
+    /**
+     * Sets the rotation of a sprite.
+     *
+     * @param index the index of the sprite
+     * @param angle the rotation, in degrees
+     */
+    public void setAngle(int index, float angle) {
+        angles.set(index, angle);
+    }
+
+    /**
+     * Gives a sprite a health bar.
+     *
+     * @param index  the index of the sprite
+     * @param health the fraction of its health left, from 0 to 1
+     */
+    public void setHealth(int index, float health) {
+        healths.set(index, health);
+    }
+
+    /**
+     * @return the number of sprites
+     */
+    public int getSpriteCount() {
+        return kinds.size;
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @return the id of the SpriteKind that draws the sprite
+     */
+    public int getKind(int index) {
+        return kinds.get(index);
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @return the direction the sprite faces
+     */
+    public int getFacing(int index) {
+        return facings.get(index);
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @param flag  the flag
+     * @return whether the sprite has the flag set
+     */
+    public boolean hasFlag(int index, int flag) {
+        return (flags.get(index) & flag) != 0;
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @return the x coordinate of the sprite
+     */
+    public float getX(int index) {
+        return x.get(index);
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @return the y coordinate of the sprite
+     */
+    public float getY(int index) {
+        return y.get(index);
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @return how far into its animation the sprite is, in seconds
+     */
+    public float getTime(int index) {
+        return times.get(index);
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @return the rotation of the sprite, in degrees
+     */
+    public float getAngle(int index) {
+        return angles.get(index);
+    }
+
+    /**
+     * @param index the index of the sprite
+     * @return the fraction of its health the sprite has left, or NO_HEALTH if it has no health bar
+     */
+    public float getHealth(int index) {
+        return healths.get(index);
+    }
+
+    /**
+     * Adds a floaty number.
+     *
+     * @param text  the text
+     * @param x     the x coordinate, in world UI coordinates
+     * @param y     the y coordinate of the top of the text, in world UI coordinates
+     * @param color the colour of the text, as RGBA8888
+     */
+    public void addText(String text, float x, float y, int color) {
+        texts.add(text);
+        textX.add(x);
+        textY.add(y);
+        textColors.add(color);
+    }
+
+    /**
+     * @return the number of floaty numbers
+     */
+    public int getTextCount() {
+        return texts.size;
+    }
+
+    /**
+     * @param index the index of the floaty number
+     * @return the floaty number's text
+     */
+    public String getText(int index) {
+        return texts.get(index);
+    }
+
+    /**
+     * @param index the index of the floaty number
+     * @return the x coordinate of the floaty number
+     */
+    public float getTextX(int index) {
+        return textX.get(index);
+    }
+
+    /**
+     * @param index the index of the floaty number
+     * @return the y coordinate of the top of the floaty number
+     */
+    public float getTextY(int index) {
+        return textY.get(index);
+    }
+
+    /**
+     * @param index the index of the floaty number
+     * @return the colour of the floaty number, as RGBA8888
+     */
+    public int getTextColor(int index) {
+        return textColors.get(index);
+    }
+
+    /**
+     * Adds an active powerup, drawn after the powerups already added.
+     *
+     * @param type     the ordinal of the powerup's type
+     * @param fraction the fraction of its duration left
+     */
+    public void addPowerup(int type, float fraction) {
+        powerups.add(type);
+        powerupFractions.add(fraction);
+    }
+
+    /**
+     * @return the number of active powerups
+     */
+    public int getPowerupCount() {
+        return powerups.size;
+    }
+
+    /**
+     * @param index the index of the powerup
+     * @return the ordinal of the powerup's type
+     */
+    public int getPowerupType(int index) {
+        return powerups.get(index);
+    }
+
+    /**
+     * @param index the index of the powerup
+     * @return the fraction of the powerup's duration left
+     */
+    public float getPowerupFraction(int index) {
+        return powerupFractions.get(index);
+    }
+
+    /**
+     * Sets the player's part of the HUD and where the camera follows.
+     *
+     * @param x             the x coordinate of the player
+     * @param y             the y coordinate of the player
+     * @param width         the width of the player
+     * @param height        the height of the player
+     * @param health        the player's current health
+     * @param maximumHealth the player's maximum health
+     * @param flight        the fraction of the player's flight time left
+     * @param score         the player's score
+     */
+    public void setPlayer(float x, float y, float width, float height, int health, int maximumHealth, float flight, int score) {
+        playerX = x;
+        playerY = y;
+        playerWidth = width;
+        playerHeight = height;
+        this.health = health;
+        this.maximumHealth = maximumHealth;
+        this.flight = flight;
+        this.score = score;
+    }
+
+    /**
+     * @return the x coordinate of the player
+     */
+    public float getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * @return the y coordinate of the player
+     */
+    public float getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * @return the width of the player
+     */
+    public float getPlayerWidth() {
+        return playerWidth;
+    }
+
+    /**
+     * @return the height of the player
+     */
+    public float getPlayerHeight() {
+        return playerHeight;
+    }
+
+    /**
+     * @return the player's current health
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * @return the player's maximum health
+     */
+    public int getMaximumHealth() {
+        return maximumHealth;
+    }
+
+    /**
+     * @return the fraction of the player's flight time left
+     */
+    public float getFlight() {
+        return flight;
+    }
+
+    /**
+     * @return the player's score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Sets the description of the current objective.
+     *
+     * @param objective the description
+     */
+    public void setObjective(String objective) {
+        this.objective = objective;
+    }
+
+    /**
+     * @return the description of the current objective
+     */
+    public String getObjective() {
+        return objective;
+    }
+}
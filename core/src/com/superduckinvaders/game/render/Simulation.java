@@ -0,0 +1,179 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.entity.Entity;
+import com.superduckinvaders.game.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Updates a Round on a thread of its own, sixty times a second, publishing a RenderSnapshot of it after every update.
+ * <p>
+ * The render thread only ever reads the snapshots, so updating and drawing overlap, and a slow frame on one side
+ * doesn't hold up the other. Anything else the Round needs from the render thread goes through it: the player's input
+ * is sampled by LiveInputSource, sounds are queued in the Round's SoundQueue, and screen changes are posted to the
+ * application.
+ */
+public class Simulation implements Runnable {
+
+    /**
+     * How long each update is given, in nanoseconds, so that the Round updates as often as it did when it was updated
+     * once per frame.
+     */
+    private static final long UPDATE_NANOS = 1000000000L / 60;
+
+    /**
+     * The round being updated.
+     */
+    private final Round round;
+
+    /**
+     * Where the snapshots are published.
+     */
+    private final SnapshotBuffer snapshots;
+
+    /**
+     * The entities in the order they are drawn. Kept separate from the Round's entity list so that sorting for
+     * rendering never changes the order entities are updated in.
+     */
+    private final ArrayList<Entity> renderOrder = new ArrayList<Entity>(128);
+
+    /**
+     * Decides the order entities are drawn in.
+     */
+    private final Entity.EntityComparator entityComparator = new Entity.EntityComparator();
+
+    /**
+     * The thread updating the round, or null if it isn't running.
+     */
+    private Thread thread;
+
+    /**
+     * Whether the thread should keep updating the round.
+     */
+    private volatile boolean running = false;
+
+    /**
+     * What stopped the thread, if it failed.
+     */
+    private volatile Throwable error;
+
+    /**
+     * Initialises a Simulation.
+     *
+     * @param round     the round to update
+     * @param snapshots where to publish the snapshots
+     */
+    public Simulation(Round round, SnapshotBuffer snapshots) {
+        this.round = round;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Publishes a snapshot of the round as it is, so there is something to draw straight away, then starts updating
+     * it. Does nothing if it is already being updated.
+     */
+    public void start() {
+        if (thread != null) {
+            return;
+        }
+
+        capture(snapshots.getBack());
+        snapshots.publish();
+
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops updating the round, waiting for the update in progress to finish. Does nothing if it isn't being updated.
+     */
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+
+        running = false;
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        thread = null;
+    }
+
+    /**
+     * Throws on the calling thread whatever stopped the simulation thread, if it failed.
+     */
+    public void checkError() {
+        if (error != null) {
+            throw new GdxRuntimeException("The simulation failed", error);
+        }
+    }
+
+    /**
+     * Updates the round and publishes a snapshot of it until stopped, sleeping out whatever is left of each update's
+     * time. The time passed to each update is the time since the last one.
+     */
+    @Override
+    public void run() {
+        long last = System.nanoTime(), next = last;
+
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                round.update((now - last) / 1000000000f);
+                last = now;
+
+                capture(snapshots.getBack());
+                snapshots.publish();
+
+                next += UPDATE_NANOS;
+                long wait = next - System.nanoTime();
+
+                if (wait > 0) {
+                    Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                } else if (wait < -UPDATE_NANOS) {
+                    // Don't rush through updates to catch up after a slow one.
+                    next = System.nanoTime();
+                }
+            }
+        } catch (Throwable t) {
+            error = t;
+        }
+    }
+
+    /**
+     * Writes what the round looks like now into a snapshot.
+     *
+     * @param snapshot the snapshot to write
+     */
+    private void capture(RenderSnapshot snapshot) {
+        snapshot.clear();
+
+        renderOrder.clear();
+        renderOrder.addAll(round.getEntities());
+        try {
+            Collections.sort(renderOrder, entityComparator);
+        } catch (IllegalArgumentException e) {
+        }
+
+        for (int i = 0; i < renderOrder.size(); i++) {
+            renderOrder.get(i).snapshot(snapshot);
+        }
+
+        round.floatyNumbersManager.snapshot(snapshot);
+        round.powerUpManager.snapshot(snapshot);
+
+        Player player = round.getPlayer();
+        snapshot.setPlayer(player.getX(), player.getY(), player.getWidth(), player.getHeight(), player.getCurrentHealth(),
+                player.getMaximumHealth(), player.getFlyingTimer() / Player.PLAYER_MAX_FLIGHT_TIME, player.getScore());
+        snapshot.setObjective(round.getObjective().getObjectiveString());
+    }
+}
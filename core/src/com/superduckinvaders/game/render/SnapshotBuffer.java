@@ -0,0 +1,70 @@
+package com.superduckinvaders.game.render;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands RenderSnapshots from the simulation thread to the render thread without either ever waiting for the other.
+ * <p>
+ * There are three snapshots: the back one, being written by the simulation, the front one, being drawn, and the
+ * latest one published between them. Publishing swaps the back snapshot with the latest, and taking the front
+ * snapshot swaps it with the latest if a newer one has been published since. If the simulation runs ahead, the render
+ * thread skips straight to the newest snapshot; if it falls behind, the render thread draws the same one again.
+ */
+public class SnapshotBuffer {
+
+    /**
+     * Set in latest while the snapshot there hasn't been taken by the render thread yet.
+     */
+    private static final int FRESH = 4;
+
+    /**
+     * The three snapshots.
+     */
+    private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+
+    /**
+     * The index of the latest snapshot, with FRESH set if it hasn't been taken yet.
+     */
+    private final AtomicInteger latest = new AtomicInteger(1);
+
+    /**
+     * The index of the snapshot being written. Only used by the simulation thread.
+     */
+    private int back = 0;
+
+    /**
+     * The index of the snapshot being drawn. Only used by the render thread.
+     */
+    private int front = 2;
+
+    /**
+     * Gets the snapshot to write the next update into. Only to be called from the simulation thread.
+     *
+     * @return the back snapshot
+     */
+    public RenderSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    /**
+     * Publishes the back snapshot as the latest, and takes the snapshot it replaces to write the next update into.
+     * Only to be called from the simulation thread.
+     */
+    public void publish() {
+        back = latest.getAndSet(back | FRESH) & ~FRESH;
+    }
+
+    /**
+     * Gets the snapshot to draw: the latest one published, or the one drawn last time if none has been published
+     * since. Only to be called from the render thread.
+     *
+     * @return the front snapshot
+     */
+    public RenderSnapshot getFront() {
+        if ((latest.get() & FRESH) != 0) {
+            front = latest.getAndSet(front) & ~FRESH;
+        }
+
+        return snapshots[front];
+    }
+}
@@ -0,0 +1,78 @@
+package com.superduckinvaders.game.render;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * A way of drawing sprites, such as the player or a mob with particular textures, picking the textures for each
+ * sprite of a RenderSnapshot from its facing, animation time and flags.
+ * <p>
+ * Snapshots refer to kinds by id. Entities look their kind's id up with idOf when they are created, on the simulation
+ * thread, and the render thread looks the kind up again with get. Equal kinds share an id, so kinds with parameters
+ * must implement equals and hashCode.
+ */
+public abstract class SpriteKind {
+
+    /**
+     * The id of each kind registered so far.
+     */
+    private static final ObjectIntMap<SpriteKind> ids = new ObjectIntMap<SpriteKind>();
+
+    /**
+     * The kinds registered so far, indexed by id. Replaced whenever a kind is added, so the render thread can read it
+     * without locking.
+     */
+    private static volatile SpriteKind[] kinds = new SpriteKind[0];
+
+    /**
+     * Gets the id of a kind, registering it if no equal kind has been yet.
+     *
+     * @param kind the kind
+     * @return the kind's id
+     */
+    public static synchronized int idOf(SpriteKind kind) {
+        int id = ids.get(kind, -1);
+
+        if (id == -1) {
+            id = kinds.length;
+            ids.put(kind, id);
+
+            SpriteKind[] grown = Arrays.copyOf(kinds, id + 1);
+            grown[id] = kind;
+            kinds = grown;
+        }
+
+        return id;
+    }
+
+    /**
+     * Gets a kind by id.
+     *
+     * @param id the id, as returned by idOf
+     * @return the kind
+     */
+    public static SpriteKind get(int id) {
+        return kinds[id];
+    }
+
+    /**
+     * Draws a sprite.
+     *
+     * @param batch    the batch to draw to, projected to world coordinates
+     * @param snapshot the snapshot holding the sprite
+     * @param index    the index of the sprite
+     */
+    public abstract void draw(Batch batch, RenderSnapshot snapshot, int index);
+
+    /**
+     * Draws the health bar over a sprite. Draws nothing unless overridden.
+     *
+     * @param batch    the batch to draw to, projected to world UI coordinates
+     * @param snapshot the snapshot holding the sprite
+     * @param index    the index of the sprite
+     */
+    public void drawHealthBar(Batch batch, RenderSnapshot snapshot, int index) {
+    }
+}
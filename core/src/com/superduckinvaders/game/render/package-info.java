@@ -0,0 +1,5 @@
+/**
+ * Contains the split between simulation and rendering: the thread a Round is updated on, the snapshots of what to
+ * draw that it hands the render thread, and the sprite kinds that know how to draw each entry of a snapshot.
+ */
+package com.superduckinvaders.game.render;
@@ -0,0 +1,56 @@
+package com.superduckinvaders.game.ui;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Draws fill bars (health, stamina and powerup timers) straight into a batch.
+ * The filled part is drawn by cutting down its texture coordinates instead of resizing the shared TextureRegion,
+ * so bars never change shared state and any number of bars sharing a texture are drawn in a single draw call.
+ */
+public final class BarRenderer {
+
+    /**
+     * Not instantiable.
+     */
+    private BarRenderer() {
+    }
+
+    /**
+     * Draws a bar: the empty region in full with the full region over it, cut to the fill fraction.
+     *
+     * @param batch    the batch to draw to
+     * @param empty    the region for the empty bar
+     * @param full     the region for the full bar
+     * @param x        the x coordinate of the bar's bottom left corner
+     * @param y        the y coordinate of the bar's bottom left corner
+     * @param fraction how full the bar is, from 0 to 1
+     */
+    public static void draw(Batch batch, TextureRegion empty, TextureRegion full, float x, float y, float fraction) {
+        batch.draw(empty, x, y);
+        drawFill(batch, full, x, y, fraction);
+    }
+
+    /**
+     * Draws the left part of a region, cut to the fill fraction.
+     * The width is rounded down to a whole number of texels to keep the bar end crisp.
+     *
+     * @param batch    the batch to draw to
+     * @param full     the region for the full bar
+     * @param x        the x coordinate of the bar's bottom left corner
+     * @param y        the y coordinate of the bar's bottom left corner
+     * @param fraction how full the bar is, from 0 to 1
+     */
+    public static void drawFill(Batch batch, TextureRegion full, float x, float y, float fraction) {
+        int width = (int) (full.getRegionWidth() * Math.max(0, Math.min(1, fraction)));
+
+        if (width == 0) {
+            return;
+        }
+
+        float u2 = full.getU() + (full.getU2() - full.getU()) * width / full.getRegionWidth();
+
+        // Regions are drawn with v2 at the bottom and v at the top.
+        batch.draw(full.getTexture(), x, y, width, full.getRegionHeight(), full.getU(), full.getV2(), u2, full.getV());
+    }
+}
@@ -0,0 +1,149 @@
+package com.superduckinvaders.game.ui;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * A piece of text whose glyph layout is cached and only rebuilt when the text changes.
+ * Drawing it, including its drop shadow, needs no string building or layout.
+ */
+public class CachedText {
+
+    /**
+     * The cached glyphs, laid out at the origin and moved to wherever the text is drawn.
+     */
+    private final BitmapFontCache cache;
+
+    /**
+     * The horizontal alignment of the text relative to the position it's drawn at (one of the Align constants).
+     */
+    private final int align;
+
+    /**
+     * The text currently laid out.
+     */
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * The last string set with setText.
+     */
+    private CharSequence lastString;
+
+    /**
+     * The last number set with setNumber, and whether the text currently shows it.
+     */
+    private int lastNumber;
+    private boolean showingNumber = false;
+
+    /**
+     * Initialises this CachedText, left aligned.
+     *
+     * @param font the font to draw with
+     */
+    public CachedText(BitmapFont font) {
+        this(font, Align.left);
+    }
+
+    /**
+     * Initialises this CachedText.
+     *
+     * @param font  the font to draw with
+     * @param align the horizontal alignment relative to the position the text is drawn at (one of the Align constants)
+     */
+    public CachedText(BitmapFont font, int align) {
+        this.cache = new BitmapFontCache(font, font.usesIntegerPositions());
+        this.align = align;
+    }
+
+    /**
+     * Sets the text, laying it out again only if a different string is passed.
+     *
+     * @param string the new text
+     */
+    public void setText(CharSequence string) {
+        setText("", string);
+    }
+
+    /**
+     * Sets the text to a string after a prefix, laying it out again only if a different string is passed. Strings
+     * are compared by identity, so callers should keep passing the same instance while the text is unchanged. The
+     * prefix must stay the same for the lifetime of this CachedText.
+     *
+     * @param prefix the text before the string
+     * @param string the string
+     */
+    public void setText(String prefix, CharSequence string) {
+        if (string == lastString) {
+            return;
+        }
+
+        lastString = string;
+        showingNumber = false;
+
+        text.setLength(0);
+        text.append(prefix).append(string);
+        layout();
+    }
+
+    /**
+     * Sets the text to a number between a prefix and a suffix, laying it out again only if the number has changed.
+     * The prefix and suffix must stay the same for the lifetime of this CachedText.
+     *
+     * @param prefix the text before the number
+     * @param number the number
+     * @param suffix the text after the number
+     */
+    public void setNumber(String prefix, int number, String suffix) {
+        if (showingNumber && number == lastNumber) {
+            return;
+        }
+
+        lastNumber = number;
+        showingNumber = true;
+        lastString = null;
+
+        text.setLength(0);
+        text.append(prefix).append(number).append(suffix);
+        layout();
+    }
+
+    /**
+     * Lays out the current text at the origin.
+     */
+    private void layout() {
+        cache.setText(text, 0, 0, 0, align, false);
+    }
+
+    /**
+     * Draws the text in a single colour.
+     *
+     * @param batch the batch to draw to
+     * @param x     the x coordinate to draw at
+     * @param y     the y coordinate of the top of the text
+     * @param color the colour of the text
+     */
+    public void draw(Batch batch, float x, float y, Color color) {
+        cache.setPosition(x, y);
+        cache.setColors(color);
+        cache.draw(batch);
+    }
+
+    /**
+     * Draws the text with a drop shadow. Both passes reuse the same cached glyphs.
+     *
+     * @param batch         the batch to draw to
+     * @param x             the x coordinate to draw at
+     * @param y             the y coordinate of the top of the text
+     * @param color         the colour of the text
+     * @param shadowColor   the colour of the shadow
+     * @param shadowOffset  how far below the text the shadow is drawn
+     */
+    public void draw(Batch batch, float x, float y, Color color, Color shadowColor, float shadowOffset) {
+        draw(batch, x, y - shadowOffset, shadowColor);
+        draw(batch, x, y, color);
+    }
+}
@@ -1,7 +1,7 @@
 package com.superduckinvaders.game.ui;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.superduckinvaders.game.assets.Assets;
+import com.badlogic.gdx.graphics.Color;
+import com.superduckinvaders.game.render.RenderSnapshot;
 
 /**
  * A floaty number is a text string that will -once spawned- perform a simple movement before disappearing
@@ -22,9 +22,14 @@ public class FloatyNumber {
      */
     private float x,y, velx, vely, accx, accy;
     /**
-     * The string to render
+     * The string to render. It is laid out on the render thread, which keeps its own layouts
      */
-    private String chars;
+    private final String text;
+
+    /**
+     * The colour of score numbers, as RGBA8888
+     */
+    private static final int SCORE_COLOR = Color.rgba8888(Color.WHITE);
 
     /**
      * How old the FloatyNumber is
@@ -59,7 +64,7 @@ public class FloatyNumber {
         this.y = y;
         this.STARTX=x;
         this.STARTY=y;
-        this.chars=chars;
+        this.text = chars;
 
         age = MAXAGE;
 
@@ -110,25 +115,17 @@ public class FloatyNumber {
     }
 
     /**
-     * Renders the character at the current x and y positions
-     * Colour is decided by the type of the floaty number
-     * @param batch
+     * Adds the character at the current x and y positions to a snapshot
+     * Colour is decided by the type of the floaty number, and the shadow fades with it
+     * @param snapshot the snapshot to add to
      */
-    public void render(SpriteBatch batch){
-        if(type==floatyNumberType.DAMAGE) {
-            Assets.font.setColor(0f, 0f, 0f, opacity);
-        }
-        else{
-            Assets.font.setColor(0f, 0f, 0f, 1.0f);
-        }
-        Assets.font.draw(batch, chars, x*2, y*2-2);
+    public void snapshot(RenderSnapshot snapshot){
         if(type==floatyNumberType.DAMAGE) {
-            Assets.font.setColor(1.0f, 00f, 00f, opacity);
+            snapshot.addText(text, x*2, y*2, Color.rgba8888(1.0f, 0f, 0f, opacity));
         }
         else{
-            Assets.font.setColor(1.0f, 1.0f, 1.0f, 1.0f);
+            snapshot.addText(text, x*2, y*2, SCORE_COLOR);
         }
-        Assets.font.draw(batch, chars, x*2, y*2);
     }
 
     /**
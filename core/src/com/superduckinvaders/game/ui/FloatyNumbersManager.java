@@ -1,6 +1,6 @@
 package com.superduckinvaders.game.ui;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.superduckinvaders.game.render.RenderSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -43,12 +43,12 @@ public class FloatyNumbersManager {
     }
 
     /**
-     * Renders all the floaty numbers by calling their render functions
-     * @param batch
+     * Adds all the floaty numbers to a snapshot by calling their snapshot functions
+     * @param snapshot the snapshot to add to
      */
-    public void render(SpriteBatch batch){
+    public void snapshot(RenderSnapshot snapshot){
         for(FloatyNumber thisNumber : numbersList){
-            thisNumber.render(batch);
+            thisNumber.snapshot(snapshot);
         }
     }
 
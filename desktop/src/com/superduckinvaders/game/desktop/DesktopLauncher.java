@@ -4,12 +4,18 @@
 
 package com.superduckinvaders.game.desktop;
 
+import com.badlogic.gdx.Files;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl.LwjglFileHandle;
 import com.superduckinvaders.game.DuckGame;
 
 /**
  * Desktop launcher for Super Duck Invaders.
+ * Pass "--record &lt;directory&gt;" to record every round played, or "--replay &lt;file&gt;" to watch a recording.
+ * Pass "--physics" to play with the Box2D collision backend, and "--survival" to play endless survival rounds.
+ * Pass "--world &lt;file&gt;" to play every level on a chunked map file, made with MapChunker, or "--generate &lt;size&gt;"
+ * to play every round on a newly generated map that many tiles across.
  */
 public class DesktopLauncher {
 	public static void main (String[] arg) {
@@ -18,6 +24,26 @@ public class DesktopLauncher {
 		config.height = 720;
 		config.resizable = false;
 		config.title = "The Empire Strikes Quack";
-		new LwjglApplication(new DuckGame(), config);
+
+		DuckGame game = new DuckGame();
+		for (int i = 0; i < arg.length; i++) {
+			if (arg[i].equals("--record") && i + 1 < arg.length) {
+				LwjglFileHandle directory = new LwjglFileHandle(arg[++i], Files.FileType.Absolute);
+				directory.mkdirs();
+				game.setReplayDirectory(directory);
+			} else if (arg[i].equals("--replay") && i + 1 < arg.length) {
+				game.setStartupReplay(new LwjglFileHandle(arg[++i], Files.FileType.Absolute));
+			} else if (arg[i].equals("--physics")) {
+				game.setUsePhysics(true);
+			} else if (arg[i].equals("--survival")) {
+				game.setSurvival(true);
+			} else if (arg[i].equals("--world") && i + 1 < arg.length) {
+				game.setWorldFile(new LwjglFileHandle(arg[++i], Files.FileType.Absolute));
+			} else if (arg[i].equals("--generate") && i + 1 < arg.length) {
+				game.setGeneratedMapSize(Integer.parseInt(arg[++i]));
+			}
+		}
+
+		new LwjglApplication(game, config);
 	}
-}
\ No newline at end of file
+}
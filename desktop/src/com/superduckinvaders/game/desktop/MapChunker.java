@@ -0,0 +1,71 @@
+package com.superduckinvaders.game.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.HeadlessFileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.superduckinvaders.game.map.ChunkedMapWriter;
+
+/**
+ * Converts a TMX map into a chunked map file, which the game streams in around the player instead of loading whole.
+ * The chunked map loads its tiles from the TMX map, so it must stay in the assets.
+ * <p>
+ * Usage: MapChunker &lt;internal path of the TMX map&gt; &lt;chunked map file to write&gt;
+ */
+public class MapChunker extends ApplicationAdapter {
+
+    /**
+     * The internal path of the TMX map to convert.
+     */
+    private final String source;
+
+    /**
+     * The absolute path of the chunked map file to write.
+     */
+    private final String destination;
+
+    /**
+     * Initialises a MapChunker.
+     *
+     * @param source      the internal path of the TMX map to convert
+     * @param destination the absolute path of the chunked map file to write
+     */
+    public MapChunker(String source, String destination) {
+        this.source = source;
+        this.destination = destination;
+    }
+
+    /**
+     * Converts the map.
+     *
+     * @param arg the command line arguments
+     */
+    public static void main(String[] arg) {
+        if (arg.length != 2) {
+            System.err.println("Usage: MapChunker <internal path of the TMX map> <chunked map file to write>");
+            System.exit(2);
+        }
+
+        new HeadlessApplication(new MapChunker(arg[0], arg[1]), new HeadlessApplicationConfiguration());
+    }
+
+    /**
+     * Converts the map and exits. Called by libGDX once the headless backend is ready.
+     */
+    @Override
+    public void create() {
+        // The map's textures have to be uploaded somewhere, even though they aren't drawn.
+        Gdx.gl = Gdx.gl20 = ReplayBenchmark.createNullGL();
+
+        TiledMap map = new TmxMapLoader().load(source);
+        ChunkedMapWriter.write(map, source, new HeadlessFileHandle(destination, Files.FileType.Absolute));
+        map.dispose();
+
+        System.out.println("Wrote " + destination);
+        System.exit(0);
+    }
+}
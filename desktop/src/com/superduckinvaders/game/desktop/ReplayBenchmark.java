@@ -0,0 +1,452 @@
+package com.superduckinvaders.game.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.HeadlessFileHandle;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.Array;
+import com.superduckinvaders.game.Round;
+import com.superduckinvaders.game.assets.Assets;
+import com.superduckinvaders.game.ecs.Workers;
+import com.superduckinvaders.game.entity.Character;
+import com.superduckinvaders.game.entity.Entity;
+import com.superduckinvaders.game.input.Replay;
+import com.superduckinvaders.game.input.ReplayInputSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Replays a corpus of recorded sessions headless and as fast as possible, reporting how fast the simulation ran.
+ * <p>
+ * For each replay this prints ticks per second, allocation rate, p99 and max tick time, the path cache hit ratio,
+ * and a hash of the final game state. If a replay has a ".hash" file next to it, the final state must match it or the simulation has diverged.
+ * The exit code is non-zero if any budget is exceeded or any replay diverges, so it can be used to gate merges.
+ * <p>
+ * Usage: ReplayBenchmark [options] &lt;replay files or directories&gt;
+ * <ul>
+ * <li>--budget &lt;file&gt; a properties file containing any of the budget keys below</li>
+ * <li>--min-tps &lt;n&gt; minimum ticks per second</li>
+ * <li>--max-p99-ms &lt;n&gt; maximum 99th percentile tick time in milliseconds</li>
+ * <li>--max-tick-ms &lt;n&gt; maximum tick time in milliseconds</li>
+ * <li>--max-alloc-mbps &lt;n&gt; maximum allocation rate in megabytes per second</li>
+ * <li>--warmup &lt;n&gt; how many times to replay each session before measuring it</li>
+ * <li>--write-hashes record the final state hash of each replay instead of checking it</li>
+ * <li>--threads &lt;n&gt; how many worker threads the simulation splits parallel work across. Hashes must match
+ * whatever the number.</li>
+ * <li>--physics run every replay with the Box2D collision backend, to compare it against the built-in one. Replays
+ * recorded with the other backend play out differently, so their hashes aren't checked.</li>
+ * </ul>
+ */
+public class ReplayBenchmark extends ApplicationAdapter {
+
+    /**
+     * Budget keys, usable in a budget file or as command line options.
+     */
+    private static final String MIN_TPS = "min-tps", MAX_P99_MS = "max-p99-ms", MAX_TICK_MS = "max-tick-ms",
+                                MAX_ALLOC_MBPS = "max-alloc-mbps";
+
+    /**
+     * The budgets every replay must meet.
+     */
+    private final Properties budget = new Properties();
+
+    /**
+     * The replay files to run.
+     */
+    private final Array<FileHandle> replays = new Array<FileHandle>();
+
+    /**
+     * How many unmeasured runs of each replay to do first, to let the JIT compiler settle.
+     */
+    private int warmup = 0;
+
+    /**
+     * Whether to write hash files instead of checking them.
+     */
+    private boolean writeHashes = false;
+
+    /**
+     * Whether to force every replay to use the Box2D collision backend.
+     */
+    private boolean forcePhysics = false;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param arg the command line arguments
+     */
+    public static void main(String[] arg) {
+        ReplayBenchmark benchmark = new ReplayBenchmark();
+
+        for (int i = 0; i < arg.length; i++) {
+            if (arg[i].equals("--budget")) {
+                benchmark.loadBudget(arg[++i]);
+            } else if (arg[i].equals("--warmup")) {
+                benchmark.warmup = Integer.parseInt(arg[++i]);
+            } else if (arg[i].equals("--write-hashes")) {
+                benchmark.writeHashes = true;
+            } else if (arg[i].equals("--threads")) {
+                Workers.setParallelism(Integer.parseInt(arg[++i]));
+            } else if (arg[i].equals("--physics")) {
+                benchmark.forcePhysics = true;
+            } else if (arg[i].startsWith("--")) {
+                benchmark.budget.setProperty(arg[i].substring(2), arg[++i]);
+            } else {
+                benchmark.addReplays(new HeadlessFileHandle(arg[i], Files.FileType.Absolute));
+            }
+        }
+
+        if (benchmark.replays.size == 0) {
+            System.err.println("Usage: ReplayBenchmark [options] <replay files or directories>");
+            System.exit(2);
+        }
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(benchmark, config);
+    }
+
+    /**
+     * Loads budgets from a properties file.
+     *
+     * @param path the path of the properties file
+     */
+    private void loadBudget(String path) {
+        InputStream in = new HeadlessFileHandle(path, Files.FileType.Absolute).read();
+
+        try {
+            budget.load(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Couldn't read budget file " + path, e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // Already read.
+            }
+        }
+    }
+
+    /**
+     * Adds a replay file, or every replay in a directory.
+     *
+     * @param file the file or directory
+     */
+    private void addReplays(FileHandle file) {
+        if (file.isDirectory()) {
+            FileHandle[] children = file.list(".sdr");
+            Arrays.sort(children, new java.util.Comparator<FileHandle>() {
+                @Override
+                public int compare(FileHandle o1, FileHandle o2) {
+                    return o1.name().compareTo(o2.name());
+                }
+            });
+
+            for (FileHandle child : children) {
+                replays.add(child);
+            }
+        } else {
+            replays.add(file);
+        }
+    }
+
+    /**
+     * Runs every replay and exits with the result. Called by libGDX once the headless backend is ready.
+     */
+    @Override
+    public void create() {
+        // The headless backend has no OpenGL, but assets still need somewhere to upload their textures.
+        Gdx.gl = Gdx.gl20 = createNullGL();
+        Assets.load();
+
+        boolean failed = false;
+
+        System.out.println("replay                          ticks    ticks/s  alloc MB/s  p99 ms  max ms  path hit%  state hash");
+
+        for (FileHandle file : replays) {
+            Replay replay = Replay.load(file);
+
+            for (int i = 0; i < warmup; i++) {
+                run(replay);
+            }
+
+            Result result = run(replay);
+            System.out.println(String.format("%-30s %7d %10.0f %11.1f %7.2f %7.2f %10.1f  %016x", file.name(), result.ticks,
+                    result.ticksPerSecond(), result.allocationRate(), result.percentile(0.99), result.percentile(1),
+                    result.pathHitRatio * 100, result.stateHash));
+
+            failed |= !checkBudget(result);
+
+            if (!forcePhysics || replay.usesPhysics()) {
+                failed |= !checkHash(file, result);
+            }
+        }
+
+        System.out.println(failed ? "FAILED" : "OK");
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * Replays a session as fast as possible.
+     *
+     * @param replay the replay to run
+     * @return the measurements taken
+     */
+    private Result run(Replay replay) {
+        Round round = replay.createRound(null, forcePhysics || replay.usesPhysics());
+        ReplayInputSource input = new ReplayInputSource(replay);
+        round.setInputSource(input);
+
+        Result result = new Result(replay.getFrameCount());
+        long startAllocated = getAllocatedBytes();
+        long start = System.nanoTime();
+
+        while (input.hasNext() && !round.isFinished()) {
+            long tickStart = System.nanoTime();
+            round.update(0);
+            result.tickTimes[result.ticks++] = System.nanoTime() - tickStart;
+        }
+
+        result.totalTime = System.nanoTime() - start;
+        result.allocated = getAllocatedBytes() - startAllocated;
+        result.stateHash = hashState(round);
+        result.pathHitRatio = round.getPathCache().getHitRatio();
+
+        round.dispose();
+        return result;
+    }
+
+    /**
+     * Checks a result against the budgets, printing any that are exceeded.
+     *
+     * @param result the result to check
+     * @return true if every budget was met
+     */
+    private boolean checkBudget(Result result) {
+        boolean ok = true;
+
+        ok &= check(MIN_TPS, result.ticksPerSecond(), false);
+        ok &= check(MAX_P99_MS, result.percentile(0.99), true);
+        ok &= check(MAX_TICK_MS, result.percentile(1), true);
+        ok &= check(MAX_ALLOC_MBPS, result.allocationRate(), true);
+
+        return ok;
+    }
+
+    /**
+     * Checks a single budget.
+     *
+     * @param key     the budget key
+     * @param value   the measured value
+     * @param maximum whether the budget is a maximum (true) or a minimum (false)
+     * @return true if the budget isn't set or was met
+     */
+    private boolean check(String key, double value, boolean maximum) {
+        String limit = budget.getProperty(key);
+
+        if (limit == null) {
+            return true;
+        }
+
+        double limitValue = Double.parseDouble(limit);
+
+        if (maximum ? value > limitValue : value < limitValue) {
+            System.out.println(String.format("  over budget: %s is %.2f, limit %s", key, value, limit));
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks the final state hash of a replay against its hash file, or writes the hash file.
+     *
+     * @param file   the replay file
+     * @param result the result of running the replay
+     * @return false if the replay diverged from its recorded hash
+     */
+    private boolean checkHash(FileHandle file, Result result) {
+        FileHandle hashFile = file.sibling(file.name() + ".hash");
+        String hash = String.format("%016x", result.stateHash);
+
+        if (writeHashes) {
+            hashFile.writeString(hash, false);
+        } else if (hashFile.exists() && !hashFile.readString().trim().equals(hash)) {
+            System.out.println("  diverged: expected state hash " + hashFile.readString().trim());
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Hashes the state of a round: the player's score and every entity's position and health, in update order.
+     *
+     * @param round the round to hash
+     * @return the hash
+     */
+    private static long hashState(Round round) {
+        long hash = 0xcbf29ce484222325L;
+
+        hash = mix(hash, round.getPlayer().getScore());
+        hash = mix(hash, round.getEntities().size());
+
+        for (Entity entity : round.getEntities()) {
+            hash = mix(hash, entity.getClass().getName().hashCode());
+            hash = mix(hash, Float.floatToIntBits(entity.getX()));
+            hash = mix(hash, Float.floatToIntBits(entity.getY()));
+
+            if (entity instanceof Character) {
+                hash = mix(hash, ((Character) entity).getCurrentHealth());
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Mixes a value into an FNV-1a hash.
+     */
+    private static long mix(long hash, int value) {
+        for (int i = 0; i < 4; i++) {
+            hash ^= (value >>> (i * 8)) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Gets the number of bytes allocated so far by every live thread, so that allocations made by the worker threads
+     * are counted along with this one's. Threads that have since finished aren't counted.
+     *
+     * @return the number of bytes allocated, or 0 if the JVM can't tell us
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+
+        long[] allocated = ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threads.getAllThreadIds());
+        long total = 0;
+
+        for (long bytes : allocated) {
+            // Threads that finished since their IDs were read report -1.
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Creates an implementation of GL20 where every call does nothing and returns zero.
+     *
+     * @return the GL20 implementation
+     */
+    static GL20 createNullGL() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                Class<?> type = method.getReturnType();
+
+                if (type == boolean.class) {
+                    return false;
+                } else if (type == int.class) {
+                    return 0;
+                } else if (type == float.class) {
+                    return 0f;
+                } else if (type == String.class) {
+                    return "";
+                }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Measurements from one run of a replay.
+     */
+    private static class Result {
+
+        /**
+         * How long each tick took, in nanoseconds.
+         */
+        private final long[] tickTimes;
+
+        /**
+         * How many ticks were run.
+         */
+        private int ticks = 0;
+
+        /**
+         * The total time taken, in nanoseconds.
+         */
+        private long totalTime;
+
+        /**
+         * How many bytes were allocated.
+         */
+        private long allocated;
+
+        /**
+         * The hash of the final game state.
+         */
+        private long stateHash;
+
+        /**
+         * The fraction of mob path queries answered from the path cache.
+         */
+        private float pathHitRatio;
+
+        private Result(int frames) {
+            tickTimes = new long[frames];
+        }
+
+        /**
+         * @return how many ticks were run per second
+         */
+        private double ticksPerSecond() {
+            return totalTime == 0 ? 0 : ticks / (totalTime / 1e9);
+        }
+
+        /**
+         * @return how many megabytes were allocated per second
+         */
+        private double allocationRate() {
+            return totalTime == 0 ? 0 : (allocated / (1024.0 * 1024.0)) / (totalTime / 1e9);
+        }
+
+        /**
+         * Gets a percentile of the tick times.
+         *
+         * @param percentile the percentile, between 0 and 1
+         * @return the tick time at that percentile, in milliseconds
+         */
+        private double percentile(double percentile) {
+            if (ticks == 0) {
+                return 0;
+            }
+
+            long[] sorted = Arrays.copyOf(tickTimes, ticks);
+            Arrays.sort(sorted);
+
+            return sorted[(int) Math.max(0, Math.min(ticks - 1, Math.ceil(percentile * ticks) - 1))] / 1e6;
+        }
+    }
+}